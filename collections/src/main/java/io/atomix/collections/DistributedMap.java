@@ -663,6 +663,36 @@ public class DistributedMap<K, V> extends AbstractResource<DistributedMap<K, V>>
     return client.submit(new MapCommands.Put(key, value, ttl.toMillis())).thenApply(result -> (V) result);
   }
 
+  /**
+   * Puts a value in the map if the given fencing token is not older than the key's current fencing token.
+   * <p>
+   * Fencing tokens are monotonically increasing values such as the tokens with which a
+   * {@code io.atomix.concurrent.DistributedLock} is granted. The map tracks the greatest token with which each key
+   * has been written. If the provided {@code token} is less than the key's current token, the write is rejected and
+   * the returned {@link CompletableFuture} is completed {@code false}. This allows a process that has lost a lock,
+   * e.g. because its lease expired or it was paused, to be prevented from overwriting values written by the
+   * current lock holder.
+   * <p>
+   * The key's fencing token is retained when the value is later replaced by an unfenced write such as
+   * {@link #put(Object, Object)} and is cleared once the key is removed from the map.
+   * <pre>
+   *   {@code
+   *   lock.lock().thenCompose(token -> map.fencedPut("key", "Hello world!", token)).thenAccept(written -> {
+   *     ...
+   *   });
+   *   }
+   * </pre>
+   *
+   * @param key The key to set.
+   * @param value The value to set.
+   * @param token The fencing token with which to write the value.
+   * @return A completable future to be completed with a boolean indicating whether the value was written.
+   * @throws NullPointerException if {@code key} is {@code null}
+   */
+  public CompletableFuture<Boolean> fencedPut(K key, V value, long token) {
+    return client.submit(new MapCommands.FencedPut(key, value, token));
+  }
+
   /**
    * Puts a value in the map if the given {@code key} does not exist.
    * <p>
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.collections;
+
+import io.atomix.catalyst.util.Assert;
+import io.atomix.collections.internal.TopicCommands;
+import io.atomix.collections.util.DistributedTopicFactory;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.resource.AbstractResource;
+import io.atomix.resource.ReadConsistency;
+import io.atomix.resource.Resource;
+import io.atomix.resource.ResourceTypeInfo;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Durable, append-only log of messages addressable by offset.
+ * <p>
+ * Unlike group messaging, which delivers messages only to members connected at the time a message is sent,
+ * the distributed topic retains published messages in the replicated state machine so that consumers can read
+ * the stream from any retained position. Each published message is assigned a monotonically increasing
+ * offset, and consumers read batches of messages by offset:
+ * <pre>
+ *   {@code
+ *   DistributedTopic<String> topic = atomix.getTopic("events").get();
+ *   topic.publish("Hello world!").thenAccept(offset -> ...);
+ *   topic.read(0, 100).thenAccept(batch -> {
+ *     batch.messages().forEach(System.out::println);
+ *     topic.commit("my-group", batch.nextOffset());
+ *   });
+ *   }
+ * </pre>
+ * Consumers that share a consumer group can {@link #commit(String, long) commit} the offset from which the group
+ * should resume reading to the cluster and later recover it via {@link #offset(String)}, allowing late joiners
+ * and restarted consumers to catch up on the stream.
+ * <h3>Retention</h3>
+ * Messages are stored in fixed-size {@link Config#withSegmentSize(int) segments}. Retention is applied to whole
+ * segments, so the oldest segment is removed once the topic holds more than {@link Config#withMaxSize(long) maxSize}
+ * messages without it or once it's older than {@link Config#withMaxAge(Duration) maxAge}. Retained segments are
+ * written to the state machine's snapshots, and offsets are preserved when the replicated log is compacted. Reads
+ * from an offset that is no longer retained begin at the first retained message; the {@link Batch#offset() offset}
+ * of the returned batch indicates where reading actually began.
+ * <h3>Consistency</h3>
+ * Reads are performed with {@link ReadConsistency#SEQUENTIAL SEQUENTIAL} consistency by default, allowing them
+ * to be served by followers rather than the leader. Sequential reads never go back in time from the perspective
+ * of a single client, so a consumer reading forward through the topic never skips messages. Stronger consistency
+ * can be requested via {@link #read(long, int, ReadConsistency)}.
+ *
+ * @param <T> The topic message type.
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@ResourceTypeInfo(id=-29, factory=DistributedTopicFactory.class)
+public class DistributedTopic<T> extends AbstractResource<DistributedTopic<T>> {
+
+  /**
+   * Topic configuration.
+   */
+  public static class Config extends Resource.Config {
+    private static final int DEFAULT_SEGMENT_SIZE = 1024;
+
+    public Config() {
+    }
+
+    public Config(Properties defaults) {
+      super(defaults);
+    }
+
+    /**
+     * Sets the number of messages per segment.
+     *
+     * @param segmentSize The number of messages per segment.
+     * @return The topic configuration.
+     * @throws IllegalArgumentException if the segment size is not positive
+     */
+    public Config withSegmentSize(int segmentSize) {
+      Assert.arg(segmentSize > 0, "segmentSize must be positive");
+      setProperty("segmentSize", String.valueOf(segmentSize));
+      return this;
+    }
+
+    /**
+     * Returns the number of messages per segment.
+     *
+     * @return The number of messages per segment.
+     */
+    public int getSegmentSize() {
+      return Integer.valueOf(getProperty("segmentSize", String.valueOf(DEFAULT_SEGMENT_SIZE)));
+    }
+
+    /**
+     * Sets the number of messages to retain.
+     * <p>
+     * Segments are removed as a whole, so the topic retains at least {@code maxSize} messages and at most
+     * {@code maxSize} plus one segment of messages.
+     *
+     * @param maxSize The number of messages to retain.
+     * @return The topic configuration.
+     * @throws IllegalArgumentException if the maximum size is not positive
+     */
+    public Config withMaxSize(long maxSize) {
+      Assert.arg(maxSize > 0, "maxSize must be positive");
+      setProperty("maxSize", String.valueOf(maxSize));
+      return this;
+    }
+
+    /**
+     * Returns the number of messages to retain.
+     *
+     * @return The number of messages to retain, or {@code 0} if the size of the topic is unbounded.
+     */
+    public long getMaxSize() {
+      return Long.valueOf(getProperty("maxSize", "0"));
+    }
+
+    /**
+     * Sets the duration for which to retain full segments.
+     * <p>
+     * A segment's age is measured from the time it was filled. The segment to which messages are currently being
+     * published is never removed.
+     *
+     * @param maxAge The duration for which to retain full segments.
+     * @return The topic configuration.
+     * @throws IllegalArgumentException if the maximum age is not positive
+     * @throws NullPointerException if the maximum age is {@code null}
+     */
+    public Config withMaxAge(Duration maxAge) {
+      Assert.arg(Assert.notNull(maxAge, "maxAge").toMillis() > 0, "maxAge must be positive");
+      setProperty("maxAge", String.valueOf(maxAge.toMillis()));
+      return this;
+    }
+
+    /**
+     * Returns the duration for which to retain full segments.
+     *
+     * @return The duration for which to retain full segments, or {@link Duration#ZERO} if segments are retained
+     *         indefinitely.
+     */
+    public Duration getMaxAge() {
+      return Duration.ofMillis(Long.valueOf(getProperty("maxAge", "0")));
+    }
+  }
+
+  /**
+   * A batch of messages read from the topic.
+   *
+   * @param <T> The topic message type.
+   */
+  public static class Batch<T> {
+    private final long offset;
+    private final long nextOffset;
+    private final List<T> messages;
+
+    public Batch(long offset, long nextOffset, List<T> messages) {
+      this.offset = offset;
+      this.nextOffset = nextOffset;
+      this.messages = Collections.unmodifiableList(messages);
+    }
+
+    /**
+     * Returns the offset of the first message in the batch.
+     * <p>
+     * The offset may be greater than the requested offset if messages preceding it are no longer retained.
+     *
+     * @return The offset of the first message in the batch.
+     */
+    public long offset() {
+      return offset;
+    }
+
+    /**
+     * Returns the offset from which to read the next batch.
+     *
+     * @return The offset following the last message in the batch.
+     */
+    public long nextOffset() {
+      return nextOffset;
+    }
+
+    /**
+     * Returns the messages in the batch.
+     *
+     * @return The messages in the batch.
+     */
+    public List<T> messages() {
+      return messages;
+    }
+
+    /**
+     * Returns a boolean indicating whether the batch is empty.
+     *
+     * @return Indicates whether the batch is empty.
+     */
+    public boolean isEmpty() {
+      return messages.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[offset=%d, nextOffset=%d]", getClass().getSimpleName(), offset, nextOffset);
+    }
+  }
+
+  public DistributedTopic(CopycatClient client, Properties options) {
+    super(client, options);
+  }
+
+  @Override
+  public Resource.Config config() {
+    return new Config(super.config());
+  }
+
+  /**
+   * Publishes a message to the topic.
+   *
+   * @param message The message to publish.
+   * @return A completable future to be completed with the offset of the published message.
+   */
+  public CompletableFuture<Long> publish(T message) {
+    return client.submit(new TopicCommands.Publish(message));
+  }
+
+  /**
+   * Reads a batch of messages from the topic with sequential consistency.
+   * <p>
+   * The returned batch will contain at most {@code maxMessages} messages beginning with the message at the given
+   * {@code offset}. If the offset is beyond the end of the topic, the returned batch will be empty.
+   *
+   * @param offset The offset from which to read.
+   * @param maxMessages The maximum number of messages to read.
+   * @return A completable future to be completed with the batch of messages.
+   * @throws IllegalArgumentException if the offset is negative or {@code maxMessages} is not positive
+   */
+  public CompletableFuture<Batch<T>> read(long offset, int maxMessages) {
+    return read(offset, maxMessages, ReadConsistency.SEQUENTIAL);
+  }
+
+  /**
+   * Reads a batch of messages from the topic.
+   *
+   * @param offset The offset from which to read.
+   * @param maxMessages The maximum number of messages to read.
+   * @param consistency The read consistency level.
+   * @return A completable future to be completed with the batch of messages.
+   * @throws IllegalArgumentException if the offset is negative or {@code maxMessages} is not positive
+   * @throws NullPointerException if the consistency level is {@code null}
+   */
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<Batch<T>> read(long offset, int maxMessages, ReadConsistency consistency) {
+    Assert.notNull(consistency, "consistency");
+    return client.submit(new TopicCommands.Read(offset, maxMessages, consistency.level()))
+      .thenApply(records -> new Batch<>(records.offset(), records.nextOffset(), (List<T>) records.messages()));
+  }
+
+  /**
+   * Commits the offset from which the given consumer group should resume reading.
+   *
+   * @param group The consumer group.
+   * @param offset The offset from which the group should resume reading.
+   * @return A completable future to be completed once the offset has been committed.
+   * @throws NullPointerException if the group is {@code null}
+   * @throws IllegalArgumentException if the offset is negative
+   */
+  public CompletableFuture<Void> commit(String group, long offset) {
+    return client.submit(new TopicCommands.CommitOffset(group, offset));
+  }
+
+  /**
+   * Returns the last offset committed by the given consumer group.
+   *
+   * @param group The consumer group.
+   * @return A completable future to be completed with the committed offset, or {@code null} if the group has
+   *         not committed an offset.
+   * @throws NullPointerException if the group is {@code null}
+   */
+  public CompletableFuture<Long> offset(String group) {
+    return offset(group, ReadConsistency.ATOMIC);
+  }
+
+  /**
+   * Returns the last offset committed by the given consumer group.
+   *
+   * @param group The consumer group.
+   * @param consistency The read consistency level.
+   * @return A completable future to be completed with the committed offset, or {@code null} if the group has
+   *         not committed an offset.
+   * @throws NullPointerException if the group or consistency level is {@code null}
+   */
+  public CompletableFuture<Long> offset(String group, ReadConsistency consistency) {
+    return client.submit(new TopicCommands.GetOffset(group, Assert.notNull(consistency, "consistency").level()));
+  }
+
+}
@@ -303,6 +303,42 @@ public class MapCommands {
     }
   }
 
+  /**
+   * Fenced put command.
+   */
+  public static class FencedPut extends TtlCommand<Boolean> {
+    private long token;
+
+    public FencedPut() {
+    }
+
+    public FencedPut(Object key, Object value, long token) {
+      super(key, value, 0);
+      this.token = token;
+    }
+
+    /**
+     * Returns the fencing token.
+     *
+     * @return The fencing token.
+     */
+    public long token() {
+      return token;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeLong(token);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      token = buffer.readLong();
+    }
+  }
+
   /**
    * Put if absent command.
    */
@@ -548,6 +584,7 @@ public class MapCommands {
       registry.register(ContainsValue.class, -66);
       registry.register(Put.class, -67);
       registry.register(PutIfAbsent.class, -68);
+      registry.register(FencedPut.class, -142);
       registry.register(Get.class, -69);
       registry.register(GetOrDefault.class, -70);
       registry.register(Remove.class, -71);
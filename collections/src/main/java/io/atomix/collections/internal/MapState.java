@@ -25,6 +25,11 @@ import java.util.*;
 
 /**
  * Map state machine.
+ * <p>
+ * Each key may be associated with a fencing token by a {@link MapCommands.FencedPut} commit. The fence is carried
+ * over to any values that later replace the key's value and is only cleared when the key is removed. Because the
+ * fence must be reproduced when the log is replayed, the commit that set the fence is retained for as long as the
+ * fence remains in effect, even after its value has been replaced.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
@@ -92,17 +97,18 @@ public class MapState extends ResourceStateMachine {
   public Object put(Commit<MapCommands.Put> commit) {
     try {
       Scheduled timer = commit.operation().ttl() > 0 ? executor.schedule(Duration.ofMillis(commit.operation().ttl()), () -> {
-        map.remove(commit.operation().key()).commit.close();
+        map.remove(commit.operation().key()).close();
       }) : null;
 
-      Value value = map.put(commit.operation().key(), new Value(commit, timer));
+      Value value = map.get(commit.operation().key());
+      map.put(commit.operation().key(), new Value(commit, timer, value != null ? value.fence : null));
       if (value != null) {
         try {
           if (value.timer != null)
             value.timer.cancel();
           return value.commit.operation().value();
         } finally {
-          value.commit.close();
+          value.replace();
         }
       }
       return null;
@@ -120,7 +126,7 @@ public class MapState extends ResourceStateMachine {
       Value value = map.get(commit.operation().key());
       if (value == null) {
         Scheduled timer = commit.operation().ttl() > 0 ? executor.schedule(Duration.ofMillis(commit.operation().ttl()), () -> {
-          map.remove(commit.operation().key()).commit.close();
+          map.remove(commit.operation().key()).close();
         }) : null;
 
         map.put(commit.operation().key(), new Value(commit, timer));
@@ -135,6 +141,30 @@ public class MapState extends ResourceStateMachine {
     }
   }
 
+  /**
+   * Handles a fenced put commit.
+   */
+  public boolean fencedPut(Commit<MapCommands.FencedPut> commit) {
+    try {
+      Value value = map.get(commit.operation().key());
+      if (value != null && value.fence != null && value.fence.operation().token() > commit.operation().token()) {
+        commit.close();
+        return false;
+      }
+
+      map.put(commit.operation().key(), new Value(commit, null, commit));
+      if (value != null) {
+        if (value.timer != null)
+          value.timer.cancel();
+        value.close();
+      }
+      return true;
+    } catch (Exception e) {
+      commit.close();
+      throw e;
+    }
+  }
+
   /**
    * Handles a remove commit.
    */
@@ -147,7 +177,7 @@ public class MapState extends ResourceStateMachine {
             value.timer.cancel();
           return value.commit.operation().value();
         } finally {
-          value.commit.close();
+          value.close();
         }
       }
       return null;
@@ -172,7 +202,7 @@ public class MapState extends ResourceStateMachine {
             value.timer.cancel();
           return true;
         } finally {
-          value.commit.close();
+          value.close();
         }
       }
     } finally {
@@ -190,13 +220,12 @@ public class MapState extends ResourceStateMachine {
         if (value.timer != null)
           value.timer.cancel();
         Scheduled timer = commit.operation().ttl() > 0 ? executor.schedule(Duration.ofMillis(commit.operation().ttl()), () -> {
-          map.remove(commit.operation().key());
-          commit.close();
+          map.remove(commit.operation().key()).close();
         }) : null;
-        map.put(commit.operation().key(), new Value(commit, timer));
+        map.put(commit.operation().key(), new Value(commit, timer, value.fence));
         return value.commit.operation().value();
       } finally {
-        value.commit.close();
+        value.replace();
       }
     } else {
       commit.close();
@@ -219,10 +248,10 @@ public class MapState extends ResourceStateMachine {
       if (value.timer != null)
         value.timer.cancel();
       Scheduled timer = commit.operation().ttl() > 0 ? executor.schedule(Duration.ofMillis(commit.operation().ttl()), () -> {
-        map.remove(commit.operation().key()).commit.close();
+        map.remove(commit.operation().key()).close();
       }) : null;
-      map.put(commit.operation().key(), new Value(commit, timer));
-      value.commit.close();
+      map.put(commit.operation().key(), new Value(commit, timer, value.fence));
+      value.replace();
       return true;
     } else {
       commit.close();
@@ -312,7 +341,7 @@ public class MapState extends ResourceStateMachine {
       Value value = entry.getValue();
       if (value.timer != null)
         value.timer.cancel();
-      value.commit.close();
+      value.close();
       iterator.remove();
     }
   }
@@ -323,10 +352,35 @@ public class MapState extends ResourceStateMachine {
   private static class Value {
     private final Commit<? extends MapCommands.TtlCommand> commit;
     private final Scheduled timer;
+    private final Commit<MapCommands.FencedPut> fence;
 
     private Value(Commit<? extends MapCommands.TtlCommand> commit, Scheduled timer) {
+      this(commit, timer, null);
+    }
+
+    private Value(Commit<? extends MapCommands.TtlCommand> commit, Scheduled timer, Commit<MapCommands.FencedPut> fence) {
       this.commit = commit;
       this.timer = timer;
+      this.fence = fence;
+    }
+
+    /**
+     * Releases the value's commit once the value has been replaced, retaining the fence commit.
+     */
+    private void replace() {
+      if (commit != fence) {
+        commit.close();
+      }
+    }
+
+    /**
+     * Releases the value's commit and fence commit once the key has been removed.
+     */
+    private void close() {
+      commit.close();
+      if (fence != null && fence != commit) {
+        fence.close();
+      }
     }
   }
 
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.collections.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.SerializableTypeResolver;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.serializer.SerializerRegistry;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.Command;
+import io.atomix.copycat.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Distributed topic commands.
+ * <p>
+ * This class reserves serializable type IDs {@code -163} through {@code -167}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class TopicCommands {
+
+  private TopicCommands() {
+  }
+
+  /**
+   * Abstract topic command.
+   * <p>
+   * Topic state, including the offsets assigned to published messages, is written to snapshots, so topic commands
+   * are compacted from the log once {@link CompactionMode#SNAPSHOT snapshotted}.
+   */
+  public static abstract class TopicCommand<V> implements Command<V>, CatalystSerializable {
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.SNAPSHOT;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    }
+  }
+
+  /**
+   * Abstract topic query.
+   */
+  public static abstract class TopicQuery<V> implements Query<V>, CatalystSerializable {
+    protected ConsistencyLevel consistency;
+
+    protected TopicQuery() {
+    }
+
+    protected TopicQuery(ConsistencyLevel consistency) {
+      this.consistency = consistency;
+    }
+
+    @Override
+    public ConsistencyLevel consistency() {
+      return consistency != null ? consistency : ConsistencyLevel.LINEARIZABLE;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> output, Serializer serializer) {
+      if (consistency != null) {
+        output.writeByte(consistency.ordinal());
+      } else {
+        output.writeByte(-1);
+      }
+    }
+
+    @Override
+    public void readObject(BufferInput<?> input, Serializer serializer) {
+      int ordinal = input.readByte();
+      if (ordinal != -1) {
+        consistency = ConsistencyLevel.values()[ordinal];
+      }
+    }
+  }
+
+  /**
+   * Publish command.
+   */
+  public static class Publish extends TopicCommand<Long> {
+    private Object message;
+
+    public Publish() {
+    }
+
+    public Publish(Object message) {
+      this.message = message;
+    }
+
+    /**
+     * Returns the published message.
+     */
+    public Object message() {
+      return message;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      serializer.writeObject(message, buffer);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      message = serializer.readObject(buffer);
+    }
+  }
+
+  /**
+   * Read query.
+   */
+  public static class Read extends TopicQuery<Records> {
+    private long offset;
+    private int maxMessages;
+
+    public Read() {
+    }
+
+    public Read(long offset, int maxMessages, ConsistencyLevel consistency) {
+      super(consistency);
+      Assert.argNot(offset < 0, "offset cannot be negative");
+      Assert.arg(maxMessages > 0, "maxMessages must be positive");
+      this.offset = offset;
+      this.maxMessages = maxMessages;
+    }
+
+    /**
+     * Returns the offset from which to read.
+     */
+    public long offset() {
+      return offset;
+    }
+
+    /**
+     * Returns the maximum number of messages to read.
+     */
+    public int maxMessages() {
+      return maxMessages;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeLong(offset).writeInt(maxMessages);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      offset = buffer.readLong();
+      maxMessages = buffer.readInt();
+    }
+  }
+
+  /**
+   * Commit offset command.
+   */
+  public static class CommitOffset extends TopicCommand<Void> {
+    private String group;
+    private long offset;
+
+    public CommitOffset() {
+    }
+
+    public CommitOffset(String group, long offset) {
+      Assert.argNot(offset < 0, "offset cannot be negative");
+      this.group = Assert.notNull(group, "group");
+      this.offset = offset;
+    }
+
+    /**
+     * Returns the consumer group.
+     */
+    public String group() {
+      return group;
+    }
+
+    /**
+     * Returns the committed offset.
+     */
+    public long offset() {
+      return offset;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeString(group).writeLong(offset);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      group = buffer.readString();
+      offset = buffer.readLong();
+    }
+  }
+
+  /**
+   * Get offset query.
+   */
+  public static class GetOffset extends TopicQuery<Long> {
+    private String group;
+
+    public GetOffset() {
+    }
+
+    public GetOffset(String group, ConsistencyLevel consistency) {
+      super(consistency);
+      this.group = Assert.notNull(group, "group");
+    }
+
+    /**
+     * Returns the consumer group.
+     */
+    public String group() {
+      return group;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeString(group);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      group = buffer.readString();
+    }
+  }
+
+  /**
+   * Records read from the topic.
+   */
+  public static class Records implements CatalystSerializable {
+    private long offset;
+    private long nextOffset;
+    private List<Object> messages;
+
+    public Records() {
+    }
+
+    public Records(long offset, long nextOffset, List<Object> messages) {
+      this.offset = offset;
+      this.nextOffset = nextOffset;
+      this.messages = messages;
+    }
+
+    /**
+     * Returns the offset of the first record.
+     */
+    public long offset() {
+      return offset;
+    }
+
+    /**
+     * Returns the offset following the last record.
+     */
+    public long nextOffset() {
+      return nextOffset;
+    }
+
+    /**
+     * Returns the record messages.
+     */
+    public List<Object> messages() {
+      return messages;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeLong(offset).writeLong(nextOffset).writeInt(messages.size());
+      for (Object message : messages) {
+        serializer.writeObject(message, buffer);
+      }
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      offset = buffer.readLong();
+      nextOffset = buffer.readLong();
+      int size = buffer.readInt();
+      messages = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        messages.add(serializer.readObject(buffer));
+      }
+    }
+  }
+
+  /**
+   * Topic command type resolver.
+   */
+  public static class TypeResolver implements SerializableTypeResolver {
+    @Override
+    public void resolve(SerializerRegistry registry) {
+      registry.register(Publish.class, -163);
+      registry.register(Read.class, -164);
+      registry.register(CommitOffset.class, -165);
+      registry.register(GetOffset.class, -166);
+      registry.register(Records.class, -167);
+    }
+  }
+
+}
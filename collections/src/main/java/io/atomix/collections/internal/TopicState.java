@@ -0,0 +1,267 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.collections.internal;
+
+import io.atomix.catalyst.concurrent.Scheduled;
+import io.atomix.collections.DistributedTopic;
+import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.Snapshottable;
+import io.atomix.copycat.server.storage.snapshot.SnapshotReader;
+import io.atomix.copycat.server.storage.snapshot.SnapshotWriter;
+import io.atomix.resource.ResourceStateMachine;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Distributed topic state machine.
+ * <p>
+ * Published messages are appended to fixed-size segments. Retention is applied to whole segments: once the topic
+ * exceeds its configured size or a sealed segment exceeds its configured age, the oldest segment is removed. Age
+ * is measured in the logical time of the log, so segments are removed at the same point in the log on every
+ * replica.
+ * <p>
+ * Topic commands are compacted via snapshots. The snapshot holds the retained segments along with their base
+ * offsets and seal times, the next offset to assign, and consumer group offsets, so offsets remain stable once
+ * publish commits have been compacted from the log and the topic is restored from a snapshot.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class TopicState extends ResourceStateMachine implements Snapshottable {
+  private final int segmentSize;
+  private final long maxSize;
+  private final Duration maxAge;
+  private final List<Segment> segments = new ArrayList<>();
+  private final Map<String, Long> offsets = new HashMap<>();
+  private long nextOffset;
+
+  public TopicState(Properties config) {
+    super(config);
+    DistributedTopic.Config topicConfig = new DistributedTopic.Config(config);
+    this.segmentSize = topicConfig.getSegmentSize();
+    this.maxSize = topicConfig.getMaxSize();
+    this.maxAge = topicConfig.getMaxAge();
+  }
+
+  /**
+   * Returns the offset of the first retained message.
+   */
+  private long firstOffset() {
+    return segments.isEmpty() ? nextOffset : segments.get(0).offset;
+  }
+
+  /**
+   * Applies a publish commit.
+   */
+  public long publish(Commit<TopicCommands.Publish> commit) {
+    try {
+      Segment segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+      if (segment == null || segment.messages.size() == segmentSize) {
+        if (segment != null) {
+          seal(segment, context.clock().millis());
+        }
+        segment = new Segment(nextOffset);
+        segments.add(segment);
+      }
+      segment.messages.add(commit.operation().message());
+    } finally {
+      commit.close();
+    }
+
+    long offset = nextOffset++;
+    retain();
+    return offset;
+  }
+
+  /**
+   * Seals the given segment at the given log time, scheduling its removal once it exceeds the maximum age.
+   */
+  private void seal(Segment segment, long time) {
+    segment.sealed = time;
+    if (!maxAge.isZero()) {
+      long delay = Math.max(time + maxAge.toMillis() - context.clock().millis(), 0);
+      segment.timer = executor.schedule(Duration.ofMillis(delay), () -> {
+        segment.timer = null;
+        if (!segments.isEmpty() && segments.get(0) == segment) {
+          remove();
+        }
+      });
+    }
+  }
+
+  /**
+   * Removes the oldest segments while the topic exceeds its maximum size.
+   * <p>
+   * The active segment is never removed, and a segment is only removed if the remaining segments still hold
+   * at least {@code maxSize} messages.
+   */
+  private void retain() {
+    if (maxSize > 0) {
+      while (segments.size() > 1 && nextOffset - firstOffset() - segments.get(0).messages.size() >= maxSize) {
+        remove();
+      }
+    }
+  }
+
+  /**
+   * Removes the oldest segment.
+   */
+  private void remove() {
+    segments.remove(0).cancel();
+  }
+
+  /**
+   * Applies a read query.
+   * <p>
+   * If the requested offset precedes the first retained message, messages are read from the first retained
+   * message. The returned records indicate the actual offset of the first message so consumers can detect gaps.
+   */
+  public TopicCommands.Records read(Commit<TopicCommands.Read> commit) {
+    try {
+      long offset = Math.min(Math.max(commit.operation().offset(), firstOffset()), nextOffset);
+      int count = (int) Math.min(commit.operation().maxMessages(), nextOffset - offset);
+      List<Object> messages = new ArrayList<>(count);
+      if (count > 0) {
+        for (int i = segment(offset); i < segments.size() && messages.size() < count; i++) {
+          Segment segment = segments.get(i);
+          int position = (int) (Math.max(offset, segment.offset) - segment.offset);
+          while (position < segment.messages.size() && messages.size() < count) {
+            messages.add(segment.messages.get(position++));
+          }
+        }
+      }
+      return new TopicCommands.Records(offset, offset + messages.size(), messages);
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Returns the index of the segment containing the given retained offset.
+   */
+  private int segment(long offset) {
+    int low = 0;
+    int high = segments.size() - 1;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (segments.get(mid).offset <= offset) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Applies a commit offset commit.
+   */
+  public void commitOffset(Commit<TopicCommands.CommitOffset> commit) {
+    try {
+      offsets.put(commit.operation().group(), commit.operation().offset());
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Applies a get offset query.
+   */
+  public Long getOffset(Commit<TopicCommands.GetOffset> commit) {
+    try {
+      return offsets.get(commit.operation().group());
+    } finally {
+      commit.close();
+    }
+  }
+
+  @Override
+  public void snapshot(SnapshotWriter writer) {
+    writer.writeLong(nextOffset);
+    writer.writeInt(segments.size());
+    for (Segment segment : segments) {
+      writer.writeLong(segment.offset);
+      writer.writeLong(segment.sealed);
+      writer.writeInt(segment.messages.size());
+      for (Object message : segment.messages) {
+        writer.writeObject(message);
+      }
+    }
+    writer.writeInt(offsets.size());
+    for (Map.Entry<String, Long> entry : offsets.entrySet()) {
+      writer.writeString(entry.getKey());
+      writer.writeLong(entry.getValue());
+    }
+  }
+
+  @Override
+  public void install(SnapshotReader reader) {
+    segments.forEach(Segment::cancel);
+    segments.clear();
+    offsets.clear();
+
+    nextOffset = reader.readLong();
+    int segmentCount = reader.readInt();
+    for (int i = 0; i < segmentCount; i++) {
+      Segment segment = new Segment(reader.readLong());
+      long sealed = reader.readLong();
+      int messageCount = reader.readInt();
+      for (int j = 0; j < messageCount; j++) {
+        segment.messages.add(reader.readObject());
+      }
+      segments.add(segment);
+      if (sealed > 0) {
+        seal(segment, sealed);
+      }
+    }
+    int offsetCount = reader.readInt();
+    for (int i = 0; i < offsetCount; i++) {
+      offsets.put(reader.readString(), reader.readLong());
+    }
+  }
+
+  @Override
+  public void delete() {
+    segments.forEach(Segment::cancel);
+    segments.clear();
+    offsets.clear();
+  }
+
+  /**
+   * Log segment.
+   */
+  private static class Segment {
+    private final long offset;
+    private final List<Object> messages = new ArrayList<>();
+    private long sealed;
+    private Scheduled timer;
+
+    private Segment(long offset) {
+      this.offset = offset;
+    }
+
+    /**
+     * Cancels the segment's removal timer.
+     */
+    private void cancel() {
+      if (timer != null) {
+        timer.cancel();
+        timer = null;
+      }
+    }
+  }
+
+}
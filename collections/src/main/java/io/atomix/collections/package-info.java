@@ -17,7 +17,7 @@
 /**
  * Provides distributed collections such as {@link io.atomix.collections.DistributedMap}
  * {@link io.atomix.collections.DistributedMultiMap}, {@link io.atomix.collections.DistributedQueue}, and
- * {@link io.atomix.collections.DistributedSet}.
+ * {@link io.atomix.collections.DistributedSet}, along with the {@link io.atomix.collections.DistributedTopic} log.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
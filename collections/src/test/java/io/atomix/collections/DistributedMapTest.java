@@ -341,6 +341,27 @@ public class DistributedMapTest extends AbstractCopycatTest<DistributedMap> {
     await(10000);
   }
 
+  /**
+   * Tests fenced writes.
+   */
+  public void testMapFencedPut() throws Throwable {
+    createServers(3);
+
+    DistributedMap<String, String> map = createResource();
+
+    threadAssertTrue(map.fencedPut("foo", "Hello world!", 2).get());
+    threadAssertFalse(map.fencedPut("foo", "Hello world again!", 1).get());
+    threadAssertEquals(map.get("foo").get(), "Hello world!");
+
+    map.put("foo", "Goodbye world!").join();
+    threadAssertFalse(map.fencedPut("foo", "Hello world again!", 1).get());
+    threadAssertTrue(map.fencedPut("foo", "Hello world again!", 3).get());
+    threadAssertEquals(map.get("foo").get(), "Hello world again!");
+
+    map.remove("foo").join();
+    threadAssertTrue(map.fencedPut("foo", "Hello world!", 1).get());
+  }
+
   /**
    * Tests clearing a map.
    */
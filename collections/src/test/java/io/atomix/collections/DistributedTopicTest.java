@@ -0,0 +1,199 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.collections;
+
+import io.atomix.copycat.server.CopycatServer;
+import io.atomix.copycat.server.storage.Storage;
+import io.atomix.copycat.server.storage.StorageLevel;
+import io.atomix.resource.ReadConsistency;
+import io.atomix.testing.AbstractCopycatTest;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Distributed topic test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+@SuppressWarnings("unchecked")
+public class DistributedTopicTest extends AbstractCopycatTest<DistributedTopic> {
+  private boolean compact;
+
+  @Override
+  protected Class<? super DistributedTopic> type() {
+    return DistributedTopic.class;
+  }
+
+  @Override
+  protected Storage createStorage() {
+    if (!compact) {
+      return super.createStorage();
+    }
+    return Storage.builder()
+      .withStorageLevel(StorageLevel.MEMORY)
+      .withMaxEntriesPerSegment(16)
+      .withMinorCompactionInterval(Duration.ofMillis(100))
+      .withMajorCompactionInterval(Duration.ofMillis(500))
+      .build();
+  }
+
+  /**
+   * Tests publishing messages and reading them by offset.
+   */
+  public void testPublishRead() throws Throwable {
+    createServers(3);
+
+    DistributedTopic<String> topic1 = createResource();
+    DistributedTopic<String> topic2 = createResource();
+
+    topic1.publish("a").thenAccept(offset -> {
+      threadAssertEquals(offset, 0L);
+      resume();
+    });
+    topic1.publish("b").thenAccept(offset -> {
+      threadAssertEquals(offset, 1L);
+      resume();
+    });
+    topic1.publish("c").thenAccept(offset -> {
+      threadAssertEquals(offset, 2L);
+      resume();
+    });
+    await(10000, 3);
+
+    topic2.read(0, 2, ReadConsistency.ATOMIC).thenAccept(batch -> {
+      threadAssertEquals(batch.offset(), 0L);
+      threadAssertEquals(batch.nextOffset(), 2L);
+      threadAssertEquals(batch.messages(), Arrays.asList("a", "b"));
+      resume();
+    });
+    await(10000);
+
+    topic2.read(2, 10, ReadConsistency.ATOMIC).thenAccept(batch -> {
+      threadAssertEquals(batch.offset(), 2L);
+      threadAssertEquals(batch.nextOffset(), 3L);
+      threadAssertEquals(batch.messages(), Arrays.asList("c"));
+      resume();
+    });
+    await(10000);
+
+    topic2.read(3, 10).thenAccept(batch -> {
+      threadAssertTrue(batch.isEmpty());
+      threadAssertEquals(batch.nextOffset(), 3L);
+      resume();
+    });
+    await(10000);
+  }
+
+  /**
+   * Tests committing consumer group offsets.
+   */
+  public void testCommitOffset() throws Throwable {
+    createServers(3);
+
+    DistributedTopic<String> topic1 = createResource();
+    DistributedTopic<String> topic2 = createResource();
+
+    topic1.offset("group").thenAccept(offset -> {
+      threadAssertNull(offset);
+      resume();
+    });
+    await(10000);
+
+    topic1.commit("group", 10).join();
+    topic1.commit("group", 20).join();
+    topic2.offset("group").thenAccept(offset -> {
+      threadAssertEquals(offset, 20L);
+      resume();
+    });
+    await(10000);
+  }
+
+  /**
+   * Tests that old segments are removed once the topic exceeds its maximum size.
+   */
+  public void testSizeRetention() throws Throwable {
+    createServers(3, new DistributedTopic.Config().withSegmentSize(2).withMaxSize(3));
+
+    DistributedTopic<Integer> topic = createResource();
+    for (int i = 0; i < 7; i++) {
+      topic.publish(i).join();
+    }
+
+    // Segments [0, 1] and [2, 3] are removed, leaving [4, 5] and [6].
+    topic.read(0, 10, ReadConsistency.ATOMIC).thenAccept(batch -> {
+      threadAssertEquals(batch.offset(), 4L);
+      threadAssertEquals(batch.nextOffset(), 7L);
+      threadAssertEquals(batch.messages(), Arrays.asList(4, 5, 6));
+      resume();
+    });
+    await(10000);
+  }
+
+  /**
+   * Tests that offsets remain stable on a server that installs a snapshot of the topic after the log is compacted.
+   */
+  public void testOffsetsAfterSnapshot() throws Throwable {
+    compact = true;
+    try {
+      DistributedTopic.Config config = new DistributedTopic.Config().withSegmentSize(2).withMaxSize(3);
+      List<CopycatServer> servers = createServers(3, 4, config);
+      DistributedTopic<Integer> topic = createResource();
+
+      // Publish enough messages to remove segments and roll over log segments so the topic is snapshotted
+      // and the publish commits compacted.
+      for (int i = 0; i < 100; i++) {
+        topic.publish(i).join();
+      }
+      topic.commit("group", 98).join();
+      Thread.sleep(1000);
+
+      // The late server must restore offsets from the snapshot rather than counting the remaining publish commits.
+      createServer(members.get(3), config).bootstrap(members).thenRun(this::resume);
+      await(10000);
+
+      servers.get(0).leave().join();
+      servers.get(1).leave().join();
+
+      topic.publish(100).thenAccept(offset -> {
+        threadAssertEquals(offset, 100L);
+        resume();
+      });
+      await(10000);
+
+      // Segments [96, 97] and earlier are removed, leaving [98, 99] and [100].
+      topic.read(0, 10, ReadConsistency.ATOMIC).thenAccept(batch -> {
+        threadAssertEquals(batch.offset(), 98L);
+        threadAssertEquals(batch.nextOffset(), 101L);
+        threadAssertEquals(batch.messages(), Arrays.asList(98, 99, 100));
+        resume();
+      });
+      await(10000);
+
+      topic.offset("group").thenAccept(offset -> {
+        threadAssertEquals(offset, 98L);
+        resume();
+      });
+      await(10000);
+    } finally {
+      compact = false;
+    }
+  }
+
+}
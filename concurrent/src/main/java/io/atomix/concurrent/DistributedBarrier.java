@@ -0,0 +1,158 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.concurrent;
+
+import io.atomix.catalyst.concurrent.BlockingFuture;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.concurrent.internal.BarrierCommands;
+import io.atomix.concurrent.util.DistributedBarrierFactory;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.resource.AbstractResource;
+import io.atomix.resource.Resource;
+import io.atomix.resource.ResourceTypeInfo;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Allows a set of processes to wait for each other to reach a common point.
+ * <p>
+ * The distributed barrier is an asynchronous version of Java's {@link java.util.concurrent.CyclicBarrier}. The
+ * barrier is configured with a number of {@link Config#withParties(int) parties}. Each call to {@link #await()}
+ * waits at the barrier until the configured number of parties have arrived, at which point all waiting parties
+ * are released.
+ * <pre>
+ *   {@code
+ *   DistributedBarrier barrier = atomix.getBarrier("phase", new DistributedBarrier.Config()
+ *     .withParties(3)).get();
+ *   barrier.await().thenRun(() -> System.out.println("All parties arrived!"));
+ *   }
+ * </pre>
+ * The barrier is cyclic: once all parties have been released, the barrier is reset and can be used again.
+ * If the session of a waiting process expires or is closed, its arrivals are removed from the barrier and the
+ * remaining parties continue to wait for additional arrivals.
+ * <h3>Implementation</h3>
+ * Waiting requires no polling from the client. Arrivals are recorded in a replicated state machine, and once the
+ * configured number of parties have arrived, the state machine publishes a single {@code release} event to each
+ * waiting session identifying all of the session's released arrivals.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@ResourceTypeInfo(id=-28, factory=DistributedBarrierFactory.class)
+public class DistributedBarrier extends AbstractResource<DistributedBarrier> {
+
+  /**
+   * Barrier configuration.
+   */
+  public static class Config extends Resource.Config {
+    private static final int DEFAULT_PARTIES = 1;
+
+    public Config() {
+    }
+
+    public Config(Properties defaults) {
+      super(defaults);
+    }
+
+    /**
+     * Sets the number of parties required to trip the barrier.
+     *
+     * @param parties The number of parties required to trip the barrier.
+     * @return The barrier configuration.
+     * @throws IllegalArgumentException if the number of parties is not positive
+     */
+    public Config withParties(int parties) {
+      Assert.arg(parties > 0, "parties must be positive");
+      setProperty("parties", String.valueOf(parties));
+      return this;
+    }
+
+    /**
+     * Returns the number of parties required to trip the barrier.
+     *
+     * @return The number of parties required to trip the barrier.
+     */
+    public int getParties() {
+      return Integer.valueOf(getProperty("parties", String.valueOf(DEFAULT_PARTIES)));
+    }
+  }
+
+  private final Map<Integer, CompletableFuture<Void>> futures = new ConcurrentHashMap<>();
+  private final AtomicInteger id = new AtomicInteger();
+
+  public DistributedBarrier(CopycatClient client, Properties options) {
+    super(client, options);
+  }
+
+  @Override
+  public Resource.Config config() {
+    return new Config(super.config());
+  }
+
+  @Override
+  public CompletableFuture<DistributedBarrier> open() {
+    return super.open().thenApply(result -> {
+      client.onEvent("release", this::handleRelease);
+      return result;
+    });
+  }
+
+  /**
+   * Handles a barrier release event.
+   */
+  private void handleRelease(BarrierCommands.ReleaseEvent event) {
+    for (int id : event.ids()) {
+      CompletableFuture<Void> future = futures.remove(id);
+      if (future != null) {
+        future.complete(null);
+      }
+    }
+  }
+
+  /**
+   * Waits until all parties have arrived at the barrier.
+   * <p>
+   * The returned {@link CompletableFuture} will be completed once the configured number of parties have arrived
+   * at the barrier, including this one.
+   *
+   * @return A completable future to be completed once all parties have arrived at the barrier.
+   */
+  public CompletableFuture<Void> await() {
+    CompletableFuture<Void> future = new BlockingFuture<>();
+    int id = this.id.incrementAndGet();
+    futures.put(id, future);
+    client.submit(new BarrierCommands.Await(id)).whenComplete((result, error) -> {
+      if (error != null) {
+        futures.remove(id);
+        future.completeExceptionally(error);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Returns the number of parties currently waiting at the barrier.
+   *
+   * @return A completable future to be completed with the number of parties waiting at the barrier.
+   */
+  public CompletableFuture<Integer> getNumberWaiting() {
+    return client.submit(new BarrierCommands.GetWaiting());
+  }
+
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.concurrent;
+
+import io.atomix.catalyst.concurrent.BlockingFuture;
+import io.atomix.catalyst.concurrent.Scheduled;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.concurrent.internal.CountDownLatchCommands;
+import io.atomix.concurrent.util.DistributedCountDownLatchFactory;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.resource.AbstractResource;
+import io.atomix.resource.Resource;
+import io.atomix.resource.ResourceTypeInfo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Allows processes to wait until a set of operations being performed in other processes completes.
+ * <p>
+ * The distributed count down latch is an asynchronous version of Java's {@link java.util.concurrent.CountDownLatch}.
+ * The latch is initialized with a {@link Config#withCount(int) count}. Each call to {@link #countDown()} decrements
+ * the count, and once the count reaches zero all processes {@link #await() awaiting} the latch are released.
+ * <pre>
+ *   {@code
+ *   DistributedCountDownLatch latch = atomix.getCountDownLatch("batch", new DistributedCountDownLatch.Config()
+ *     .withCount(10)).get();
+ *   latch.await().thenRun(() -> System.out.println("All tasks completed!"));
+ *   }
+ * </pre>
+ * As with {@link java.util.concurrent.CountDownLatch}, the count cannot be reset. Once the count reaches zero,
+ * all subsequent calls to {@link #await()} complete immediately.
+ * <h3>Implementation</h3>
+ * Waiting requires no polling from the client. The first call to {@link #await()} registers the instance's session
+ * with the replicated state machine, and further calls are queued locally. Once the count reaches zero, the state
+ * machine publishes a single {@code release} event to each waiting session, and the instance completes all of its
+ * local waiters.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@ResourceTypeInfo(id=-27, factory=DistributedCountDownLatchFactory.class)
+public class DistributedCountDownLatch extends AbstractResource<DistributedCountDownLatch> {
+
+  /**
+   * Count down latch configuration.
+   */
+  public static class Config extends Resource.Config {
+    private static final int DEFAULT_COUNT = 1;
+
+    public Config() {
+    }
+
+    public Config(Properties defaults) {
+      super(defaults);
+    }
+
+    /**
+     * Sets the initial count of the latch.
+     *
+     * @param count The initial count of the latch.
+     * @return The latch configuration.
+     * @throws IllegalArgumentException if the count is not positive
+     */
+    public Config withCount(int count) {
+      Assert.arg(count > 0, "count must be positive");
+      setProperty("count", String.valueOf(count));
+      return this;
+    }
+
+    /**
+     * Returns the initial count of the latch.
+     *
+     * @return The initial count of the latch.
+     */
+    public int getCount() {
+      return Integer.valueOf(getProperty("count", String.valueOf(DEFAULT_COUNT)));
+    }
+  }
+
+  private final List<CompletableFuture<Boolean>> waiters = new ArrayList<>();
+  private boolean registered;
+  private boolean released;
+
+  public DistributedCountDownLatch(CopycatClient client, Properties options) {
+    super(client, options);
+  }
+
+  @Override
+  public Resource.Config config() {
+    return new Config(super.config());
+  }
+
+  @Override
+  public CompletableFuture<DistributedCountDownLatch> open() {
+    return super.open().thenApply(result -> {
+      client.onEvent("release", this::handleRelease);
+      return result;
+    });
+  }
+
+  /**
+   * Handles a latch release.
+   */
+  private void handleRelease() {
+    List<CompletableFuture<Boolean>> waiters;
+    synchronized (this) {
+      released = true;
+      waiters = new ArrayList<>(this.waiters);
+      this.waiters.clear();
+    }
+    waiters.forEach(waiter -> waiter.complete(true));
+  }
+
+  /**
+   * Decrements the count of the latch.
+   * <p>
+   * If the count reaches zero, all processes awaiting the latch will be released. If the count is already zero,
+   * the operation has no effect.
+   *
+   * @return A completable future to be completed once the count has been decremented.
+   */
+  public CompletableFuture<Void> countDown() {
+    return client.submit(new CountDownLatchCommands.CountDown());
+  }
+
+  /**
+   * Returns the current count of the latch.
+   *
+   * @return A completable future to be completed with the current count of the latch.
+   */
+  public CompletableFuture<Integer> getCount() {
+    return client.submit(new CountDownLatchCommands.GetCount());
+  }
+
+  /**
+   * Waits until the count of the latch reaches zero.
+   * <p>
+   * The returned {@link CompletableFuture} will be completed once the count of the latch reaches zero. If the
+   * count is already zero, the future will be completed immediately.
+   *
+   * @return A completable future to be completed once the latch has been released.
+   */
+  public CompletableFuture<Void> await() {
+    return await(new BlockingFuture<>()).thenApply(result -> null);
+  }
+
+  /**
+   * Waits until the count of the latch reaches zero or the given timeout elapses.
+   * <p>
+   * If the latch is released before the {@code timeout} elapses, the returned {@link CompletableFuture} will be
+   * completed {@code true}, otherwise it will be completed {@code false}.
+   *
+   * @param timeout The duration to wait for the latch to be released.
+   * @return A completable future to be completed with a boolean indicating whether the latch was released.
+   * @throws NullPointerException if the timeout is {@code null}
+   */
+  public CompletableFuture<Boolean> await(Duration timeout) {
+    Assert.notNull(timeout, "timeout");
+    CompletableFuture<Boolean> future = await(new BlockingFuture<>());
+    if (!future.isDone()) {
+      Scheduled timer = client.context().schedule(timeout, () -> {
+        synchronized (this) {
+          waiters.remove(future);
+        }
+        future.complete(false);
+      });
+      future.whenComplete((result, error) -> timer.cancel());
+    }
+    return future;
+  }
+
+  /**
+   * Registers a local waiter, registering this instance with the cluster if necessary.
+   */
+  private CompletableFuture<Boolean> await(CompletableFuture<Boolean> future) {
+    synchronized (this) {
+      if (released) {
+        future.complete(true);
+        return future;
+      }
+
+      waiters.add(future);
+      if (registered) {
+        return future;
+      }
+      registered = true;
+    }
+
+    client.submit(new CountDownLatchCommands.Await()).whenComplete((result, error) -> {
+      if (error != null) {
+        List<CompletableFuture<Boolean>> waiters;
+        synchronized (this) {
+          registered = false;
+          waiters = new ArrayList<>(this.waiters);
+          this.waiters.clear();
+        }
+        waiters.forEach(waiter -> waiter.completeExceptionally(error));
+      } else if (result) {
+        handleRelease();
+      }
+    });
+    return future;
+  }
+
+}
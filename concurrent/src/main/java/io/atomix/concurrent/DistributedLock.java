@@ -15,7 +15,15 @@
  */
 package io.atomix.concurrent;
 
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
 import io.atomix.catalyst.concurrent.BlockingFuture;
+import io.atomix.catalyst.concurrent.Listener;
+import io.atomix.catalyst.concurrent.Listeners;
+import io.atomix.catalyst.concurrent.Scheduled;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.util.Assert;
 import io.atomix.concurrent.internal.LockCommands;
 import io.atomix.concurrent.util.DistributedLockFactory;
 import io.atomix.copycat.client.CopycatClient;
@@ -24,11 +32,14 @@ import io.atomix.resource.Resource;
 import io.atomix.resource.ResourceTypeInfo;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Facilitates synchronizing access to cluster-wide shared resources.
@@ -97,6 +108,43 @@ import java.util.concurrent.atomic.AtomicInteger;
  * optimistically determine whether the lock has been granted to a more recent lock requester that has written
  * to the data store. If the last write to the external data store is greater than the local lock's token, that
  * indicates that another process has been granted the lock.
+ * <h2>Leases</h2>
+ * A lock holder that remains connected to the cluster but fails to make progress will hold the lock indefinitely.
+ * To bound the time for which the lock can be held, a {@link Options#withLease(Duration) lease} can be configured.
+ * A lock acquired with a lease is automatically released by the cluster once the lease expires unless the holder
+ * {@link #renew() renews} it. Leases expire deterministically in the replicated state machine, so all replicas agree
+ * on the point at which the lock was released. Holders can be notified when a lease expires via
+ * {@link #onExpire(Consumer)}.
+ * <p>
+ * Because the lock may be granted to another process once a lease expires, leases should be used in combination
+ * with fencing tokens. For example, {@code DistributedMap#fencedPut(Object, Object, long)} only applies a write if
+ * the provided token is at least as great as the token of the last fenced write to the same key:
+ * <pre>
+ *   {@code
+ *   lock.lock().thenCompose(token -> map.fencedPut("key", "value", token)).thenAccept(written -> {
+ *     if (!written) {
+ *       // The lock was granted to another process which has already written to the key
+ *     }
+ *   });
+ *   }
+ * </pre>
+ * <h2>Monitoring contention</h2>
+ * The cluster tracks contention statistics for each lock, including the depth of the lock queue, the time for
+ * which requesters waited for and held the lock, and the number of lock requests that timed out or locks that were
+ * released by session or lease expiration. The statistics can be read via {@link #stats()} to identify hot locks.
+ * <h2>Local queueing</h2>
+ * By default, each call to {@link #lock()} submits a separate request to the cluster, and a lock that's contended
+ * by multiple threads within the same process is passed between those threads through the cluster. For locks that
+ * are hot within a single process, {@link Options#withLocalQueueing(boolean) local queueing} can be enabled to queue
+ * local lock requests in the resource instance instead. While the lock is held by the instance, lock requests are
+ * queued locally and the lock is handed off directly to the next local waiter when it's unlocked, without writing
+ * to the cluster. The lock is only released to the cluster once the local queue has drained or the lock has been
+ * handed off locally more than the configured {@link Options#withFairnessBudget(int) fairness budget}, in which
+ * case the instance rejoins the end of the cluster's lock queue so that other processes are not starved.
+ * <p>
+ * Because the lock is never released by the instance during local hand-offs, all local holders between two cluster
+ * acquisitions receive the same fencing token. Fencing tokens therefore distinguish lock holders across processes
+ * but not across threads in the same process when local queueing is enabled.
  * <h3>Implementation</h3>
  * Lock state management is implemented in a Copycat replicated {@link io.atomix.copycat.server.StateMachine}.
  * When a lock is created, an instance of the lock state machine is created on each replica in the cluster.
@@ -125,24 +173,412 @@ import java.util.concurrent.atomic.AtomicInteger;
  * its session will eventually be expired by the state machine, and the lock will be granted to the next requester
  * in the queue.
  * <p>
- * The lock state machine manages compaction in the replicated log by tracking which {@code lock} and {@code unlock}
- * requests contribute to the state of the lock. As long as a client holds a lock, the commit requesting the lock
- * will be retained in the replicated log. And as long as a client's request to acquire a lock is held in the state
- * machine's lock queue, the commit requesting the lock will be retained in the replicated log. This ensures that if
- * a replica crashes and recovers it will recover the correct state of the lock. Once a lock is released by a client,
- * both the {@code lock} and {@code unlock} commit associated with the lock will be released from the state machine
- * and eventually removed from the log during compaction.
+ * The lock state machine manages compaction in the replicated log via snapshots. The current holder, the queue
+ * of requests awaiting the lock, and the log times at which the lock was granted and the holder's lease expires are
+ * periodically written to a snapshot, after which the {@code lock}, {@code renew} and {@code unlock} commits that
+ * produced that state are removed from the log during compaction. This ensures that if a replica crashes and
+ * recovers it will recover the correct state of the lock, and that leases expire at the same point in the log
+ * on every replica.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 @ResourceTypeInfo(id=-22, factory=DistributedLockFactory.class)
 public class DistributedLock extends AbstractResource<DistributedLock> {
+
+  /**
+   * Distributed lock configuration.
+   */
+  public static class Config extends Resource.Config {
+    private static final long DEFAULT_STATS_INTERVAL = 60000;
+
+    public Config() {
+    }
+
+    public Config(Properties defaults) {
+      super(defaults);
+    }
+
+    /**
+     * Sets the interval at which servers log lock contention statistics.
+     * <p>
+     * Each server periodically logs the {@link Stats statistics} it has collected for the lock at {@code INFO}
+     * level, allowing contended locks to be identified from server logs. Statistics are only logged for intervals
+     * in which the lock was acquired or a request timed out. The interval is measured in the logical time of the
+     * log. An interval of {@link Duration#ZERO} disables logging of statistics.
+     *
+     * @param interval The interval at which to log lock contention statistics.
+     * @return The lock configuration.
+     * @throws NullPointerException if the interval is {@code null}
+     * @throws IllegalArgumentException if the interval is negative
+     */
+    public Config withStatsInterval(Duration interval) {
+      Assert.arg(!Assert.notNull(interval, "interval").isNegative(), "interval must not be negative");
+      setProperty("stats.interval", String.valueOf(interval.toMillis()));
+      return this;
+    }
+
+    /**
+     * Returns the interval at which servers log lock contention statistics.
+     *
+     * @return The interval at which servers log lock contention statistics, or {@link Duration#ZERO} if logging
+     *         is disabled.
+     */
+    public Duration getStatsInterval() {
+      return Duration.ofMillis(Long.valueOf(getProperty("stats.interval", String.valueOf(DEFAULT_STATS_INTERVAL))));
+    }
+  }
+
+  /**
+   * Distributed lock options.
+   */
+  public static class Options extends Resource.Options {
+    private static final int DEFAULT_FAIRNESS_BUDGET = 16;
+    private static final long DEFAULT_LEASE = 0;
+
+    public Options() {
+    }
+
+    public Options(Properties defaults) {
+      super(defaults);
+    }
+
+    /**
+     * Sets whether to queue lock requests from the local instance locally.
+     * <p>
+     * When local queueing is enabled, lock requests made while the lock is held or requested by this instance
+     * are queued locally, and the lock is handed off between local waiters without communicating with the cluster.
+     *
+     * @param localQueueing Whether to queue lock requests locally.
+     * @return The lock options.
+     */
+    public Options withLocalQueueing(boolean localQueueing) {
+      setProperty("local.queueing", String.valueOf(localQueueing));
+      return this;
+    }
+
+    /**
+     * Returns whether local queueing is enabled.
+     *
+     * @return Whether local queueing is enabled.
+     */
+    public boolean isLocalQueueing() {
+      return Boolean.valueOf(getProperty("local.queueing", "false"));
+    }
+
+    /**
+     * Sets the maximum number of consecutive local hand-offs before the lock is released to the cluster.
+     * <p>
+     * Once the lock has been handed off between local waiters {@code fairnessBudget} times, the next unlock
+     * releases the lock to the cluster even if local waiters remain, allowing waiters in other processes to
+     * acquire the lock. This option only applies when {@link #withLocalQueueing(boolean) local queueing} is enabled.
+     *
+     * @param fairnessBudget The maximum number of consecutive local hand-offs.
+     * @return The lock options.
+     * @throws IllegalArgumentException if the fairness budget is negative
+     */
+    public Options withFairnessBudget(int fairnessBudget) {
+      Assert.argNot(fairnessBudget < 0, "fairnessBudget cannot be negative");
+      setProperty("local.fairnessBudget", String.valueOf(fairnessBudget));
+      return this;
+    }
+
+    /**
+     * Returns the maximum number of consecutive local hand-offs.
+     *
+     * @return The maximum number of consecutive local hand-offs.
+     */
+    public int getFairnessBudget() {
+      return Integer.valueOf(getProperty("local.fairnessBudget", String.valueOf(DEFAULT_FAIRNESS_BUDGET)));
+    }
+
+    /**
+     * Sets the lease with which locks are acquired.
+     * <p>
+     * When a lease is set, a lock acquired by the instance will be released by the cluster once the lease expires
+     * unless it's {@link DistributedLock#renew() renewed}.
+     *
+     * @param lease The lock lease.
+     * @return The lock options.
+     * @throws NullPointerException if the lease is {@code null}
+     * @throws IllegalArgumentException if the lease is not positive
+     */
+    public Options withLease(Duration lease) {
+      Assert.arg(Assert.notNull(lease, "lease").toMillis() > 0, "lease must be positive");
+      setProperty("lease", String.valueOf(lease.toMillis()));
+      return this;
+    }
+
+    /**
+     * Returns the lease with which locks are acquired.
+     *
+     * @return The lock lease, or {@code null} if locks are held until released.
+     */
+    public Duration getLease() {
+      long lease = Long.valueOf(getProperty("lease", String.valueOf(DEFAULT_LEASE)));
+      return lease > 0 ? Duration.ofMillis(lease) : null;
+    }
+  }
+
+  /**
+   * Lock contention statistics.
+   * <p>
+   * Statistics are maintained in memory by the server that handles the statistics query and reflect the lock
+   * operations applied by that server since the lock's state machine was created. Wait times are provided both as
+   * the number of log entries between a lock request and its grant and as the elapsed time in the cluster's logical
+   * clock.
+   * <p>
+   * Wait times are additionally measured in the wall clock of the server that handles the query, from the time at
+   * which that server applied a lock request to the time at which it granted the lock. Wall clock wait times
+   * include replication and application delays on that server and are not deterministic, so they differ between
+   * servers and should only be used to compare the contention of locks measured by the same server.
+   * <p>
+   * Servers also periodically log the statistics they collect at the {@link Config#withStatsInterval(Duration)
+   * configured interval}.
+   * <p>
+   * Statistics are not part of the lock's replicated state and are not aggregated across the cluster. They're not
+   * written to snapshots, so they're reset when a server restarts, and a server that replays a compacted log only
+   * counts the operations that remain in the log. Consequently, statistics returned by different servers, e.g.
+   * before and after a leader change, may differ and counters may decrease between successive queries.
+   */
+  public static class Stats implements CatalystSerializable {
+    private int queueDepth;
+    private int maxQueueDepth;
+    private long acquisitions;
+    private long totalWaitEntries;
+    private long maxWaitEntries;
+    private long totalWaitTime;
+    private long maxWaitTime;
+    private long totalWallWaitTime;
+    private long maxWallWaitTime;
+    private long releases;
+    private long totalHoldTime;
+    private long maxHoldTime;
+    private long timeouts;
+    private long sessionExpirations;
+    private long leaseExpirations;
+
+    public Stats() {
+    }
+
+    public Stats(int queueDepth, int maxQueueDepth, long acquisitions, long totalWaitEntries, long maxWaitEntries,
+                 long totalWaitTime, long maxWaitTime, long totalWallWaitTime, long maxWallWaitTime, long releases,
+                 long totalHoldTime, long maxHoldTime, long timeouts, long sessionExpirations, long leaseExpirations) {
+      this.queueDepth = queueDepth;
+      this.maxQueueDepth = maxQueueDepth;
+      this.acquisitions = acquisitions;
+      this.totalWaitEntries = totalWaitEntries;
+      this.maxWaitEntries = maxWaitEntries;
+      this.totalWaitTime = totalWaitTime;
+      this.maxWaitTime = maxWaitTime;
+      this.totalWallWaitTime = totalWallWaitTime;
+      this.maxWallWaitTime = maxWallWaitTime;
+      this.releases = releases;
+      this.totalHoldTime = totalHoldTime;
+      this.maxHoldTime = maxHoldTime;
+      this.timeouts = timeouts;
+      this.sessionExpirations = sessionExpirations;
+      this.leaseExpirations = leaseExpirations;
+    }
+
+    /**
+     * Returns the number of requests currently waiting for the lock.
+     *
+     * @return The number of requests currently waiting for the lock.
+     */
+    public int getQueueDepth() {
+      return queueDepth;
+    }
+
+    /**
+     * Returns the maximum number of requests that have waited for the lock at once.
+     *
+     * @return The maximum number of requests that have waited for the lock at once.
+     */
+    public int getMaxQueueDepth() {
+      return maxQueueDepth;
+    }
+
+    /**
+     * Returns the number of times the lock has been acquired.
+     *
+     * @return The number of times the lock has been acquired.
+     */
+    public long getAcquisitions() {
+      return acquisitions;
+    }
+
+    /**
+     * Returns the average number of log entries between a lock request and its grant.
+     *
+     * @return The average number of log entries between a lock request and its grant.
+     */
+    public double getAverageWaitEntries() {
+      return acquisitions > 0 ? (double) totalWaitEntries / acquisitions : 0;
+    }
+
+    /**
+     * Returns the maximum number of log entries between a lock request and its grant.
+     *
+     * @return The maximum number of log entries between a lock request and its grant.
+     */
+    public long getMaxWaitEntries() {
+      return maxWaitEntries;
+    }
+
+    /**
+     * Returns the average time for which requesters waited for the lock.
+     *
+     * @return The average time for which requesters waited for the lock.
+     */
+    public Duration getAverageWaitTime() {
+      return Duration.ofMillis(acquisitions > 0 ? totalWaitTime / acquisitions : 0);
+    }
+
+    /**
+     * Returns the maximum time for which a requester waited for the lock.
+     *
+     * @return The maximum time for which a requester waited for the lock.
+     */
+    public Duration getMaxWaitTime() {
+      return Duration.ofMillis(maxWaitTime);
+    }
+
+    /**
+     * Returns the average wall clock time for which requesters waited for the lock.
+     * <p>
+     * Wall clock wait times are measured by the server that handles the query and are not deterministic.
+     *
+     * @return The average wall clock time for which requesters waited for the lock.
+     */
+    public Duration getAverageWallWaitTime() {
+      return Duration.ofMillis(acquisitions > 0 ? totalWallWaitTime / acquisitions : 0);
+    }
+
+    /**
+     * Returns the maximum wall clock time for which a requester waited for the lock.
+     * <p>
+     * Wall clock wait times are measured by the server that handles the query and are not deterministic.
+     *
+     * @return The maximum wall clock time for which a requester waited for the lock.
+     */
+    public Duration getMaxWallWaitTime() {
+      return Duration.ofMillis(maxWallWaitTime);
+    }
+
+    /**
+     * Returns the average time for which the lock was held.
+     *
+     * @return The average time for which the lock was held.
+     */
+    public Duration getAverageHoldTime() {
+      return Duration.ofMillis(releases > 0 ? totalHoldTime / releases : 0);
+    }
+
+    /**
+     * Returns the maximum time for which the lock was held.
+     *
+     * @return The maximum time for which the lock was held.
+     */
+    public Duration getMaxHoldTime() {
+      return Duration.ofMillis(maxHoldTime);
+    }
+
+    /**
+     * Returns the number of lock requests that timed out while waiting for the lock.
+     *
+     * @return The number of lock requests that timed out while waiting for the lock.
+     */
+    public long getTimeouts() {
+      return timeouts;
+    }
+
+    /**
+     * Returns the number of times the lock was released because the holder's session expired.
+     *
+     * @return The number of times the lock was released because the holder's session expired.
+     */
+    public long getSessionExpirations() {
+      return sessionExpirations;
+    }
+
+    /**
+     * Returns the number of times the lock was released because the holder's lease expired.
+     *
+     * @return The number of times the lock was released because the holder's lease expired.
+     */
+    public long getLeaseExpirations() {
+      return leaseExpirations;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeInt(queueDepth)
+        .writeInt(maxQueueDepth)
+        .writeLong(acquisitions)
+        .writeLong(totalWaitEntries)
+        .writeLong(maxWaitEntries)
+        .writeLong(totalWaitTime)
+        .writeLong(maxWaitTime)
+        .writeLong(totalWallWaitTime)
+        .writeLong(maxWallWaitTime)
+        .writeLong(releases)
+        .writeLong(totalHoldTime)
+        .writeLong(maxHoldTime)
+        .writeLong(timeouts)
+        .writeLong(sessionExpirations)
+        .writeLong(leaseExpirations);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      queueDepth = buffer.readInt();
+      maxQueueDepth = buffer.readInt();
+      acquisitions = buffer.readLong();
+      totalWaitEntries = buffer.readLong();
+      maxWaitEntries = buffer.readLong();
+      totalWaitTime = buffer.readLong();
+      maxWaitTime = buffer.readLong();
+      totalWallWaitTime = buffer.readLong();
+      maxWallWaitTime = buffer.readLong();
+      releases = buffer.readLong();
+      totalHoldTime = buffer.readLong();
+      maxHoldTime = buffer.readLong();
+      timeouts = buffer.readLong();
+      sessionExpirations = buffer.readLong();
+      leaseExpirations = buffer.readLong();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[queueDepth=%d, maxQueueDepth=%d, acquisitions=%d, averageWaitEntries=%.1f, "
+          + "maxWaitEntries=%d, averageWaitTime=%s, maxWaitTime=%s, averageWallWaitTime=%s, maxWallWaitTime=%s, "
+          + "averageHoldTime=%s, maxHoldTime=%s, timeouts=%d, sessionExpirations=%d, leaseExpirations=%d]",
+        getClass().getSimpleName(), queueDepth, maxQueueDepth, acquisitions, getAverageWaitEntries(), maxWaitEntries,
+        getAverageWaitTime(), getMaxWaitTime(), getAverageWallWaitTime(), getMaxWallWaitTime(), getAverageHoldTime(),
+        getMaxHoldTime(), timeouts, sessionExpirations, leaseExpirations);
+    }
+  }
+
   private final Map<Integer, CompletableFuture<Long>> futures = new ConcurrentHashMap<>();
   private final AtomicInteger id = new AtomicInteger();
-  private int lock;
+  private final Listeners<Long> expireListeners = new Listeners<>();
+  private volatile int lock;
+  private final long lease;
+  private final boolean localQueueing;
+  private final int fairnessBudget;
+  private final Deque<LocalWaiter> waiters = new ArrayDeque<>();
+  private int pending;
+  private long token;
+  private boolean locked;
+  private int handoffs;
 
   public DistributedLock(CopycatClient client, Properties options) {
     super(client, options);
+    Options lockOptions = new Options(options);
+    this.localQueueing = lockOptions.isLocalQueueing();
+    this.fairnessBudget = lockOptions.getFairnessBudget();
+    Duration lease = lockOptions.getLease();
+    this.lease = lease != null ? lease.toMillis() : 0;
   }
 
   @Override
@@ -150,6 +586,7 @@ public class DistributedLock extends AbstractResource<DistributedLock> {
     return super.open().thenApply(result -> {
       client.onEvent("lock", this::handleEvent);
       client.onEvent("fail", this::handleFail);
+      client.onEvent("expire", this::handleExpire);
       return result;
     });
   }
@@ -158,6 +595,11 @@ public class DistributedLock extends AbstractResource<DistributedLock> {
    * Handles a received lock event.
    */
   private void handleEvent(LockCommands.LockEvent event) {
+    if (localQueueing) {
+      handleLocalEvent(event);
+      return;
+    }
+
     CompletableFuture<Long> future = futures.get(event.id());
     if (future != null) {
       this.lock = event.id();
@@ -169,12 +611,52 @@ public class DistributedLock extends AbstractResource<DistributedLock> {
    * Handles a received failure event.
    */
   private void handleFail(LockCommands.LockEvent event) {
+    if (localQueueing) {
+      handleLocalFail(event);
+      return;
+    }
+
     CompletableFuture<Long> future = futures.get(event.id());
     if (future != null) {
       future.complete(null);
     }
   }
 
+  /**
+   * Handles a received lease expiration event.
+   */
+  private void handleExpire(LockCommands.LockEvent event) {
+    synchronized (this) {
+      if (event.id() != lock) {
+        return;
+      }
+
+      lock = 0;
+      if (localQueueing) {
+        locked = false;
+        handoffs = 0;
+        if (!waiters.isEmpty() && pending == 0) {
+          request(-1);
+        }
+      }
+    }
+    expireListeners.accept(event.version());
+  }
+
+  /**
+   * Registers a callback to be called when the lease of a lock held by this instance expires.
+   * <p>
+   * The callback will be called with the fencing token of the expired lock. Once the lease has expired, the lock
+   * may be granted to another process.
+   *
+   * @param callback The callback to call when a lease expires.
+   * @return The lease expiration listener.
+   * @throws NullPointerException if the callback is {@code null}
+   */
+  public Listener<Long> onExpire(Consumer<Long> callback) {
+    return expireListeners.add(Assert.notNull(callback, "callback"));
+  }
+
   /**
    * Acquires the lock.
    * <p>
@@ -205,10 +687,14 @@ public class DistributedLock extends AbstractResource<DistributedLock> {
    * @return A completable future to be completed once the lock has been acquired.
    */
   public CompletableFuture<Long> lock() {
+    if (localQueueing) {
+      return localLock(-1);
+    }
+
     CompletableFuture<Long> future = new BlockingFuture<>();
     int id = this.id.incrementAndGet();
     futures.put(id, future);
-    client.submit(new LockCommands.Lock(id, -1)).whenComplete((result, error) -> {
+    client.submit(new LockCommands.Lock(id, -1, lease)).whenComplete((result, error) -> {
       if (error != null) {
         futures.remove(id);
         future.completeExceptionally(error);
@@ -259,10 +745,14 @@ public class DistributedLock extends AbstractResource<DistributedLock> {
    * @return A completable future to be completed with a boolean indicating whether the lock was acquired.
    */
   public CompletableFuture<Long> tryLock() {
+    if (localQueueing) {
+      return localLock(0);
+    }
+
     CompletableFuture<Long> future = new BlockingFuture<>();
     int id = this.id.incrementAndGet();
     futures.put(id, future);
-    client.submit(new LockCommands.Lock(id, 0)).whenComplete((result, error) -> {
+    client.submit(new LockCommands.Lock(id, 0, lease)).whenComplete((result, error) -> {
       if (error != null) {
         futures.remove(id);
         future.completeExceptionally(error);
@@ -321,10 +811,14 @@ public class DistributedLock extends AbstractResource<DistributedLock> {
    * @return A completable future to be completed with a value indicating whether the lock was acquired.
    */
   public CompletableFuture<Long> tryLock(Duration timeout) {
+    if (localQueueing) {
+      return localLock(timeout.toMillis());
+    }
+
     CompletableFuture<Long> future = new BlockingFuture<>();
     int id = this.id.incrementAndGet();
     futures.put(id, future);
-    client.submit(new LockCommands.Lock(id, timeout.toMillis())).whenComplete((result, error) -> {
+    client.submit(new LockCommands.Lock(id, timeout.toMillis(), lease)).whenComplete((result, error) -> {
       if (error != null) {
         futures.remove(id);
         future.completeExceptionally(error);
@@ -360,6 +854,10 @@ public class DistributedLock extends AbstractResource<DistributedLock> {
    * @return A completable future to be completed once the lock has been released.
    */
   public CompletableFuture<Void> unlock() {
+    if (localQueueing) {
+      return localUnlock();
+    }
+
     int lock = this.lock;
     this.lock = 0;
     if (lock != 0) {
@@ -368,4 +866,205 @@ public class DistributedLock extends AbstractResource<DistributedLock> {
     return CompletableFuture.completedFuture(null);
   }
 
+  /**
+   * Renews the lease of the lock held by this instance.
+   * <p>
+   * If the lock is held by this instance and was acquired with a {@link Options#withLease(Duration) lease}, the
+   * lease will be reset and the returned {@link CompletableFuture} will be completed {@code true}. If the lock is
+   * not held by this instance, e.g. because the lease already expired, the future will be completed {@code false}.
+   *
+   * @return A completable future to be completed with a boolean indicating whether the lease was renewed.
+   */
+  public CompletableFuture<Boolean> renew() {
+    int lock = this.lock;
+    if (lock == 0 || lease == 0) {
+      return CompletableFuture.completedFuture(false);
+    }
+    return client.submit(new LockCommands.Renew(lock, lease));
+  }
+
+  /**
+   * Returns contention statistics for the lock.
+   * <p>
+   * The statistics are local to the server that handles the query. See {@link Stats} for their limitations.
+   *
+   * @return A completable future to be completed with the lock's contention statistics.
+   */
+  public CompletableFuture<Stats> stats() {
+    return client.submit(new LockCommands.Stats());
+  }
+
+  /**
+   * Handles a received lock event when local queueing is enabled.
+   */
+  private void handleLocalEvent(LockCommands.LockEvent event) {
+    LocalWaiter waiter;
+    synchronized (this) {
+      if (event.id() != pending) {
+        return;
+      }
+
+      pending = 0;
+      lock = event.id();
+      token = event.version();
+      handoffs = 0;
+
+      waiter = nextWaiter();
+      if (waiter != null) {
+        locked = true;
+      } else {
+        // All local waiters timed out while the request was pending, so release the lock immediately.
+        lock = 0;
+        client.submit(new LockCommands.Unlock(event.id()));
+      }
+    }
+
+    if (waiter != null) {
+      waiter.future.complete(event.version());
+    }
+  }
+
+  /**
+   * Handles a received failure event when local queueing is enabled.
+   */
+  private void handleLocalFail(LockCommands.LockEvent event) {
+    LocalWaiter waiter;
+    synchronized (this) {
+      if (event.id() != pending) {
+        return;
+      }
+
+      pending = 0;
+      waiter = nextWaiter();
+      if (!waiters.isEmpty()) {
+        request(-1);
+      }
+    }
+
+    if (waiter != null) {
+      waiter.future.complete(null);
+    }
+  }
+
+  /**
+   * Acquires the lock when local queueing is enabled.
+   */
+  private CompletableFuture<Long> localLock(long timeout) {
+    CompletableFuture<Long> future = new BlockingFuture<>();
+    synchronized (this) {
+      boolean busy = locked || pending != 0;
+      if (busy && timeout == 0) {
+        future.complete(null);
+        return future;
+      }
+
+      LocalWaiter waiter = new LocalWaiter(future);
+      waiters.add(waiter);
+      if (!busy) {
+        // The request is forwarded to the cluster with the caller's timeout, so no local timer is needed.
+        request(timeout);
+      } else if (timeout > 0) {
+        waiter.timer = client.context().schedule(Duration.ofMillis(timeout), () -> {
+          boolean removed;
+          synchronized (this) {
+            removed = waiters.remove(waiter);
+          }
+          if (removed) {
+            future.complete(null);
+          }
+        });
+      }
+    }
+    return future;
+  }
+
+  /**
+   * Releases the lock when local queueing is enabled.
+   */
+  private CompletableFuture<Void> localUnlock() {
+    LocalWaiter waiter;
+    CompletableFuture<Void> future;
+    long token;
+    synchronized (this) {
+      if (!locked) {
+        return CompletableFuture.completedFuture(null);
+      }
+
+      // If local waiters remain and the fairness budget has not been exhausted, hand the lock off locally.
+      if (!waiters.isEmpty() && handoffs < fairnessBudget) {
+        handoffs++;
+        waiter = nextWaiter();
+        token = this.token;
+        future = CompletableFuture.completedFuture(null);
+      } else {
+        int lock = this.lock;
+        this.lock = 0;
+        locked = false;
+        waiter = null;
+        token = 0;
+        future = client.submit(new LockCommands.Unlock(lock));
+
+        // Requests are applied in the order in which they're submitted, so the new lock request is queued in
+        // the cluster behind any processes already waiting for the lock.
+        if (!waiters.isEmpty()) {
+          request(-1);
+        }
+      }
+    }
+
+    if (waiter != null) {
+      waiter.future.complete(token);
+    }
+    return future;
+  }
+
+  /**
+   * Submits a lock request to the cluster on behalf of local waiters.
+   */
+  private void request(long timeout) {
+    int id = this.id.incrementAndGet();
+    pending = id;
+    client.submit(new LockCommands.Lock(id, timeout, lease)).whenComplete((result, error) -> {
+      if (error != null) {
+        LocalWaiter waiter;
+        synchronized (this) {
+          if (pending != id) {
+            return;
+          }
+          pending = 0;
+          waiter = nextWaiter();
+          if (!waiters.isEmpty()) {
+            request(-1);
+          }
+        }
+        if (waiter != null) {
+          waiter.future.completeExceptionally(error);
+        }
+      }
+    });
+  }
+
+  /**
+   * Removes the next local waiter from the queue, cancelling its timer.
+   */
+  private LocalWaiter nextWaiter() {
+    LocalWaiter waiter = waiters.poll();
+    if (waiter != null && waiter.timer != null) {
+      waiter.timer.cancel();
+    }
+    return waiter;
+  }
+
+  /**
+   * Local lock waiter.
+   */
+  private static class LocalWaiter {
+    private final CompletableFuture<Long> future;
+    private Scheduled timer;
+
+    private LocalWaiter(CompletableFuture<Long> future) {
+      this.future = future;
+    }
+  }
+
 }
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent;
+
+import io.atomix.catalyst.concurrent.BlockingFuture;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.concurrent.internal.LockCommands;
+import io.atomix.concurrent.internal.LockTableCommands;
+import io.atomix.concurrent.util.DistributedLockTableFactory;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.resource.AbstractResource;
+import io.atomix.resource.ResourceTypeInfo;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Manages exclusive locks for an arbitrary number of keys within a single resource.
+ * <p>
+ * Each {@link DistributedLock} is a separate resource with its own replicated state machine, so locking a
+ * large number of distinct entities with individual locks is expensive. The lock table provides fine-grained
+ * locking of arbitrary string keys, with all locks managed by a single replicated state machine.
+ * <pre>
+ *   {@code
+ *   DistributedLockTable locks = atomix.getLockTable("accounts").get();
+ *   locks.lock("account-1").thenRun(() -> {
+ *     ...
+ *     locks.unlock("account-1");
+ *   });
+ *   }
+ * </pre>
+ * Lock requests for each key are granted in the order in which they're received by the cluster. Keys are only
+ * tracked by the cluster while they're locked or requested, so locking many distinct keys over time does not
+ * grow the state of the resource.
+ * <h3>Locking multiple keys</h3>
+ * Multiple keys can be locked together with {@link #lockAll(Collection)}. The returned future is completed once
+ * all the keys have been acquired. Keys are acquired by the cluster in a consistent sorted order regardless of
+ * the order in which they're provided, so concurrent multi-key requests for overlapping sets of keys cannot
+ * deadlock one another. Keys locked together are released together: unlocking any key acquired by a
+ * {@code lockAll} call releases all the keys acquired by that call.
+ * <p>
+ * As with {@link DistributedLock}, locks are granted via session events and are automatically released if the
+ * holder's session expires, and each granted lock is assigned a monotonically increasing token that can be
+ * used for fencing.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@ResourceTypeInfo(id=-26, factory=DistributedLockTableFactory.class)
+public class DistributedLockTable extends AbstractResource<DistributedLockTable> {
+  private final Map<Integer, CompletableFuture<Long>> futures = new ConcurrentHashMap<>();
+  private final Map<Integer, Collection<String>> requests = new ConcurrentHashMap<>();
+  private final Map<String, Integer> locks = new ConcurrentHashMap<>();
+  private final AtomicInteger id = new AtomicInteger();
+
+  public DistributedLockTable(CopycatClient client, Properties options) {
+    super(client, options);
+  }
+
+  @Override
+  public CompletableFuture<DistributedLockTable> open() {
+    return super.open().thenApply(result -> {
+      client.onEvent("lock", this::handleEvent);
+      client.onEvent("fail", this::handleFail);
+      return result;
+    });
+  }
+
+  /**
+   * Handles a received lock event.
+   */
+  private void handleEvent(LockCommands.LockEvent event) {
+    Collection<String> keys = requests.remove(event.id());
+    if (keys != null) {
+      for (String key : keys) {
+        locks.put(key, event.id());
+      }
+    }
+
+    CompletableFuture<Long> future = futures.remove(event.id());
+    if (future != null) {
+      future.complete(event.version());
+    }
+  }
+
+  /**
+   * Handles a received failure event.
+   */
+  private void handleFail(LockCommands.LockEvent event) {
+    requests.remove(event.id());
+    CompletableFuture<Long> future = futures.remove(event.id());
+    if (future != null) {
+      future.complete(null);
+    }
+  }
+
+  /**
+   * Acquires the lock for the given key.
+   * <p>
+   * The returned {@link CompletableFuture} will not be completed until the lock for the key has been acquired.
+   * Once the lock is granted, the future will be completed with a monotonically increasing token that can be
+   * used for fencing.
+   *
+   * @param key The key to lock.
+   * @return A completable future to be completed once the key has been locked.
+   * @throws NullPointerException if the key is {@code null}
+   */
+  public CompletableFuture<Long> lock(String key) {
+    return lock(Collections.singleton(Assert.notNull(key, "key")), -1);
+  }
+
+  /**
+   * Attempts to acquire the lock for the given key if available.
+   * <p>
+   * If the key cannot be immediately locked, the returned {@link CompletableFuture} will be completed with a
+   * {@code null} value.
+   *
+   * @param key The key to lock.
+   * @return A completable future to be completed with the lock token if the key was locked.
+   * @throws NullPointerException if the key is {@code null}
+   */
+  public CompletableFuture<Long> tryLock(String key) {
+    return lock(Collections.singleton(Assert.notNull(key, "key")), 0);
+  }
+
+  /**
+   * Attempts to acquire the lock for the given key within the given timeout.
+   * <p>
+   * If the key cannot be locked before the {@code timeout} expires, the returned {@link CompletableFuture} will
+   * be completed with a {@code null} value. As with {@link DistributedLock#tryLock(Duration)}, the timeout may
+   * be arbitrarily greater, but not less, than the provided {@code timeout}.
+   *
+   * @param key The key to lock.
+   * @param timeout The duration within which to lock the key.
+   * @return A completable future to be completed with the lock token if the key was locked.
+   * @throws NullPointerException if the key or timeout is {@code null}
+   */
+  public CompletableFuture<Long> tryLock(String key, Duration timeout) {
+    return lock(Collections.singleton(Assert.notNull(key, "key")), Assert.notNull(timeout, "timeout").toMillis());
+  }
+
+  /**
+   * Acquires the locks for all of the given keys.
+   * <p>
+   * The returned {@link CompletableFuture} will not be completed until the locks for all of the keys have been
+   * acquired. Keys are acquired in sorted order by the cluster, so concurrent requests for overlapping sets of
+   * keys cannot deadlock.
+   *
+   * @param keys The keys to lock.
+   * @return A completable future to be completed once all of the keys have been locked.
+   * @throws NullPointerException if the keys are {@code null}
+   * @throws IllegalArgumentException if no keys are provided
+   */
+  public CompletableFuture<Long> lockAll(Collection<String> keys) {
+    return lock(keys, -1);
+  }
+
+  /**
+   * Attempts to acquire the locks for all of the given keys if available.
+   * <p>
+   * If any of the keys cannot be immediately locked, none of the keys will be locked and the returned
+   * {@link CompletableFuture} will be completed with a {@code null} value.
+   *
+   * @param keys The keys to lock.
+   * @return A completable future to be completed with the lock token if the keys were locked.
+   * @throws NullPointerException if the keys are {@code null}
+   * @throws IllegalArgumentException if no keys are provided
+   */
+  public CompletableFuture<Long> tryLockAll(Collection<String> keys) {
+    return lock(keys, 0);
+  }
+
+  /**
+   * Attempts to acquire the locks for all of the given keys within the given timeout.
+   * <p>
+   * If all of the keys cannot be locked before the {@code timeout} expires, any keys acquired by the request will
+   * be released and the returned {@link CompletableFuture} will be completed with a {@code null} value.
+   *
+   * @param keys The keys to lock.
+   * @param timeout The duration within which to lock the keys.
+   * @return A completable future to be completed with the lock token if the keys were locked.
+   * @throws NullPointerException if the keys or timeout are {@code null}
+   * @throws IllegalArgumentException if no keys are provided
+   */
+  public CompletableFuture<Long> tryLockAll(Collection<String> keys, Duration timeout) {
+    return lock(keys, Assert.notNull(timeout, "timeout").toMillis());
+  }
+
+  /**
+   * Releases the lock for the given key.
+   * <p>
+   * If the key was locked together with other keys via {@link #lockAll(Collection)}, all of the keys acquired
+   * with it will be released as well. If the key is not locked by this instance, the returned future is
+   * completed immediately.
+   *
+   * @param key The key to unlock.
+   * @return A completable future to be completed once the key has been unlocked.
+   */
+  public CompletableFuture<Void> unlock(String key) {
+    Integer id = locks.remove(key);
+    if (id != null) {
+      locks.values().removeIf(id::equals);
+      return client.submit(new LockTableCommands.Unlock(id));
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+
+  /**
+   * Releases the locks for all of the given keys.
+   *
+   * @param keys The keys to unlock.
+   * @return A completable future to be completed once all of the keys have been unlocked.
+   */
+  public CompletableFuture<Void> unlockAll(Collection<String> keys) {
+    Set<Integer> ids = new HashSet<>();
+    for (String key : keys) {
+      Integer id = locks.remove(key);
+      if (id != null) {
+        ids.add(id);
+      }
+    }
+
+    if (ids.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    locks.values().removeIf(ids::contains);
+    CompletableFuture[] futures = new CompletableFuture[ids.size()];
+    int i = 0;
+    for (Integer id : ids) {
+      futures[i++] = client.submit(new LockTableCommands.Unlock(id));
+    }
+    return CompletableFuture.allOf(futures);
+  }
+
+  /**
+   * Submits a lock request.
+   */
+  private CompletableFuture<Long> lock(Collection<String> keys, long timeout) {
+    Assert.notNull(keys, "keys");
+    Assert.arg(!keys.isEmpty(), "keys cannot be empty");
+    CompletableFuture<Long> future = new BlockingFuture<>();
+    int id = this.id.incrementAndGet();
+    futures.put(id, future);
+    requests.put(id, keys);
+    client.submit(new LockTableCommands.Lock(id, keys, timeout)).whenComplete((result, error) -> {
+      if (error != null) {
+        futures.remove(id);
+        requests.remove(id);
+        future.completeExceptionally(error);
+      }
+    });
+    return future;
+  }
+
+}
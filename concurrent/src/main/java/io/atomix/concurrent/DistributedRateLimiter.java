@@ -0,0 +1,383 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent;
+
+import io.atomix.catalyst.concurrent.BlockingFuture;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.concurrent.internal.RateLimiterCommands;
+import io.atomix.concurrent.util.DistributedRateLimiterFactory;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.resource.AbstractResource;
+import io.atomix.resource.Resource;
+import io.atomix.resource.ResourceTypeInfo;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the rate at which operations are performed across the cluster.
+ * <p>
+ * The distributed rate limiter stores a set of token buckets keyed by name. Each bucket holds up to a configured
+ * {@link Config#withCapacity(long) capacity} of permits and is refilled at a configured
+ * {@link Config#withRate(long, Duration) rate}. Permits are acquired from a bucket by name, so a single rate
+ * limiter resource can enforce independent limits for e.g. each user or endpoint.
+ * <pre>
+ *   {@code
+ *   DistributedRateLimiter limiter = atomix.getRateLimiter("requests", new DistributedRateLimiter.Config()
+ *     .withRate(100, Duration.ofSeconds(1))).get();
+ *   limiter.tryAcquire("user-1").thenAccept(acquired -> {
+ *     if (acquired) {
+ *       ...
+ *     }
+ *   });
+ *   }
+ * </pre>
+ * {@link #tryAcquire(String, long) tryAcquire} requests complete immediately, indicating whether the requested
+ * permits were available. {@link #acquire(String, long) acquire} requests are queued in the cluster until the
+ * requested permits have been refilled. Queued requests are granted in the order in which they were made, and
+ * {@code tryAcquire} requests fail while requests are queued for the same bucket.
+ * <h3>Permit batching</h3>
+ * Each permit acquired from the cluster requires a write to the replicated log. Clients that acquire permits at a
+ * high rate can configure a {@link Options#withBatchSize(long) batch size} to acquire permits from the cluster in
+ * batches. Permits that remain from a batch are handed out locally without communicating with the cluster. Because
+ * batched permits are removed from the bucket before they're used, batching trades some precision in the global
+ * rate for fewer writes. Unused batched permits are returned to the cluster when the resource is closed.
+ * <h3>Implementation</h3>
+ * Buckets are stored in a Copycat replicated {@link io.atomix.copycat.server.StateMachine}. Buckets are refilled
+ * according to the time of the replicated log rather than the wall clock of any particular server, so all replicas
+ * hold the same number of permits at any point in the log. Buckets that are full and have no queued requests are
+ * removed from memory, and the state of remaining buckets is periodically written to snapshots, allowing prior
+ * {@code tryAcquire} requests to be removed from the log.
+ * <p>
+ * Queued {@code acquire} requests are tracked by the session that made them. If a client's session expires, its
+ * queued requests are removed from the bucket.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@ResourceTypeInfo(id=-23, factory=DistributedRateLimiterFactory.class)
+public class DistributedRateLimiter extends AbstractResource<DistributedRateLimiter> {
+
+  /**
+   * Rate limiter configuration.
+   */
+  public static class Config extends Resource.Config {
+    private static final long DEFAULT_PERMITS = 100;
+    private static final long DEFAULT_PERIOD = 1000;
+
+    public Config() {
+    }
+
+    public Config(Properties defaults) {
+      super(defaults);
+    }
+
+    /**
+     * Sets the rate at which buckets are refilled.
+     *
+     * @param permits The number of permits to refill per period.
+     * @param period The period over which to refill the given number of permits.
+     * @return The rate limiter configuration.
+     * @throws IllegalArgumentException if the number of permits or the period is not positive
+     * @throws NullPointerException if the period is {@code null}
+     */
+    public Config withRate(long permits, Duration period) {
+      Assert.arg(permits > 0, "permits must be positive");
+      Assert.arg(Assert.notNull(period, "period").toMillis() > 0, "period must be positive");
+      setProperty("rate.permits", String.valueOf(permits));
+      setProperty("rate.period", String.valueOf(period.toMillis()));
+      return this;
+    }
+
+    /**
+     * Returns the number of permits refilled per {@link #getPeriod() period}.
+     *
+     * @return The number of permits refilled per period.
+     */
+    public long getPermits() {
+      return Long.valueOf(getProperty("rate.permits", String.valueOf(DEFAULT_PERMITS)));
+    }
+
+    /**
+     * Returns the period over which {@link #getPermits() permits} are refilled.
+     *
+     * @return The refill period.
+     */
+    public Duration getPeriod() {
+      return Duration.ofMillis(Long.valueOf(getProperty("rate.period", String.valueOf(DEFAULT_PERIOD))));
+    }
+
+    /**
+     * Sets the maximum number of permits a bucket can hold.
+     *
+     * @param capacity The maximum number of permits a bucket can hold.
+     * @return The rate limiter configuration.
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public Config withCapacity(long capacity) {
+      Assert.arg(capacity > 0, "capacity must be positive");
+      setProperty("capacity", String.valueOf(capacity));
+      return this;
+    }
+
+    /**
+     * Returns the maximum number of permits a bucket can hold.
+     * <p>
+     * Defaults to the number of {@link #getPermits() permits} refilled per period.
+     *
+     * @return The maximum number of permits a bucket can hold.
+     */
+    public long getCapacity() {
+      return Long.valueOf(getProperty("capacity", String.valueOf(getPermits())));
+    }
+  }
+
+  /**
+   * Rate limiter options.
+   */
+  public static class Options extends Resource.Options {
+    private static final long DEFAULT_BATCH_SIZE = 1;
+
+    public Options() {
+    }
+
+    public Options(Properties defaults) {
+      super(defaults);
+    }
+
+    /**
+     * Sets the number of permits to acquire from the cluster per request.
+     *
+     * @param batchSize The number of permits to acquire from the cluster per request.
+     * @return The rate limiter options.
+     * @throws IllegalArgumentException if the batch size is not positive
+     */
+    public Options withBatchSize(long batchSize) {
+      Assert.arg(batchSize > 0, "batchSize must be positive");
+      setProperty("batchSize", String.valueOf(batchSize));
+      return this;
+    }
+
+    /**
+     * Returns the number of permits to acquire from the cluster per request.
+     *
+     * @return The number of permits to acquire from the cluster per request.
+     */
+    public long getBatchSize() {
+      return Long.valueOf(getProperty("batchSize", String.valueOf(DEFAULT_BATCH_SIZE)));
+    }
+  }
+
+  private final long batchSize;
+  private final Map<String, AtomicLong> batches = new ConcurrentHashMap<>();
+  private final Map<Integer, CompletableFuture<Boolean>> futures = new ConcurrentHashMap<>();
+  private final AtomicInteger id = new AtomicInteger();
+
+  public DistributedRateLimiter(CopycatClient client, Properties options) {
+    super(client, options);
+    this.batchSize = new Options(options).getBatchSize();
+  }
+
+  @Override
+  public Resource.Config config() {
+    return new Config(super.config());
+  }
+
+  @Override
+  public CompletableFuture<DistributedRateLimiter> open() {
+    return super.open().thenApply(result -> {
+      client.onEvent("acquire", this::handleAcquire);
+      client.onEvent("fail", this::handleFail);
+      return result;
+    });
+  }
+
+  /**
+   * Handles a received acquire event.
+   */
+  private void handleAcquire(RateLimiterCommands.AcquireEvent event) {
+    CompletableFuture<Boolean> future = futures.remove(event.id());
+    if (future != null) {
+      future.complete(true);
+    }
+  }
+
+  /**
+   * Handles a received failure event.
+   */
+  private void handleFail(RateLimiterCommands.AcquireEvent event) {
+    CompletableFuture<Boolean> future = futures.remove(event.id());
+    if (future != null) {
+      future.complete(false);
+    }
+  }
+
+  /**
+   * Attempts to acquire a single permit from the given bucket.
+   *
+   * @param key The bucket key.
+   * @return A completable future to be completed with a boolean indicating whether the permit was acquired.
+   * @see #tryAcquire(String, long)
+   */
+  public CompletableFuture<Boolean> tryAcquire(String key) {
+    return tryAcquire(key, 1);
+  }
+
+  /**
+   * Attempts to acquire the given number of permits from the given bucket.
+   * <p>
+   * If enough permits remain from a batch previously acquired by this instance, the returned
+   * {@link CompletableFuture} will be completed immediately. Otherwise, permits will be requested from the
+   * cluster. If the requested permits are not available, the returned future will be completed {@code false}.
+   *
+   * @param key The bucket key.
+   * @param permits The number of permits to acquire.
+   * @return A completable future to be completed with a boolean indicating whether the permits were acquired.
+   * @throws NullPointerException if the key is {@code null}
+   * @throws IllegalArgumentException if the number of permits is not positive
+   */
+  public CompletableFuture<Boolean> tryAcquire(String key, long permits) {
+    Assert.notNull(key, "key");
+    Assert.arg(permits > 0, "permits must be positive");
+    if (acquireLocal(key, permits)) {
+      return CompletableFuture.completedFuture(true);
+    }
+
+    return client.submit(new RateLimiterCommands.TryAcquire(key, permits, Math.max(permits, batchSize))).thenApply(acquired -> {
+      if (acquired < permits) {
+        return false;
+      }
+      if (acquired > permits) {
+        batches.computeIfAbsent(key, k -> new AtomicLong()).addAndGet(acquired - permits);
+      }
+      return true;
+    });
+  }
+
+  /**
+   * Acquires a single permit from the given bucket.
+   *
+   * @param key The bucket key.
+   * @return A completable future to be completed once the permit has been acquired.
+   * @see #acquire(String, long)
+   */
+  public CompletableFuture<Void> acquire(String key) {
+    return acquire(key, 1);
+  }
+
+  /**
+   * Acquires the given number of permits from the given bucket.
+   * <p>
+   * If the requested permits are not available, the request will be queued in the cluster and the returned
+   * {@link CompletableFuture} will be completed once the permits have been refilled and granted to this instance.
+   *
+   * @param key The bucket key.
+   * @param permits The number of permits to acquire.
+   * @return A completable future to be completed once the permits have been acquired.
+   * @throws NullPointerException if the key is {@code null}
+   * @throws IllegalArgumentException if the number of permits is not positive
+   */
+  public CompletableFuture<Void> acquire(String key, long permits) {
+    return acquire(key, permits, -1).thenApply(v -> null);
+  }
+
+  /**
+   * Attempts to acquire the given number of permits from the given bucket within the given timeout.
+   * <p>
+   * If the requested permits are not available, the request will be queued in the cluster until the permits
+   * have been refilled. If the {@code timeout} expires before the permits are granted, the request will be
+   * cancelled and the returned {@link CompletableFuture} will be completed {@code false}.
+   * <p>
+   * As with {@link DistributedLock#tryLock(Duration)}, the timeout is measured in the time of the replicated log
+   * and may be arbitrarily greater, but not less, than the provided {@code timeout}.
+   *
+   * @param key The bucket key.
+   * @param permits The number of permits to acquire.
+   * @param timeout The duration within which to acquire the permits.
+   * @return A completable future to be completed with a boolean indicating whether the permits were acquired.
+   * @throws NullPointerException if the key or timeout is {@code null}
+   * @throws IllegalArgumentException if the number of permits is not positive
+   */
+  public CompletableFuture<Boolean> tryAcquire(String key, long permits, Duration timeout) {
+    return acquire(key, permits, Assert.notNull(timeout, "timeout").toMillis());
+  }
+
+  /**
+   * Acquires permits with the given timeout.
+   */
+  private CompletableFuture<Boolean> acquire(String key, long permits, long timeout) {
+    Assert.notNull(key, "key");
+    Assert.arg(permits > 0, "permits must be positive");
+    if (acquireLocal(key, permits)) {
+      return CompletableFuture.completedFuture(true);
+    }
+
+    CompletableFuture<Boolean> future = new BlockingFuture<>();
+    int id = this.id.incrementAndGet();
+    futures.put(id, future);
+    client.submit(new RateLimiterCommands.Acquire(key, id, permits, timeout)).whenComplete((result, error) -> {
+      if (error != null) {
+        futures.remove(id);
+        future.completeExceptionally(error);
+      } else if (result) {
+        futures.remove(id);
+        future.complete(true);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Attempts to acquire permits from the local batch for the given bucket.
+   */
+  private boolean acquireLocal(String key, long permits) {
+    AtomicLong batch = batches.get(key);
+    if (batch == null) {
+      return false;
+    }
+
+    long available = batch.get();
+    while (available >= permits) {
+      if (batch.compareAndSet(available, available - permits)) {
+        return true;
+      }
+      available = batch.get();
+    }
+    return false;
+  }
+
+  @Override
+  public CompletableFuture<Void> close() {
+    List<CompletableFuture<Void>> releases = new ArrayList<>();
+    for (Map.Entry<String, AtomicLong> entry : batches.entrySet()) {
+      long permits = entry.getValue().getAndSet(0);
+      if (permits > 0) {
+        releases.add(client.submit(new RateLimiterCommands.Release(entry.getKey(), permits)));
+      }
+    }
+    batches.clear();
+    return CompletableFuture.allOf(releases.toArray(new CompletableFuture[releases.size()]))
+      .handle((result, error) -> null)
+      .thenCompose(v -> super.close());
+  }
+
+}
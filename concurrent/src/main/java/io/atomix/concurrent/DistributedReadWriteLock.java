@@ -0,0 +1,238 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent;
+
+import io.atomix.catalyst.concurrent.BlockingFuture;
+import io.atomix.concurrent.internal.LockCommands;
+import io.atomix.concurrent.internal.ReadWriteLockCommands;
+import io.atomix.concurrent.util.DistributedReadWriteLockFactory;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.resource.AbstractResource;
+import io.atomix.resource.ResourceTypeInfo;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Facilitates synchronizing access to cluster-wide shared resources with shared read and exclusive write modes.
+ * <p>
+ * The distributed read-write lock is an asynchronous version of Java's
+ * {@link java.util.concurrent.locks.ReadWriteLock}. Any number of processes may hold the lock in read mode
+ * simultaneously, but a process holding the lock in write mode holds it exclusively.
+ * <pre>
+ *   {@code
+ *   DistributedReadWriteLock lock = atomix.getReadWriteLock("my-lock").get();
+ *   lock.readLock().thenRun(() -> {
+ *     ...
+ *     lock.unlockRead();
+ *   });
+ *   }
+ * </pre>
+ * Lock requests are granted in the order in which they're received by the cluster. When a read lock is granted,
+ * all read requests queued immediately behind it are granted as well. Read requests queued behind a write request
+ * will not be granted until the write lock has been released, so writers are not starved by readers.
+ * <p>
+ * As with {@link DistributedLock}, locks are granted via session events and are automatically released if the
+ * holder's session expires, and each granted lock is assigned a monotonically increasing token that can be
+ * used for fencing. See {@link DistributedLock} for a discussion of detecting failures and fencing.
+ * <h3>Implementation</h3>
+ * Lock state management is implemented in a Copycat replicated {@link io.atomix.copycat.server.StateMachine}
+ * that tracks the current write holder, the set of read holders, and a queue of pending requests. As with
+ * {@link DistributedLock}, commits requesting the lock are retained in the log for as long as the lock is
+ * held or requested and are released once the lock is released.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@ResourceTypeInfo(id=-24, factory=DistributedReadWriteLockFactory.class)
+public class DistributedReadWriteLock extends AbstractResource<DistributedReadWriteLock> {
+  private final Map<Integer, CompletableFuture<Long>> readFutures = new ConcurrentHashMap<>();
+  private final Map<Integer, CompletableFuture<Long>> writeFutures = new ConcurrentHashMap<>();
+  private final Deque<Integer> readLocks = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger id = new AtomicInteger();
+  private volatile int writeLock;
+
+  public DistributedReadWriteLock(CopycatClient client, Properties options) {
+    super(client, options);
+  }
+
+  @Override
+  public CompletableFuture<DistributedReadWriteLock> open() {
+    return super.open().thenApply(result -> {
+      client.onEvent("lock", this::handleEvent);
+      client.onEvent("fail", this::handleFail);
+      return result;
+    });
+  }
+
+  /**
+   * Handles a received lock event.
+   */
+  private void handleEvent(LockCommands.LockEvent event) {
+    CompletableFuture<Long> future = readFutures.remove(event.id());
+    if (future != null) {
+      readLocks.push(event.id());
+      future.complete(event.version());
+    } else {
+      future = writeFutures.remove(event.id());
+      if (future != null) {
+        writeLock = event.id();
+        future.complete(event.version());
+      }
+    }
+  }
+
+  /**
+   * Handles a received failure event.
+   */
+  private void handleFail(LockCommands.LockEvent event) {
+    CompletableFuture<Long> future = readFutures.remove(event.id());
+    if (future == null) {
+      future = writeFutures.remove(event.id());
+    }
+    if (future != null) {
+      future.complete(null);
+    }
+  }
+
+  /**
+   * Acquires the lock in shared read mode.
+   * <p>
+   * The returned {@link CompletableFuture} will not be completed until the read lock has been acquired. Once
+   * the lock is granted, the future will be completed with a monotonically increasing token that can be used
+   * for fencing.
+   *
+   * @return A completable future to be completed once the read lock has been acquired.
+   */
+  public CompletableFuture<Long> readLock() {
+    return lock(false, -1);
+  }
+
+  /**
+   * Attempts to acquire the lock in shared read mode if available.
+   * <p>
+   * If the read lock cannot be immediately acquired, the returned {@link CompletableFuture} will be completed
+   * with a {@code null} value.
+   *
+   * @return A completable future to be completed with the lock token if the read lock was acquired.
+   */
+  public CompletableFuture<Long> tryReadLock() {
+    return lock(false, 0);
+  }
+
+  /**
+   * Attempts to acquire the lock in shared read mode within the given timeout.
+   * <p>
+   * If the read lock cannot be acquired before the {@code timeout} expires, the returned {@link CompletableFuture}
+   * will be completed with a {@code null} value. As with {@link DistributedLock#tryLock(Duration)}, the timeout
+   * may be arbitrarily greater, but not less, than the provided {@code timeout}.
+   *
+   * @param timeout The duration within which to acquire the read lock.
+   * @return A completable future to be completed with the lock token if the read lock was acquired.
+   */
+  public CompletableFuture<Long> tryReadLock(Duration timeout) {
+    return lock(false, timeout.toMillis());
+  }
+
+  /**
+   * Releases a read lock held by this instance.
+   *
+   * @return A completable future to be completed once the read lock has been released.
+   */
+  public CompletableFuture<Void> unlockRead() {
+    Integer lock = readLocks.poll();
+    if (lock != null) {
+      return client.submit(new ReadWriteLockCommands.Unlock(lock));
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+
+  /**
+   * Acquires the lock in exclusive write mode.
+   * <p>
+   * The returned {@link CompletableFuture} will not be completed until the write lock has been acquired. Once
+   * the lock is granted, the future will be completed with a monotonically increasing token that can be used
+   * for fencing.
+   *
+   * @return A completable future to be completed once the write lock has been acquired.
+   */
+  public CompletableFuture<Long> writeLock() {
+    return lock(true, -1);
+  }
+
+  /**
+   * Attempts to acquire the lock in exclusive write mode if available.
+   * <p>
+   * If the write lock cannot be immediately acquired, the returned {@link CompletableFuture} will be completed
+   * with a {@code null} value.
+   *
+   * @return A completable future to be completed with the lock token if the write lock was acquired.
+   */
+  public CompletableFuture<Long> tryWriteLock() {
+    return lock(true, 0);
+  }
+
+  /**
+   * Attempts to acquire the lock in exclusive write mode within the given timeout.
+   * <p>
+   * If the write lock cannot be acquired before the {@code timeout} expires, the returned {@link CompletableFuture}
+   * will be completed with a {@code null} value. As with {@link DistributedLock#tryLock(Duration)}, the timeout
+   * may be arbitrarily greater, but not less, than the provided {@code timeout}.
+   *
+   * @param timeout The duration within which to acquire the write lock.
+   * @return A completable future to be completed with the lock token if the write lock was acquired.
+   */
+  public CompletableFuture<Long> tryWriteLock(Duration timeout) {
+    return lock(true, timeout.toMillis());
+  }
+
+  /**
+   * Releases the write lock held by this instance.
+   *
+   * @return A completable future to be completed once the write lock has been released.
+   */
+  public CompletableFuture<Void> unlockWrite() {
+    int lock = this.writeLock;
+    this.writeLock = 0;
+    if (lock != 0) {
+      return client.submit(new ReadWriteLockCommands.Unlock(lock));
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+
+  /**
+   * Submits a lock request.
+   */
+  private CompletableFuture<Long> lock(boolean write, long timeout) {
+    CompletableFuture<Long> future = new BlockingFuture<>();
+    int id = this.id.incrementAndGet();
+    Map<Integer, CompletableFuture<Long>> futures = write ? writeFutures : readFutures;
+    futures.put(id, future);
+    client.submit(new ReadWriteLockCommands.Lock(id, write, timeout)).whenComplete((result, error) -> {
+      if (error != null) {
+        futures.remove(id);
+        future.completeExceptionally(error);
+      }
+    });
+    return future;
+  }
+
+}
@@ -0,0 +1,436 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.concurrent.Listener;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.concurrent.internal.SchedulerCommands;
+import io.atomix.concurrent.util.DistributedSchedulerFactory;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.resource.AbstractResource;
+import io.atomix.resource.ResourceTypeInfo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
+
+/**
+ * Fires named schedules on live workers in the cluster.
+ * <p>
+ * The distributed scheduler replaces combinations of leader election and local scheduled executors for periodic
+ * cluster jobs. Schedules are stored in the replicated state machine and fire based on the logical time of the
+ * Raft log, so a schedule fires at the same point in the log on every replica regardless of leader changes.
+ * Each firing is assigned to exactly one of the instances {@link #onTask(String, Consumer) registered} as workers
+ * for the schedule.
+ * <pre>
+ *   {@code
+ *   DistributedScheduler scheduler = atomix.getScheduler("jobs").get();
+ *   scheduler.onTask("compaction", task -> {
+ *     compact();
+ *     task.complete();
+ *   });
+ *   scheduler.schedule("compaction", Duration.ofMinutes(1), Duration.ofMinutes(1), DistributedScheduler.Delivery.AT_LEAST_ONCE);
+ *   }
+ * </pre>
+ * <h3>Delivery</h3>
+ * Each schedule has at most one outstanding firing. {@link Delivery#AT_MOST_ONCE At-most-once} firings are sent
+ * to a single worker and are never redelivered. {@link Delivery#AT_LEAST_ONCE At-least-once} firings remain
+ * outstanding until the worker {@link Task#complete() completes} the task. If the worker's session expires or is
+ * closed first, the firing is reassigned to another worker, and if no worker is registered the firing is held
+ * until one registers.
+ * <h3>Missed firings</h3>
+ * A firing is missed if no worker is registered for an at-most-once schedule, if the previous at-least-once
+ * firing is still outstanding, or if the cluster was unavailable for longer than the schedule's interval.
+ * Missed firings are reported to {@link #onMissed(Consumer) missed listeners}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@ResourceTypeInfo(id=-30, factory=DistributedSchedulerFactory.class)
+public class DistributedScheduler extends AbstractResource<DistributedScheduler> {
+
+  /**
+   * Schedule delivery semantics.
+   */
+  public enum Delivery {
+
+    /**
+     * Each firing is sent to at most one worker and is not redelivered if the worker fails.
+     */
+    AT_MOST_ONCE,
+
+    /**
+     * Each firing is redelivered until a worker completes it.
+     */
+    AT_LEAST_ONCE
+
+  }
+
+  private final Map<String, Set<TaskListener>> taskListeners = new ConcurrentHashMap<>();
+  private final Set<MissedListener> missedListeners = new CopyOnWriteArraySet<>();
+
+  public DistributedScheduler(CopycatClient client, Properties options) {
+    super(client, options);
+  }
+
+  @Override
+  public CompletableFuture<DistributedScheduler> open() {
+    return super.open().thenApply(result -> {
+      client.onEvent("task", this::onTaskEvent);
+      client.onEvent("missed", this::onMissedEvent);
+      return result;
+    });
+  }
+
+  /**
+   * Handles a task event.
+   */
+  private void onTaskEvent(SchedulerCommands.TaskEvent event) {
+    Set<TaskListener> listeners = taskListeners.get(event.name());
+    if (listeners != null) {
+      Task task = new Task(event.name(), event.sequence(), event.time());
+      for (TaskListener listener : listeners) {
+        listener.accept(task);
+      }
+    }
+  }
+
+  /**
+   * Handles a missed event.
+   */
+  private void onMissedEvent(Missed missed) {
+    for (MissedListener listener : missedListeners) {
+      listener.accept(missed);
+    }
+  }
+
+  /**
+   * Schedules a single firing after the given delay.
+   * <p>
+   * If a schedule with the given name already exists, it will be replaced and any outstanding firing of the
+   * existing schedule discarded.
+   *
+   * @param name The schedule name.
+   * @param delay The delay after which to fire the schedule.
+   * @param delivery The delivery semantics for the firing.
+   * @return A completable future to be completed once the schedule has been stored in the cluster.
+   * @throws NullPointerException if any argument is {@code null}
+   * @throws IllegalArgumentException if the delay is negative
+   */
+  public CompletableFuture<Void> schedule(String name, Duration delay, Delivery delivery) {
+    Assert.notNull(name, "name");
+    Assert.arg(!Assert.notNull(delay, "delay").isNegative(), "delay cannot be negative");
+    return client.submit(new SchedulerCommands.Schedule(name, delay.toMillis(), 0, Assert.notNull(delivery, "delivery")));
+  }
+
+  /**
+   * Schedules periodic firings after the given delay.
+   * <p>
+   * If a schedule with the given name already exists, it will be replaced and any outstanding firing of the
+   * existing schedule discarded.
+   *
+   * @param name The schedule name.
+   * @param delay The delay after which to fire the schedule for the first time.
+   * @param interval The interval at which to fire the schedule.
+   * @param delivery The delivery semantics for firings.
+   * @return A completable future to be completed once the schedule has been stored in the cluster.
+   * @throws NullPointerException if any argument is {@code null}
+   * @throws IllegalArgumentException if the delay is negative or the interval is not positive
+   */
+  public CompletableFuture<Void> schedule(String name, Duration delay, Duration interval, Delivery delivery) {
+    Assert.notNull(name, "name");
+    Assert.arg(!Assert.notNull(delay, "delay").isNegative(), "delay cannot be negative");
+    Assert.arg(Assert.notNull(interval, "interval").toMillis() > 0, "interval must be positive");
+    return client.submit(new SchedulerCommands.Schedule(name, delay.toMillis(), interval.toMillis(), Assert.notNull(delivery, "delivery")));
+  }
+
+  /**
+   * Cancels a schedule.
+   *
+   * @param name The schedule name.
+   * @return A completable future to be completed with a boolean value indicating whether the schedule existed.
+   * @throws NullPointerException if the name is {@code null}
+   */
+  public CompletableFuture<Boolean> cancel(String name) {
+    return client.submit(new SchedulerCommands.Cancel(Assert.notNull(name, "name")));
+  }
+
+  /**
+   * Registers the instance as a worker for a schedule.
+   * <p>
+   * The first listener registered for a schedule registers the instance with the cluster as a worker for the
+   * schedule. The returned {@link CompletableFuture} will be completed once the instance has been registered.
+   * Once all listeners for the schedule have been {@link Listener#close() closed}, the instance will be
+   * unregistered. Tasks for {@link Delivery#AT_LEAST_ONCE at-least-once} schedules must be
+   * {@link Task#complete() completed} once executed.
+   *
+   * @param name The schedule name.
+   * @param callback The callback to call when the schedule fires on this instance.
+   * @return A completable future to be completed once the listener has been registered.
+   * @throws NullPointerException if the name or callback is {@code null}
+   */
+  public synchronized CompletableFuture<Listener<Task>> onTask(String name, Consumer<Task> callback) {
+    TaskListener listener = new TaskListener(Assert.notNull(name, "name"), Assert.notNull(callback, "callback"));
+    Set<TaskListener> listeners = taskListeners.computeIfAbsent(name, n -> new CopyOnWriteArraySet<>());
+    if (!listeners.isEmpty()) {
+      listeners.add(listener);
+      return CompletableFuture.completedFuture(listener);
+    }
+
+    listeners.add(listener);
+    return client.submit(new SchedulerCommands.Register(name)).whenComplete((result, error) -> {
+      if (error != null) {
+        listener.remove();
+      }
+    }).thenApply(v -> listener);
+  }
+
+  /**
+   * Registers a listener to be called when firings are missed.
+   * <p>
+   * The first listener registered on the resource instance registers the instance with the cluster to receive
+   * missed events. The returned {@link CompletableFuture} will be completed once the instance has been registered.
+   * Once all listeners have been {@link Listener#close() closed}, the instance will be unregistered.
+   *
+   * @param callback The callback to call when firings are missed.
+   * @return A completable future to be completed once the listener has been registered.
+   * @throws NullPointerException if the callback is {@code null}
+   */
+  public synchronized CompletableFuture<Listener<Missed>> onMissed(Consumer<Missed> callback) {
+    MissedListener listener = new MissedListener(Assert.notNull(callback, "callback"));
+    if (!missedListeners.isEmpty()) {
+      missedListeners.add(listener);
+      return CompletableFuture.completedFuture(listener);
+    }
+
+    missedListeners.add(listener);
+    return client.submit(new SchedulerCommands.Listen()).whenComplete((result, error) -> {
+      if (error != null) {
+        missedListeners.remove(listener);
+      }
+    }).thenApply(v -> listener);
+  }
+
+  /**
+   * Task listener.
+   */
+  private class TaskListener implements Listener<Task> {
+    private final String name;
+    private final Consumer<Task> callback;
+
+    private TaskListener(String name, Consumer<Task> callback) {
+      this.name = name;
+      this.callback = callback;
+    }
+
+    @Override
+    public void accept(Task task) {
+      callback.accept(task);
+    }
+
+    /**
+     * Removes the listener, returning a boolean indicating whether it was the last listener for the schedule.
+     */
+    private boolean remove() {
+      Set<TaskListener> listeners = taskListeners.get(name);
+      if (listeners != null && listeners.remove(this) && listeners.isEmpty()) {
+        taskListeners.remove(name);
+        return true;
+      }
+      return false;
+    }
+
+    @Override
+    public void close() {
+      synchronized (DistributedScheduler.this) {
+        if (remove()) {
+          client.submit(new SchedulerCommands.Unregister(name));
+        }
+      }
+    }
+  }
+
+  /**
+   * Missed listener.
+   */
+  private class MissedListener implements Listener<Missed> {
+    private final Consumer<Missed> callback;
+
+    private MissedListener(Consumer<Missed> callback) {
+      this.callback = callback;
+    }
+
+    @Override
+    public void accept(Missed missed) {
+      callback.accept(missed);
+    }
+
+    @Override
+    public void close() {
+      synchronized (DistributedScheduler.this) {
+        if (missedListeners.remove(this) && missedListeners.isEmpty()) {
+          client.submit(new SchedulerCommands.Unlisten());
+        }
+      }
+    }
+  }
+
+  /**
+   * A firing of a schedule assigned to this instance.
+   */
+  public class Task {
+    private final String name;
+    private final long sequence;
+    private final long time;
+
+    private Task(String name, long sequence, long time) {
+      this.name = name;
+      this.sequence = sequence;
+      this.time = time;
+    }
+
+    /**
+     * Returns the schedule name.
+     *
+     * @return The schedule name.
+     */
+    public String name() {
+      return name;
+    }
+
+    /**
+     * Returns the firing sequence number.
+     * <p>
+     * Sequence numbers increase monotonically for each firing of a schedule, including missed firings.
+     *
+     * @return The firing sequence number.
+     */
+    public long sequence() {
+      return sequence;
+    }
+
+    /**
+     * Returns the log time at which the schedule fired.
+     *
+     * @return The log time at which the schedule fired.
+     */
+    public Instant time() {
+      return Instant.ofEpochMilli(time);
+    }
+
+    /**
+     * Completes the task.
+     * <p>
+     * Completing a task of an {@link Delivery#AT_LEAST_ONCE at-least-once} schedule prevents it from being
+     * redelivered and allows the schedule's next firing to be assigned. Completing a task of an
+     * {@link Delivery#AT_MOST_ONCE at-most-once} schedule has no effect.
+     *
+     * @return A completable future to be completed once the task has been completed.
+     */
+    public CompletableFuture<Void> complete() {
+      return client.submit(new SchedulerCommands.Complete(name, sequence));
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[name=%s, sequence=%d]", getClass().getSimpleName(), name, sequence);
+    }
+  }
+
+  /**
+   * Missed firings of a schedule.
+   */
+  public static class Missed implements CatalystSerializable {
+    private String name;
+    private long count;
+    private long total;
+    private long time;
+
+    public Missed() {
+    }
+
+    public Missed(String name, long count, long total, long time) {
+      this.name = name;
+      this.count = count;
+      this.total = total;
+      this.time = time;
+    }
+
+    /**
+     * Returns the schedule name.
+     *
+     * @return The schedule name.
+     */
+    public String name() {
+      return name;
+    }
+
+    /**
+     * Returns the number of firings missed.
+     *
+     * @return The number of firings missed.
+     */
+    public long count() {
+      return count;
+    }
+
+    /**
+     * Returns the total number of firings of the schedule missed.
+     *
+     * @return The total number of firings of the schedule missed.
+     */
+    public long total() {
+      return total;
+    }
+
+    /**
+     * Returns the log time at which the firings were missed.
+     *
+     * @return The log time at which the firings were missed.
+     */
+    public Instant time() {
+      return Instant.ofEpochMilli(time);
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeString(name).writeLong(count).writeLong(total).writeLong(time);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      name = buffer.readString();
+      count = buffer.readLong();
+      total = buffer.readLong();
+      time = buffer.readLong();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[name=%s, count=%d, total=%d]", getClass().getSimpleName(), name, count, total);
+    }
+  }
+
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent;
+
+import io.atomix.catalyst.concurrent.BlockingFuture;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.concurrent.internal.LockCommands;
+import io.atomix.concurrent.internal.SemaphoreCommands;
+import io.atomix.concurrent.util.DistributedSemaphoreFactory;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.resource.AbstractResource;
+import io.atomix.resource.Resource;
+import io.atomix.resource.ResourceTypeInfo;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the number of processes that can concurrently access a cluster-wide shared resource.
+ * <p>
+ * The distributed semaphore is an asynchronous version of Java's {@link java.util.concurrent.Semaphore}. The
+ * semaphore holds a fixed number of {@link Config#withPermits(int) permits} which can be acquired and released
+ * by any instance of the resource in the cluster.
+ * <pre>
+ *   {@code
+ *   DistributedSemaphore semaphore = atomix.getSemaphore("db-connections", new DistributedSemaphore.Config()
+ *     .withPermits(20)).get();
+ *   semaphore.acquire().thenRun(() -> {
+ *     ...
+ *     semaphore.release();
+ *   });
+ *   }
+ * </pre>
+ * Acquire requests that cannot be satisfied immediately are queued in the cluster and granted in the order in
+ * which they were received. A request at the head of the queue blocks all requests behind it, even if enough
+ * permits are available to satisfy later requests, so requests for large numbers of permits are not starved.
+ * <p>
+ * Permits are held by the session of the instance that acquired them. An instance can only release permits it
+ * holds; releases of more permits than are held by the instance are ignored. If the instance's session expires
+ * or is closed, all permits held by the instance are automatically returned to the semaphore and any queued
+ * requests from the instance are cancelled.
+ * <h3>Implementation</h3>
+ * Semaphore state is managed in a Copycat replicated {@link io.atomix.copycat.server.StateMachine}. As with
+ * {@link DistributedLock}, commits that acquire permits are retained in the log for as long as the permits are
+ * held and are released once the permits are returned to the semaphore.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@ResourceTypeInfo(id=-25, factory=DistributedSemaphoreFactory.class)
+public class DistributedSemaphore extends AbstractResource<DistributedSemaphore> {
+
+  /**
+   * Semaphore configuration.
+   */
+  public static class Config extends Resource.Config {
+    private static final int DEFAULT_PERMITS = 1;
+
+    public Config() {
+    }
+
+    public Config(Properties defaults) {
+      super(defaults);
+    }
+
+    /**
+     * Sets the number of permits held by the semaphore.
+     *
+     * @param permits The number of permits held by the semaphore.
+     * @return The semaphore configuration.
+     * @throws IllegalArgumentException if the number of permits is not positive
+     */
+    public Config withPermits(int permits) {
+      Assert.arg(permits > 0, "permits must be positive");
+      setProperty("permits", String.valueOf(permits));
+      return this;
+    }
+
+    /**
+     * Returns the number of permits held by the semaphore.
+     *
+     * @return The number of permits held by the semaphore.
+     */
+    public int getPermits() {
+      return Integer.valueOf(getProperty("permits", String.valueOf(DEFAULT_PERMITS)));
+    }
+  }
+
+  private final Map<Integer, CompletableFuture<Boolean>> futures = new ConcurrentHashMap<>();
+  private final AtomicInteger id = new AtomicInteger();
+
+  public DistributedSemaphore(CopycatClient client, Properties options) {
+    super(client, options);
+  }
+
+  @Override
+  public Resource.Config config() {
+    return new Config(super.config());
+  }
+
+  @Override
+  public CompletableFuture<DistributedSemaphore> open() {
+    return super.open().thenApply(result -> {
+      client.onEvent("acquire", this::handleAcquire);
+      client.onEvent("fail", this::handleFail);
+      return result;
+    });
+  }
+
+  /**
+   * Handles a received acquire event.
+   */
+  private void handleAcquire(LockCommands.LockEvent event) {
+    CompletableFuture<Boolean> future = futures.remove(event.id());
+    if (future != null) {
+      future.complete(true);
+    }
+  }
+
+  /**
+   * Handles a received failure event.
+   */
+  private void handleFail(LockCommands.LockEvent event) {
+    CompletableFuture<Boolean> future = futures.remove(event.id());
+    if (future != null) {
+      future.complete(false);
+    }
+  }
+
+  /**
+   * Acquires a single permit.
+   *
+   * @return A completable future to be completed once the permit has been acquired.
+   * @see #acquire(int)
+   */
+  public CompletableFuture<Void> acquire() {
+    return acquire(1);
+  }
+
+  /**
+   * Acquires the given number of permits.
+   * <p>
+   * If the requested permits are not available, the request will be queued in the cluster and the returned
+   * {@link CompletableFuture} will not be completed until the permits have been granted to this instance.
+   *
+   * @param permits The number of permits to acquire.
+   * @return A completable future to be completed once the permits have been acquired.
+   * @throws IllegalArgumentException if the number of permits is not positive
+   */
+  public CompletableFuture<Void> acquire(int permits) {
+    return acquire(permits, -1).thenApply(v -> null);
+  }
+
+  /**
+   * Attempts to acquire a single permit if available.
+   *
+   * @return A completable future to be completed with a boolean indicating whether the permit was acquired.
+   * @see #tryAcquire(int)
+   */
+  public CompletableFuture<Boolean> tryAcquire() {
+    return tryAcquire(1);
+  }
+
+  /**
+   * Attempts to acquire the given number of permits if available.
+   * <p>
+   * If the requested permits are not immediately available, the returned {@link CompletableFuture} will be
+   * completed {@code false}.
+   *
+   * @param permits The number of permits to acquire.
+   * @return A completable future to be completed with a boolean indicating whether the permits were acquired.
+   * @throws IllegalArgumentException if the number of permits is not positive
+   */
+  public CompletableFuture<Boolean> tryAcquire(int permits) {
+    return acquire(permits, 0);
+  }
+
+  /**
+   * Attempts to acquire the given number of permits within the given timeout.
+   * <p>
+   * If the requested permits are not available, the request will be queued in the cluster. If the {@code timeout}
+   * expires before the permits are granted, the request will be cancelled and the returned {@link CompletableFuture}
+   * will be completed {@code false}. As with {@link DistributedLock#tryLock(Duration)}, the timeout may be
+   * arbitrarily greater, but not less, than the provided {@code timeout}.
+   *
+   * @param permits The number of permits to acquire.
+   * @param timeout The duration within which to acquire the permits.
+   * @return A completable future to be completed with a boolean indicating whether the permits were acquired.
+   * @throws IllegalArgumentException if the number of permits is not positive
+   * @throws NullPointerException if the timeout is {@code null}
+   */
+  public CompletableFuture<Boolean> tryAcquire(int permits, Duration timeout) {
+    return acquire(permits, Assert.notNull(timeout, "timeout").toMillis());
+  }
+
+  /**
+   * Submits an acquire request.
+   */
+  private CompletableFuture<Boolean> acquire(int permits, long timeout) {
+    Assert.arg(permits > 0, "permits must be positive");
+    CompletableFuture<Boolean> future = new BlockingFuture<>();
+    int id = this.id.incrementAndGet();
+    futures.put(id, future);
+    client.submit(new SemaphoreCommands.Acquire(id, permits, timeout)).whenComplete((result, error) -> {
+      if (error != null) {
+        futures.remove(id);
+        future.completeExceptionally(error);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Releases a single permit.
+   *
+   * @return A completable future to be completed once the permit has been released.
+   * @see #release(int)
+   */
+  public CompletableFuture<Void> release() {
+    return release(1);
+  }
+
+  /**
+   * Releases the given number of permits held by this instance.
+   * <p>
+   * Once the permits have been released, any queued requests that can be satisfied by the released permits
+   * will be granted before the returned {@link CompletableFuture} is completed.
+   *
+   * @param permits The number of permits to release.
+   * @return A completable future to be completed once the permits have been released.
+   * @throws IllegalArgumentException if the number of permits is not positive
+   */
+  public CompletableFuture<Void> release(int permits) {
+    Assert.arg(permits > 0, "permits must be positive");
+    return client.submit(new SemaphoreCommands.Release(permits));
+  }
+
+  /**
+   * Returns the number of permits currently available.
+   *
+   * @return A completable future to be completed with the number of available permits.
+   */
+  public CompletableFuture<Integer> availablePermits() {
+    return client.submit(new SemaphoreCommands.AvailablePermits());
+  }
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.concurrent.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.SerializableTypeResolver;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.serializer.SerializerRegistry;
+import io.atomix.copycat.Command;
+import io.atomix.copycat.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Barrier commands.
+ * <p>
+ * This class reserves serializable type IDs {@code -123} through {@code -125}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class BarrierCommands {
+
+  private BarrierCommands() {
+  }
+
+  /**
+   * Await command.
+   */
+  public static class Await implements Command<Void>, CatalystSerializable {
+    private int id;
+
+    public Await() {
+    }
+
+    public Await(int id) {
+      this.id = id;
+    }
+
+    /**
+     * Returns the await request ID.
+     *
+     * @return The await request ID.
+     */
+    public int id() {
+      return id;
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.QUORUM;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      buffer.writeInt(id);
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      id = buffer.readInt();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[id=%d]", getClass().getSimpleName(), id);
+    }
+  }
+
+  /**
+   * Get number waiting query.
+   */
+  public static class GetWaiting implements Query<Integer>, CatalystSerializable {
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    }
+  }
+
+  /**
+   * Barrier release event.
+   */
+  public static class ReleaseEvent implements CatalystSerializable {
+    private List<Integer> ids;
+
+    public ReleaseEvent() {
+    }
+
+    public ReleaseEvent(List<Integer> ids) {
+      this.ids = ids;
+    }
+
+    /**
+     * Returns the IDs of the released await requests.
+     *
+     * @return The IDs of the released await requests.
+     */
+    public List<Integer> ids() {
+      return ids;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeInt(ids.size());
+      for (int id : ids) {
+        buffer.writeInt(id);
+      }
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      int size = buffer.readInt();
+      ids = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        ids.add(buffer.readInt());
+      }
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[ids=%s]", getClass().getSimpleName(), ids);
+    }
+  }
+
+  /**
+   * Barrier command type resolver.
+   */
+  public static class TypeResolver implements SerializableTypeResolver {
+    @Override
+    public void resolve(SerializerRegistry registry) {
+      registry.register(Await.class, -123);
+      registry.register(GetWaiting.class, -124);
+      registry.register(ReleaseEvent.class, -125);
+    }
+  }
+
+}
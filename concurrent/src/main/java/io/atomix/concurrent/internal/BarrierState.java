@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.concurrent.internal;
+
+import io.atomix.concurrent.DistributedBarrier;
+import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.session.ServerSession;
+import io.atomix.copycat.server.session.SessionListener;
+import io.atomix.resource.ResourceStateMachine;
+
+import java.util.*;
+
+/**
+ * Barrier state machine.
+ * <p>
+ * Await commits are retained for as long as they're waiting at the barrier. Once the configured number of
+ * parties have arrived, a single {@code release} event listing all of a session's arrivals is published to
+ * each waiting session, the await commits are released, and the barrier is reset for the next generation.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class BarrierState extends ResourceStateMachine implements SessionListener {
+  private final int parties;
+  private final List<Commit<BarrierCommands.Await>> waiters = new ArrayList<>();
+
+  public BarrierState(Properties config) {
+    super(config);
+    this.parties = new DistributedBarrier.Config(config).getParties();
+  }
+
+  @Override
+  public void close(ServerSession session) {
+    Iterator<Commit<BarrierCommands.Await>> iterator = waiters.iterator();
+    while (iterator.hasNext()) {
+      Commit<BarrierCommands.Await> waiter = iterator.next();
+      if (waiter.session().id() == session.id()) {
+        iterator.remove();
+        waiter.close();
+      }
+    }
+  }
+
+  /**
+   * Applies an await commit.
+   */
+  public void await(Commit<BarrierCommands.Await> commit) {
+    waiters.add(commit);
+    if (waiters.size() < parties) {
+      return;
+    }
+
+    Map<ServerSession, List<Integer>> sessions = new LinkedHashMap<>();
+    for (Commit<BarrierCommands.Await> waiter : waiters) {
+      sessions.computeIfAbsent(waiter.session(), s -> new ArrayList<>()).add(waiter.operation().id());
+    }
+
+    for (Map.Entry<ServerSession, List<Integer>> entry : sessions.entrySet()) {
+      if (entry.getKey().state().active()) {
+        entry.getKey().publish("release", new BarrierCommands.ReleaseEvent(entry.getValue()));
+      }
+    }
+
+    waiters.forEach(Commit::close);
+    waiters.clear();
+  }
+
+  /**
+   * Handles a get number waiting query.
+   */
+  public int getWaiting(Commit<BarrierCommands.GetWaiting> commit) {
+    try {
+      return waiters.size();
+    } finally {
+      commit.close();
+    }
+  }
+
+  @Override
+  public void delete() {
+    waiters.forEach(Commit::close);
+    waiters.clear();
+  }
+
+}
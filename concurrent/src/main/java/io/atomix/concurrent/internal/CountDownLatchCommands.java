@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.concurrent.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.SerializableTypeResolver;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.serializer.SerializerRegistry;
+import io.atomix.copycat.Command;
+import io.atomix.copycat.Query;
+
+/**
+ * Count down latch commands.
+ * <p>
+ * This class reserves serializable type IDs {@code -133} through {@code -135}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class CountDownLatchCommands {
+
+  private CountDownLatchCommands() {
+  }
+
+  /**
+   * Abstract latch command.
+   */
+  public static abstract class LatchCommand<V> implements Command<V>, CatalystSerializable {
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.QUORUM;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+    }
+  }
+
+  /**
+   * Count down command.
+   */
+  public static class CountDown extends LatchCommand<Void> {
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.SNAPSHOT;
+    }
+  }
+
+  /**
+   * Await command.
+   */
+  public static class Await extends LatchCommand<Boolean> {
+  }
+
+  /**
+   * Get count query.
+   */
+  public static class GetCount implements Query<Integer>, CatalystSerializable {
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    }
+  }
+
+  /**
+   * Count down latch command type resolver.
+   */
+  public static class TypeResolver implements SerializableTypeResolver {
+    @Override
+    public void resolve(SerializerRegistry registry) {
+      registry.register(CountDown.class, -133);
+      registry.register(Await.class, -134);
+      registry.register(GetCount.class, -135);
+    }
+  }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.concurrent.internal;
+
+import io.atomix.concurrent.DistributedCountDownLatch;
+import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.Snapshottable;
+import io.atomix.copycat.server.session.ServerSession;
+import io.atomix.copycat.server.session.SessionListener;
+import io.atomix.copycat.server.storage.snapshot.SnapshotReader;
+import io.atomix.copycat.server.storage.snapshot.SnapshotWriter;
+import io.atomix.resource.ResourceStateMachine;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Count down latch state machine.
+ * <p>
+ * The latch count is stored in snapshots, so count down commits are released as soon as they're applied.
+ * Each session waiting on the latch is tracked by a single retained await commit regardless of the number
+ * of local waiters, and a single {@code release} event is published to each waiting session once the
+ * count reaches zero.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class CountDownLatchState extends ResourceStateMachine implements SessionListener, Snapshottable {
+  private int count;
+  private final Map<Long, Commit<CountDownLatchCommands.Await>> waiters = new HashMap<>();
+
+  public CountDownLatchState(Properties config) {
+    super(config);
+    this.count = new DistributedCountDownLatch.Config(config).getCount();
+  }
+
+  @Override
+  public void close(ServerSession session) {
+    Commit<CountDownLatchCommands.Await> waiter = waiters.remove(session.id());
+    if (waiter != null) {
+      waiter.close();
+    }
+  }
+
+  /**
+   * Applies a count down commit.
+   */
+  public void countDown(Commit<CountDownLatchCommands.CountDown> commit) {
+    try {
+      if (count > 0 && --count == 0) {
+        release();
+      }
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Releases all waiting sessions.
+   */
+  private void release() {
+    for (Commit<CountDownLatchCommands.Await> waiter : waiters.values()) {
+      if (waiter.session().state().active()) {
+        waiter.session().publish("release");
+      }
+      waiter.close();
+    }
+    waiters.clear();
+  }
+
+  /**
+   * Applies an await commit.
+   *
+   * @return Indicates whether the latch has already been released.
+   */
+  public boolean await(Commit<CountDownLatchCommands.Await> commit) {
+    if (count == 0) {
+      commit.close();
+      return true;
+    }
+
+    if (waiters.putIfAbsent(commit.session().id(), commit) != null) {
+      commit.close();
+    }
+    return false;
+  }
+
+  /**
+   * Handles a get count query.
+   */
+  public int getCount(Commit<CountDownLatchCommands.GetCount> commit) {
+    try {
+      return count;
+    } finally {
+      commit.close();
+    }
+  }
+
+  @Override
+  public void snapshot(SnapshotWriter writer) {
+    writer.writeInt(count);
+  }
+
+  /**
+   * Installs a snapshot of the latch count.
+   * <p>
+   * Retained await commits are replayed before the snapshot is installed, while the count is still at its initial
+   * value, so sessions are released if the installed count has already reached zero.
+   */
+  @Override
+  public void install(SnapshotReader reader) {
+    count = reader.readInt();
+    if (count == 0) {
+      release();
+    }
+  }
+
+  @Override
+  public void delete() {
+    waiters.values().forEach(Commit::close);
+    waiters.clear();
+  }
+
+}
@@ -21,7 +21,9 @@ import io.atomix.catalyst.serializer.CatalystSerializable;
 import io.atomix.catalyst.serializer.SerializableTypeResolver;
 import io.atomix.catalyst.serializer.Serializer;
 import io.atomix.catalyst.serializer.SerializerRegistry;
+import io.atomix.concurrent.DistributedLock;
 import io.atomix.copycat.Command;
+import io.atomix.copycat.Query;
 
 /**
  * Lock commands.
@@ -37,11 +39,14 @@ public final class LockCommands {
 
   /**
    * Abstract lock command.
+   * <p>
+   * The lock's state, including the times at which the lock was granted and the holder's lease expires, is written
+   * to snapshots, so lock commands are compacted from the log once {@link CompactionMode#SNAPSHOT snapshotted}.
    */
   public static abstract class LockCommand<V> implements Command<V>, CatalystSerializable {
     @Override
     public CompactionMode compaction() {
-      return CompactionMode.QUORUM;
+      return CompactionMode.SNAPSHOT;
     }
 
     @Override
@@ -59,13 +64,19 @@ public final class LockCommands {
   public static class Lock extends LockCommand<Void> {
     private int id;
     private long timeout;
+    private long lease;
 
     public Lock() {
     }
 
     public Lock(int id, long timeout) {
+      this(id, timeout, 0);
+    }
+
+    public Lock(int id, long timeout, long lease) {
       this.id = id;
       this.timeout = timeout;
+      this.lease = lease;
     }
 
     /**
@@ -86,20 +97,70 @@ public final class LockCommands {
       return timeout;
     }
 
-    @Override
-    public CompactionMode compaction() {
-      return timeout > 0 ? CompactionMode.SEQUENTIAL : CompactionMode.QUORUM;
+    /**
+     * Returns the lock lease.
+     *
+     * @return The lock lease in milliseconds, or {@code 0} if the lock is held until released.
+     */
+    public long lease() {
+      return lease;
     }
 
     @Override
     public void writeObject(BufferOutput buffer, Serializer serializer) {
-      buffer.writeInt(id).writeLong(timeout);
+      buffer.writeInt(id).writeLong(timeout).writeLong(lease);
     }
 
     @Override
     public void readObject(BufferInput buffer, Serializer serializer) {
       id = buffer.readInt();
       timeout = buffer.readLong();
+      lease = buffer.readLong();
+    }
+  }
+
+  /**
+   * Renew command.
+   */
+  public static class Renew extends LockCommand<Boolean> {
+    private int id;
+    private long lease;
+
+    public Renew() {
+    }
+
+    public Renew(int id, long lease) {
+      this.id = id;
+      this.lease = lease;
+    }
+
+    /**
+     * Returns the lock ID.
+     *
+     * @return The lock ID.
+     */
+    public int id() {
+      return id;
+    }
+
+    /**
+     * Returns the renewed lease.
+     *
+     * @return The renewed lease in milliseconds.
+     */
+    public long lease() {
+      return lease;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      buffer.writeInt(id).writeLong(lease);
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      id = buffer.readInt();
+      lease = buffer.readLong();
     }
   }
 
@@ -125,11 +186,6 @@ public final class LockCommands {
       return id;
     }
 
-    @Override
-    public CompactionMode compaction() {
-      return CompactionMode.SEQUENTIAL;
-    }
-
     @Override
     public void writeObject(BufferOutput buffer, Serializer serializer) {
       buffer.writeInt(id);
@@ -141,6 +197,19 @@ public final class LockCommands {
     }
   }
 
+  /**
+   * Lock statistics query.
+   */
+  public static class Stats implements Query<DistributedLock.Stats>, CatalystSerializable {
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    }
+  }
+
   /**
    * Lock event.
    */
@@ -200,6 +269,9 @@ public final class LockCommands {
       registry.register(Lock.class, -143);
       registry.register(Unlock.class, -144);
       registry.register(LockEvent.class, -145);
+      registry.register(Renew.class, -141);
+      registry.register(Stats.class, -126);
+      registry.register(DistributedLock.Stats.class, -127);
     }
   }
 
@@ -16,9 +16,13 @@
 package io.atomix.concurrent.internal;
 
 import io.atomix.catalyst.concurrent.Scheduled;
+import io.atomix.concurrent.DistributedLock;
 import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.Snapshottable;
 import io.atomix.copycat.server.session.ServerSession;
 import io.atomix.copycat.server.session.SessionListener;
+import io.atomix.copycat.server.storage.snapshot.SnapshotReader;
+import io.atomix.copycat.server.storage.snapshot.SnapshotWriter;
 import io.atomix.resource.ResourceStateMachine;
 
 import java.time.Duration;
@@ -26,66 +30,221 @@ import java.util.*;
 
 /**
  * Lock state machine.
+ * <p>
+ * Locks requested with a lease are released by the state machine once the lease expires unless renewed by the
+ * holder. Lease timers are scheduled on the state machine executor and are therefore based on the logical time
+ * of the log, so a lease expires at the same point in the log on every replica.
+ * <p>
+ * Lock commands are compacted via snapshots rather than retained. The holder, the queue of waiting requests,
+ * the time at which the lock was granted and the time at which the holder's lease expires are written to the
+ * snapshot, and lease and request timers are rescheduled from those times when the snapshot is installed, so a
+ * replica that rebuilds the lock from a snapshot grants and expires it at the same point in the log as every
+ * other replica.
+ * <p>
+ * The state machine also tracks contention statistics for the lock. Wait times are measured as the number of log
+ * entries between a lock request and its grant, as the difference in log time, and as the difference in the wall
+ * clock of the replica between applying the request and granting the lock. Wall clock wait times are not
+ * deterministic. Statistics are maintained in memory by each replica and only reflect the operations applied since
+ * the state machine was created. They're not written to snapshots and are not aggregated across replicas, so they
+ * should be treated as operational metrics rather than replicated state. Each replica periodically logs its
+ * statistics at the {@link DistributedLock.Config#withStatsInterval(Duration) configured interval}.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
-public class LockState extends ResourceStateMachine implements SessionListener {
-  private Commit<LockCommands.Lock> lock;
-  private final Queue<Commit<LockCommands.Lock>> queue = new ArrayDeque<>();
+public class LockState extends ResourceStateMachine implements SessionListener, Snapshottable {
+  private final Duration statsInterval;
+  private Scheduled report;
+  private long reported;
+  private Request lock;
+  private long grantTime;
+  private long expiration;
+  private Scheduled lease;
+  private final Queue<Request> queue = new ArrayDeque<>();
   private final Map<Long, Scheduled> timers = new HashMap<>();
+  private int maxQueueDepth;
+  private long acquisitions;
+  private long totalWaitEntries;
+  private long maxWaitEntries;
+  private long totalWaitTime;
+  private long maxWaitTime;
+  private long totalWallWaitTime;
+  private long maxWallWaitTime;
+  private long releases;
+  private long totalHoldTime;
+  private long maxHoldTime;
+  private long timeouts;
+  private long sessionExpirations;
+  private long leaseExpirations;
 
   public LockState(Properties config) {
     super(config);
+    this.statsInterval = new DistributedLock.Config(config).getStatsInterval();
   }
 
   @Override
   public void close(ServerSession session) {
-    if (lock != null && lock.session().id() == session.id()) {
-      lock.close();
-      lock = queue.poll();
-      while (lock != null) {
-        Scheduled timer = timers.remove(lock.index());
-        if (timer != null)
-          timer.cancel();
-
-        if (lock.session().state() == ServerSession.State.EXPIRED || lock.session().state() == ServerSession.State.CLOSED) {
-          lock = queue.poll();
-        } else {
-          lock.session().publish("lock", new LockCommands.LockEvent(lock.operation().id(), lock.index()));
-          break;
-        }
+    if (lock != null && lock.session == session.id()) {
+      if (session.state() == ServerSession.State.EXPIRED) {
+        sessionExpirations++;
       }
+      release();
+      next();
+    }
+  }
+
+  /**
+   * Returns the live session with the given ID, or {@code null} if the session has been closed.
+   */
+  private ServerSession session(long sessionId) {
+    ServerSession session = context.sessions().session(sessionId);
+    if (session == null || session.state() == ServerSession.State.EXPIRED || session.state() == ServerSession.State.CLOSED) {
+      return null;
+    }
+    return session;
+  }
+
+  /**
+   * Publishes an event to the session that submitted the given request if it's active.
+   */
+  private void publish(Request request, String event) {
+    ServerSession session = context.sessions().session(request.session);
+    if (session != null && session.state().active()) {
+      session.publish(event, new LockCommands.LockEvent(request.id, request.index));
     }
   }
 
+  /**
+   * Grants the lock to the given request.
+   */
+  private void grant(Request request) {
+    long grantIndex = context.index();
+    grantTime = context.clock().millis();
+
+    long waitEntries = grantIndex - request.index;
+    long waitTime = Math.max(grantTime - request.time, 0);
+    long wallWaitTime = Math.max(System.currentTimeMillis() - request.received, 0);
+    acquisitions++;
+    totalWaitEntries += waitEntries;
+    maxWaitEntries = Math.max(maxWaitEntries, waitEntries);
+    totalWaitTime += waitTime;
+    maxWaitTime = Math.max(maxWaitTime, waitTime);
+    totalWallWaitTime += wallWaitTime;
+    maxWallWaitTime = Math.max(maxWallWaitTime, wallWaitTime);
+
+    lock = request;
+    if (request.lease > 0) {
+      schedule(grantTime + request.lease);
+    }
+    publish(request, "lock");
+  }
+
+  /**
+   * Grants the lock to the next live requester in the queue.
+   */
+  private void next() {
+    Request next = queue.poll();
+    while (next != null) {
+      Scheduled timer = timers.remove(next.index);
+      if (timer != null)
+        timer.cancel();
+
+      if (session(next.session) == null) {
+        next = queue.poll();
+      } else {
+        grant(next);
+        break;
+      }
+    }
+  }
+
+  /**
+   * Releases the current lock holder.
+   */
+  private void release() {
+    long holdTime = Math.max(context.clock().millis() - grantTime, 0);
+    releases++;
+    totalHoldTime += holdTime;
+    maxHoldTime = Math.max(maxHoldTime, holdTime);
+
+    if (lease != null) {
+      lease.cancel();
+      lease = null;
+    }
+    lock = null;
+    grantTime = 0;
+    expiration = 0;
+  }
+
+  /**
+   * Schedules expiration of the current lock holder's lease at the given log time.
+   */
+  private void schedule(long expiration) {
+    if (lease != null) {
+      lease.cancel();
+    }
+    this.expiration = expiration;
+    lease = executor.schedule(Duration.ofMillis(Math.max(expiration - context.clock().millis(), 0)), () -> {
+      lease = null;
+      leaseExpirations++;
+      publish(lock, "expire");
+      release();
+      next();
+    });
+  }
+
+  /**
+   * Schedules the timeout of the given queued request.
+   */
+  private void timeout(Request request) {
+    long delay = Math.max(request.time + request.timeout - context.clock().millis(), 0);
+    timers.put(request.index, executor.schedule(Duration.ofMillis(delay), () -> {
+      timers.remove(request.index);
+      queue.remove(request);
+      timeouts++;
+      publish(request, "fail");
+    }));
+  }
+
   /**
    * Applies a lock commit.
    */
   public void lock(Commit<LockCommands.Lock> commit) {
-    if (lock == null) {
-      lock = commit;
-      commit.session().publish("lock", new LockCommands.LockEvent(commit.operation().id(), commit.index()));
-    } else if (commit.operation().timeout() == 0) {
-      try {
-        commit.session().publish("fail", new LockCommands.LockEvent(commit.operation().id(), commit.index()));
-      } finally {
-        commit.close();
+    if (report == null && !statsInterval.isZero()) {
+      report = executor.schedule(statsInterval, statsInterval, this::report);
+    }
+
+    try {
+      Request request = new Request(commit);
+      if (lock == null) {
+        grant(request);
+      } else if (request.timeout == 0) {
+        publish(request, "fail");
+      } else {
+        queue.add(request);
+        maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+        if (request.timeout > 0) {
+          timeout(request);
+        }
       }
-    } else {
-      queue.add(commit);
-      if (commit.operation().timeout() > 0) {
-        timers.put(commit.index(), executor.schedule(Duration.ofMillis(commit.operation().timeout()), () -> {
-          try {
-            timers.remove(commit.index());
-            queue.remove(commit);
-            if (commit.session().state().active()) {
-              commit.session().publish("fail", new LockCommands.LockEvent(commit.operation().id(), commit.index()));
-            }
-          } finally {
-            commit.close();
-          }
-        }));
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Applies a renew commit.
+   */
+  public boolean renew(Commit<LockCommands.Renew> commit) {
+    try {
+      if (lock == null || lock.session != commit.session().id() || lock.id != commit.operation().id() || lock.lease == 0) {
+        return false;
       }
+
+      long leaseMillis = commit.operation().lease() > 0 ? commit.operation().lease() : lock.lease;
+      schedule(context.clock().millis() + leaseMillis);
+      return true;
+    } finally {
+      commit.close();
     }
   }
 
@@ -95,41 +254,156 @@ public class LockState extends ResourceStateMachine implements SessionListener {
   public void unlock(Commit<LockCommands.Unlock> commit) {
     try {
       if (lock != null) {
-        if (!lock.session().equals(commit.session()))
+        // Ignore unlocks for locks that were already released, e.g. because their lease expired.
+        if (lock.session != commit.session().id() || lock.id != commit.operation().id())
           return;
 
-        lock.close();
+        release();
+        next();
+      }
+    } finally {
+      commit.close();
+    }
+  }
 
-        lock = queue.poll();
-        while (lock != null) {
-          Scheduled timer = timers.remove(lock.index());
-          if (timer != null)
-            timer.cancel();
+  /**
+   * Returns a snapshot of the lock's contention statistics.
+   */
+  private DistributedLock.Stats stats() {
+    return new DistributedLock.Stats(queue.size(), maxQueueDepth, acquisitions, totalWaitEntries, maxWaitEntries,
+      totalWaitTime, maxWaitTime, totalWallWaitTime, maxWallWaitTime, releases, totalHoldTime, maxHoldTime, timeouts,
+      sessionExpirations, leaseExpirations);
+  }
 
-          if (lock.session().state() == ServerSession.State.EXPIRED || lock.session().state() == ServerSession.State.CLOSED) {
-            lock = queue.poll();
-          } else {
-            lock.session().publish("lock", new LockCommands.LockEvent(lock.operation().id(), lock.index()));
-            break;
-          }
-        }
-      }
+  /**
+   * Logs the lock's contention statistics if the lock was acquired or a request timed out since the last report.
+   */
+  private void report() {
+    long activity = acquisitions + timeouts;
+    if (activity != reported) {
+      reported = activity;
+      executor.logger().info("Lock contention: {}", stats());
+    }
+  }
+
+  /**
+   * Handles a lock statistics query.
+   */
+  public DistributedLock.Stats stats(Commit<LockCommands.Stats> commit) {
+    try {
+      return stats();
     } finally {
       commit.close();
     }
   }
 
   @Override
-  public void delete() {
+  public void snapshot(SnapshotWriter writer) {
     if (lock != null) {
-      lock.close();
+      writer.writeBoolean(true);
+      lock.write(writer);
+      writer.writeLong(grantTime);
+      writer.writeLong(expiration);
+    } else {
+      writer.writeBoolean(false);
+    }
+
+    writer.writeInt(queue.size());
+    for (Request request : queue) {
+      request.write(writer);
     }
+  }
 
-    queue.forEach(Commit::close);
+  @Override
+  public void install(SnapshotReader reader) {
+    cancel();
+    lock = null;
+    grantTime = 0;
+    expiration = 0;
     queue.clear();
 
+    if (reader.readBoolean()) {
+      lock = new Request(reader);
+      grantTime = reader.readLong();
+      long expiration = reader.readLong();
+      if (expiration > 0) {
+        schedule(expiration);
+      }
+    }
+
+    int size = reader.readInt();
+    for (int i = 0; i < size; i++) {
+      Request request = new Request(reader);
+      queue.add(request);
+      if (request.timeout > 0) {
+        timeout(request);
+      }
+    }
+  }
+
+  /**
+   * Cancels the lease and request timers.
+   */
+  private void cancel() {
+    if (lease != null) {
+      lease.cancel();
+      lease = null;
+    }
     timers.values().forEach(Scheduled::cancel);
     timers.clear();
   }
 
+  @Override
+  public void delete() {
+    if (report != null) {
+      report.cancel();
+      report = null;
+    }
+    cancel();
+    lock = null;
+    queue.clear();
+  }
+
+  /**
+   * Lock request.
+   * <p>
+   * The index of the lock commit is used as the request's fencing token. The wall clock time at which the request
+   * was received is only used for statistics and is not written to snapshots; requests restored from a snapshot
+   * are considered received when the snapshot is installed.
+   */
+  private static class Request {
+    private final long index;
+    private final long time;
+    private final long session;
+    private final int id;
+    private final long timeout;
+    private final long lease;
+    private final long received = System.currentTimeMillis();
+
+    private Request(Commit<LockCommands.Lock> commit) {
+      this.index = commit.index();
+      this.time = commit.time().toEpochMilli();
+      this.session = commit.session().id();
+      this.id = commit.operation().id();
+      this.timeout = commit.operation().timeout();
+      this.lease = commit.operation().lease();
+    }
+
+    private Request(SnapshotReader reader) {
+      this.index = reader.readLong();
+      this.time = reader.readLong();
+      this.session = reader.readLong();
+      this.id = reader.readInt();
+      this.timeout = reader.readLong();
+      this.lease = reader.readLong();
+    }
+
+    /**
+     * Writes the request to the given snapshot.
+     */
+    private void write(SnapshotWriter writer) {
+      writer.writeLong(index).writeLong(time).writeLong(session).writeInt(id).writeLong(timeout).writeLong(lease);
+    }
+  }
+
 }
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.SerializableTypeResolver;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.serializer.SerializerRegistry;
+import io.atomix.copycat.Command;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Lock table commands.
+ * <p>
+ * This class reserves serializable type IDs {@code -160} through {@code -161}. Lock events are
+ * shared with {@link LockCommands}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class LockTableCommands {
+
+  private LockTableCommands() {
+  }
+
+  /**
+   * Abstract lock table command.
+   */
+  public static abstract class LockTableCommand<V> implements Command<V>, CatalystSerializable {
+    protected int id;
+
+    protected LockTableCommand() {
+    }
+
+    protected LockTableCommand(int id) {
+      this.id = id;
+    }
+
+    /**
+     * Returns the lock request ID.
+     *
+     * @return The lock request ID.
+     */
+    public int id() {
+      return id;
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.QUORUM;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      buffer.writeInt(id);
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      id = buffer.readInt();
+    }
+  }
+
+  /**
+   * Lock command.
+   */
+  public static class Lock extends LockTableCommand<Void> {
+    private List<String> keys;
+    private long timeout;
+
+    public Lock() {
+    }
+
+    public Lock(int id, Collection<String> keys, long timeout) {
+      super(id);
+      this.keys = new ArrayList<>(keys);
+      this.timeout = timeout;
+    }
+
+    /**
+     * Returns the keys to lock.
+     *
+     * @return The keys to lock.
+     */
+    public List<String> keys() {
+      return keys;
+    }
+
+    /**
+     * Returns the lock timeout.
+     *
+     * @return The lock timeout in milliseconds.
+     */
+    public long timeout() {
+      return timeout;
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return timeout > 0 ? CompactionMode.SEQUENTIAL : CompactionMode.QUORUM;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeLong(timeout).writeInt(keys.size());
+      for (String key : keys) {
+        buffer.writeString(key);
+      }
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      timeout = buffer.readLong();
+      int size = buffer.readInt();
+      keys = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        keys.add(buffer.readString());
+      }
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[id=%d, keys=%s, timeout=%d]", getClass().getSimpleName(), id, keys, timeout);
+    }
+  }
+
+  /**
+   * Unlock command.
+   */
+  public static class Unlock extends LockTableCommand<Void> {
+    public Unlock() {
+    }
+
+    public Unlock(int id) {
+      super(id);
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.SEQUENTIAL;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[id=%d]", getClass().getSimpleName(), id);
+    }
+  }
+
+  /**
+   * Lock table command type resolver.
+   */
+  public static class TypeResolver implements SerializableTypeResolver {
+    @Override
+    public void resolve(SerializerRegistry registry) {
+      registry.register(Lock.class, -160);
+      registry.register(Unlock.class, -161);
+      registry.register(LockCommands.LockEvent.class, -145);
+    }
+  }
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent.internal;
+
+import io.atomix.catalyst.concurrent.Scheduled;
+import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.session.ServerSession;
+import io.atomix.copycat.server.session.SessionListener;
+import io.atomix.resource.ResourceStateMachine;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Lock table state machine.
+ * <p>
+ * Each key in the table is backed by an entry holding the current lock holder and a FIFO queue of waiting
+ * requests. Entries only exist while a key is held or requested and are removed as soon as the last holder
+ * releases the key, so the size of the state machine is bounded by the number of keys currently in use rather
+ * than the number of keys ever locked.
+ * <p>
+ * A request for multiple keys acquires its keys one at a time in sorted key order and waits in the queue of the
+ * first key it cannot acquire. Because every request acquires keys in the same global order, no cycle of waiting
+ * requests can form and multi-key requests cannot deadlock one another.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class LockTableState extends ResourceStateMachine implements SessionListener {
+  private final Map<String, Entry> entries = new HashMap<>();
+  private final Map<Long, Map<Integer, Request>> sessions = new HashMap<>();
+
+  public LockTableState(Properties config) {
+    super(config);
+  }
+
+  @Override
+  public void close(ServerSession session) {
+    Map<Integer, Request> requests = sessions.remove(session.id());
+    if (requests != null) {
+      // Mark all of the session's requests released before releasing any keys to ensure keys released by one
+      // of the session's requests are not handed to another request from the same session.
+      requests.values().forEach(request -> request.released = true);
+      requests.values().forEach(this::release);
+    }
+  }
+
+  /**
+   * Applies a lock commit.
+   */
+  public void lock(Commit<LockTableCommands.Lock> commit) {
+    Request request = new Request(commit);
+
+    // If the lock request has no timeout, all keys must be acquired immediately or not at all.
+    if (commit.operation().timeout() == 0) {
+      for (String key : request.keys) {
+        if (entries.containsKey(key)) {
+          try {
+            commit.session().publish("fail", new LockCommands.LockEvent(commit.operation().id(), commit.index()));
+          } finally {
+            commit.close();
+          }
+          return;
+        }
+      }
+    }
+
+    sessions.computeIfAbsent(commit.session().id(), id -> new HashMap<>()).put(commit.operation().id(), request);
+    advance(request);
+
+    if (!request.acquired() && commit.operation().timeout() > 0) {
+      request.timer = executor.schedule(Duration.ofMillis(commit.operation().timeout()), () -> {
+        request.timer = null;
+        Map<Integer, Request> requests = sessions.get(commit.session().id());
+        if (requests != null && requests.remove(commit.operation().id(), request)) {
+          if (requests.isEmpty()) {
+            sessions.remove(commit.session().id());
+          }
+          if (commit.session().state().active()) {
+            commit.session().publish("fail", new LockCommands.LockEvent(commit.operation().id(), commit.index()));
+          }
+          request.released = true;
+          release(request);
+        }
+      });
+    }
+  }
+
+  /**
+   * Applies an unlock commit.
+   */
+  public void unlock(Commit<LockTableCommands.Unlock> commit) {
+    try {
+      Map<Integer, Request> requests = sessions.get(commit.session().id());
+      if (requests != null) {
+        Request request = requests.remove(commit.operation().id());
+        if (requests.isEmpty()) {
+          sessions.remove(commit.session().id());
+        }
+        if (request != null) {
+          request.released = true;
+          release(request);
+        }
+      }
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Acquires as many of the request's remaining keys as possible in order.
+   */
+  private void advance(Request request) {
+    while (!request.acquired()) {
+      String key = request.keys.get(request.position);
+      Entry entry = entries.computeIfAbsent(key, k -> new Entry());
+      if (entry.holder == null && entry.queue.isEmpty()) {
+        entry.holder = request;
+        request.position++;
+      } else {
+        entry.queue.add(request);
+        return;
+      }
+    }
+
+    if (request.timer != null) {
+      request.timer.cancel();
+      request.timer = null;
+    }
+    Commit<LockTableCommands.Lock> commit = request.commit;
+    commit.session().publish("lock", new LockCommands.LockEvent(commit.operation().id(), commit.index()));
+  }
+
+  /**
+   * Releases all keys held by the given request and removes it from the queue in which it's waiting.
+   */
+  private void release(Request request) {
+    if (request.timer != null) {
+      request.timer.cancel();
+      request.timer = null;
+    }
+
+    if (!request.acquired()) {
+      String key = request.keys.get(request.position);
+      Entry entry = entries.get(key);
+      if (entry != null) {
+        entry.queue.remove(request);
+        if (entry.holder == null && entry.queue.isEmpty()) {
+          entries.remove(key);
+        }
+      }
+    }
+
+    for (int i = 0; i < request.position; i++) {
+      String key = request.keys.get(i);
+      Entry entry = entries.get(key);
+      if (entry != null && entry.holder == request) {
+        entry.holder = null;
+        next(key, entry);
+      }
+    }
+    request.commit.close();
+  }
+
+  /**
+   * Hands the given key to the next request waiting for it, or removes the key if no requests are waiting.
+   */
+  private void next(String key, Entry entry) {
+    Request next = entry.queue.poll();
+    while (next != null && next.released) {
+      next = entry.queue.poll();
+    }
+
+    if (next != null) {
+      entry.holder = next;
+      next.position++;
+      advance(next);
+    } else {
+      entries.remove(key);
+    }
+  }
+
+  @Override
+  public void delete() {
+    sessions.values().forEach(requests -> requests.values().forEach(request -> {
+      if (request.timer != null) {
+        request.timer.cancel();
+      }
+      request.commit.close();
+    }));
+    sessions.clear();
+    entries.clear();
+  }
+
+  /**
+   * Lock table entry.
+   */
+  private static class Entry {
+    private Request holder;
+    private final Queue<Request> queue = new ArrayDeque<>();
+  }
+
+  /**
+   * Lock request.
+   */
+  private static class Request {
+    private final Commit<LockTableCommands.Lock> commit;
+    private final List<String> keys;
+    private int position;
+    private Scheduled timer;
+    private boolean released;
+
+    private Request(Commit<LockTableCommands.Lock> commit) {
+      this.commit = commit;
+      this.keys = new ArrayList<>(new TreeSet<>(commit.operation().keys()));
+    }
+
+    /**
+     * Returns a boolean indicating whether all of the request's keys have been acquired.
+     */
+    private boolean acquired() {
+      return position == keys.size();
+    }
+  }
+
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.SerializableTypeResolver;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.serializer.SerializerRegistry;
+import io.atomix.copycat.Command;
+
+/**
+ * Rate limiter commands.
+ * <p>
+ * This class reserves serializable type IDs {@code -146} through {@code -149}
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class RateLimiterCommands {
+
+  private RateLimiterCommands() {
+  }
+
+  /**
+   * Abstract rate limiter command.
+   */
+  public static abstract class RateLimiterCommand<V> implements Command<V>, CatalystSerializable {
+    protected String key;
+
+    protected RateLimiterCommand() {
+    }
+
+    protected RateLimiterCommand(String key) {
+      this.key = key;
+    }
+
+    /**
+     * Returns the bucket key.
+     *
+     * @return The bucket key.
+     */
+    public String key() {
+      return key;
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.SNAPSHOT;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      buffer.writeString(key);
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      key = buffer.readString();
+    }
+  }
+
+  /**
+   * Try acquire command.
+   * <p>
+   * Acquires at least {@link #min()} and at most {@link #max()} permits if at least {@code min} permits are
+   * immediately available, returning the number of permits acquired.
+   */
+  public static class TryAcquire extends RateLimiterCommand<Long> {
+    private long min;
+    private long max;
+
+    public TryAcquire() {
+    }
+
+    public TryAcquire(String key, long min, long max) {
+      super(key);
+      this.min = min;
+      this.max = max;
+    }
+
+    /**
+     * Returns the minimum number of permits to acquire.
+     *
+     * @return The minimum number of permits to acquire.
+     */
+    public long min() {
+      return min;
+    }
+
+    /**
+     * Returns the maximum number of permits to acquire.
+     *
+     * @return The maximum number of permits to acquire.
+     */
+    public long max() {
+      return max;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeLong(min).writeLong(max);
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      min = buffer.readLong();
+      max = buffer.readLong();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[key=%s, min=%d, max=%d]", getClass().getSimpleName(), key, min, max);
+    }
+  }
+
+  /**
+   * Acquire command.
+   * <p>
+   * If the requested permits are not immediately available, the request is queued in the state machine
+   * until permits are refilled or the request times out.
+   */
+  public static class Acquire extends RateLimiterCommand<Boolean> {
+    private int id;
+    private long permits;
+    private long timeout;
+
+    public Acquire() {
+    }
+
+    public Acquire(String key, int id, long permits, long timeout) {
+      super(key);
+      this.id = id;
+      this.permits = permits;
+      this.timeout = timeout;
+    }
+
+    /**
+     * Returns the acquire request ID.
+     *
+     * @return The acquire request ID.
+     */
+    public int id() {
+      return id;
+    }
+
+    /**
+     * Returns the number of permits to acquire.
+     *
+     * @return The number of permits to acquire.
+     */
+    public long permits() {
+      return permits;
+    }
+
+    /**
+     * Returns the acquire timeout.
+     *
+     * @return The acquire timeout in milliseconds.
+     */
+    public long timeout() {
+      return timeout;
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return timeout > 0 ? CompactionMode.SEQUENTIAL : CompactionMode.QUORUM;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeInt(id).writeLong(permits).writeLong(timeout);
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      id = buffer.readInt();
+      permits = buffer.readLong();
+      timeout = buffer.readLong();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[key=%s, id=%d, permits=%d, timeout=%d]", getClass().getSimpleName(), key, id, permits, timeout);
+    }
+  }
+
+  /**
+   * Release command.
+   * <p>
+   * Returns unused permits to a bucket.
+   */
+  public static class Release extends RateLimiterCommand<Void> {
+    private long permits;
+
+    public Release() {
+    }
+
+    public Release(String key, long permits) {
+      super(key);
+      this.permits = permits;
+    }
+
+    /**
+     * Returns the number of permits to release.
+     *
+     * @return The number of permits to release.
+     */
+    public long permits() {
+      return permits;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeLong(permits);
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      permits = buffer.readLong();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[key=%s, permits=%d]", getClass().getSimpleName(), key, permits);
+    }
+  }
+
+  /**
+   * Acquire event.
+   */
+  public static class AcquireEvent implements CatalystSerializable {
+    private int id;
+
+    public AcquireEvent() {
+    }
+
+    public AcquireEvent(int id) {
+      this.id = id;
+    }
+
+    /**
+     * Returns the acquire request ID.
+     *
+     * @return The acquire request ID.
+     */
+    public int id() {
+      return id;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeInt(id);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      id = buffer.readInt();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[id=%d]", getClass().getSimpleName(), id);
+    }
+  }
+
+  /**
+   * Rate limiter command type resolver.
+   */
+  public static class TypeResolver implements SerializableTypeResolver {
+    @Override
+    public void resolve(SerializerRegistry registry) {
+      registry.register(TryAcquire.class, -146);
+      registry.register(Acquire.class, -147);
+      registry.register(Release.class, -148);
+      registry.register(AcquireEvent.class, -149);
+    }
+  }
+
+}
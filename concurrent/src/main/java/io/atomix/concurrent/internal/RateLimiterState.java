@@ -0,0 +1,341 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent.internal;
+
+import io.atomix.catalyst.concurrent.Scheduled;
+import io.atomix.concurrent.DistributedRateLimiter;
+import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.Snapshottable;
+import io.atomix.copycat.server.session.ServerSession;
+import io.atomix.copycat.server.session.SessionListener;
+import io.atomix.copycat.server.storage.snapshot.SnapshotReader;
+import io.atomix.copycat.server.storage.snapshot.SnapshotWriter;
+import io.atomix.resource.ResourceStateMachine;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Rate limiter state machine.
+ * <p>
+ * Buckets are refilled according to the state machine clock, which advances with the time of the replicated
+ * log, so bucket state is deterministic across replicas.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class RateLimiterState extends ResourceStateMachine implements SessionListener, Snapshottable {
+  private final double rate;
+  private final long capacity;
+  private final Map<String, Bucket> buckets = new HashMap<>();
+
+  public RateLimiterState(Properties config) {
+    super(config);
+    DistributedRateLimiter.Config limiterConfig = new DistributedRateLimiter.Config(config);
+    this.rate = (double) limiterConfig.getPermits() / limiterConfig.getPeriod().toMillis();
+    this.capacity = limiterConfig.getCapacity();
+  }
+
+  @Override
+  public void close(ServerSession session) {
+    Iterator<Bucket> iterator = buckets.values().iterator();
+    while (iterator.hasNext()) {
+      Bucket bucket = iterator.next();
+      Iterator<Commit<RateLimiterCommands.Acquire>> waiters = bucket.waiters.iterator();
+      while (waiters.hasNext()) {
+        Commit<RateLimiterCommands.Acquire> waiter = waiters.next();
+        if (waiter.session().id() == session.id()) {
+          waiters.remove();
+          bucket.cancelTimeout(waiter);
+          waiter.close();
+        }
+      }
+      bucket.refill(context.clock().millis());
+      bucket.drain();
+      if (bucket.isIdle()) {
+        bucket.cancel();
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Returns the bucket for the given key, refilled to the current time.
+   */
+  private Bucket bucket(String key) {
+    Bucket bucket = buckets.computeIfAbsent(key, Bucket::new);
+    bucket.refill(context.clock().millis());
+    return bucket;
+  }
+
+  /**
+   * Removes the given bucket if it no longer holds any state.
+   */
+  private void cleanup(Bucket bucket) {
+    if (bucket.isIdle()) {
+      bucket.cancel();
+      buckets.remove(bucket.key);
+    }
+  }
+
+  /**
+   * Applies a try acquire commit.
+   */
+  public long tryAcquire(Commit<RateLimiterCommands.TryAcquire> commit) {
+    try {
+      Bucket bucket = bucket(commit.operation().key());
+      long acquired = 0;
+      if (bucket.waiters.isEmpty() && bucket.tokens >= commit.operation().min()) {
+        acquired = Math.min((long) bucket.tokens, commit.operation().max());
+        bucket.tokens -= acquired;
+      }
+      cleanup(bucket);
+      return acquired;
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Applies an acquire commit.
+   */
+  public boolean acquire(Commit<RateLimiterCommands.Acquire> commit) {
+    long permits = commit.operation().permits();
+    if (permits > capacity) {
+      commit.close();
+      throw new IllegalArgumentException("permits cannot exceed bucket capacity " + capacity);
+    }
+
+    Bucket bucket = bucket(commit.operation().key());
+    if (bucket.waiters.isEmpty() && bucket.tokens >= permits) {
+      bucket.tokens -= permits;
+      commit.close();
+      cleanup(bucket);
+      return true;
+    } else if (commit.operation().timeout() == 0) {
+      try {
+        commit.session().publish("fail", new RateLimiterCommands.AcquireEvent(commit.operation().id()));
+      } finally {
+        commit.close();
+      }
+      cleanup(bucket);
+      return false;
+    }
+
+    bucket.waiters.add(commit);
+    if (commit.operation().timeout() > 0) {
+      bucket.timeouts.put(commit.index(), executor.schedule(Duration.ofMillis(commit.operation().timeout()), () -> {
+        try {
+          bucket.timeouts.remove(commit.index());
+          bucket.waiters.remove(commit);
+          if (commit.session().state().active()) {
+            commit.session().publish("fail", new RateLimiterCommands.AcquireEvent(commit.operation().id()));
+          }
+        } finally {
+          commit.close();
+        }
+        bucket.refill(context.clock().millis());
+        bucket.drain();
+        cleanup(bucket);
+      }));
+    }
+    bucket.schedule();
+    return false;
+  }
+
+  /**
+   * Applies a release commit.
+   */
+  public void release(Commit<RateLimiterCommands.Release> commit) {
+    try {
+      Bucket bucket = bucket(commit.operation().key());
+      bucket.tokens = Math.min(bucket.tokens + commit.operation().permits(), capacity);
+      bucket.drain();
+      cleanup(bucket);
+    } finally {
+      commit.close();
+    }
+  }
+
+  @Override
+  public void snapshot(SnapshotWriter writer) {
+    writer.writeInt(buckets.size());
+    for (Bucket bucket : buckets.values()) {
+      writer.writeString(bucket.key);
+      writer.writeDouble(bucket.tokens);
+      writer.writeLong(bucket.updated);
+      writer.writeInt(bucket.waiters.size());
+      for (Commit<RateLimiterCommands.Acquire> waiter : bucket.waiters) {
+        writer.writeLong(waiter.index());
+      }
+    }
+  }
+
+  /**
+   * Installs a snapshot of the buckets.
+   * <p>
+   * Queued acquire commits are retained in the log and are replayed before the snapshot is installed, so the
+   * snapshot is merged into the replayed buckets rather than replacing them. Waiters and their timeouts are kept
+   * for the commits that were still queued when the snapshot was taken, and any other replayed waiters are
+   * released since they were granted or failed by operations that have since been compacted.
+   */
+  @Override
+  public void install(SnapshotReader reader) {
+    Map<String, Bucket> installed = new HashMap<>();
+    int size = reader.readInt();
+    for (int i = 0; i < size; i++) {
+      Bucket bucket = buckets.computeIfAbsent(reader.readString(), Bucket::new);
+      bucket.tokens = reader.readDouble();
+      bucket.updated = reader.readLong();
+      Set<Long> queued = new HashSet<>();
+      int waiters = reader.readInt();
+      for (int j = 0; j < waiters; j++) {
+        queued.add(reader.readLong());
+      }
+      bucket.retain(queued);
+      installed.put(bucket.key, bucket);
+    }
+
+    for (Bucket bucket : buckets.values()) {
+      if (!installed.containsKey(bucket.key)) {
+        bucket.cancel();
+        bucket.retain(Collections.emptySet());
+      }
+    }
+    buckets.clear();
+    buckets.putAll(installed);
+    buckets.values().forEach(Bucket::schedule);
+  }
+
+  @Override
+  public void delete() {
+    for (Bucket bucket : buckets.values()) {
+      bucket.cancel();
+      bucket.waiters.forEach(Commit::close);
+      bucket.waiters.clear();
+    }
+    buckets.clear();
+  }
+
+  /**
+   * Token bucket.
+   */
+  private class Bucket {
+    private final String key;
+    private final Queue<Commit<RateLimiterCommands.Acquire>> waiters = new ArrayDeque<>();
+    private final Map<Long, Scheduled> timeouts = new HashMap<>();
+    private double tokens = capacity;
+    private long updated = -1;
+    private Scheduled refill;
+
+    private Bucket(String key) {
+      this.key = key;
+    }
+
+    /**
+     * Refills the bucket according to the time elapsed since it was last refilled.
+     */
+    private void refill(long time) {
+      if (updated != -1 && time > updated) {
+        tokens = Math.min(tokens + (time - updated) * rate, capacity);
+      }
+      updated = Math.max(updated, time);
+    }
+
+    /**
+     * Grants permits to queued requests in the order in which they were queued.
+     */
+    private void drain() {
+      Commit<RateLimiterCommands.Acquire> waiter = waiters.peek();
+      while (waiter != null && tokens >= waiter.operation().permits()) {
+        waiters.remove();
+        cancelTimeout(waiter);
+        if (waiter.session().state().active()) {
+          tokens -= waiter.operation().permits();
+          waiter.session().publish("acquire", new RateLimiterCommands.AcquireEvent(waiter.operation().id()));
+        }
+        waiter.close();
+        waiter = waiters.peek();
+      }
+      schedule();
+    }
+
+    /**
+     * Schedules a refill for the next queued request.
+     */
+    private void schedule() {
+      if (refill != null) {
+        refill.cancel();
+        refill = null;
+      }
+
+      Commit<RateLimiterCommands.Acquire> waiter = waiters.peek();
+      if (waiter != null) {
+        long delay = (long) Math.ceil((waiter.operation().permits() - tokens) / rate);
+        refill = executor.schedule(Duration.ofMillis(Math.max(delay, 1)), () -> {
+          refill = null;
+          refill(context.clock().millis());
+          drain();
+          cleanup(this);
+        });
+      }
+    }
+
+    /**
+     * Cancels the timeout for the given queued request.
+     */
+    private void cancelTimeout(Commit<RateLimiterCommands.Acquire> waiter) {
+      Scheduled timeout = timeouts.remove(waiter.index());
+      if (timeout != null) {
+        timeout.cancel();
+      }
+    }
+
+    /**
+     * Releases queued requests that are not in the given set of commit indexes.
+     */
+    private void retain(Set<Long> queued) {
+      Iterator<Commit<RateLimiterCommands.Acquire>> iterator = waiters.iterator();
+      while (iterator.hasNext()) {
+        Commit<RateLimiterCommands.Acquire> waiter = iterator.next();
+        if (!queued.contains(waiter.index())) {
+          iterator.remove();
+          cancelTimeout(waiter);
+          waiter.close();
+        }
+      }
+    }
+
+    /**
+     * Returns a boolean indicating whether the bucket is full and has no queued requests.
+     */
+    private boolean isIdle() {
+      return waiters.isEmpty() && tokens >= capacity;
+    }
+
+    /**
+     * Cancels all timers for the bucket.
+     */
+    private void cancel() {
+      if (refill != null) {
+        refill.cancel();
+        refill = null;
+      }
+      timeouts.values().forEach(Scheduled::cancel);
+      timeouts.clear();
+    }
+  }
+
+}
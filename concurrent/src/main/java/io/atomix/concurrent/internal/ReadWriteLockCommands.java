@@ -0,0 +1,174 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.SerializableTypeResolver;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.serializer.SerializerRegistry;
+import io.atomix.copycat.Command;
+
+/**
+ * Read-write lock commands.
+ * <p>
+ * This class reserves serializable type IDs {@code -150} through {@code -151}. Lock events are
+ * shared with {@link LockCommands}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class ReadWriteLockCommands {
+
+  private ReadWriteLockCommands() {
+  }
+
+  /**
+   * Abstract read-write lock command.
+   */
+  public static abstract class ReadWriteLockCommand<V> implements Command<V>, CatalystSerializable {
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.QUORUM;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+    }
+  }
+
+  /**
+   * Lock command.
+   */
+  public static class Lock extends ReadWriteLockCommand<Void> {
+    private int id;
+    private boolean write;
+    private long timeout;
+
+    public Lock() {
+    }
+
+    public Lock(int id, boolean write, long timeout) {
+      this.id = id;
+      this.write = write;
+      this.timeout = timeout;
+    }
+
+    /**
+     * Returns the lock ID.
+     *
+     * @return The lock ID.
+     */
+    public int id() {
+      return id;
+    }
+
+    /**
+     * Returns whether the lock is requested in exclusive write mode.
+     *
+     * @return Whether the lock is requested in exclusive write mode.
+     */
+    public boolean write() {
+      return write;
+    }
+
+    /**
+     * Returns the try lock timeout.
+     *
+     * @return The try lock timeout in milliseconds.
+     */
+    public long timeout() {
+      return timeout;
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return timeout > 0 ? CompactionMode.SEQUENTIAL : CompactionMode.QUORUM;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      buffer.writeInt(id).writeBoolean(write).writeLong(timeout);
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      id = buffer.readInt();
+      write = buffer.readBoolean();
+      timeout = buffer.readLong();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[id=%d, write=%b, timeout=%d]", getClass().getSimpleName(), id, write, timeout);
+    }
+  }
+
+  /**
+   * Unlock command.
+   */
+  public static class Unlock extends ReadWriteLockCommand<Void> {
+    private int id;
+
+    public Unlock() {
+    }
+
+    public Unlock(int id) {
+      this.id = id;
+    }
+
+    /**
+     * Returns the lock ID.
+     *
+     * @return The lock ID.
+     */
+    public int id() {
+      return id;
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.SEQUENTIAL;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      buffer.writeInt(id);
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      id = buffer.readInt();
+    }
+  }
+
+  /**
+   * Read-write lock command type resolver.
+   */
+  public static class TypeResolver implements SerializableTypeResolver {
+    @Override
+    public void resolve(SerializerRegistry registry) {
+      registry.register(Lock.class, -150);
+      registry.register(Unlock.class, -151);
+      registry.register(LockCommands.LockEvent.class, -145);
+    }
+  }
+
+}
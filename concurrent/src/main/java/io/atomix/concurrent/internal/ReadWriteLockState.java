@@ -0,0 +1,199 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent.internal;
+
+import io.atomix.catalyst.concurrent.Scheduled;
+import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.session.ServerSession;
+import io.atomix.copycat.server.session.SessionListener;
+import io.atomix.resource.ResourceStateMachine;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Read-write lock state machine.
+ * <p>
+ * Lock requests are granted in FIFO order. When the request at the head of the queue is a read request,
+ * it is granted along with all read requests that immediately follow it in the queue. Read requests queued
+ * behind a write request are not granted until the write lock has been acquired and released, which prevents
+ * writers from being starved by a continuous stream of readers.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class ReadWriteLockState extends ResourceStateMachine implements SessionListener {
+  private Commit<ReadWriteLockCommands.Lock> writer;
+  private final List<Commit<ReadWriteLockCommands.Lock>> readers = new ArrayList<>();
+  private final Queue<Commit<ReadWriteLockCommands.Lock>> queue = new ArrayDeque<>();
+  private final Map<Long, Scheduled> timers = new HashMap<>();
+
+  public ReadWriteLockState(Properties config) {
+    super(config);
+  }
+
+  @Override
+  public void close(ServerSession session) {
+    if (writer != null && writer.session().id() == session.id()) {
+      writer.close();
+      writer = null;
+    }
+
+    Iterator<Commit<ReadWriteLockCommands.Lock>> readIterator = readers.iterator();
+    while (readIterator.hasNext()) {
+      Commit<ReadWriteLockCommands.Lock> reader = readIterator.next();
+      if (reader.session().id() == session.id()) {
+        readIterator.remove();
+        reader.close();
+      }
+    }
+
+    Iterator<Commit<ReadWriteLockCommands.Lock>> queueIterator = queue.iterator();
+    while (queueIterator.hasNext()) {
+      Commit<ReadWriteLockCommands.Lock> waiter = queueIterator.next();
+      if (waiter.session().id() == session.id()) {
+        queueIterator.remove();
+        cancelTimer(waiter);
+        waiter.close();
+      }
+    }
+
+    grant();
+  }
+
+  /**
+   * Returns a boolean indicating whether the given lock request can be granted given the current holders.
+   */
+  private boolean isAvailable(Commit<ReadWriteLockCommands.Lock> commit) {
+    return writer == null && (!commit.operation().write() || readers.isEmpty());
+  }
+
+  /**
+   * Grants the lock to the given commit.
+   */
+  private void acquire(Commit<ReadWriteLockCommands.Lock> commit) {
+    if (commit.operation().write()) {
+      writer = commit;
+    } else {
+      readers.add(commit);
+    }
+    commit.session().publish("lock", new LockCommands.LockEvent(commit.operation().id(), commit.index()));
+  }
+
+  /**
+   * Grants the lock to queued requests in FIFO order.
+   */
+  private void grant() {
+    Commit<ReadWriteLockCommands.Lock> next = queue.peek();
+    while (next != null && isAvailable(next)) {
+      queue.remove();
+      cancelTimer(next);
+      if (next.session().state() == ServerSession.State.EXPIRED || next.session().state() == ServerSession.State.CLOSED) {
+        next.close();
+      } else {
+        acquire(next);
+        if (next.operation().write()) {
+          break;
+        }
+      }
+      next = queue.peek();
+    }
+  }
+
+  /**
+   * Cancels the timeout for the given queued request.
+   */
+  private void cancelTimer(Commit<ReadWriteLockCommands.Lock> commit) {
+    Scheduled timer = timers.remove(commit.index());
+    if (timer != null) {
+      timer.cancel();
+    }
+  }
+
+  /**
+   * Applies a lock commit.
+   */
+  public void lock(Commit<ReadWriteLockCommands.Lock> commit) {
+    if (queue.isEmpty() && isAvailable(commit)) {
+      acquire(commit);
+    } else if (commit.operation().timeout() == 0) {
+      try {
+        commit.session().publish("fail", new LockCommands.LockEvent(commit.operation().id(), commit.index()));
+      } finally {
+        commit.close();
+      }
+    } else {
+      queue.add(commit);
+      if (commit.operation().timeout() > 0) {
+        timers.put(commit.index(), executor.schedule(Duration.ofMillis(commit.operation().timeout()), () -> {
+          try {
+            timers.remove(commit.index());
+            queue.remove(commit);
+            if (commit.session().state().active()) {
+              commit.session().publish("fail", new LockCommands.LockEvent(commit.operation().id(), commit.index()));
+            }
+          } finally {
+            commit.close();
+          }
+          // Removing a queued writer may allow readers queued behind it to proceed.
+          grant();
+        }));
+      }
+    }
+  }
+
+  /**
+   * Applies an unlock commit.
+   */
+  public void unlock(Commit<ReadWriteLockCommands.Unlock> commit) {
+    try {
+      if (writer != null && writer.session().equals(commit.session()) && writer.operation().id() == commit.operation().id()) {
+        writer.close();
+        writer = null;
+      } else {
+        Iterator<Commit<ReadWriteLockCommands.Lock>> iterator = readers.iterator();
+        while (iterator.hasNext()) {
+          Commit<ReadWriteLockCommands.Lock> reader = iterator.next();
+          if (reader.session().equals(commit.session()) && reader.operation().id() == commit.operation().id()) {
+            iterator.remove();
+            reader.close();
+            break;
+          }
+        }
+      }
+      grant();
+    } finally {
+      commit.close();
+    }
+  }
+
+  @Override
+  public void delete() {
+    if (writer != null) {
+      writer.close();
+      writer = null;
+    }
+
+    readers.forEach(Commit::close);
+    readers.clear();
+
+    queue.forEach(Commit::close);
+    queue.clear();
+
+    timers.values().forEach(Scheduled::cancel);
+    timers.clear();
+  }
+
+}
@@ -0,0 +1,333 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.SerializableTypeResolver;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.serializer.SerializerRegistry;
+import io.atomix.concurrent.DistributedScheduler;
+import io.atomix.copycat.Command;
+
+/**
+ * Scheduler commands.
+ * <p>
+ * This class reserves serializable type IDs {@code -172} through {@code -180}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class SchedulerCommands {
+
+  private SchedulerCommands() {
+  }
+
+  /**
+   * Abstract scheduler command.
+   * <p>
+   * The effects of scheduler commands depend on timers scheduled in the state machine, so all scheduler commands
+   * are compacted {@link CompactionMode#SEQUENTIAL sequentially} to ensure replaying the log reproduces the same
+   * firings.
+   */
+  public static abstract class SchedulerCommand<V> implements Command<V>, CatalystSerializable {
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.SEQUENTIAL;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    }
+  }
+
+  /**
+   * Abstract named scheduler command.
+   */
+  public static abstract class NamedCommand<V> extends SchedulerCommand<V> {
+    protected String name;
+
+    protected NamedCommand() {
+    }
+
+    protected NamedCommand(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Returns the schedule name.
+     *
+     * @return The schedule name.
+     */
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeString(name);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      name = buffer.readString();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[name=%s]", getClass().getSimpleName(), name);
+    }
+  }
+
+  /**
+   * Schedule command.
+   */
+  public static class Schedule extends NamedCommand<Void> {
+    private long delay;
+    private long interval;
+    private DistributedScheduler.Delivery delivery;
+
+    public Schedule() {
+    }
+
+    public Schedule(String name, long delay, long interval, DistributedScheduler.Delivery delivery) {
+      super(name);
+      this.delay = delay;
+      this.interval = interval;
+      this.delivery = delivery;
+    }
+
+    /**
+     * Returns the delay before the first firing.
+     *
+     * @return The delay before the first firing in milliseconds.
+     */
+    public long delay() {
+      return delay;
+    }
+
+    /**
+     * Returns the interval between firings.
+     *
+     * @return The interval between firings in milliseconds, or {@code 0} if the schedule fires once.
+     */
+    public long interval() {
+      return interval;
+    }
+
+    /**
+     * Returns the delivery semantics for firings.
+     *
+     * @return The delivery semantics for firings.
+     */
+    public DistributedScheduler.Delivery delivery() {
+      return delivery;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeLong(delay).writeLong(interval).writeByte(delivery.ordinal());
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      delay = buffer.readLong();
+      interval = buffer.readLong();
+      delivery = DistributedScheduler.Delivery.values()[buffer.readByte()];
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[name=%s, delay=%d, interval=%d, delivery=%s]", getClass().getSimpleName(), name, delay, interval, delivery);
+    }
+  }
+
+  /**
+   * Cancel command.
+   */
+  public static class Cancel extends NamedCommand<Boolean> {
+    public Cancel() {
+    }
+
+    public Cancel(String name) {
+      super(name);
+    }
+  }
+
+  /**
+   * Register command.
+   */
+  public static class Register extends NamedCommand<Void> {
+    public Register() {
+    }
+
+    public Register(String name) {
+      super(name);
+    }
+  }
+
+  /**
+   * Unregister command.
+   */
+  public static class Unregister extends NamedCommand<Void> {
+    public Unregister() {
+    }
+
+    public Unregister(String name) {
+      super(name);
+    }
+  }
+
+  /**
+   * Complete command.
+   */
+  public static class Complete extends NamedCommand<Void> {
+    private long sequence;
+
+    public Complete() {
+    }
+
+    public Complete(String name, long sequence) {
+      super(name);
+      this.sequence = sequence;
+    }
+
+    /**
+     * Returns the sequence number of the completed firing.
+     *
+     * @return The sequence number of the completed firing.
+     */
+    public long sequence() {
+      return sequence;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeLong(sequence);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      sequence = buffer.readLong();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[name=%s, sequence=%d]", getClass().getSimpleName(), name, sequence);
+    }
+  }
+
+  /**
+   * Listen for missed firings command.
+   */
+  public static class Listen extends SchedulerCommand<Void> {
+  }
+
+  /**
+   * Unlisten for missed firings command.
+   */
+  public static class Unlisten extends SchedulerCommand<Void> {
+  }
+
+  /**
+   * Task event.
+   */
+  public static class TaskEvent implements CatalystSerializable {
+    private String name;
+    private long sequence;
+    private long time;
+
+    public TaskEvent() {
+    }
+
+    public TaskEvent(String name, long sequence, long time) {
+      this.name = name;
+      this.sequence = sequence;
+      this.time = time;
+    }
+
+    /**
+     * Returns the schedule name.
+     *
+     * @return The schedule name.
+     */
+    public String name() {
+      return name;
+    }
+
+    /**
+     * Returns the firing sequence number.
+     *
+     * @return The firing sequence number.
+     */
+    public long sequence() {
+      return sequence;
+    }
+
+    /**
+     * Returns the log time at which the schedule fired.
+     *
+     * @return The log time at which the schedule fired in milliseconds since the epoch.
+     */
+    public long time() {
+      return time;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeString(name).writeLong(sequence).writeLong(time);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      name = buffer.readString();
+      sequence = buffer.readLong();
+      time = buffer.readLong();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[name=%s, sequence=%d, time=%d]", getClass().getSimpleName(), name, sequence, time);
+    }
+  }
+
+  /**
+   * Scheduler command type resolver.
+   */
+  public static class TypeResolver implements SerializableTypeResolver {
+    @Override
+    public void resolve(SerializerRegistry registry) {
+      registry.register(Schedule.class, -172);
+      registry.register(Cancel.class, -173);
+      registry.register(Register.class, -174);
+      registry.register(Unregister.class, -175);
+      registry.register(Complete.class, -176);
+      registry.register(Listen.class, -177);
+      registry.register(Unlisten.class, -178);
+      registry.register(TaskEvent.class, -179);
+      registry.register(DistributedScheduler.Missed.class, -180);
+    }
+  }
+
+}
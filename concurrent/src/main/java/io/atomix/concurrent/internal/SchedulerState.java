@@ -0,0 +1,330 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent.internal;
+
+import io.atomix.catalyst.concurrent.Scheduled;
+import io.atomix.concurrent.DistributedScheduler;
+import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.session.ServerSession;
+import io.atomix.copycat.server.session.SessionListener;
+import io.atomix.resource.ResourceStateMachine;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Scheduler state machine.
+ * <p>
+ * Schedules are driven by timers on the state machine executor and therefore fire at the same point in the log
+ * on every replica. When a schedule fires, the firing is assigned to the next live session registered as a worker
+ * for the schedule and a {@code task} event is published to that session. Schedule and registration commits are
+ * retained for as long as they're in effect.
+ * <p>
+ * Each schedule has at most one outstanding firing. {@link DistributedScheduler.Delivery#AT_MOST_ONCE At-most-once}
+ * firings are outstanding only until they're published, whereas {@link DistributedScheduler.Delivery#AT_LEAST_ONCE
+ * at-least-once} firings remain outstanding until completed by the assigned worker and are reassigned if the
+ * worker's session is closed. A firing is missed if no worker is registered for an at-most-once schedule, if the
+ * previous at-least-once firing is still outstanding, or if the log time advanced past more than one firing
+ * before the timer ran. Missed firings are published to listening sessions in a {@code missed} event.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class SchedulerState extends ResourceStateMachine implements SessionListener {
+  private final Map<String, ScheduleState> schedules = new HashMap<>();
+  private final Map<String, List<Commit<SchedulerCommands.Register>>> workers = new HashMap<>();
+  private final Map<Long, Commit<SchedulerCommands.Listen>> listeners = new LinkedHashMap<>();
+
+  public SchedulerState(Properties config) {
+    super(config);
+  }
+
+  @Override
+  public void close(ServerSession session) {
+    Commit<SchedulerCommands.Listen> listener = listeners.remove(session.id());
+    if (listener != null) {
+      listener.close();
+    }
+
+    Iterator<Map.Entry<String, List<Commit<SchedulerCommands.Register>>>> iterator = workers.entrySet().iterator();
+    while (iterator.hasNext()) {
+      List<Commit<SchedulerCommands.Register>> registrations = iterator.next().getValue();
+      registrations.removeIf(registration -> {
+        if (registration.session().id() == session.id()) {
+          registration.close();
+          return true;
+        }
+        return false;
+      });
+      if (registrations.isEmpty()) {
+        iterator.remove();
+      }
+    }
+
+    for (ScheduleState schedule : schedules.values()) {
+      if (schedule.outstanding && schedule.assignee == session.id()) {
+        schedule.assignee = 0;
+        assign(schedule);
+      }
+    }
+  }
+
+  /**
+   * Applies a schedule commit.
+   */
+  public void schedule(Commit<SchedulerCommands.Schedule> commit) {
+    ScheduleState previous = schedules.remove(commit.operation().name());
+    if (previous != null) {
+      previous.close();
+    }
+
+    ScheduleState schedule = new ScheduleState(commit, context.clock().millis() + commit.operation().delay());
+    schedules.put(schedule.name, schedule);
+    schedule.timer = executor.schedule(Duration.ofMillis(commit.operation().delay()), () -> fire(schedule));
+  }
+
+  /**
+   * Applies a cancel commit.
+   */
+  public boolean cancel(Commit<SchedulerCommands.Cancel> commit) {
+    try {
+      ScheduleState schedule = schedules.remove(commit.operation().name());
+      if (schedule != null) {
+        schedule.close();
+        return true;
+      }
+      return false;
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Fires the given schedule.
+   */
+  private void fire(ScheduleState schedule) {
+    long time = context.clock().millis();
+
+    // If the log time advanced past more than one firing before the timer ran, only the latest firing is
+    // delivered and the intermediate firings are reported as missed.
+    long skipped = 0;
+    if (schedule.interval > 0) {
+      skipped = Math.max(time - schedule.next, 0) / schedule.interval;
+      schedule.next += (skipped + 1) * schedule.interval;
+      schedule.timer = executor.schedule(Duration.ofMillis(schedule.next - time), () -> fire(schedule));
+    } else {
+      schedule.timer = null;
+    }
+
+    schedule.sequence += skipped + 1;
+    if (skipped > 0) {
+      miss(schedule, skipped, time);
+    }
+
+    if (schedule.outstanding) {
+      miss(schedule, 1, time);
+    } else {
+      schedule.outstanding = true;
+      schedule.assigned = schedule.sequence;
+      schedule.time = time;
+      schedule.assignee = 0;
+      assign(schedule);
+    }
+
+    if (schedule.interval == 0 && !schedule.outstanding) {
+      schedules.remove(schedule.name);
+      schedule.close();
+    }
+  }
+
+  /**
+   * Assigns the outstanding firing of the given schedule to the next live worker.
+   * <p>
+   * The firing keeps the sequence number it was assigned when it became outstanding, so a worker can complete it
+   * even after later firings of the schedule have been missed.
+   */
+  private void assign(ScheduleState schedule) {
+    List<Commit<SchedulerCommands.Register>> registrations = workers.get(schedule.name);
+    if (registrations != null) {
+      int size = registrations.size();
+      for (int i = 0; i < size; i++) {
+        Commit<SchedulerCommands.Register> registration = registrations.get((schedule.cursor + i) % size);
+        if (registration.session().state().active()) {
+          schedule.cursor = (schedule.cursor + i + 1) % size;
+          registration.session().publish("task", new SchedulerCommands.TaskEvent(schedule.name, schedule.assigned, schedule.time));
+          if (schedule.delivery == DistributedScheduler.Delivery.AT_LEAST_ONCE) {
+            schedule.assignee = registration.session().id();
+          } else {
+            schedule.outstanding = false;
+          }
+          return;
+        }
+      }
+    }
+
+    // At-least-once firings remain outstanding until a worker is registered for the schedule.
+    if (schedule.delivery == DistributedScheduler.Delivery.AT_MOST_ONCE) {
+      schedule.outstanding = false;
+      miss(schedule, 1, schedule.time);
+    }
+  }
+
+  /**
+   * Publishes missed firings of the given schedule to listening sessions.
+   */
+  private void miss(ScheduleState schedule, long count, long time) {
+    schedule.missed += count;
+    for (Commit<SchedulerCommands.Listen> listener : listeners.values()) {
+      if (listener.session().state().active()) {
+        listener.session().publish("missed", new DistributedScheduler.Missed(schedule.name, count, schedule.missed, time));
+      }
+    }
+  }
+
+  /**
+   * Applies a complete commit.
+   */
+  public void complete(Commit<SchedulerCommands.Complete> commit) {
+    try {
+      ScheduleState schedule = schedules.get(commit.operation().name());
+      if (schedule != null && schedule.outstanding && schedule.assigned == commit.operation().sequence()
+        && schedule.assignee == commit.session().id()) {
+        schedule.outstanding = false;
+        schedule.assignee = 0;
+        if (schedule.interval == 0) {
+          schedules.remove(schedule.name);
+          schedule.close();
+        }
+      }
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Applies a register commit.
+   */
+  public void register(Commit<SchedulerCommands.Register> commit) {
+    List<Commit<SchedulerCommands.Register>> registrations = workers.computeIfAbsent(commit.operation().name(), n -> new ArrayList<>());
+    for (Commit<SchedulerCommands.Register> registration : registrations) {
+      if (registration.session().id() == commit.session().id()) {
+        commit.close();
+        return;
+      }
+    }
+    registrations.add(commit);
+
+    ScheduleState schedule = schedules.get(commit.operation().name());
+    if (schedule != null && schedule.outstanding && schedule.assignee == 0) {
+      assign(schedule);
+    }
+  }
+
+  /**
+   * Applies an unregister commit.
+   */
+  public void unregister(Commit<SchedulerCommands.Unregister> commit) {
+    try {
+      List<Commit<SchedulerCommands.Register>> registrations = workers.get(commit.operation().name());
+      if (registrations != null) {
+        registrations.removeIf(registration -> {
+          if (registration.session().id() == commit.session().id()) {
+            registration.close();
+            return true;
+          }
+          return false;
+        });
+        if (registrations.isEmpty()) {
+          workers.remove(commit.operation().name());
+        }
+      }
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Applies a listen commit.
+   */
+  public void listen(Commit<SchedulerCommands.Listen> commit) {
+    Commit<SchedulerCommands.Listen> previous = listeners.put(commit.session().id(), commit);
+    if (previous != null) {
+      previous.close();
+    }
+  }
+
+  /**
+   * Applies an unlisten commit.
+   */
+  public void unlisten(Commit<SchedulerCommands.Unlisten> commit) {
+    try {
+      Commit<SchedulerCommands.Listen> listener = listeners.remove(commit.session().id());
+      if (listener != null) {
+        listener.close();
+      }
+    } finally {
+      commit.close();
+    }
+  }
+
+  @Override
+  public void delete() {
+    schedules.values().forEach(ScheduleState::close);
+    schedules.clear();
+    workers.values().forEach(registrations -> registrations.forEach(Commit::close));
+    workers.clear();
+    listeners.values().forEach(Commit::close);
+    listeners.clear();
+  }
+
+  /**
+   * Schedule state.
+   */
+  private static class ScheduleState {
+    private final Commit<SchedulerCommands.Schedule> commit;
+    private final String name;
+    private final long interval;
+    private final DistributedScheduler.Delivery delivery;
+    private Scheduled timer;
+    private long next;
+    private long sequence;
+    private long assigned;
+    private long time;
+    private long missed;
+    private boolean outstanding;
+    private long assignee;
+    private int cursor;
+
+    private ScheduleState(Commit<SchedulerCommands.Schedule> commit, long next) {
+      this.commit = commit;
+      this.name = commit.operation().name();
+      this.interval = commit.operation().interval();
+      this.delivery = commit.operation().delivery();
+      this.next = next;
+    }
+
+    /**
+     * Cancels the schedule's timer and releases the schedule commit.
+     */
+    private void close() {
+      if (timer != null) {
+        timer.cancel();
+        timer = null;
+      }
+      commit.close();
+    }
+  }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.SerializableTypeResolver;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.serializer.SerializerRegistry;
+import io.atomix.copycat.Command;
+import io.atomix.copycat.Query;
+
+/**
+ * Semaphore commands.
+ * <p>
+ * This class reserves serializable type IDs {@code -152} through {@code -154}. Acquire events are
+ * shared with {@link LockCommands}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class SemaphoreCommands {
+
+  private SemaphoreCommands() {
+  }
+
+  /**
+   * Abstract semaphore command.
+   */
+  public static abstract class SemaphoreCommand<V> implements Command<V>, CatalystSerializable {
+    protected int permits;
+
+    protected SemaphoreCommand() {
+    }
+
+    protected SemaphoreCommand(int permits) {
+      this.permits = permits;
+    }
+
+    /**
+     * Returns the number of permits.
+     *
+     * @return The number of permits.
+     */
+    public int permits() {
+      return permits;
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.QUORUM;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      buffer.writeInt(permits);
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      permits = buffer.readInt();
+    }
+  }
+
+  /**
+   * Acquire command.
+   */
+  public static class Acquire extends SemaphoreCommand<Void> {
+    private int id;
+    private long timeout;
+
+    public Acquire() {
+    }
+
+    public Acquire(int id, int permits, long timeout) {
+      super(permits);
+      this.id = id;
+      this.timeout = timeout;
+    }
+
+    /**
+     * Returns the acquire request ID.
+     *
+     * @return The acquire request ID.
+     */
+    public int id() {
+      return id;
+    }
+
+    /**
+     * Returns the acquire timeout.
+     *
+     * @return The acquire timeout in milliseconds.
+     */
+    public long timeout() {
+      return timeout;
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return timeout > 0 ? CompactionMode.SEQUENTIAL : CompactionMode.QUORUM;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeInt(id).writeLong(timeout);
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      id = buffer.readInt();
+      timeout = buffer.readLong();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[id=%d, permits=%d, timeout=%d]", getClass().getSimpleName(), id, permits, timeout);
+    }
+  }
+
+  /**
+   * Release command.
+   */
+  public static class Release extends SemaphoreCommand<Void> {
+    public Release() {
+    }
+
+    public Release(int permits) {
+      super(permits);
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.SEQUENTIAL;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[permits=%d]", getClass().getSimpleName(), permits);
+    }
+  }
+
+  /**
+   * Available permits query.
+   */
+  public static class AvailablePermits implements Query<Integer>, CatalystSerializable {
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    }
+  }
+
+  /**
+   * Semaphore command type resolver.
+   */
+  public static class TypeResolver implements SerializableTypeResolver {
+    @Override
+    public void resolve(SerializerRegistry registry) {
+      registry.register(Acquire.class, -152);
+      registry.register(Release.class, -153);
+      registry.register(AvailablePermits.class, -154);
+      registry.register(LockCommands.LockEvent.class, -145);
+    }
+  }
+
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent.internal;
+
+import io.atomix.catalyst.concurrent.Scheduled;
+import io.atomix.concurrent.DistributedSemaphore;
+import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.session.ServerSession;
+import io.atomix.copycat.server.session.SessionListener;
+import io.atomix.resource.ResourceStateMachine;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Semaphore state machine.
+ * <p>
+ * Permits granted to a session are tracked along with the commits that acquired them. An acquire commit is
+ * retained for as long as any of its permits are held, and release commits that only partially release an
+ * acquisition are retained along with it, so replaying the log always reproduces the same set of holders.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class SemaphoreState extends ResourceStateMachine implements SessionListener {
+  private final int permits;
+  private int available;
+  private final Map<Long, Deque<Hold>> holds = new HashMap<>();
+  private final Queue<Commit<SemaphoreCommands.Acquire>> queue = new ArrayDeque<>();
+  private final Map<Long, Scheduled> timers = new HashMap<>();
+
+  public SemaphoreState(Properties config) {
+    super(config);
+    this.permits = new DistributedSemaphore.Config(config).getPermits();
+    this.available = permits;
+  }
+
+  @Override
+  public void close(ServerSession session) {
+    Deque<Hold> sessionHolds = holds.remove(session.id());
+    if (sessionHolds != null) {
+      for (Hold hold : sessionHolds) {
+        available += hold.remaining;
+        hold.close();
+      }
+    }
+
+    Iterator<Commit<SemaphoreCommands.Acquire>> iterator = queue.iterator();
+    while (iterator.hasNext()) {
+      Commit<SemaphoreCommands.Acquire> waiter = iterator.next();
+      if (waiter.session().id() == session.id()) {
+        iterator.remove();
+        cancelTimer(waiter);
+        waiter.close();
+      }
+    }
+
+    drain();
+  }
+
+  /**
+   * Grants permits to the given commit.
+   */
+  private void grant(Commit<SemaphoreCommands.Acquire> commit) {
+    available -= commit.operation().permits();
+    holds.computeIfAbsent(commit.session().id(), id -> new ArrayDeque<>()).add(new Hold(commit));
+    commit.session().publish("acquire", new LockCommands.LockEvent(commit.operation().id(), commit.index()));
+  }
+
+  /**
+   * Grants permits to queued requests in FIFO order.
+   */
+  private void drain() {
+    Commit<SemaphoreCommands.Acquire> next = queue.peek();
+    while (next != null && available >= next.operation().permits()) {
+      queue.remove();
+      cancelTimer(next);
+      if (next.session().state() == ServerSession.State.EXPIRED || next.session().state() == ServerSession.State.CLOSED) {
+        next.close();
+      } else {
+        grant(next);
+      }
+      next = queue.peek();
+    }
+  }
+
+  /**
+   * Cancels the timeout for the given queued request.
+   */
+  private void cancelTimer(Commit<SemaphoreCommands.Acquire> commit) {
+    Scheduled timer = timers.remove(commit.index());
+    if (timer != null) {
+      timer.cancel();
+    }
+  }
+
+  /**
+   * Applies an acquire commit.
+   */
+  public void acquire(Commit<SemaphoreCommands.Acquire> commit) {
+    if (commit.operation().permits() > permits) {
+      commit.close();
+      throw new IllegalArgumentException("cannot acquire more than " + permits + " permits");
+    }
+
+    if (queue.isEmpty() && available >= commit.operation().permits()) {
+      grant(commit);
+    } else if (commit.operation().timeout() == 0) {
+      try {
+        commit.session().publish("fail", new LockCommands.LockEvent(commit.operation().id(), commit.index()));
+      } finally {
+        commit.close();
+      }
+    } else {
+      queue.add(commit);
+      if (commit.operation().timeout() > 0) {
+        timers.put(commit.index(), executor.schedule(Duration.ofMillis(commit.operation().timeout()), () -> {
+          try {
+            timers.remove(commit.index());
+            queue.remove(commit);
+            if (commit.session().state().active()) {
+              commit.session().publish("fail", new LockCommands.LockEvent(commit.operation().id(), commit.index()));
+            }
+          } finally {
+            commit.close();
+          }
+          // Removing a large request from the head of the queue may allow smaller requests to proceed.
+          drain();
+        }));
+      }
+    }
+  }
+
+  /**
+   * Applies a release commit.
+   */
+  public void release(Commit<SemaphoreCommands.Release> commit) {
+    Hold partial = null;
+    List<Hold> released = new ArrayList<>();
+    Deque<Hold> sessionHolds = holds.get(commit.session().id());
+    if (sessionHolds != null) {
+      int remaining = commit.operation().permits();
+      while (remaining > 0 && !sessionHolds.isEmpty()) {
+        Hold hold = sessionHolds.peek();
+        int permits = Math.min(remaining, hold.remaining);
+        hold.remaining -= permits;
+        available += permits;
+        remaining -= permits;
+        if (hold.remaining == 0) {
+          released.add(sessionHolds.remove());
+        } else {
+          partial = hold;
+        }
+      }
+
+      if (sessionHolds.isEmpty()) {
+        holds.remove(commit.session().id());
+      }
+    }
+
+    // If the release only partially released a hold, the release commit and any holds it fully released must
+    // be retained with the partially released hold so that replaying the release reproduces the same state.
+    if (partial != null) {
+      partial.retained.add(commit);
+      for (Hold hold : released) {
+        partial.retained.add(hold.acquire);
+        partial.retained.addAll(hold.retained);
+      }
+    } else {
+      released.forEach(Hold::close);
+      commit.close();
+    }
+    drain();
+  }
+
+  /**
+   * Handles an available permits query.
+   */
+  public int availablePermits(Commit<SemaphoreCommands.AvailablePermits> commit) {
+    try {
+      return available;
+    } finally {
+      commit.close();
+    }
+  }
+
+  @Override
+  public void delete() {
+    holds.values().forEach(sessionHolds -> sessionHolds.forEach(Hold::close));
+    holds.clear();
+
+    queue.forEach(Commit::close);
+    queue.clear();
+
+    timers.values().forEach(Scheduled::cancel);
+    timers.clear();
+  }
+
+  /**
+   * Permits acquired by a single acquire commit and not yet released.
+   */
+  private static class Hold {
+    private final Commit<SemaphoreCommands.Acquire> acquire;
+    private final List<Commit<?>> retained = new ArrayList<>();
+    private int remaining;
+
+    private Hold(Commit<SemaphoreCommands.Acquire> acquire) {
+      this.acquire = acquire;
+      this.remaining = acquire.operation().permits();
+    }
+
+    /**
+     * Releases the commits associated with the hold.
+     */
+    private void close() {
+      acquire.close();
+      retained.forEach(Commit::close);
+      retained.clear();
+    }
+  }
+
+}
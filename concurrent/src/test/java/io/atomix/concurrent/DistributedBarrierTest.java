@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.concurrent;
+
+import io.atomix.testing.AbstractCopycatTest;
+import org.testng.annotations.Test;
+
+/**
+ * Distributed barrier test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class DistributedBarrierTest extends AbstractCopycatTest<DistributedBarrier> {
+
+  @Override
+  protected Class<? super DistributedBarrier> type() {
+    return DistributedBarrier.class;
+  }
+
+  /**
+   * Tests releasing parties once all parties arrive.
+   */
+  public void testAwait() throws Throwable {
+    createServers(3, new DistributedBarrier.Config().withParties(3));
+
+    DistributedBarrier barrier1 = createResource();
+    DistributedBarrier barrier2 = createResource();
+
+    barrier1.await().thenRun(this::resume);
+    barrier1.await().thenRun(this::resume);
+    threadAssertEquals(barrier2.getNumberWaiting().get(), 2);
+    barrier2.await().thenRun(this::resume);
+    await(10000, 3);
+
+    threadAssertEquals(barrier2.getNumberWaiting().get(), 0);
+  }
+
+  /**
+   * Tests reusing a barrier once all parties have been released.
+   */
+  public void testCyclic() throws Throwable {
+    createServers(3, new DistributedBarrier.Config().withParties(2));
+
+    DistributedBarrier barrier1 = createResource();
+    DistributedBarrier barrier2 = createResource();
+
+    for (int i = 0; i < 3; i++) {
+      barrier1.await().thenRun(this::resume);
+      barrier2.await().thenRun(this::resume);
+      await(10000, 2);
+    }
+  }
+
+  /**
+   * Tests removing the arrivals of a closed session.
+   */
+  public void testRemoveOnClose() throws Throwable {
+    createServers(3, new DistributedBarrier.Config().withParties(2));
+
+    DistributedBarrier barrier1 = createResource();
+    DistributedBarrier barrier2 = createResource();
+
+    barrier1.await();
+    threadAssertEquals(barrier2.getNumberWaiting().get(), 1);
+    barrier1.close().join();
+
+    barrier2.await().thenRun(this::resume);
+    barrier2.await().thenRun(this::resume);
+    await(10000, 2);
+  }
+
+}
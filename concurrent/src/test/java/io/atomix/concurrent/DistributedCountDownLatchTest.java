@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.concurrent;
+
+import io.atomix.testing.AbstractCopycatTest;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+/**
+ * Distributed count down latch test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class DistributedCountDownLatchTest extends AbstractCopycatTest<DistributedCountDownLatch> {
+
+  @Override
+  protected Class<? super DistributedCountDownLatch> type() {
+    return DistributedCountDownLatch.class;
+  }
+
+  /**
+   * Tests releasing waiters once the count reaches zero.
+   */
+  public void testCountDown() throws Throwable {
+    createServers(3, new DistributedCountDownLatch.Config().withCount(2));
+
+    DistributedCountDownLatch latch1 = createResource();
+    DistributedCountDownLatch latch2 = createResource();
+
+    latch1.await().thenRun(this::resume);
+    latch1.await().thenRun(this::resume);
+    latch2.await().thenRun(this::resume);
+
+    latch2.countDown().join();
+    threadAssertEquals(latch1.getCount().get(), 1);
+    latch2.countDown().join();
+    await(10000, 3);
+
+    threadAssertEquals(latch1.getCount().get(), 0);
+    latch2.await().thenRun(this::resume);
+    await(10000);
+  }
+
+  /**
+   * Tests timing out while waiting on a latch.
+   */
+  public void testAwaitTimeout() throws Throwable {
+    createServers(3);
+
+    DistributedCountDownLatch latch = createResource();
+
+    latch.await(Duration.ofMillis(500)).thenAccept(result -> {
+      threadAssertFalse(result);
+      resume();
+    });
+    await(10000);
+  }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent;
+
+import io.atomix.testing.AbstractCopycatTest;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Distributed lock table test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class DistributedLockTableTest extends AbstractCopycatTest<DistributedLockTable> {
+
+  @Override
+  protected Class<? super DistributedLockTable> type() {
+    return DistributedLockTable.class;
+  }
+
+  /**
+   * Tests locking and unlocking independent keys.
+   */
+  public void testLockUnlock() throws Throwable {
+    createServers(3);
+
+    DistributedLockTable table1 = createResource();
+    DistributedLockTable table2 = createResource();
+
+    threadAssertNotNull(table1.lock("foo").get());
+    threadAssertNotNull(table2.tryLock("bar").get());
+    threadAssertNull(table2.tryLock("foo").get());
+
+    table1.unlock("foo").join();
+    threadAssertNotNull(table2.tryLock("foo").get());
+  }
+
+  /**
+   * Tests that a queued lock request is granted once the key is unlocked.
+   */
+  public void testQueuedLock() throws Throwable {
+    createServers(3);
+
+    DistributedLockTable table1 = createResource();
+    DistributedLockTable table2 = createResource();
+
+    table1.lock("foo").join();
+    table2.lock("foo").thenRun(this::resume);
+    table1.unlock("foo");
+    await(10000);
+  }
+
+  /**
+   * Tests that overlapping multi-key requests are granted without deadlocking.
+   */
+  public void testLockAll() throws Throwable {
+    createServers(3);
+
+    DistributedLockTable table1 = createResource();
+    DistributedLockTable table2 = createResource();
+
+    table1.lock("b").join();
+    table1.lockAll(Arrays.asList("c", "a")).thenRun(this::resume);
+    table2.lockAll(Arrays.asList("a", "b", "c")).thenRun(this::resume);
+    await(10000);
+
+    table1.unlock("b").join();
+    table1.unlock("a").join();
+    await(10000);
+  }
+
+  /**
+   * Tests that a timed out multi-key request releases the keys it acquired.
+   */
+  public void testTryLockAllTimeout() throws Throwable {
+    createServers(3);
+
+    DistributedLockTable table1 = createResource();
+    DistributedLockTable table2 = createResource();
+
+    table1.lock("b").join();
+    table2.tryLockAll(Arrays.asList("a", "b"), Duration.ofSeconds(1)).thenAccept(result -> {
+      threadAssertNull(result);
+      resume();
+    });
+    await(10000);
+
+    threadAssertNotNull(table1.tryLock("a").get());
+  }
+
+  /**
+   * Tests that locks held by a closed session are released.
+   */
+  public void testReleaseOnClose() throws Throwable {
+    createServers(3);
+
+    DistributedLockTable table1 = createResource();
+    DistributedLockTable table2 = createResource();
+
+    table1.lockAll(Arrays.asList("foo", "bar")).join();
+    table2.lock("bar").thenRun(this::resume);
+    table1.close();
+    await(10000);
+  }
+
+}
@@ -15,10 +15,15 @@
  */
 package io.atomix.concurrent;
 
+import io.atomix.copycat.server.CopycatServer;
+import io.atomix.copycat.server.storage.Storage;
+import io.atomix.copycat.server.storage.StorageLevel;
 import io.atomix.testing.AbstractCopycatTest;
 import org.testng.annotations.Test;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Async lock test.
@@ -27,12 +32,26 @@ import java.time.Duration;
  */
 @Test
 public class DistributedLockTest extends AbstractCopycatTest<DistributedLock> {
+  private boolean compact;
   
   @Override
   protected Class<? super DistributedLock> type() {
     return DistributedLock.class;
   }
 
+  @Override
+  protected Storage createStorage() {
+    if (!compact) {
+      return super.createStorage();
+    }
+    return Storage.builder()
+      .withStorageLevel(StorageLevel.MEMORY)
+      .withMaxEntriesPerSegment(16)
+      .withMinorCompactionInterval(Duration.ofMillis(100))
+      .withMajorCompactionInterval(Duration.ofMillis(500))
+      .build();
+  }
+
   /**
    * Tests locking and unlocking a lock.
    */
@@ -104,4 +123,181 @@ public class DistributedLockTest extends AbstractCopycatTest<DistributedLock> {
     await(10000, 2);
   }
 
+  /**
+   * Tests handing off a lock between local waiters.
+   */
+  public void testLocalQueueing() throws Throwable {
+    createServers(3);
+
+    DistributedLock lock = createResource(new DistributedLock.Options().withLocalQueueing(true));
+
+    long token = lock.lock().get();
+    lock.lock().thenAccept(result -> {
+      threadAssertEquals(result, token);
+      resume();
+    });
+    threadAssertNull(lock.tryLock().get());
+    lock.unlock().join();
+    await(10000);
+    lock.unlock().join();
+
+    threadAssertNotNull(lock.tryLock().get());
+  }
+
+  /**
+   * Tests that a locally queued lock is released to the cluster once the fairness budget is exhausted.
+   */
+  public void testLocalFairnessBudget() throws Throwable {
+    createServers(3);
+
+    DistributedLock lock1 = createResource(new DistributedLock.Options().withLocalQueueing(true).withFairnessBudget(0));
+    DistributedLock lock2 = createResource();
+
+    long token = lock1.lock().get();
+    lock2.lock().thenRun(() -> {
+      lock2.unlock();
+      resume();
+    });
+    lock1.lock().thenAccept(result -> {
+      threadAssertTrue(result > token);
+      lock1.unlock();
+      resume();
+    });
+    lock1.unlock().join();
+    await(10000, 2);
+  }
+
+  /**
+   * Tests timing out a locally queued lock request.
+   */
+  public void testLocalTryLockTimeout() throws Throwable {
+    createServers(3);
+
+    DistributedLock lock = createResource(new DistributedLock.Options().withLocalQueueing(true));
+
+    lock.lock().join();
+    lock.tryLock(Duration.ofMillis(500)).thenAccept(result -> {
+      threadAssertNull(result);
+      resume();
+    });
+    await(10000);
+  }
+
+  /**
+   * Tests that a lock is released once its lease expires.
+   */
+  public void testLeaseExpiration() throws Throwable {
+    createServers(3);
+
+    DistributedLock lock1 = createResource(new DistributedLock.Options().withLease(Duration.ofSeconds(1)));
+    DistributedLock lock2 = createResource();
+
+    long token = lock1.lock().get();
+    lock1.onExpire(expired -> {
+      threadAssertEquals(expired, token);
+      resume();
+    });
+    lock2.lock().thenAccept(result -> {
+      threadAssertTrue(result > token);
+      resume();
+    });
+    await(10000, 2);
+
+    threadAssertFalse(lock1.renew().get());
+  }
+
+  /**
+   * Tests renewing a lock lease.
+   */
+  public void testLeaseRenewal() throws Throwable {
+    createServers(3);
+
+    DistributedLock lock1 = createResource(new DistributedLock.Options().withLease(Duration.ofSeconds(2)));
+    DistributedLock lock2 = createResource();
+
+    lock1.lock().join();
+    for (int i = 0; i < 3; i++) {
+      Thread.sleep(1000);
+      threadAssertTrue(lock1.renew().get());
+    }
+    threadAssertNull(lock2.tryLock().get());
+  }
+
+  /**
+   * Tests lock contention statistics.
+   */
+  public void testStats() throws Throwable {
+    createServers(3, new DistributedLock.Config().withStatsInterval(Duration.ofMillis(100)));
+
+    DistributedLock lock1 = createResource();
+    DistributedLock lock2 = createResource();
+
+    lock1.lock().join();
+    lock2.tryLock(Duration.ofMillis(500)).thenAccept(result -> {
+      threadAssertNull(result);
+      resume();
+    });
+    await(10000);
+
+    lock2.lock().thenRun(this::resume);
+    Thread.sleep(500);
+    lock1.unlock().join();
+    await(10000);
+
+    DistributedLock.Stats stats = lock1.stats().get();
+    threadAssertEquals(stats.getAcquisitions(), 2L);
+    threadAssertEquals(stats.getTimeouts(), 1L);
+    threadAssertEquals(stats.getQueueDepth(), 0);
+    threadAssertTrue(stats.getMaxQueueDepth() >= 1);
+    threadAssertTrue(stats.getMaxWaitEntries() > 0);
+    threadAssertTrue(stats.getMaxWallWaitTime().toMillis() >= 250);
+  }
+
+  /**
+   * Tests that a queued lock is granted and its lease expired by a server that installed a snapshot of the lock.
+   */
+  public void testLeaseAfterSnapshot() throws Throwable {
+    compact = true;
+    try {
+      List<CopycatServer> servers = createServers(3, 4);
+
+      DistributedLock lock1 = createResource();
+      DistributedLock lock2 = createResource(new DistributedLock.Options().withLease(Duration.ofSeconds(1)));
+      DistributedLock lock3 = createResource();
+
+      long token1 = lock1.lock().get();
+      AtomicLong token2 = new AtomicLong();
+      lock2.onExpire(expired -> {
+        threadAssertEquals(expired, token2.get());
+        resume();
+      });
+      lock2.lock().thenAccept(token -> {
+        threadAssertTrue(token > token1);
+        token2.set(token);
+        resume();
+      });
+
+      // Fail lock attempts to roll over segments so the lock is snapshotted and the log compacted.
+      for (int i = 0; i < 100; i++) {
+        threadAssertNull(lock3.tryLock().get());
+      }
+      Thread.sleep(1000);
+
+      // The late server must restore the holder and queue from the snapshot.
+      createServer(members.get(3)).bootstrap(members).thenRun(this::resume);
+      await(10000);
+
+      servers.get(0).leave().join();
+      servers.get(1).leave().join();
+
+      // The queued lock is granted once unlocked and released once its lease expires.
+      lock1.unlock().join();
+      await(10000, 2);
+
+      threadAssertTrue(lock3.lock().get() > token2.get());
+    } finally {
+      compact = false;
+    }
+  }
+
 }
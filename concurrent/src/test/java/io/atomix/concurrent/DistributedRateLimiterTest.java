@@ -0,0 +1,180 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent;
+
+import io.atomix.copycat.server.CopycatServer;
+import io.atomix.copycat.server.storage.Storage;
+import io.atomix.copycat.server.storage.StorageLevel;
+import io.atomix.testing.AbstractCopycatTest;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distributed rate limiter test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class DistributedRateLimiterTest extends AbstractCopycatTest<DistributedRateLimiter> {
+  private boolean compact;
+
+  @Override
+  protected Class<? super DistributedRateLimiter> type() {
+    return DistributedRateLimiter.class;
+  }
+
+  @Override
+  protected Storage createStorage() {
+    if (!compact) {
+      return super.createStorage();
+    }
+    return Storage.builder()
+      .withStorageLevel(StorageLevel.MEMORY)
+      .withMaxEntriesPerSegment(16)
+      .withMinorCompactionInterval(Duration.ofMillis(100))
+      .withMajorCompactionInterval(Duration.ofMillis(500))
+      .build();
+  }
+
+  /**
+   * Tests that permits are not granted once a bucket is empty.
+   */
+  public void testTryAcquire() throws Throwable {
+    createServers(3, new DistributedRateLimiter.Config().withRate(5, Duration.ofHours(1)));
+
+    DistributedRateLimiter limiter = createResource();
+
+    for (int i = 0; i < 5; i++) {
+      threadAssertTrue(limiter.tryAcquire("test").get());
+    }
+    threadAssertFalse(limiter.tryAcquire("test").get());
+    threadAssertTrue(limiter.tryAcquire("other").get());
+  }
+
+  /**
+   * Tests that a parked acquire request is granted once permits are refilled.
+   */
+  public void testAcquire() throws Throwable {
+    createServers(3, new DistributedRateLimiter.Config().withRate(1, Duration.ofMillis(500)));
+
+    DistributedRateLimiter limiter = createResource();
+
+    limiter.acquire("test").thenRun(this::resume);
+    await(10000);
+
+    limiter.acquire("test").thenRun(this::resume);
+    await(10000);
+  }
+
+  /**
+   * Tests that a parked acquire request fails once its timeout expires.
+   */
+  public void testTryAcquireTimeout() throws Throwable {
+    createServers(3, new DistributedRateLimiter.Config().withRate(1, Duration.ofHours(1)));
+
+    DistributedRateLimiter limiter = createResource();
+
+    threadAssertTrue(limiter.tryAcquire("test").get());
+    limiter.tryAcquire("test", 1, Duration.ofSeconds(1)).thenAccept(result -> {
+      threadAssertFalse(result);
+      resume();
+    });
+    await(10000);
+  }
+
+  /**
+   * Tests that an acquire request with a zero timeout fails immediately when permits are unavailable.
+   */
+  public void testTryAcquireZeroTimeout() throws Throwable {
+    createServers(3, new DistributedRateLimiter.Config().withRate(1, Duration.ofHours(1)));
+
+    DistributedRateLimiter limiter = createResource();
+
+    threadAssertTrue(limiter.tryAcquire("test", 1, Duration.ZERO).get());
+    threadAssertFalse(limiter.tryAcquire("test", 1, Duration.ZERO).get(10, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Tests that permits are acquired from the cluster in batches.
+   */
+  public void testBatchedPermits() throws Throwable {
+    createServers(3, new DistributedRateLimiter.Config().withRate(10, Duration.ofHours(1)));
+
+    DistributedRateLimiter limiter1 = createResource(new DistributedRateLimiter.Options().withBatchSize(10));
+    DistributedRateLimiter limiter2 = createResource();
+
+    threadAssertTrue(limiter1.tryAcquire("test").get());
+    threadAssertFalse(limiter2.tryAcquire("test").get());
+    for (int i = 0; i < 9; i++) {
+      threadAssertTrue(limiter1.tryAcquire("test").get());
+    }
+    threadAssertFalse(limiter1.tryAcquire("test").get());
+  }
+
+  /**
+   * Tests that unused batched permits are returned when the rate limiter is closed.
+   */
+  public void testReleaseOnClose() throws Throwable {
+    createServers(3, new DistributedRateLimiter.Config().withRate(10, Duration.ofHours(1)));
+
+    DistributedRateLimiter limiter1 = createResource(new DistributedRateLimiter.Options().withBatchSize(10));
+    DistributedRateLimiter limiter2 = createResource();
+
+    threadAssertTrue(limiter1.tryAcquire("test").get());
+    limiter1.close().join();
+    threadAssertTrue(limiter2.tryAcquire("test", 9).get());
+  }
+
+  /**
+   * Tests that a queued acquire request is granted by a server that installed a snapshot of the buckets.
+   */
+  public void testQueuedAcquireAfterSnapshot() throws Throwable {
+    compact = true;
+    try {
+      DistributedRateLimiter.Config config = new DistributedRateLimiter.Config().withRate(10, Duration.ofHours(1));
+      List<CopycatServer> servers = createServers(3, 4, config);
+
+      DistributedRateLimiter limiter1 = createResource(new DistributedRateLimiter.Options().withBatchSize(10));
+      DistributedRateLimiter limiter2 = createResource();
+
+      threadAssertTrue(limiter1.tryAcquire("test").get());
+      limiter2.acquire("test").thenRun(this::resume);
+
+      // Acquire permits from other buckets to roll over segments so the buckets are snapshotted and the log compacted.
+      for (int i = 0; i < 100; i++) {
+        limiter2.tryAcquire(String.valueOf(i)).join();
+      }
+      Thread.sleep(1000);
+
+      // The late server must merge the snapshot into the bucket rebuilt from the retained acquire commit.
+      createServer(members.get(3), config).bootstrap(members).thenRun(this::resume);
+      await(10000);
+
+      servers.get(0).leave().join();
+      servers.get(1).leave().join();
+
+      // Returning the batched permits grants the queued request.
+      limiter1.close().join();
+      await(10000);
+    } finally {
+      compact = false;
+    }
+  }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent;
+
+import io.atomix.testing.AbstractCopycatTest;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+/**
+ * Distributed read-write lock test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class DistributedReadWriteLockTest extends AbstractCopycatTest<DistributedReadWriteLock> {
+
+  @Override
+  protected Class<? super DistributedReadWriteLock> type() {
+    return DistributedReadWriteLock.class;
+  }
+
+  /**
+   * Tests that multiple readers can hold the lock simultaneously.
+   */
+  public void testSharedReadLock() throws Throwable {
+    createServers(3);
+
+    DistributedReadWriteLock lock1 = createResource();
+    DistributedReadWriteLock lock2 = createResource();
+
+    lock1.readLock().thenRun(this::resume);
+    await(10000);
+
+    lock2.tryReadLock().thenAccept(result -> {
+      threadAssertNotNull(result);
+      resume();
+    });
+    await(10000);
+  }
+
+  /**
+   * Tests that a writer excludes readers and other writers.
+   */
+  public void testExclusiveWriteLock() throws Throwable {
+    createServers(3);
+
+    DistributedReadWriteLock lock1 = createResource();
+    DistributedReadWriteLock lock2 = createResource();
+
+    lock1.writeLock().thenRun(this::resume);
+    await(10000);
+
+    lock2.tryReadLock().thenAccept(result -> {
+      threadAssertNull(result);
+      resume();
+    });
+    await(10000);
+
+    lock2.tryWriteLock(Duration.ofSeconds(1)).thenAccept(result -> {
+      threadAssertNull(result);
+      resume();
+    });
+    await(10000);
+  }
+
+  /**
+   * Tests that readers queued behind a writer are not granted the lock before the writer.
+   */
+  public void testWriterNotStarved() throws Throwable {
+    createServers(3);
+
+    DistributedReadWriteLock lock1 = createResource();
+    DistributedReadWriteLock lock2 = createResource();
+    DistributedReadWriteLock lock3 = createResource();
+
+    lock1.readLock().join();
+    lock2.writeLock().thenRun(this::resume);
+    lock3.tryReadLock().thenAccept(result -> {
+      threadAssertNull(result);
+      resume();
+    });
+    await(10000);
+
+    lock1.unlockRead().join();
+    await(10000);
+  }
+
+  /**
+   * Tests releasing locks when the client's session is closed.
+   */
+  public void testReleaseOnClose() throws Throwable {
+    createServers(3);
+
+    DistributedReadWriteLock lock1 = createResource();
+    DistributedReadWriteLock lock2 = createResource();
+
+    lock1.readLock().thenRun(this::resume);
+    await(10000);
+
+    lock2.writeLock().thenRun(this::resume);
+    lock1.close();
+    await(10000);
+  }
+
+}
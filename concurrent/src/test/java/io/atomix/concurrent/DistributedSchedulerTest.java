@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent;
+
+import io.atomix.testing.AbstractCopycatTest;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distributed scheduler test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class DistributedSchedulerTest extends AbstractCopycatTest<DistributedScheduler> {
+
+  @Override
+  protected Class<? super DistributedScheduler> type() {
+    return DistributedScheduler.class;
+  }
+
+  /**
+   * Tests firing a schedule once on a worker.
+   */
+  public void testScheduleOnce() throws Throwable {
+    createServers(3);
+
+    DistributedScheduler scheduler1 = createResource();
+    DistributedScheduler scheduler2 = createResource();
+
+    scheduler1.onTask("test", task -> {
+      threadAssertEquals(task.name(), "test");
+      threadAssertEquals(task.sequence(), 1L);
+      resume();
+    }).join();
+
+    scheduler2.schedule("test", Duration.ofMillis(100), DistributedScheduler.Delivery.AT_MOST_ONCE).join();
+    await(10000);
+  }
+
+  /**
+   * Tests firing a schedule periodically.
+   */
+  public void testSchedulePeriodic() throws Throwable {
+    createServers(3);
+
+    DistributedScheduler scheduler1 = createResource();
+    DistributedScheduler scheduler2 = createResource();
+
+    scheduler1.onTask("test", task -> task.complete().thenRun(this::resume)).join();
+
+    scheduler2.schedule("test", Duration.ofMillis(100), Duration.ofMillis(100), DistributedScheduler.Delivery.AT_LEAST_ONCE).join();
+    await(10000, 3);
+    threadAssertTrue(scheduler2.cancel("test").get());
+  }
+
+  /**
+   * Tests reassigning an at-least-once firing when the worker's session is closed.
+   */
+  public void testAtLeastOnceReassign() throws Throwable {
+    createServers(3);
+
+    DistributedScheduler scheduler1 = createResource();
+    DistributedScheduler scheduler2 = createResource();
+    DistributedScheduler scheduler3 = createResource();
+
+    AtomicLong sequence = new AtomicLong();
+    scheduler1.onTask("test", task -> {
+      sequence.set(task.sequence());
+      resume();
+    }).join();
+    scheduler2.onTask("test", task -> {
+      threadAssertEquals(task.sequence(), sequence.get());
+      task.complete().thenRun(this::resume);
+    }).join();
+
+    scheduler3.schedule("test", Duration.ofMillis(100), DistributedScheduler.Delivery.AT_LEAST_ONCE).join();
+    await(10000);
+
+    scheduler1.close().join();
+    await(10000);
+  }
+
+  /**
+   * Tests that a periodic schedule keeps firing when an at-least-once worker completes after later firings were missed.
+   */
+  public void testAtLeastOnceSlowWorker() throws Throwable {
+    createServers(3);
+
+    DistributedScheduler scheduler1 = createResource();
+    DistributedScheduler scheduler2 = createResource();
+
+    AtomicLong sequence = new AtomicLong();
+    scheduler1.onTask("test", task -> {
+      threadAssertTrue(task.sequence() > sequence.get());
+      sequence.set(task.sequence());
+      new Thread(() -> {
+        try {
+          Thread.sleep(350);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        task.complete().thenRun(this::resume);
+      }).start();
+    }).join();
+
+    scheduler2.schedule("test", Duration.ofMillis(100), Duration.ofMillis(100), DistributedScheduler.Delivery.AT_LEAST_ONCE).join();
+    await(10000, 3);
+    threadAssertTrue(sequence.get() > 3);
+    threadAssertTrue(scheduler2.cancel("test").get());
+  }
+
+  /**
+   * Tests reporting missed firings when no worker is registered.
+   */
+  public void testMissed() throws Throwable {
+    createServers(3);
+
+    DistributedScheduler scheduler1 = createResource();
+    DistributedScheduler scheduler2 = createResource();
+
+    scheduler1.onMissed(missed -> {
+      threadAssertEquals(missed.name(), "test");
+      threadAssertEquals(missed.count(), 1L);
+      resume();
+    }).join();
+
+    scheduler2.schedule("test", Duration.ofMillis(100), DistributedScheduler.Delivery.AT_MOST_ONCE).join();
+    await(10000);
+  }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.concurrent;
+
+import io.atomix.testing.AbstractCopycatTest;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+/**
+ * Distributed semaphore test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class DistributedSemaphoreTest extends AbstractCopycatTest<DistributedSemaphore> {
+
+  @Override
+  protected Class<? super DistributedSemaphore> type() {
+    return DistributedSemaphore.class;
+  }
+
+  /**
+   * Tests acquiring and releasing permits.
+   */
+  public void testAcquireRelease() throws Throwable {
+    createServers(3, new DistributedSemaphore.Config().withPermits(3));
+
+    DistributedSemaphore semaphore = createResource();
+
+    semaphore.acquire(2).join();
+    threadAssertEquals(semaphore.availablePermits().get(), 1);
+    threadAssertFalse(semaphore.tryAcquire(2).get());
+
+    semaphore.release().join();
+    threadAssertEquals(semaphore.availablePermits().get(), 2);
+    threadAssertTrue(semaphore.tryAcquire(2).get());
+  }
+
+  /**
+   * Tests that a queued acquire request is granted once permits are released.
+   */
+  public void testQueuedAcquire() throws Throwable {
+    createServers(3, new DistributedSemaphore.Config().withPermits(1));
+
+    DistributedSemaphore semaphore1 = createResource();
+    DistributedSemaphore semaphore2 = createResource();
+
+    semaphore1.acquire().join();
+    semaphore2.acquire().thenRun(this::resume);
+    semaphore1.release();
+    await(10000);
+  }
+
+  /**
+   * Tests that an acquire request fails once its timeout expires.
+   */
+  public void testTryAcquireTimeout() throws Throwable {
+    createServers(3, new DistributedSemaphore.Config().withPermits(1));
+
+    DistributedSemaphore semaphore1 = createResource();
+    DistributedSemaphore semaphore2 = createResource();
+
+    semaphore1.acquire().join();
+    semaphore2.tryAcquire(1, Duration.ofSeconds(1)).thenAccept(result -> {
+      threadAssertFalse(result);
+      resume();
+    });
+    await(10000);
+  }
+
+  /**
+   * Tests that permits held by a closed session are reclaimed.
+   */
+  public void testReclaimOnClose() throws Throwable {
+    createServers(3, new DistributedSemaphore.Config().withPermits(2));
+
+    DistributedSemaphore semaphore1 = createResource();
+    DistributedSemaphore semaphore2 = createResource();
+
+    semaphore1.acquire(2).join();
+    semaphore2.acquire(2).thenRun(this::resume);
+    semaphore1.close();
+    await(10000);
+  }
+
+}
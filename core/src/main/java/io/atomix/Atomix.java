@@ -22,17 +22,29 @@ import io.atomix.collections.DistributedMap;
 import io.atomix.collections.DistributedMultiMap;
 import io.atomix.collections.DistributedQueue;
 import io.atomix.collections.DistributedSet;
+import io.atomix.collections.DistributedTopic;
+import io.atomix.concurrent.DistributedBarrier;
+import io.atomix.concurrent.DistributedCountDownLatch;
 import io.atomix.concurrent.DistributedLock;
+import io.atomix.concurrent.DistributedLockTable;
+import io.atomix.concurrent.DistributedRateLimiter;
+import io.atomix.concurrent.DistributedReadWriteLock;
+import io.atomix.concurrent.DistributedScheduler;
+import io.atomix.concurrent.DistributedSemaphore;
 import io.atomix.group.DistributedGroup;
 import io.atomix.manager.ResourceClient;
 import io.atomix.manager.ResourceManager;
 import io.atomix.resource.Resource;
 import io.atomix.resource.ResourceType;
 import io.atomix.variables.DistributedLong;
+import io.atomix.variables.DistributedSequence;
+import io.atomix.variables.DistributedShardedCounter;
 import io.atomix.variables.DistributedValue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 
@@ -56,9 +68,18 @@ public abstract class Atomix implements ResourceManager<Atomix> {
     new ResourceType(DistributedMultiMap.class),
     new ResourceType(DistributedSet.class),
     new ResourceType(DistributedQueue.class),
+    new ResourceType(DistributedTopic.class),
     new ResourceType(DistributedValue.class),
     new ResourceType(DistributedLong.class),
+    new ResourceType(DistributedSequence.class),
     new ResourceType(DistributedLock.class),
+    new ResourceType(DistributedRateLimiter.class),
+    new ResourceType(DistributedReadWriteLock.class),
+    new ResourceType(DistributedSemaphore.class),
+    new ResourceType(DistributedLockTable.class),
+    new ResourceType(DistributedCountDownLatch.class),
+    new ResourceType(DistributedBarrier.class),
+    new ResourceType(DistributedScheduler.class),
     new ResourceType(DistributedGroup.class)
   );
 
@@ -581,6 +602,116 @@ public abstract class Atomix implements ResourceManager<Atomix> {
     return getResource(key, DistributedQueue.class, config, options);
   }
 
+  /**
+   * Gets or creates a distributed topic with default configuration and options.
+   * <p>
+   * The returned topic is an append-only log of messages addressable by offset. Consumers read batches of
+   * messages from any retained offset, and consumer group offsets can be committed to the cluster. Topic
+   * message types must be serializable with the local {@code Atomix} instance {@link Serializer} and all
+   * {@link AtomixReplica} instances.
+   * <p>
+   * If no topic exists at the given {@code key}, a new topic will be created. If a topic with the given key
+   * already exists, a reference to the topic will be returned in the {@link CompletableFuture}. The topic
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the topic is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   *
+   * @param key The resource key.
+   * @param <T> The message type.
+   * @return A completable future to be completed once the topic has been created.
+   */
+  public <T> CompletableFuture<DistributedTopic<T>> getTopic(String key) {
+    return getResource(key, DistributedTopic.class);
+  }
+
+  /**
+   * Gets or creates a distributed topic with a cluster-wide configuration.
+   * <p>
+   * The returned topic is an append-only log of messages addressable by offset. Consumers read batches of
+   * messages from any retained offset, and consumer group offsets can be committed to the cluster. Topic
+   * message types must be serializable with the local {@code Atomix} instance {@link Serializer} and all
+   * {@link AtomixReplica} instances.
+   * <p>
+   * If no topic exists at the given {@code key}, a new topic will be created. If a topic with the given key
+   * already exists, a reference to the topic will be returned in the {@link CompletableFuture}. The topic
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the topic is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided topic {@link DistributedTopic.Config Config} will be used to configure the cluster-wide topic.
+   * If another process previously configured the topic with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide topic configuration.
+   * @param <T> The message type.
+   * @return A completable future to be completed once the topic has been created.
+   */
+  public <T> CompletableFuture<DistributedTopic<T>> getTopic(String key, DistributedTopic.Config config) {
+    return getResource(key, DistributedTopic.class, config);
+  }
+
+  /**
+   * Gets or creates a distributed topic with local options.
+   * <p>
+   * The returned topic is an append-only log of messages addressable by offset. Consumers read batches of
+   * messages from any retained offset, and consumer group offsets can be committed to the cluster. Topic
+   * message types must be serializable with the local {@code Atomix} instance {@link Serializer} and all
+   * {@link AtomixReplica} instances.
+   * <p>
+   * If no topic exists at the given {@code key}, a new topic will be created. If a topic with the given key
+   * already exists, a reference to the topic will be returned in the {@link CompletableFuture}. The topic
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the topic is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided topic {@link DistributedTopic.Options options} will be used to configure only the local topic
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedTopic.Config Config}.
+   *
+   * @param key The resource key.
+   * @param options The local topic options.
+   * @param <T> The message type.
+   * @return A completable future to be completed once the topic has been created.
+   */
+  public <T> CompletableFuture<DistributedTopic<T>> getTopic(String key, DistributedTopic.Options options) {
+    return getResource(key, DistributedTopic.class, options);
+  }
+
+  /**
+   * Gets or creates a distributed topic with a cluster-wide configuration and local options.
+   * <p>
+   * The returned topic is an append-only log of messages addressable by offset. Consumers read batches of
+   * messages from any retained offset, and consumer group offsets can be committed to the cluster. Topic
+   * message types must be serializable with the local {@code Atomix} instance {@link Serializer} and all
+   * {@link AtomixReplica} instances.
+   * <p>
+   * If no topic exists at the given {@code key}, a new topic will be created. If a topic with the given key
+   * already exists, a reference to the topic will be returned in the {@link CompletableFuture}. The topic
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the topic is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided topic {@link DistributedTopic.Config Config} will be used to configure the cluster-wide topic.
+   * If another process previously configured the topic with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   * <p>
+   * The provided topic {@link DistributedTopic.Options options} will be used to configure only the local topic
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedTopic.Config Config}.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide topic configuration.
+   * @param options The local topic options.
+   * @param <T> The message type.
+   * @return A completable future to be completed once the topic has been created.
+   */
+  public <T> CompletableFuture<DistributedTopic<T>> getTopic(String key, DistributedTopic.Config config, DistributedTopic.Options options) {
+    return getResource(key, DistributedTopic.class, config, options);
+  }
+
   /**
    * Gets or creates a distributed value with default configuration and options.
    * <p>
@@ -801,6 +932,167 @@ public abstract class Atomix implements ResourceManager<Atomix> {
     return getResource(key, DistributedLong.class, config, options);
   }
 
+  /**
+   * Gets or creates a distributed sequence with default configuration and options.
+   * <p>
+   * The returned resource generates unique, monotonically increasing 64-bit identifiers. Rather than writing to
+   * the cluster for each identifier, the sequence reserves blocks of identifiers and hands them out locally,
+   * so identifiers can be generated at a far greater rate than with a {@link DistributedLong}. Identifiers
+   * are guaranteed to be unique across all clients and replicas.
+   * <p>
+   * If no sequence exists at the given {@code key}, a new sequence will be created. If a sequence with the given key
+   * already exists, a reference to the sequence will be returned in the {@link CompletableFuture}. The sequence
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the sequence is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   *
+   * @param key The resource key.
+   * @return A completable future to be completed once the sequence has been created.
+   */
+  public CompletableFuture<DistributedSequence> getSequence(String key) {
+    return getResource(key, DistributedSequence.class);
+  }
+
+  /**
+   * Gets or creates a distributed sequence with a cluster-wide configuration.
+   * <p>
+   * The returned resource generates unique, monotonically increasing 64-bit identifiers. Rather than writing to
+   * the cluster for each identifier, the sequence reserves blocks of identifiers and hands them out locally,
+   * so identifiers can be generated at a far greater rate than with a {@link DistributedLong}. Identifiers
+   * are guaranteed to be unique across all clients and replicas.
+   * <p>
+   * If no sequence exists at the given {@code key}, a new sequence will be created. If a sequence with the given key
+   * already exists, a reference to the sequence will be returned in the {@link CompletableFuture}. The sequence
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the sequence is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided sequence {@link DistributedSequence.Config Config} will be used to configure the cluster-wide sequence.
+   * If another process previously configured the sequence with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide sequence configuration.
+   * @return A completable future to be completed once the sequence has been created.
+   */
+  public CompletableFuture<DistributedSequence> getSequence(String key, DistributedSequence.Config config) {
+    return getResource(key, DistributedSequence.class, config);
+  }
+
+  /**
+   * Gets or creates a distributed sequence with local options.
+   * <p>
+   * The returned resource generates unique, monotonically increasing 64-bit identifiers. Rather than writing to
+   * the cluster for each identifier, the sequence reserves blocks of identifiers and hands them out locally,
+   * so identifiers can be generated at a far greater rate than with a {@link DistributedLong}. Identifiers
+   * are guaranteed to be unique across all clients and replicas.
+   * <p>
+   * If no sequence exists at the given {@code key}, a new sequence will be created. If a sequence with the given key
+   * already exists, a reference to the sequence will be returned in the {@link CompletableFuture}. The sequence
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the sequence is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided sequence {@link DistributedSequence.Options options} will be used to configure only the local sequence
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedSequence.Config Config}.
+   *
+   * @param key The resource key.
+   * @param options The local sequence options.
+   * @return A completable future to be completed once the sequence has been created.
+   */
+  public CompletableFuture<DistributedSequence> getSequence(String key, DistributedSequence.Options options) {
+    return getResource(key, DistributedSequence.class, options);
+  }
+
+  /**
+   * Gets or creates a distributed sequence with a cluster-wide configuration and local options.
+   * <p>
+   * The returned resource generates unique, monotonically increasing 64-bit identifiers. Rather than writing to
+   * the cluster for each identifier, the sequence reserves blocks of identifiers and hands them out locally,
+   * so identifiers can be generated at a far greater rate than with a {@link DistributedLong}. Identifiers
+   * are guaranteed to be unique across all clients and replicas.
+   * <p>
+   * If no sequence exists at the given {@code key}, a new sequence will be created. If a sequence with the given key
+   * already exists, a reference to the sequence will be returned in the {@link CompletableFuture}. The sequence
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the sequence is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided sequence {@link DistributedSequence.Config Config} will be used to configure the cluster-wide sequence.
+   * If another process previously configured the sequence with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   * <p>
+   * The provided sequence {@link DistributedSequence.Options options} will be used to configure only the local sequence
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedSequence.Config Config}.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide sequence configuration.
+   * @param options The local sequence options.
+   * @return A completable future to be completed once the sequence has been created.
+   */
+  public CompletableFuture<DistributedSequence> getSequence(String key, DistributedSequence.Config config, DistributedSequence.Options options) {
+    return getResource(key, DistributedSequence.class, config, options);
+  }
+
+  /**
+   * Gets or creates a sharded counter with default options.
+   * <p>
+   * The returned counter spreads updates across a set of {@link DistributedLong} shards to avoid serializing
+   * all updates through a single resource. The value of the counter is the sum of all shards. Sharded counters
+   * are suited to counters that are updated frequently by many clients but read rarely.
+   * <p>
+   * Each shard is stored as a separate {@link DistributedLong} resource derived from the given {@code key}. The
+   * counter can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster so long as all
+   * instances are configured with the same number of shards.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, all shards of the counter are
+   * guaranteed to be visible by all clients and replicas in the cluster.
+   *
+   * @param key The counter key.
+   * @return A completable future to be completed once the counter has been created.
+   */
+  public CompletableFuture<DistributedShardedCounter> getShardedCounter(String key) {
+    return getShardedCounter(key, new DistributedShardedCounter.Options());
+  }
+
+  /**
+   * Gets or creates a sharded counter with local options.
+   * <p>
+   * The returned counter spreads updates across a set of {@link DistributedLong} shards to avoid serializing
+   * all updates through a single resource. The value of the counter is the sum of all shards. Sharded counters
+   * are suited to counters that are updated frequently by many clients but read rarely.
+   * <p>
+   * Each shard is stored as a separate {@link DistributedLong} resource derived from the given {@code key}. The
+   * counter can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster so long as all
+   * instances are configured with the same {@link DistributedShardedCounter.Options#withShards(int) number of shards}.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, all shards of the counter are
+   * guaranteed to be visible by all clients and replicas in the cluster.
+   *
+   * @param key The counter key.
+   * @param options The local counter options.
+   * @return A completable future to be completed once the counter has been created.
+   */
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<DistributedShardedCounter> getShardedCounter(String key, DistributedShardedCounter.Options options) {
+    Assert.notNull(options, "options");
+    CompletableFuture<DistributedLong>[] shards = new CompletableFuture[options.getShards()];
+    for (int i = 0; i < shards.length; i++) {
+      shards[i] = getLong(String.format("%s/shard-%d", key, i));
+    }
+    return CompletableFuture.allOf(shards).thenApply(v -> {
+      List<DistributedLong> longs = new ArrayList<>(shards.length);
+      for (CompletableFuture<DistributedLong> shard : shards) {
+        longs.add(shard.join());
+      }
+      return new DistributedShardedCounter(longs, options);
+    });
+  }
+
   /**
    * Gets or creates a distributed lock with default configuration and options.
    * <p>
@@ -907,6 +1199,666 @@ public abstract class Atomix implements ResourceManager<Atomix> {
     return getResource(key, DistributedLock.class, config, options);
   }
 
+  /**
+   * Gets or creates a distributed rate limiter with default configuration and options.
+   * <p>
+   * The returned resource limits the rate at which operations are performed across the cluster. Permits are
+   * acquired from token buckets keyed by name, and buckets are refilled at the configured
+   * {@link DistributedRateLimiter.Config#withRate(long, java.time.Duration) rate} according to the time of the replicated log.
+   * <p>
+   * If no rate limiter exists at the given {@code key}, a new rate limiter will be created. If a rate limiter with the given key
+   * already exists, a reference to the rate limiter will be returned in the {@link CompletableFuture}. The rate limiter
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the rate limiter is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   *
+   * @param key The resource key.
+   * @return A completable future to be completed once the rate limiter has been created.
+   */
+  public CompletableFuture<DistributedRateLimiter> getRateLimiter(String key) {
+    return getResource(key, DistributedRateLimiter.class);
+  }
+
+  /**
+   * Gets or creates a distributed rate limiter with a cluster-wide configuration.
+   * <p>
+   * The returned resource limits the rate at which operations are performed across the cluster. Permits are
+   * acquired from token buckets keyed by name, and buckets are refilled at the configured
+   * {@link DistributedRateLimiter.Config#withRate(long, java.time.Duration) rate} according to the time of the replicated log.
+   * <p>
+   * If no rate limiter exists at the given {@code key}, a new rate limiter will be created. If a rate limiter with the given key
+   * already exists, a reference to the rate limiter will be returned in the {@link CompletableFuture}. The rate limiter
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the rate limiter is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided rate limiter {@link DistributedRateLimiter.Config Config} will be used to configure the cluster-wide rate limiter.
+   * If another process previously configured the rate limiter with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide rate limiter configuration.
+   * @return A completable future to be completed once the rate limiter has been created.
+   */
+  public CompletableFuture<DistributedRateLimiter> getRateLimiter(String key, DistributedRateLimiter.Config config) {
+    return getResource(key, DistributedRateLimiter.class, config);
+  }
+
+  /**
+   * Gets or creates a distributed rate limiter with local options.
+   * <p>
+   * The returned resource limits the rate at which operations are performed across the cluster. Permits are
+   * acquired from token buckets keyed by name, and buckets are refilled at the configured
+   * {@link DistributedRateLimiter.Config#withRate(long, java.time.Duration) rate} according to the time of the replicated log.
+   * <p>
+   * If no rate limiter exists at the given {@code key}, a new rate limiter will be created. If a rate limiter with the given key
+   * already exists, a reference to the rate limiter will be returned in the {@link CompletableFuture}. The rate limiter
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the rate limiter is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided rate limiter {@link DistributedRateLimiter.Options options} will be used to configure only the local rate limiter
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedRateLimiter.Config Config}.
+   *
+   * @param key The resource key.
+   * @param options The local rate limiter options.
+   * @return A completable future to be completed once the rate limiter has been created.
+   */
+  public CompletableFuture<DistributedRateLimiter> getRateLimiter(String key, DistributedRateLimiter.Options options) {
+    return getResource(key, DistributedRateLimiter.class, options);
+  }
+
+  /**
+   * Gets or creates a distributed rate limiter with a cluster-wide configuration and local options.
+   * <p>
+   * The returned resource limits the rate at which operations are performed across the cluster. Permits are
+   * acquired from token buckets keyed by name, and buckets are refilled at the configured
+   * {@link DistributedRateLimiter.Config#withRate(long, java.time.Duration) rate} according to the time of the replicated log.
+   * <p>
+   * If no rate limiter exists at the given {@code key}, a new rate limiter will be created. If a rate limiter with the given key
+   * already exists, a reference to the rate limiter will be returned in the {@link CompletableFuture}. The rate limiter
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the rate limiter is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided rate limiter {@link DistributedRateLimiter.Config Config} will be used to configure the cluster-wide rate limiter.
+   * If another process previously configured the rate limiter with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   * <p>
+   * The provided rate limiter {@link DistributedRateLimiter.Options options} will be used to configure only the local rate limiter
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedRateLimiter.Config Config}.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide rate limiter configuration.
+   * @param options The local rate limiter options.
+   * @return A completable future to be completed once the rate limiter has been created.
+   */
+  public CompletableFuture<DistributedRateLimiter> getRateLimiter(String key, DistributedRateLimiter.Config config, DistributedRateLimiter.Options options) {
+    return getResource(key, DistributedRateLimiter.class, config, options);
+  }
+
+  /**
+   * Gets or creates a distributed read-write lock with default configuration and options.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.locks.ReadWriteLock}.
+   * Any number of processes may hold the lock in shared read mode simultaneously, but the exclusive write
+   * lock may only be held by a single process. Locks are released automatically when the holder's session expires.
+   * <p>
+   * If no read-write lock exists at the given {@code key}, a new read-write lock will be created. If a read-write lock with the given key
+   * already exists, a reference to the read-write lock will be returned in the {@link CompletableFuture}. The read-write lock
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the read-write lock is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   *
+   * @param key The resource key.
+   * @return A completable future to be completed once the read-write lock has been created.
+   */
+  public CompletableFuture<DistributedReadWriteLock> getReadWriteLock(String key) {
+    return getResource(key, DistributedReadWriteLock.class);
+  }
+
+  /**
+   * Gets or creates a distributed read-write lock with a cluster-wide configuration.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.locks.ReadWriteLock}.
+   * Any number of processes may hold the lock in shared read mode simultaneously, but the exclusive write
+   * lock may only be held by a single process. Locks are released automatically when the holder's session expires.
+   * <p>
+   * If no read-write lock exists at the given {@code key}, a new read-write lock will be created. If a read-write lock with the given key
+   * already exists, a reference to the read-write lock will be returned in the {@link CompletableFuture}. The read-write lock
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the read-write lock is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided read-write lock {@link DistributedReadWriteLock.Config Config} will be used to configure the cluster-wide read-write lock.
+   * If another process previously configured the read-write lock with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide read-write lock configuration.
+   * @return A completable future to be completed once the read-write lock has been created.
+   */
+  public CompletableFuture<DistributedReadWriteLock> getReadWriteLock(String key, DistributedReadWriteLock.Config config) {
+    return getResource(key, DistributedReadWriteLock.class, config);
+  }
+
+  /**
+   * Gets or creates a distributed read-write lock with local options.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.locks.ReadWriteLock}.
+   * Any number of processes may hold the lock in shared read mode simultaneously, but the exclusive write
+   * lock may only be held by a single process. Locks are released automatically when the holder's session expires.
+   * <p>
+   * If no read-write lock exists at the given {@code key}, a new read-write lock will be created. If a read-write lock with the given key
+   * already exists, a reference to the read-write lock will be returned in the {@link CompletableFuture}. The read-write lock
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the read-write lock is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided read-write lock {@link DistributedReadWriteLock.Options options} will be used to configure only the local read-write lock
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedReadWriteLock.Config Config}.
+   *
+   * @param key The resource key.
+   * @param options The local read-write lock options.
+   * @return A completable future to be completed once the read-write lock has been created.
+   */
+  public CompletableFuture<DistributedReadWriteLock> getReadWriteLock(String key, DistributedReadWriteLock.Options options) {
+    return getResource(key, DistributedReadWriteLock.class, options);
+  }
+
+  /**
+   * Gets or creates a distributed read-write lock with a cluster-wide configuration and local options.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.locks.ReadWriteLock}.
+   * Any number of processes may hold the lock in shared read mode simultaneously, but the exclusive write
+   * lock may only be held by a single process. Locks are released automatically when the holder's session expires.
+   * <p>
+   * If no read-write lock exists at the given {@code key}, a new read-write lock will be created. If a read-write lock with the given key
+   * already exists, a reference to the read-write lock will be returned in the {@link CompletableFuture}. The read-write lock
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the read-write lock is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided read-write lock {@link DistributedReadWriteLock.Config Config} will be used to configure the cluster-wide read-write lock.
+   * If another process previously configured the read-write lock with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   * <p>
+   * The provided read-write lock {@link DistributedReadWriteLock.Options options} will be used to configure only the local read-write lock
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedReadWriteLock.Config Config}.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide read-write lock configuration.
+   * @param options The local read-write lock options.
+   * @return A completable future to be completed once the read-write lock has been created.
+   */
+  public CompletableFuture<DistributedReadWriteLock> getReadWriteLock(String key, DistributedReadWriteLock.Config config, DistributedReadWriteLock.Options options) {
+    return getResource(key, DistributedReadWriteLock.class, config, options);
+  }
+
+  /**
+   * Gets or creates a distributed semaphore with default configuration and options.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.Semaphore}. The semaphore
+   * holds a fixed number of {@link DistributedSemaphore.Config#withPermits(int) permits} which can be acquired and
+   * released by any process in the cluster. Permits held by a process are returned to the semaphore if its session expires.
+   * <p>
+   * If no semaphore exists at the given {@code key}, a new semaphore will be created. If a semaphore with the given key
+   * already exists, a reference to the semaphore will be returned in the {@link CompletableFuture}. The semaphore
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the semaphore is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   *
+   * @param key The resource key.
+   * @return A completable future to be completed once the semaphore has been created.
+   */
+  public CompletableFuture<DistributedSemaphore> getSemaphore(String key) {
+    return getResource(key, DistributedSemaphore.class);
+  }
+
+  /**
+   * Gets or creates a distributed semaphore with a cluster-wide configuration.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.Semaphore}. The semaphore
+   * holds a fixed number of {@link DistributedSemaphore.Config#withPermits(int) permits} which can be acquired and
+   * released by any process in the cluster. Permits held by a process are returned to the semaphore if its session expires.
+   * <p>
+   * If no semaphore exists at the given {@code key}, a new semaphore will be created. If a semaphore with the given key
+   * already exists, a reference to the semaphore will be returned in the {@link CompletableFuture}. The semaphore
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the semaphore is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided semaphore {@link DistributedSemaphore.Config Config} will be used to configure the cluster-wide semaphore.
+   * If another process previously configured the semaphore with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide semaphore configuration.
+   * @return A completable future to be completed once the semaphore has been created.
+   */
+  public CompletableFuture<DistributedSemaphore> getSemaphore(String key, DistributedSemaphore.Config config) {
+    return getResource(key, DistributedSemaphore.class, config);
+  }
+
+  /**
+   * Gets or creates a distributed semaphore with local options.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.Semaphore}. The semaphore
+   * holds a fixed number of {@link DistributedSemaphore.Config#withPermits(int) permits} which can be acquired and
+   * released by any process in the cluster. Permits held by a process are returned to the semaphore if its session expires.
+   * <p>
+   * If no semaphore exists at the given {@code key}, a new semaphore will be created. If a semaphore with the given key
+   * already exists, a reference to the semaphore will be returned in the {@link CompletableFuture}. The semaphore
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the semaphore is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided semaphore {@link DistributedSemaphore.Options options} will be used to configure only the local semaphore
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedSemaphore.Config Config}.
+   *
+   * @param key The resource key.
+   * @param options The local semaphore options.
+   * @return A completable future to be completed once the semaphore has been created.
+   */
+  public CompletableFuture<DistributedSemaphore> getSemaphore(String key, DistributedSemaphore.Options options) {
+    return getResource(key, DistributedSemaphore.class, options);
+  }
+
+  /**
+   * Gets or creates a distributed semaphore with a cluster-wide configuration and local options.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.Semaphore}. The semaphore
+   * holds a fixed number of {@link DistributedSemaphore.Config#withPermits(int) permits} which can be acquired and
+   * released by any process in the cluster. Permits held by a process are returned to the semaphore if its session expires.
+   * <p>
+   * If no semaphore exists at the given {@code key}, a new semaphore will be created. If a semaphore with the given key
+   * already exists, a reference to the semaphore will be returned in the {@link CompletableFuture}. The semaphore
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the semaphore is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided semaphore {@link DistributedSemaphore.Config Config} will be used to configure the cluster-wide semaphore.
+   * If another process previously configured the semaphore with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   * <p>
+   * The provided semaphore {@link DistributedSemaphore.Options options} will be used to configure only the local semaphore
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedSemaphore.Config Config}.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide semaphore configuration.
+   * @param options The local semaphore options.
+   * @return A completable future to be completed once the semaphore has been created.
+   */
+  public CompletableFuture<DistributedSemaphore> getSemaphore(String key, DistributedSemaphore.Config config, DistributedSemaphore.Options options) {
+    return getResource(key, DistributedSemaphore.class, config, options);
+  }
+
+  /**
+   * Gets or creates a distributed lock table with default configuration and options.
+   * <p>
+   * The returned resource manages exclusive locks for arbitrary string keys within a single replicated state machine,
+   * making it suitable for fine-grained locking of large numbers of entities. Multiple keys can be locked together
+   * without risk of deadlock since keys are always acquired by the cluster in sorted order.
+   * <p>
+   * If no lock table exists at the given {@code key}, a new lock table will be created. If a lock table with the given key
+   * already exists, a reference to the lock table will be returned in the {@link CompletableFuture}. The lock table
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the lock table is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   *
+   * @param key The resource key.
+   * @return A completable future to be completed once the lock table has been created.
+   */
+  public CompletableFuture<DistributedLockTable> getLockTable(String key) {
+    return getResource(key, DistributedLockTable.class);
+  }
+
+  /**
+   * Gets or creates a distributed lock table with a cluster-wide configuration.
+   * <p>
+   * The returned resource manages exclusive locks for arbitrary string keys within a single replicated state machine,
+   * making it suitable for fine-grained locking of large numbers of entities. Multiple keys can be locked together
+   * without risk of deadlock since keys are always acquired by the cluster in sorted order.
+   * <p>
+   * If no lock table exists at the given {@code key}, a new lock table will be created. If a lock table with the given key
+   * already exists, a reference to the lock table will be returned in the {@link CompletableFuture}. The lock table
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the lock table is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided lock table {@link DistributedLockTable.Config Config} will be used to configure the cluster-wide lock table.
+   * If another process previously configured the lock table with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide lock table configuration.
+   * @return A completable future to be completed once the lock table has been created.
+   */
+  public CompletableFuture<DistributedLockTable> getLockTable(String key, DistributedLockTable.Config config) {
+    return getResource(key, DistributedLockTable.class, config);
+  }
+
+  /**
+   * Gets or creates a distributed lock table with local options.
+   * <p>
+   * The returned resource manages exclusive locks for arbitrary string keys within a single replicated state machine,
+   * making it suitable for fine-grained locking of large numbers of entities. Multiple keys can be locked together
+   * without risk of deadlock since keys are always acquired by the cluster in sorted order.
+   * <p>
+   * If no lock table exists at the given {@code key}, a new lock table will be created. If a lock table with the given key
+   * already exists, a reference to the lock table will be returned in the {@link CompletableFuture}. The lock table
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the lock table is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided lock table {@link DistributedLockTable.Options options} will be used to configure only the local lock table
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedLockTable.Config Config}.
+   *
+   * @param key The resource key.
+   * @param options The local lock table options.
+   * @return A completable future to be completed once the lock table has been created.
+   */
+  public CompletableFuture<DistributedLockTable> getLockTable(String key, DistributedLockTable.Options options) {
+    return getResource(key, DistributedLockTable.class, options);
+  }
+
+  /**
+   * Gets or creates a distributed lock table with a cluster-wide configuration and local options.
+   * <p>
+   * The returned resource manages exclusive locks for arbitrary string keys within a single replicated state machine,
+   * making it suitable for fine-grained locking of large numbers of entities. Multiple keys can be locked together
+   * without risk of deadlock since keys are always acquired by the cluster in sorted order.
+   * <p>
+   * If no lock table exists at the given {@code key}, a new lock table will be created. If a lock table with the given key
+   * already exists, a reference to the lock table will be returned in the {@link CompletableFuture}. The lock table
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the lock table is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided lock table {@link DistributedLockTable.Config Config} will be used to configure the cluster-wide lock table.
+   * If another process previously configured the lock table with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   * <p>
+   * The provided lock table {@link DistributedLockTable.Options options} will be used to configure only the local lock table
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedLockTable.Config Config}.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide lock table configuration.
+   * @param options The local lock table options.
+   * @return A completable future to be completed once the lock table has been created.
+   */
+  public CompletableFuture<DistributedLockTable> getLockTable(String key, DistributedLockTable.Config config, DistributedLockTable.Options options) {
+    return getResource(key, DistributedLockTable.class, config, options);
+  }
+
+  /**
+   * Gets or creates a distributed count down latch with default configuration and options.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.CountDownLatch}.
+   * Processes waiting on the latch are released by a single event from the cluster once the latch's
+   * {@link DistributedCountDownLatch.Config#withCount(int) count} reaches zero.
+   * <p>
+   * If no count down latch exists at the given {@code key}, a new count down latch will be created. If a count down latch with the given key
+   * already exists, a reference to the count down latch will be returned in the {@link CompletableFuture}. The count down latch
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the count down latch is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   *
+   * @param key The resource key.
+   * @return A completable future to be completed once the count down latch has been created.
+   */
+  public CompletableFuture<DistributedCountDownLatch> getCountDownLatch(String key) {
+    return getResource(key, DistributedCountDownLatch.class);
+  }
+
+  /**
+   * Gets or creates a distributed count down latch with a cluster-wide configuration.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.CountDownLatch}.
+   * Processes waiting on the latch are released by a single event from the cluster once the latch's
+   * {@link DistributedCountDownLatch.Config#withCount(int) count} reaches zero.
+   * <p>
+   * If no count down latch exists at the given {@code key}, a new count down latch will be created. If a count down latch with the given key
+   * already exists, a reference to the count down latch will be returned in the {@link CompletableFuture}. The count down latch
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the count down latch is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided count down latch {@link DistributedCountDownLatch.Config Config} will be used to configure the cluster-wide count down latch.
+   * If another process previously configured the count down latch with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide count down latch configuration.
+   * @return A completable future to be completed once the count down latch has been created.
+   */
+  public CompletableFuture<DistributedCountDownLatch> getCountDownLatch(String key, DistributedCountDownLatch.Config config) {
+    return getResource(key, DistributedCountDownLatch.class, config);
+  }
+
+  /**
+   * Gets or creates a distributed count down latch with local options.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.CountDownLatch}.
+   * Processes waiting on the latch are released by a single event from the cluster once the latch's
+   * {@link DistributedCountDownLatch.Config#withCount(int) count} reaches zero.
+   * <p>
+   * If no count down latch exists at the given {@code key}, a new count down latch will be created. If a count down latch with the given key
+   * already exists, a reference to the count down latch will be returned in the {@link CompletableFuture}. The count down latch
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the count down latch is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided count down latch {@link DistributedCountDownLatch.Options options} will be used to configure only the local count down latch
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedCountDownLatch.Config Config}.
+   *
+   * @param key The resource key.
+   * @param options The local count down latch options.
+   * @return A completable future to be completed once the count down latch has been created.
+   */
+  public CompletableFuture<DistributedCountDownLatch> getCountDownLatch(String key, DistributedCountDownLatch.Options options) {
+    return getResource(key, DistributedCountDownLatch.class, options);
+  }
+
+  /**
+   * Gets or creates a distributed count down latch with a cluster-wide configuration and local options.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.CountDownLatch}.
+   * Processes waiting on the latch are released by a single event from the cluster once the latch's
+   * {@link DistributedCountDownLatch.Config#withCount(int) count} reaches zero.
+   * <p>
+   * If no count down latch exists at the given {@code key}, a new count down latch will be created. If a count down latch with the given key
+   * already exists, a reference to the count down latch will be returned in the {@link CompletableFuture}. The count down latch
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the count down latch is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided count down latch {@link DistributedCountDownLatch.Config Config} will be used to configure the cluster-wide count down latch.
+   * If another process previously configured the count down latch with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   * <p>
+   * The provided count down latch {@link DistributedCountDownLatch.Options options} will be used to configure only the local count down latch
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedCountDownLatch.Config Config}.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide count down latch configuration.
+   * @param options The local count down latch options.
+   * @return A completable future to be completed once the count down latch has been created.
+   */
+  public CompletableFuture<DistributedCountDownLatch> getCountDownLatch(String key, DistributedCountDownLatch.Config config, DistributedCountDownLatch.Options options) {
+    return getResource(key, DistributedCountDownLatch.class, config, options);
+  }
+
+  /**
+   * Gets or creates a distributed barrier with default configuration and options.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.CyclicBarrier}.
+   * Processes waiting at the barrier are released by a single event from the cluster once the configured number of
+   * {@link DistributedBarrier.Config#withParties(int) parties} have arrived.
+   * <p>
+   * If no barrier exists at the given {@code key}, a new barrier will be created. If a barrier with the given key
+   * already exists, a reference to the barrier will be returned in the {@link CompletableFuture}. The barrier
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the barrier is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   *
+   * @param key The resource key.
+   * @return A completable future to be completed once the barrier has been created.
+   */
+  public CompletableFuture<DistributedBarrier> getBarrier(String key) {
+    return getResource(key, DistributedBarrier.class);
+  }
+
+  /**
+   * Gets or creates a distributed barrier with a cluster-wide configuration.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.CyclicBarrier}.
+   * Processes waiting at the barrier are released by a single event from the cluster once the configured number of
+   * {@link DistributedBarrier.Config#withParties(int) parties} have arrived.
+   * <p>
+   * If no barrier exists at the given {@code key}, a new barrier will be created. If a barrier with the given key
+   * already exists, a reference to the barrier will be returned in the {@link CompletableFuture}. The barrier
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the barrier is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided barrier {@link DistributedBarrier.Config Config} will be used to configure the cluster-wide barrier.
+   * If another process previously configured the barrier with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide barrier configuration.
+   * @return A completable future to be completed once the barrier has been created.
+   */
+  public CompletableFuture<DistributedBarrier> getBarrier(String key, DistributedBarrier.Config config) {
+    return getResource(key, DistributedBarrier.class, config);
+  }
+
+  /**
+   * Gets or creates a distributed barrier with local options.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.CyclicBarrier}.
+   * Processes waiting at the barrier are released by a single event from the cluster once the configured number of
+   * {@link DistributedBarrier.Config#withParties(int) parties} have arrived.
+   * <p>
+   * If no barrier exists at the given {@code key}, a new barrier will be created. If a barrier with the given key
+   * already exists, a reference to the barrier will be returned in the {@link CompletableFuture}. The barrier
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the barrier is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided barrier {@link DistributedBarrier.Options options} will be used to configure only the local barrier
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedBarrier.Config Config}.
+   *
+   * @param key The resource key.
+   * @param options The local barrier options.
+   * @return A completable future to be completed once the barrier has been created.
+   */
+  public CompletableFuture<DistributedBarrier> getBarrier(String key, DistributedBarrier.Options options) {
+    return getResource(key, DistributedBarrier.class, options);
+  }
+
+  /**
+   * Gets or creates a distributed barrier with a cluster-wide configuration and local options.
+   * <p>
+   * The returned resource is an asynchronous version of Java's {@link java.util.concurrent.CyclicBarrier}.
+   * Processes waiting at the barrier are released by a single event from the cluster once the configured number of
+   * {@link DistributedBarrier.Config#withParties(int) parties} have arrived.
+   * <p>
+   * If no barrier exists at the given {@code key}, a new barrier will be created. If a barrier with the given key
+   * already exists, a reference to the barrier will be returned in the {@link CompletableFuture}. The barrier
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the barrier is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided barrier {@link DistributedBarrier.Config Config} will be used to configure the cluster-wide barrier.
+   * If another process previously configured the barrier with a different configuration, that configuration
+   * will be overridden for all clients and replicas.
+   * <p>
+   * The provided barrier {@link DistributedBarrier.Options options} will be used to configure only the local barrier
+   * instance. Cluster-wide configurations can be performed by providing a {@link DistributedBarrier.Config Config}.
+   *
+   * @param key The resource key.
+   * @param config The cluster-wide barrier configuration.
+   * @param options The local barrier options.
+   * @return A completable future to be completed once the barrier has been created.
+   */
+  public CompletableFuture<DistributedBarrier> getBarrier(String key, DistributedBarrier.Config config, DistributedBarrier.Options options) {
+    return getResource(key, DistributedBarrier.class, config, options);
+  }
+
+  /**
+   * Gets or creates a distributed scheduler with default options.
+   * <p>
+   * The returned resource fires named schedules based on the logical time of the cluster's log and assigns each
+   * firing to one of the instances registered as workers for the schedule, with
+   * {@link DistributedScheduler.Delivery#AT_MOST_ONCE at-most-once} or
+   * {@link DistributedScheduler.Delivery#AT_LEAST_ONCE at-least-once} semantics.
+   * <p>
+   * If no scheduler exists at the given {@code key}, a new scheduler will be created. If a scheduler with the given
+   * key already exists, a reference to the scheduler will be returned in the {@link CompletableFuture}. The scheduler
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the scheduler is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   *
+   * @param key The resource key.
+   * @return A completable future to be completed once the scheduler has been created.
+   */
+  public CompletableFuture<DistributedScheduler> getScheduler(String key) {
+    return getResource(key, DistributedScheduler.class);
+  }
+
+  /**
+   * Gets or creates a distributed scheduler with local options.
+   * <p>
+   * The returned resource fires named schedules based on the logical time of the cluster's log and assigns each
+   * firing to one of the instances registered as workers for the schedule, with
+   * {@link DistributedScheduler.Delivery#AT_MOST_ONCE at-most-once} or
+   * {@link DistributedScheduler.Delivery#AT_LEAST_ONCE at-least-once} semantics.
+   * <p>
+   * If no scheduler exists at the given {@code key}, a new scheduler will be created. If a scheduler with the given
+   * key already exists, a reference to the scheduler will be returned in the {@link CompletableFuture}. The scheduler
+   * can be accessed by any {@link AtomixClient} or {@link AtomixReplica} in the cluster.
+   * <p>
+   * Once the returned {@link CompletableFuture} is completed successfully, the scheduler is guaranteed to be
+   * visible by all clients and replicas in the cluster.
+   * <p>
+   * The provided scheduler {@link DistributedScheduler.Options options} will be used to configure only the local
+   * scheduler instance.
+   *
+   * @param key The resource key.
+   * @param options The local scheduler options.
+   * @return A completable future to be completed once the scheduler has been created.
+   */
+  public CompletableFuture<DistributedScheduler> getScheduler(String key, DistributedScheduler.Options options) {
+    return getResource(key, DistributedScheduler.class, options);
+  }
+
   /**
    * Gets or creates a distributed group for managing group membership and leader elections.
    * <p>
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix;
+
+import io.atomix.variables.DistributedShardedCounter;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Atomix sharded counter test.
+ *
+ * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ */
+@Test
+public class AtomixShardedCounterTest extends AbstractAtomixTest {
+  @BeforeClass
+  protected void setupCluster() throws Throwable {
+    createReplicas(3);
+  }
+
+  public void testClientShardedCounter() throws Throwable {
+    Atomix client1 = createClient();
+    Atomix client2 = createClient();
+    testShardedCounter(client1, client2, "test-client-sharded-counter", DistributedShardedCounter.Selection.SESSION);
+  }
+
+  public void testReplicaShardedCounter() throws Throwable {
+    testShardedCounter(replicas.get(0), replicas.get(1), "test-replica-sharded-counter", DistributedShardedCounter.Selection.THREAD);
+  }
+
+  /**
+   * Tests that updates from multiple instances are reflected in the counter sum.
+   */
+  private void testShardedCounter(Atomix client1, Atomix client2, String key, DistributedShardedCounter.Selection selection) throws Throwable {
+    DistributedShardedCounter.Options options = new DistributedShardedCounter.Options()
+      .withShards(4)
+      .withSelection(selection);
+    DistributedShardedCounter counter1 = client1.getShardedCounter(key, options).get(5, TimeUnit.SECONDS);
+    DistributedShardedCounter counter2 = client2.getShardedCounter(key, options).get(5, TimeUnit.SECONDS);
+
+    for (int i = 0; i < 10; i++) {
+      counter1.increment().get(5, TimeUnit.SECONDS);
+      counter2.add(2).get(5, TimeUnit.SECONDS);
+    }
+    counter2.decrement().get(5, TimeUnit.SECONDS);
+
+    counter1.get().thenAccept(result -> {
+      threadAssertEquals(result, 29L);
+      resume();
+    });
+    await(5000);
+
+    counter1.getCached().thenAccept(result -> {
+      threadAssertEquals(result, 29L);
+      resume();
+    });
+    await(5000);
+  }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.group;
+
+import io.atomix.catalyst.concurrent.Listener;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Consistent hash ring over the members of a {@link DistributedGroup}.
+ * <p>
+ * The hash ring maps arbitrary string keys to members of the group. Each member is placed on the ring at a
+ * configurable number of {@link #virtualNodes() virtual nodes}, and each key is owned by the member at the
+ * first virtual node following the key's {@link #hash(String) hash}. When a member joins or leaves the group,
+ * only the keys in the ranges adjacent to that member's virtual nodes change owners.
+ * <pre>
+ *   {@code
+ *   ConsistentHashRing ring = group.hashRing();
+ *   GroupMember owner = ring.member("account-1");
+ *   }
+ * </pre>
+ * The ring is maintained locally by each instance of the group and is updated incrementally as join and leave
+ * events are received from the cluster. Lookups are lock-free and take {@code O(log n)} time in the number of
+ * virtual nodes. With the default number of virtual nodes, the ring routes keys to the same members as
+ * {@link io.atomix.group.messaging.MessageProducer.Delivery#KEY_HASH KEY_HASH} message delivery.
+ * <p>
+ * To be notified when ownership of keys changes, register a {@link #onMove(Consumer) move listener}. The
+ * listener is called with the exact set of hash ranges that moved between members each time the ring changes.
+ * <pre>
+ *   {@code
+ *   ring.onMove(moves -> {
+ *     for (ConsistentHashRing.Move move : moves) {
+ *       if (move.from().equals(localMember)) {
+ *         // Hand off keys whose hash falls within the moved range.
+ *       }
+ *     }
+ *   });
+ *   }
+ * </pre>
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface ConsistentHashRing {
+
+  /**
+   * The default number of virtual nodes per member.
+   */
+  int DEFAULT_VIRTUAL_NODES = 100;
+
+  /**
+   * Returns the number of virtual nodes per member.
+   *
+   * @return The number of virtual nodes per member.
+   */
+  int virtualNodes();
+
+  /**
+   * Returns the position of the given key on the ring.
+   *
+   * @param key The key to hash.
+   * @return The position of the key on the ring.
+   * @throws NullPointerException if the key is {@code null}
+   */
+  int hash(String key);
+
+  /**
+   * Returns the member that owns the given key.
+   *
+   * @param key The key for which to return the owner.
+   * @return The member that owns the key or {@code null} if the group has no members.
+   * @throws NullPointerException if the key is {@code null}
+   */
+  GroupMember member(String key);
+
+  /**
+   * Registers a listener to be called when hash ranges move between members.
+   * <p>
+   * The listener is called once for each member that joins or leaves the group with the collection of ranges
+   * whose ownership changed as a result. Listeners are not called for the first member added to an empty ring
+   * or for the last member removed from the ring.
+   *
+   * @param callback The callback to be called when ranges move between members.
+   * @return The move listener.
+   * @throws NullPointerException if the callback is {@code null}
+   */
+  Listener<Collection<Move>> onMove(Consumer<Collection<Move>> callback);
+
+  /**
+   * A range of hashes that moved from one member to another.
+   * <p>
+   * Ranges are exclusive of their {@link #start()} and inclusive of their {@link #end()}. If the start of the
+   * range is greater than or equal to its end, the range wraps around the end of the ring.
+   */
+  final class Move {
+    private final int start;
+    private final int end;
+    private final GroupMember from;
+    private final GroupMember to;
+
+    public Move(int start, int end, GroupMember from, GroupMember to) {
+      this.start = start;
+      this.end = end;
+      this.from = from;
+      this.to = to;
+    }
+
+    /**
+     * Returns the exclusive start of the range.
+     *
+     * @return The exclusive start of the range.
+     */
+    public int start() {
+      return start;
+    }
+
+    /**
+     * Returns the inclusive end of the range.
+     *
+     * @return The inclusive end of the range.
+     */
+    public int end() {
+      return end;
+    }
+
+    /**
+     * Returns the member that previously owned the range.
+     *
+     * @return The member that previously owned the range.
+     */
+    public GroupMember from() {
+      return from;
+    }
+
+    /**
+     * Returns the member that now owns the range.
+     *
+     * @return The member that now owns the range.
+     */
+    public GroupMember to() {
+      return to;
+    }
+
+    /**
+     * Returns a boolean indicating whether the given hash falls within the range.
+     *
+     * @param hash The hash to check.
+     * @return Indicates whether the hash falls within the range.
+     */
+    public boolean contains(int hash) {
+      if (start < end) {
+        return hash > start && hash <= end;
+      } else {
+        return hash > start || hash <= end;
+      }
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[start=%d, end=%d, from=%s, to=%s]", getClass().getSimpleName(), start, end, from.id(), to.id());
+    }
+  }
+
+}
@@ -20,9 +20,12 @@ import io.atomix.catalyst.util.Assert;
 import io.atomix.catalyst.concurrent.Listener;
 import io.atomix.group.election.Election;
 import io.atomix.group.election.Term;
+import io.atomix.group.executor.DistributedExecutor;
 import io.atomix.group.messaging.Message;
 import io.atomix.group.messaging.MessageClient;
+import io.atomix.group.messaging.MessageConsumer;
 import io.atomix.group.messaging.MessageService;
+import io.atomix.group.messaging.MessageStats;
 import io.atomix.resource.Resource;
 import io.atomix.resource.ResourceTypeInfo;
 
@@ -216,6 +219,12 @@ import java.util.function.Consumer;
  *   <li>{@link io.atomix.group.messaging.MessageProducer.Delivery#BROADCAST} producers send messages to all available
  *   members of a group. This option applies only to producers constructed from {@link io.atomix.group.DistributedGroup}
  *   messaging clients.</li>
+ *   <li>{@link io.atomix.group.messaging.MessageProducer.Delivery#ROUND_ROBIN} producers send each message to the
+ *   next member of the group in turn.</li>
+ *   <li>{@link io.atomix.group.messaging.MessageProducer.Delivery#KEY_HASH} producers send each message to the member
+ *   that owns the message's key on a consistent hash ring, so messages with the same key go to the same member.</li>
+ *   <li>{@link io.atomix.group.messaging.MessageProducer.Delivery#LEAST_LOADED} producers send each message to the
+ *   member with the fewest outstanding messages.</li>
  * </ul>
  * Delivery policies work in tandem with {@link io.atomix.group.messaging.MessageProducer.Execution Execution} policies
  * described above. For example, a group-wide producer configured with the
@@ -360,6 +369,41 @@ public interface DistributedGroup extends Resource<DistributedGroup> {
       setProperty("expiration", String.valueOf(Assert.notNull(expiration, "expiration").toMillis()));
       return this;
     }
+
+    /**
+     * Sets the maximum number of messages to buffer in the cluster for each member.
+     * <p>
+     * Messages are buffered for a member when a consumer on the member has limited the number of unacknowledged
+     * messages it receives via {@link MessageConsumer.Options#withCredits(int)}. Messages sent to a member whose
+     * buffer is full are failed. Defaults to {@code 1024}.
+     *
+     * @param bufferSize The maximum number of messages to buffer for each member.
+     * @return The group configuration.
+     * @throws IllegalArgumentException if the buffer size is negative
+     */
+    public Config withMessageBufferSize(int bufferSize) {
+      Assert.arg(bufferSize >= 0, "bufferSize cannot be negative");
+      setProperty("bufferSize", String.valueOf(bufferSize));
+      return this;
+    }
+
+    /**
+     * Sets the minimum interval at which metadata updates are published for each member.
+     * <p>
+     * When a member {@link LocalMember#updateMetadata(Object) updates its metadata} more frequently than the
+     * given interval, the cluster coalesces the updates and publishes only the latest metadata once the interval
+     * has elapsed. Defaults to {@link Duration#ZERO}, in which case every update is published immediately.
+     *
+     * @param interval The minimum interval at which to publish metadata updates for each member.
+     * @return The group configuration.
+     * @throws NullPointerException if the interval is {@code null}
+     * @throws IllegalArgumentException if the interval is negative
+     */
+    public Config withMetadataUpdateInterval(Duration interval) {
+      Assert.argNot(Assert.notNull(interval, "interval").isNegative(), "interval cannot be negative");
+      setProperty("metadataInterval", String.valueOf(interval.toMillis()));
+      return this;
+    }
   }
 
   /**
@@ -372,6 +416,29 @@ public interface DistributedGroup extends Resource<DistributedGroup> {
    */
   Election election();
 
+  /**
+   * Returns a consistent hash ring over the group's members.
+   * <p>
+   * The returned ring places each member at {@link ConsistentHashRing#DEFAULT_VIRTUAL_NODES} virtual nodes and
+   * routes keys to the same members as {@link io.atomix.group.messaging.MessageProducer.Delivery#KEY_HASH KEY_HASH}
+   * message delivery. The ring is updated automatically as members join and leave the group.
+   *
+   * @return The group hash ring.
+   */
+  ConsistentHashRing hashRing();
+
+  /**
+   * Returns a consistent hash ring over the group's members with the given number of virtual nodes per member.
+   * <p>
+   * Rings are shared by all callers requesting the same number of virtual nodes. A greater number of virtual
+   * nodes distributes keys more evenly across members at the cost of memory and more expensive updates.
+   *
+   * @param virtualNodes The number of virtual nodes per member.
+   * @return The group hash ring.
+   * @throws IllegalArgumentException if the number of virtual nodes is not positive
+   */
+  ConsistentHashRing hashRing(int virtualNodes);
+
   /**
    * Returns the group message client.
    * <p>
@@ -382,6 +449,38 @@ public interface DistributedGroup extends Resource<DistributedGroup> {
    */
   MessageClient messaging();
 
+  /**
+   * Returns a distributed executor with the given name.
+   * <p>
+   * The returned executor executes tasks on members registered as {@link DistributedExecutor#worker(LocalMember,
+   * java.util.concurrent.Executor) workers} for an executor with the same name, routing each task to the least
+   * loaded worker.
+   *
+   * @param name The executor name.
+   * @return The distributed executor.
+   * @throws NullPointerException if the name is {@code null}
+   */
+  default DistributedExecutor executor(String name) {
+    return executor(name, null);
+  }
+
+  /**
+   * Returns a distributed executor with the given name and options.
+   *
+   * @param name The executor name.
+   * @param options The executor options.
+   * @return The distributed executor.
+   * @throws NullPointerException if the name is {@code null}
+   */
+  DistributedExecutor executor(String name, DistributedExecutor.Options options);
+
+  /**
+   * Returns statistics for messages sent through the group.
+   *
+   * @return A completable future to be completed with the group's message statistics.
+   */
+  CompletableFuture<MessageStats> messageStats();
+
   /**
    * Gets a group member by ID.
    * <p>
@@ -59,7 +59,9 @@ public interface GroupMember {
    * <p>
    * Metadata is provided when the member {@link DistributedGroup#join(Object) join}s the group. If metadata was
    * provided by the member when it joined the group, it is guaranteed to be visible to all nodes once the member
-   * has been added to the group.
+   * has been added to the group. Local members can later {@link LocalMember#updateMetadata(Object) update} their
+   * metadata without leaving the group, in which case the updated metadata is propagated to all nodes
+   * asynchronously.
    *
    * @param <T> The metadata type.
    * @return The member metadata.
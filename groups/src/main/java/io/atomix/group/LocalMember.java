@@ -61,6 +61,26 @@ public interface LocalMember extends GroupMember {
   @Override
   MessageService messaging();
 
+  /**
+   * Updates the member's metadata.
+   * <p>
+   * The metadata is updated in place in the cluster, so updating metadata does not affect messages sent to the
+   * member or the group's leadership. Once the returned {@link CompletableFuture} is completed, the updated
+   * metadata is visible through this member's {@link #metadata()} and is propagated to other instances of the group.
+   * If the group is configured with a {@link DistributedGroup.Config#withMetadataUpdateInterval(java.time.Duration)
+   * metadata update interval}, frequent updates are coalesced and other instances may only see the latest metadata
+   * once the interval has elapsed.
+   * <pre>
+   *   {@code
+   *   member.updateMetadata(new Load(queueDepth, cpuLoad)).join();
+   *   }
+   * </pre>
+   *
+   * @param metadata The updated member metadata.
+   * @return A completable future to be completed once the metadata has been updated.
+   */
+  CompletableFuture<Void> updateMetadata(Object metadata);
+
   /**
    * Leaves the membership group.
    * <p>
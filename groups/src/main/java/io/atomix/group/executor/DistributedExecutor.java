@@ -0,0 +1,255 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.group.executor;
+
+import io.atomix.catalyst.util.Assert;
+import io.atomix.group.LocalMember;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Executes tasks on the members of a {@link io.atomix.group.DistributedGroup}.
+ * <p>
+ * The distributed executor provides a cluster-wide thread pool on top of group messaging. Tasks submitted to the
+ * executor are sent to the {@link LocalMember members} that have registered as {@link #worker(LocalMember, Executor)
+ * workers} for the executor, and the result of each task is returned to the submitter.
+ * <pre>
+ *   {@code
+ *   DistributedExecutor executor = group.executor("tasks");
+ *   executor.worker(localMember, Executors.newFixedThreadPool(4));
+ *
+ *   executor.submit(() -> "Hello world!").thenAccept(result -> {
+ *     System.out.println(result);
+ *   });
+ *   }
+ * </pre>
+ * Tasks must be {@link java.io.Serializable} or otherwise serializable by the group's serializer, and the task's
+ * class must be available on each worker.
+ * <h3>Routing</h3>
+ * Each task is sent to the {@link io.atomix.group.messaging.MessageProducer.Delivery#LEAST_LOADED least loaded}
+ * worker, as measured by the number of tasks outstanding for each worker in the cluster. A worker's
+ * {@link Options#withConcurrency(int) concurrency} limits the number of tasks sent to it at once, and additional
+ * tasks are buffered in the cluster until the worker completes outstanding tasks.
+ * <h3>Failures</h3>
+ * If a task cannot be delivered, for instance because the worker executing it leaves the group or the task's
+ * {@link Options#withTimeout(Duration) timeout} expires, the task is re-dispatched to another worker until it has
+ * been attempted {@link Options#withMaxAttempts(int) maxAttempts} times. Tasks may therefore be executed more than
+ * once and should be idempotent. If a task throws an exception, the returned future is completed exceptionally with
+ * a {@link TaskFailedException} and the task is not retried.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface DistributedExecutor extends AutoCloseable {
+
+  /**
+   * Executor options.
+   */
+  class Options {
+    private static final int DEFAULT_MAX_ATTEMPTS = 3;
+    private int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private Duration timeout = Duration.ZERO;
+    private int batchSize = 1;
+    private int concurrency;
+
+    /**
+     * Sets the maximum number of times to attempt each task.
+     * <p>
+     * Tasks that cannot be delivered to or completed by a worker are re-dispatched until they've been attempted
+     * {@code maxAttempts} times. Defaults to {@code 3}.
+     *
+     * @param maxAttempts The maximum number of times to attempt each task.
+     * @return The executor options.
+     * @throws IllegalArgumentException if the maximum number of attempts is not positive
+     */
+    public Options withMaxAttempts(int maxAttempts) {
+      Assert.arg(maxAttempts > 0, "maxAttempts must be positive");
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    /**
+     * Returns the maximum number of times to attempt each task.
+     *
+     * @return The maximum number of times to attempt each task.
+     */
+    public int getMaxAttempts() {
+      return maxAttempts;
+    }
+
+    /**
+     * Sets the time within which each attempt to execute a task must complete.
+     * <p>
+     * Attempts that do not complete within the timeout are withdrawn from the worker executing them and the task is
+     * re-dispatched. Defaults to {@link Duration#ZERO}, in which case attempts do not time out.
+     *
+     * @param timeout The time within which each attempt must complete.
+     * @return The executor options.
+     * @throws NullPointerException if the timeout is {@code null}
+     * @throws IllegalArgumentException if the timeout is negative
+     */
+    public Options withTimeout(Duration timeout) {
+      Assert.arg(!Assert.notNull(timeout, "timeout").isNegative(), "timeout cannot be negative");
+      this.timeout = timeout;
+      return this;
+    }
+
+    /**
+     * Returns the time within which each attempt to execute a task must complete.
+     *
+     * @return The time within which each attempt must complete.
+     */
+    public Duration getTimeout() {
+      return timeout;
+    }
+
+    /**
+     * Sets the maximum number of tasks to write to the cluster in a single batch.
+     * <p>
+     * Tasks submitted together via {@link #submitAll(Collection)} or in quick succession are written to the cluster
+     * in batches of up to {@code batchSize} tasks. Defaults to {@code 1}, which disables batching.
+     *
+     * @param batchSize The maximum number of tasks in a batch.
+     * @return The executor options.
+     * @throws IllegalArgumentException if the batch size is not positive or is greater than {@code 65536}
+     */
+    public Options withBatchSize(int batchSize) {
+      Assert.arg(batchSize > 0, "batchSize must be positive");
+      Assert.arg(batchSize <= 65536, "batchSize cannot be greater than 65536");
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * Returns the maximum number of tasks in a batch.
+     *
+     * @return The maximum number of tasks in a batch.
+     */
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    /**
+     * Sets the maximum number of tasks a worker executes concurrently.
+     * <p>
+     * Once a worker is executing {@code concurrency} tasks, the cluster buffers additional tasks for the worker
+     * until outstanding tasks complete. Defaults to {@code 0}, which does not limit the number of tasks sent to
+     * each worker.
+     *
+     * @param concurrency The maximum number of tasks a worker executes concurrently.
+     * @return The executor options.
+     * @throws IllegalArgumentException if the concurrency is negative
+     */
+    public Options withConcurrency(int concurrency) {
+      Assert.arg(concurrency >= 0, "concurrency cannot be negative");
+      this.concurrency = concurrency;
+      return this;
+    }
+
+    /**
+     * Returns the maximum number of tasks a worker executes concurrently.
+     *
+     * @return The maximum number of tasks a worker executes concurrently, or {@code 0} if unlimited.
+     */
+    public int getConcurrency() {
+      return concurrency;
+    }
+  }
+
+  /**
+   * A member registered to execute tasks.
+   */
+  interface Worker extends AutoCloseable {
+
+    /**
+     * Returns the member executing tasks.
+     *
+     * @return The member executing tasks.
+     */
+    LocalMember member();
+
+    /**
+     * Stops executing tasks on the member.
+     */
+    @Override
+    void close();
+
+  }
+
+  /**
+   * Returns the executor name.
+   *
+   * @return The executor name.
+   */
+  String name();
+
+  /**
+   * Executes the given task on a member of the group.
+   *
+   * @param task The task to execute.
+   * @return A completable future to be completed once the task has been executed.
+   * @throws NullPointerException if the task is {@code null}
+   */
+  CompletableFuture<Void> execute(Runnable task);
+
+  /**
+   * Submits the given task for execution on a member of the group.
+   *
+   * @param task The task to execute.
+   * @param <T> The task result type.
+   * @return A completable future to be completed with the result of the task.
+   * @throws NullPointerException if the task is {@code null}
+   */
+  <T> CompletableFuture<T> submit(Callable<T> task);
+
+  /**
+   * Submits a batch of tasks for execution on the members of the group.
+   * <p>
+   * Tasks in the batch are written to the cluster together and are spread across workers individually. The
+   * returned future is completed with the results of the tasks in the order in which they were provided, or
+   * exceptionally if any task fails.
+   *
+   * @param tasks The tasks to execute.
+   * @param <T> The task result type.
+   * @return A completable future to be completed with the results of the tasks.
+   * @throws NullPointerException if the tasks are {@code null}
+   */
+  <T> CompletableFuture<List<T>> submitAll(Collection<? extends Callable<T>> tasks);
+
+  /**
+   * Registers the given member as a worker, executing tasks on the given executor.
+   *
+   * @param member The member on which to execute tasks.
+   * @param executor The executor with which to execute tasks.
+   * @return The worker.
+   * @throws NullPointerException if the member or executor is {@code null}
+   */
+  Worker worker(LocalMember member, Executor executor);
+
+  /**
+   * Closes the executor.
+   * <p>
+   * Closing the executor closes the workers registered through it. Tasks that have already been submitted are
+   * not cancelled.
+   */
+  @Override
+  void close();
+
+}
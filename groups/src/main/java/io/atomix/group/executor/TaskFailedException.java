@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.group.executor;
+
+import io.atomix.resource.ResourceException;
+
+/**
+ * Exception thrown when a task submitted to a {@link DistributedExecutor} throws an exception on the worker
+ * executing it.
+ * <p>
+ * The exception thrown by the task is not itself returned to the submitter. Instead, the message of this exception
+ * describes the type and message of the exception thrown by the task.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class TaskFailedException extends ResourceException {
+
+  public TaskFailedException() {
+  }
+
+  public TaskFailedException(String message) {
+    super(message);
+  }
+
+  public TaskFailedException(String message, Throwable cause) {
+    super(message, cause);
+  }
+
+  public TaskFailedException(Throwable cause) {
+    super(cause);
+  }
+
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.group.executor.internal;
+
+import io.atomix.catalyst.concurrent.BlockingFuture;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.group.LocalMember;
+import io.atomix.group.executor.DistributedExecutor;
+import io.atomix.group.executor.TaskFailedException;
+import io.atomix.group.messaging.Message;
+import io.atomix.group.messaging.MessageClient;
+import io.atomix.group.messaging.MessageConsumer;
+import io.atomix.group.messaging.MessageFailedException;
+import io.atomix.group.messaging.MessageProducer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+/**
+ * Group executor.
+ * <p>
+ * Tasks are sent as {@link MessageProducer.Execution#REQUEST_REPLY request-reply} messages delivered to the
+ * {@link MessageProducer.Delivery#LEAST_LOADED least loaded} consumer of the executor's queue, and workers reply
+ * with a {@link TaskResult}. A failed message indicates the task could not be delivered or completed by a worker,
+ * so the task is re-dispatched, whereas a failed task result is returned to the submitter.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class GroupExecutor implements DistributedExecutor {
+  private final String name;
+  private final Options options;
+  private final MessageProducer<Object> producer;
+  private final Set<GroupWorker> workers = new CopyOnWriteArraySet<>();
+
+  public GroupExecutor(String name, Options options, MessageClient client) {
+    this.name = Assert.notNull(name, "name");
+    this.options = options != null ? options : new Options();
+    this.producer = client.producer(name, new MessageProducer.Options()
+      .withDelivery(MessageProducer.Delivery.LEAST_LOADED)
+      .withExecution(MessageProducer.Execution.REQUEST_REPLY)
+      .withBatchSize(this.options.getBatchSize())
+      .withTtl(this.options.getTimeout()));
+  }
+
+  @Override
+  public String name() {
+    return name;
+  }
+
+  @Override
+  public CompletableFuture<Void> execute(Runnable task) {
+    return this.<Object>dispatch(Assert.notNull(task, "task")).thenApply(result -> null);
+  }
+
+  @Override
+  public <T> CompletableFuture<T> submit(Callable<T> task) {
+    return dispatch(Assert.notNull(task, "task"));
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> CompletableFuture<List<T>> submitAll(Collection<? extends Callable<T>> tasks) {
+    Assert.notNull(tasks, "tasks");
+    CompletableFuture<T>[] futures = new CompletableFuture[tasks.size()];
+    int i = 0;
+    for (Callable<T> task : tasks) {
+      futures[i++] = dispatch(Assert.notNull(task, "task"));
+    }
+
+    return CompletableFuture.allOf(futures).thenApply(v -> {
+      List<T> results = new ArrayList<>(futures.length);
+      for (CompletableFuture<T> future : futures) {
+        results.add(future.join());
+      }
+      return results;
+    });
+  }
+
+  /**
+   * Dispatches a task to a worker.
+   */
+  private <T> CompletableFuture<T> dispatch(Object task) {
+    CompletableFuture<T> future = new BlockingFuture<>();
+    dispatch(task, 1, future);
+    return future;
+  }
+
+  /**
+   * Dispatches a task to a worker, re-dispatching the task if it can't be completed by the worker.
+   */
+  @SuppressWarnings("unchecked")
+  private <T> void dispatch(Object task, int attempt, CompletableFuture<T> future) {
+    producer.<TaskResult>send(task).whenComplete((result, error) -> {
+      if (error == null) {
+        if (result.error() == null) {
+          future.complete((T) result.result());
+        } else {
+          future.completeExceptionally(new TaskFailedException(result.error()));
+        }
+      } else {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof MessageFailedException && attempt < options.getMaxAttempts()) {
+          dispatch(task, attempt + 1, future);
+        } else {
+          future.completeExceptionally(cause);
+        }
+      }
+    });
+  }
+
+  @Override
+  public Worker worker(LocalMember member, Executor executor) {
+    GroupWorker worker = new GroupWorker(Assert.notNull(member, "member"), Assert.notNull(executor, "executor"));
+    workers.add(worker);
+    return worker;
+  }
+
+  @Override
+  public void close() {
+    workers.forEach(GroupWorker::close);
+    producer.close();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[name=%s]", getClass().getSimpleName(), name);
+  }
+
+  /**
+   * Group worker.
+   */
+  private class GroupWorker implements Worker {
+    private final LocalMember member;
+    private final Executor executor;
+    private final MessageConsumer<Object> consumer;
+
+    private GroupWorker(LocalMember member, Executor executor) {
+      this.member = member;
+      this.executor = executor;
+      this.consumer = member.messaging().consumer(name, new MessageConsumer.Options().withCredits(options.getConcurrency()));
+      consumer.onMessage(this::onTask);
+    }
+
+    @Override
+    public LocalMember member() {
+      return member;
+    }
+
+    /**
+     * Handles a task received by the worker.
+     * <p>
+     * If the task can't be scheduled for execution, the task message is failed to allow the task to be
+     * re-dispatched to another worker.
+     */
+    private void onTask(Message<Object> message) {
+      try {
+        executor.execute(() -> message.reply(run(message.message())));
+      } catch (RejectedExecutionException e) {
+        message.fail();
+      }
+    }
+
+    /**
+     * Runs a task and returns its result.
+     */
+    private TaskResult run(Object task) {
+      try {
+        if (task instanceof Callable) {
+          return TaskResult.success(((Callable<?>) task).call());
+        } else if (task instanceof Runnable) {
+          ((Runnable) task).run();
+          return TaskResult.success(null);
+        } else {
+          return TaskResult.failure(new IllegalArgumentException("unknown task type: " + task));
+        }
+      } catch (Throwable e) {
+        return TaskResult.failure(e);
+      }
+    }
+
+    @Override
+    public void close() {
+      workers.remove(this);
+      consumer.close();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[member=%s]", getClass().getSimpleName(), member.id());
+    }
+  }
+
+}
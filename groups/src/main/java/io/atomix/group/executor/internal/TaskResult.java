@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.group.executor.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+
+/**
+ * Result of a task executed by a worker.
+ * <p>
+ * Task exceptions are returned as a description of the exception rather than the exception itself, since the
+ * exception type may not be serializable or available to the submitter.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class TaskResult implements CatalystSerializable {
+  private Object result;
+  private String error;
+
+  public TaskResult() {
+  }
+
+  private TaskResult(Object result, String error) {
+    this.result = result;
+    this.error = error;
+  }
+
+  /**
+   * Returns a successful task result.
+   */
+  static TaskResult success(Object result) {
+    return new TaskResult(result, null);
+  }
+
+  /**
+   * Returns a failed task result.
+   */
+  static TaskResult failure(Throwable error) {
+    return new TaskResult(null, error.getMessage() != null ? error.getClass().getName() + ": " + error.getMessage() : error.getClass().getName());
+  }
+
+  /**
+   * Returns the task result.
+   */
+  public Object result() {
+    return result;
+  }
+
+  /**
+   * Returns a description of the exception thrown by the task or {@code null} if the task succeeded.
+   */
+  public String error() {
+    return error;
+  }
+
+  @Override
+  public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    buffer.writeString(error);
+    if (error == null) {
+      serializer.writeObject(result, buffer);
+    }
+  }
+
+  @Override
+  public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    error = buffer.readString();
+    if (error == null) {
+      result = serializer.readObject(buffer);
+    }
+  }
+
+}
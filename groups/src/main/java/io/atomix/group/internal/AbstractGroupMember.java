@@ -29,7 +29,7 @@ import java.util.Optional;
 public abstract class AbstractGroupMember implements GroupMember {
   protected final String memberId;
   protected final MembershipGroup group;
-  protected final Object metadata;
+  protected volatile Object metadata;
 
   public AbstractGroupMember(GroupMemberInfo info, MembershipGroup group) {
     this.memberId = info.memberId();
@@ -52,4 +52,11 @@ public abstract class AbstractGroupMember implements GroupMember {
         : Optional.of((T) metadata);
   }
 
+  /**
+   * Sets the member metadata.
+   */
+  void setMetadata(Object metadata) {
+    this.metadata = metadata;
+  }
+
 }
@@ -18,7 +18,6 @@ package io.atomix.group.internal;
 import io.atomix.copycat.server.Commit;
 import io.atomix.group.messaging.MessageProducer;
 
-import java.util.Random;
 
 /**
  * Asynchronous message state.
@@ -30,37 +29,23 @@ class AsyncMessageState extends MessageState {
   private int ack;
   private int fail;
 
-  public AsyncMessageState(Commit<GroupCommands.Message> commit, QueueState queue) {
-    super(commit, queue);
+  public AsyncMessageState(Commit<?> commit, GroupCommands.Message message, int position, QueueState queue) {
+    super(commit, message, position, queue);
   }
 
   @Override
   public boolean send(MembersState members) {
-    if (commit.operation().member() != null) {
-      MemberState member = members.get(commit.operation().member());
-      if (member != null) {
-        member.submit(this);
-        return true;
-      } else {
-        return false;
-      }
-    } else if (commit.operation().delivery() == MessageProducer.Delivery.RANDOM) {
-      if (members.isEmpty()) {
-        return false;
-      } else {
-        members.get(new Random(commit.operation().id()).nextInt(members.size())).submit(this);
-        return true;
-      }
-    } else if (commit.operation().delivery() == MessageProducer.Delivery.BROADCAST) {
+    if (message.member() == null && message.delivery() == MessageProducer.Delivery.BROADCAST) {
       if (members.isEmpty()) {
         return false;
       } else {
         this.members = members.size();
-        members.forEach(m -> m.submit(this));
-        return true;
+        fail += broadcast(members);
+        return fail < this.members;
       }
     } else {
-      return false;
+      MemberState member = select(members);
+      return member != null && submit(member);
     }
   }
 
@@ -73,7 +58,11 @@ class AsyncMessageState extends MessageState {
     }
 
     if (ack + fail == members) {
-      queue.close(this);
+      if (fail == 0) {
+        queue.close(this);
+      } else {
+        queue.fail(this);
+      }
     }
   }
 
@@ -81,7 +70,7 @@ class AsyncMessageState extends MessageState {
   public void expire() {
     fail++;
     if (ack + fail == members) {
-      queue.close(this);
+      queue.fail(this);
     }
   }
 
@@ -24,15 +24,20 @@ import io.atomix.catalyst.serializer.SerializerRegistry;
 import io.atomix.copycat.Command;
 import io.atomix.copycat.Operation;
 import io.atomix.copycat.Query;
+import io.atomix.group.executor.internal.TaskResult;
 import io.atomix.group.messaging.MessageProducer;
+import io.atomix.group.messaging.MessageStats;
+import io.atomix.group.messaging.internal.GroupBroadcast;
 import io.atomix.group.messaging.internal.GroupMessage;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 /**
  * Group commands.
  * <p>
- * This class reserves serializable type IDs {@code 130} through {@code 140} and {@code 158} through {@code 160}
+ * This class reserves serializable type IDs {@code 128} through {@code 129}, {@code 130} through {@code 140}, {@code 158} through {@code 160}, {@code 162} and {@code 168} through {@code 171}
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
@@ -177,6 +182,42 @@ public final class GroupCommands {
     }
   }
 
+  /**
+   * Update metadata command.
+   */
+  public static class UpdateMetadata extends MemberCommand<Void> {
+    private Object metadata;
+
+    public UpdateMetadata() {
+    }
+
+    public UpdateMetadata(String member, Object metadata) {
+      super(member);
+      this.metadata = metadata;
+    }
+
+    /**
+     * Returns the member metadata.
+     *
+     * @return The member metadata.
+     */
+    public Object metadata() {
+      return metadata;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      serializer.writeObject(metadata, buffer);
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      metadata = serializer.readObject(buffer);
+    }
+  }
+
   /**
    * Leave command.
    */
@@ -215,6 +256,7 @@ public final class GroupCommands {
    * Group status.
    */
   public static class GroupStatus implements CatalystSerializable {
+    private long version;
     private long term;
     private String leader;
     private Set<GroupMemberInfo> members;
@@ -222,12 +264,23 @@ public final class GroupCommands {
     public GroupStatus() {
     }
 
-    public GroupStatus(long term, String leader, Set<GroupMemberInfo> members) {
+    public GroupStatus(long version, long term, String leader, Set<GroupMemberInfo> members) {
+      this.version = version;
       this.term = term;
       this.leader = leader;
       this.members = members;
     }
 
+    /**
+     * Returns the membership version.
+     * <p>
+     * Membership deltas with a version less than or equal to the status version are already reflected
+     * in the status.
+     */
+    public long version() {
+      return version;
+    }
+
     public long term() {
       return term;
     }
@@ -242,18 +295,130 @@ public final class GroupCommands {
 
     @Override
     public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
-      buffer.writeLong(term).writeString(leader);
+      buffer.writeLong(version).writeLong(term).writeString(leader);
       serializer.writeObject(members, buffer);
     }
 
     @Override
     public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      version = buffer.readLong();
       term = buffer.readLong();
       leader = buffer.readString();
       members = serializer.readObject(buffer);
     }
   }
 
+  /**
+   * Membership delta.
+   * <p>
+   * A delta coalesces all the membership changes resulting from a single state machine operation into a single
+   * event. Changes should be applied in order: first the {@link #term() term}, then members that
+   * {@link #left() left}, then members that {@link #joined() joined}, then members whose metadata was
+   * {@link #updated() updated}, and finally the {@link #leader() leader}.
+   */
+  public static class MembershipDelta implements CatalystSerializable {
+    private long version;
+    private long term;
+    private List<String> left;
+    private List<GroupMemberInfo> joined;
+    private List<GroupMemberInfo> updated;
+    private String leader;
+
+    public MembershipDelta() {
+    }
+
+    public MembershipDelta(long version, long term, List<String> left, List<GroupMemberInfo> joined, List<GroupMemberInfo> updated, String leader) {
+      this.version = version;
+      this.term = term;
+      this.left = left;
+      this.joined = joined;
+      this.updated = updated;
+      this.leader = leader;
+    }
+
+    /**
+     * Returns the membership version.
+     */
+    public long version() {
+      return version;
+    }
+
+    /**
+     * Returns the new term or {@code 0} if the term did not change.
+     */
+    public long term() {
+      return term;
+    }
+
+    /**
+     * Returns the IDs of the members that left the group.
+     */
+    public List<String> left() {
+      return left;
+    }
+
+    /**
+     * Returns the members that joined the group.
+     */
+    public List<GroupMemberInfo> joined() {
+      return joined;
+    }
+
+    /**
+     * Returns the members whose metadata was updated.
+     */
+    public List<GroupMemberInfo> updated() {
+      return updated;
+    }
+
+    /**
+     * Returns the newly elected leader or {@code null} if no leader was elected.
+     */
+    public String leader() {
+      return leader;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeLong(version).writeLong(term);
+      buffer.writeInt(left.size());
+      for (String member : left) {
+        buffer.writeString(member);
+      }
+      buffer.writeInt(joined.size());
+      for (GroupMemberInfo member : joined) {
+        serializer.writeObject(member, buffer);
+      }
+      buffer.writeInt(updated.size());
+      for (GroupMemberInfo member : updated) {
+        serializer.writeObject(member, buffer);
+      }
+      buffer.writeString(leader);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      version = buffer.readLong();
+      term = buffer.readLong();
+      int size = buffer.readInt();
+      left = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        left.add(buffer.readString());
+      }
+      size = buffer.readInt();
+      joined = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        joined.add(serializer.readObject(buffer));
+      }
+      size = buffer.readInt();
+      updated = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        updated.add(serializer.readObject(buffer));
+      }
+      leader = buffer.readString();
+    }
+  }
+
   /**
    * Property command.
    */
@@ -296,22 +461,30 @@ public final class GroupCommands {
   public static class Message extends MemberCommand<Void> {
     private int producer;
     private long id;
+    private String key;
     private String queue;
     private Object message;
     private MessageProducer.Delivery delivery;
     private MessageProducer.Execution execution;
+    private long ttl;
+    private long hedge;
+    private String deadLetterQueue;
 
     public Message() {
     }
 
-    public Message(String member, int producer, String queue, long id, Object message, MessageProducer.Delivery delivery, MessageProducer.Execution execution) {
+    public Message(String member, int producer, String queue, long id, String key, Object message, MessageProducer.Delivery delivery, MessageProducer.Execution execution, long ttl, long hedge, String deadLetterQueue) {
       super(member);
       this.producer = producer;
       this.queue = queue;
       this.id = id;
+      this.key = key;
       this.message = message;
       this.delivery = delivery;
       this.execution = execution;
+      this.ttl = ttl;
+      this.hedge = hedge;
+      this.deadLetterQueue = deadLetterQueue;
     }
 
     /**
@@ -341,6 +514,15 @@ public final class GroupCommands {
       return id;
     }
 
+    /**
+     * Returns the message key.
+     *
+     * @return The message key or {@code null} if the message was sent without a key.
+     */
+    public String key() {
+      return key;
+    }
+
     /**
      * Returns the message.
      *
@@ -368,14 +550,46 @@ public final class GroupCommands {
       return execution;
     }
 
+    /**
+     * Returns the message time to live.
+     *
+     * @return The message time to live in milliseconds or {@code 0} if the message does not expire.
+     */
+    public long ttl() {
+      return ttl;
+    }
+
+    /**
+     * Returns the delay after which to hedge the message.
+     *
+     * @return The delay after which to send the message to a second member in milliseconds or {@code 0} if the
+     * message is not hedged.
+     */
+    public long hedge() {
+      return hedge;
+    }
+
+    /**
+     * Returns the queue to which to send the message if it expires or fails.
+     *
+     * @return The dead-letter queue name or {@code null} if the message is discarded on failure.
+     */
+    public String deadLetterQueue() {
+      return deadLetterQueue;
+    }
+
     @Override
     public void writeObject(BufferOutput buffer, Serializer serializer) {
       super.writeObject(buffer, serializer);
       buffer.writeUnsignedShort(producer);
       buffer.writeString(queue);
       buffer.writeLong(id);
+      buffer.writeString(key);
       buffer.writeByte(delivery.ordinal());
       buffer.writeByte(execution.ordinal());
+      buffer.writeLong(ttl);
+      buffer.writeLong(hedge);
+      buffer.writeString(deadLetterQueue);
       serializer.writeObject(message, buffer);
     }
 
@@ -385,12 +599,155 @@ public final class GroupCommands {
       producer = buffer.readUnsignedShort();
       queue = buffer.readString();
       id = buffer.readLong();
+      key = buffer.readString();
       delivery = MessageProducer.Delivery.values()[buffer.readByte()];
       execution = MessageProducer.Execution.values()[buffer.readByte()];
+      ttl = buffer.readLong();
+      hedge = buffer.readLong();
+      deadLetterQueue = buffer.readString();
       message = serializer.readObject(buffer);
     }
   }
 
+  /**
+   * Message batch command.
+   * <p>
+   * A batch carries multiple messages sent by the same producer to the same queue. Delivery and execution policies
+   * are shared by all messages in the batch and are written once, and each message retains its own producer
+   * message ID so that acknowledgements can be routed to the individual messages.
+   */
+  public static class MessageBatch extends MemberCommand<Void> {
+    private int producer;
+    private String queue;
+    private MessageProducer.Delivery delivery;
+    private MessageProducer.Execution execution;
+    private long ttl;
+    private long hedge;
+    private String deadLetterQueue;
+    private long[] ids;
+    private String[] keys;
+    private List<Object> messages;
+
+    public MessageBatch() {
+    }
+
+    public MessageBatch(String member, int producer, String queue, long[] ids, String[] keys, List<Object> messages, MessageProducer.Delivery delivery, MessageProducer.Execution execution, long ttl, long hedge, String deadLetterQueue) {
+      super(member);
+      this.producer = producer;
+      this.queue = queue;
+      this.ids = ids;
+      this.keys = keys;
+      this.messages = messages;
+      this.delivery = delivery;
+      this.execution = execution;
+      this.ttl = ttl;
+      this.hedge = hedge;
+      this.deadLetterQueue = deadLetterQueue;
+    }
+
+    /**
+     * Returns the producer ID.
+     *
+     * @return The producer ID.
+     */
+    public int producer() {
+      return producer;
+    }
+
+    /**
+     * Returns the message queue name.
+     *
+     * @return The message queue name.
+     */
+    public String queue() {
+      return queue;
+    }
+
+    /**
+     * Returns the batch delivery policy.
+     *
+     * @return The batch delivery policy.
+     */
+    public MessageProducer.Delivery delivery() {
+      return delivery;
+    }
+
+    /**
+     * Returns the batch execution policy.
+     *
+     * @return The batch execution policy.
+     */
+    public MessageProducer.Execution execution() {
+      return execution;
+    }
+
+    /**
+     * Returns the number of messages in the batch.
+     *
+     * @return The number of messages in the batch.
+     */
+    public int size() {
+      return ids.length;
+    }
+
+    /**
+     * Returns the individual messages in the batch.
+     *
+     * @return The individual messages in the batch.
+     */
+    public List<Message> messages() {
+      List<Message> messages = new ArrayList<>(ids.length);
+      for (int i = 0; i < ids.length; i++) {
+        messages.add(new Message(member(), producer, queue, ids[i], keys[i], this.messages.get(i), delivery, execution, ttl, hedge, deadLetterQueue));
+      }
+      return messages;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeUnsignedShort(producer);
+      buffer.writeString(queue);
+      buffer.writeByte(delivery.ordinal());
+      buffer.writeByte(execution.ordinal());
+      buffer.writeLong(ttl);
+      buffer.writeLong(hedge);
+      buffer.writeString(deadLetterQueue);
+      buffer.writeInt(ids.length);
+      for (int i = 0; i < ids.length; i++) {
+        buffer.writeLong(ids[i]);
+        buffer.writeString(keys[i]);
+        serializer.writeObject(messages.get(i), buffer);
+      }
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      producer = buffer.readUnsignedShort();
+      queue = buffer.readString();
+      delivery = MessageProducer.Delivery.values()[buffer.readByte()];
+      execution = MessageProducer.Execution.values()[buffer.readByte()];
+      ttl = buffer.readLong();
+      hedge = buffer.readLong();
+      deadLetterQueue = buffer.readString();
+      int size = buffer.readInt();
+      ids = new long[size];
+      keys = new String[size];
+      messages = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        ids[i] = buffer.readLong();
+        keys[i] = buffer.readString();
+        messages.add(serializer.readObject(buffer));
+      }
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[producer=%d, queue=%s, size=%d]", getClass().getSimpleName(), producer, queue, ids.length);
+    }
+  }
+
   /**
    * Reply command.
    */
@@ -466,6 +823,63 @@ public final class GroupCommands {
     }
   }
 
+  /**
+   * Credit command.
+   * <p>
+   * Sets the maximum number of unacknowledged messages the cluster may publish to a member for a queue. A
+   * non-positive number of credits removes the limit.
+   */
+  public static class Credit extends MemberCommand<Void> {
+    private String queue;
+    private int credits;
+
+    public Credit() {
+    }
+
+    public Credit(String member, String queue, int credits) {
+      super(member);
+      this.queue = queue;
+      this.credits = credits;
+    }
+
+    /**
+     * Returns the queue name.
+     *
+     * @return The queue name.
+     */
+    public String queue() {
+      return queue;
+    }
+
+    /**
+     * Returns the number of credits granted for the queue.
+     *
+     * @return The number of credits granted for the queue.
+     */
+    public int credits() {
+      return credits;
+    }
+
+    @Override
+    public void writeObject(BufferOutput buffer, Serializer serializer) {
+      super.writeObject(buffer, serializer);
+      buffer.writeString(queue);
+      buffer.writeInt(credits);
+    }
+
+    @Override
+    public void readObject(BufferInput buffer, Serializer serializer) {
+      super.readObject(buffer, serializer);
+      queue = buffer.readString();
+      credits = buffer.readInt();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[member=%s, queue=%s, credits=%d]", getClass().getSimpleName(), member(), queue, credits);
+    }
+  }
+
   /**
    * Ack command.
    */
@@ -474,17 +888,23 @@ public final class GroupCommands {
     private String queue;
     private long id;
     private boolean succeeded;
+    private boolean timedOut;
     private Object message;
 
     public Ack() {
     }
 
     public Ack(String member, int producer, String queue, long id, boolean succeeded, Object message) {
+      this(member, producer, queue, id, succeeded, false, message);
+    }
+
+    public Ack(String member, int producer, String queue, long id, boolean succeeded, boolean timedOut, Object message) {
       super(member);
       this.producer = producer;
       this.queue = queue;
       this.id = id;
       this.succeeded = succeeded;
+      this.timedOut = timedOut;
       this.message = message;
     }
 
@@ -524,6 +944,15 @@ public final class GroupCommands {
       return succeeded;
     }
 
+    /**
+     * Returns whether the message failed because its time to live expired.
+     *
+     * @return Whether the message timed out.
+     */
+    public boolean timedOut() {
+      return timedOut;
+    }
+
     /**
      * Returns the reply message.
      *
@@ -540,6 +969,7 @@ public final class GroupCommands {
       buffer.writeString(queue);
       buffer.writeLong(id);
       buffer.writeBoolean(succeeded);
+      buffer.writeBoolean(timedOut);
       serializer.writeObject(message, buffer);
     }
 
@@ -550,10 +980,17 @@ public final class GroupCommands {
       queue = buffer.readString();
       id = buffer.readLong();
       succeeded = buffer.readBoolean();
+      timedOut = buffer.readBoolean();
       message = serializer.readObject(buffer);
     }
   }
 
+  /**
+   * Message statistics query.
+   */
+  public static class Stats extends GroupOperation<MessageStats> implements Query<MessageStats> {
+  }
+
   /**
    * Group command type resolver.
    */
@@ -564,11 +1001,19 @@ public final class GroupCommands {
       registry.register(Leave.class, -131);
       registry.register(Listen.class, -132);
       registry.register(Message.class, -137);
+      registry.register(MessageBatch.class, -128);
       registry.register(Reply.class, -138);
       registry.register(Ack.class, -139);
+      registry.register(Credit.class, -129);
       registry.register(GroupMessage.class, -140);
+      registry.register(GroupBroadcast.class, -168);
       registry.register(GroupMemberInfo.class, -158);
       registry.register(GroupStatus.class, -159);
+      registry.register(MembershipDelta.class, -169);
+      registry.register(UpdateMetadata.class, -170);
+      registry.register(TaskResult.class, -171);
+      registry.register(Stats.class, -136);
+      registry.register(MessageStats.class, -162);
     }
   }
 
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.group.internal;
+
+import io.atomix.catalyst.concurrent.Listener;
+import io.atomix.catalyst.concurrent.Listeners;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.group.ConsistentHashRing;
+import io.atomix.group.GroupMember;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Group hash ring.
+ * <p>
+ * The ring is stored as an immutable pair of sorted arrays of virtual node hashes and their owners. Membership
+ * changes copy and merge the arrays under a lock and then publish the new arrays via a volatile reference, so
+ * lookups never block and always see a consistent ring.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class GroupHashRing implements ConsistentHashRing {
+  private final int virtualNodes;
+  private final Listeners<Collection<Move>> listeners = new Listeners<>();
+  private final Set<String> members = new HashSet<>();
+  private volatile Ring ring = new Ring(new int[0], new GroupMember[0]);
+
+  public GroupHashRing(int virtualNodes) {
+    Assert.arg(virtualNodes > 0, "virtualNodes must be positive");
+    this.virtualNodes = virtualNodes;
+  }
+
+  @Override
+  public int virtualNodes() {
+    return virtualNodes;
+  }
+
+  @Override
+  public int hash(String key) {
+    return MembersState.hash(Assert.notNull(key, "key"));
+  }
+
+  @Override
+  public GroupMember member(String key) {
+    return ring.owner(hash(key));
+  }
+
+  @Override
+  public Listener<Collection<Move>> onMove(Consumer<Collection<Move>> callback) {
+    return listeners.add(Assert.notNull(callback, "callback"));
+  }
+
+  /**
+   * Adds a member to the ring.
+   */
+  synchronized void add(GroupMember member) {
+    if (!members.add(member.id())) {
+      return;
+    }
+
+    Ring previous = ring;
+    int[] hashes = new int[virtualNodes];
+    for (int i = 0; i < virtualNodes; i++) {
+      hashes[i] = MembersState.hash(member.id() + "#" + i);
+    }
+    Arrays.sort(hashes);
+
+    // Merge the member's virtual nodes into the existing ring. Virtual nodes that collide with an existing
+    // virtual node are skipped.
+    int[] mergedHashes = new int[previous.hashes.length + hashes.length];
+    GroupMember[] mergedOwners = new GroupMember[mergedHashes.length];
+    int i = 0, j = 0, k = 0;
+    while (i < previous.hashes.length || j < hashes.length) {
+      if (j == hashes.length || (i < previous.hashes.length && previous.hashes[i] <= hashes[j])) {
+        if (j < hashes.length && previous.hashes[i] == hashes[j]) {
+          j++;
+        }
+        mergedHashes[k] = previous.hashes[i];
+        mergedOwners[k++] = previous.owners[i++];
+      } else {
+        if (k == 0 || mergedHashes[k - 1] != hashes[j]) {
+          mergedHashes[k] = hashes[j];
+          mergedOwners[k++] = member;
+        }
+        j++;
+      }
+    }
+
+    Ring current = new Ring(Arrays.copyOf(mergedHashes, k), Arrays.copyOf(mergedOwners, k));
+    ring = current;
+
+    // Each of the member's virtual nodes takes over the range between it and its predecessor from the member
+    // that previously owned the virtual node's position.
+    if (previous.hashes.length > 0) {
+      List<Move> moves = new ArrayList<>();
+      for (int index = 0; index < current.hashes.length; index++) {
+        if (current.owners[index] == member) {
+          GroupMember from = previous.owner(current.hashes[index]);
+          moves.add(new Move(current.predecessor(index), current.hashes[index], from, member));
+        }
+      }
+      listeners.accept(moves);
+    }
+  }
+
+  /**
+   * Removes a member from the ring.
+   */
+  synchronized void remove(GroupMember member) {
+    if (!members.remove(member.id())) {
+      return;
+    }
+
+    Ring previous = ring;
+    int[] hashes = new int[previous.hashes.length];
+    GroupMember[] owners = new GroupMember[previous.owners.length];
+    int k = 0;
+    for (int i = 0; i < previous.hashes.length; i++) {
+      if (!previous.owners[i].id().equals(member.id())) {
+        hashes[k] = previous.hashes[i];
+        owners[k++] = previous.owners[i];
+      }
+    }
+
+    Ring current = new Ring(Arrays.copyOf(hashes, k), Arrays.copyOf(owners, k));
+    ring = current;
+
+    // Each of the member's virtual nodes hands the range between it and its predecessor to the member that
+    // now owns the virtual node's position.
+    if (current.hashes.length > 0) {
+      List<Move> moves = new ArrayList<>();
+      for (int index = 0; index < previous.hashes.length; index++) {
+        if (previous.owners[index].id().equals(member.id())) {
+          GroupMember to = current.owner(previous.hashes[index]);
+          moves.add(new Move(previous.predecessor(index), previous.hashes[index], previous.owners[index], to));
+        }
+      }
+      listeners.accept(moves);
+    }
+  }
+
+  /**
+   * Immutable ring snapshot.
+   */
+  private static class Ring {
+    private final int[] hashes;
+    private final GroupMember[] owners;
+
+    private Ring(int[] hashes, GroupMember[] owners) {
+      this.hashes = hashes;
+      this.owners = owners;
+    }
+
+    /**
+     * Returns the owner of the given hash.
+     */
+    private GroupMember owner(int hash) {
+      if (hashes.length == 0) {
+        return null;
+      }
+      int index = Arrays.binarySearch(hashes, hash);
+      if (index < 0) {
+        index = -index - 1;
+        if (index == hashes.length) {
+          index = 0;
+        }
+      }
+      return owners[index];
+    }
+
+    /**
+     * Returns the hash of the virtual node preceding the given index.
+     */
+    private int predecessor(int index) {
+      return hashes[index == 0 ? hashes.length - 1 : index - 1];
+    }
+  }
+
+}
@@ -15,9 +15,11 @@
  */
 package io.atomix.group.internal;
 
+import io.atomix.catalyst.concurrent.Scheduled;
 import io.atomix.copycat.server.Commit;
 import io.atomix.copycat.server.session.ServerSession;
 import io.atomix.copycat.server.session.SessionListener;
+import io.atomix.group.messaging.MessageStats;
 import io.atomix.resource.ResourceStateMachine;
 
 import java.time.Duration;
@@ -25,21 +27,34 @@ import java.util.*;
 
 /**
  * Group state machine.
+ * <p>
+ * Membership changes are coalesced into a single {@link GroupCommands.MembershipDelta delta} event per session
+ * for each operation applied to the state machine, so a session closing with many members or a persistent member
+ * rejoining results in one event per session rather than one event per change. Each delta is assigned a
+ * monotonically increasing version so clients can discard deltas that are already reflected in their state.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class GroupState extends ResourceStateMachine implements SessionListener {
   private final Duration expiration;
+  private final int bufferSize;
+  private final Duration metadataInterval;
   private final Map<Long, SessionState> sessions = new HashMap<>();
   private final MembersState members = new MembersState();
   private final Map<String, QueueState> queues = new HashMap<>();
   private final List<MemberState> candidates = new ArrayList<>();
   private MemberState leader;
   private long term;
+  private long version;
+  private long expired;
+  private long deadLettered;
+  private long hedged;
 
   public GroupState(Properties config) {
     super(config);
     expiration = Duration.ofMillis(Long.valueOf(config.getProperty("expiration", "0")));
+    bufferSize = Integer.valueOf(config.getProperty("bufferSize", "1024"));
+    metadataInterval = Duration.ofMillis(Long.valueOf(config.getProperty("metadataInterval", "0")));
   }
 
   @Override
@@ -74,6 +89,7 @@ public class GroupState extends ResourceStateMachine implements SessionListener
             executor.schedule(expiration, () -> {
               if (member.session() == null) {
                 sessions.values().forEach(s -> s.leave(member));
+                flush();
               }
             });
           }
@@ -95,12 +111,30 @@ public class GroupState extends ResourceStateMachine implements SessionListener
     }
 
     // Close the commits for the members that left the group.
-    // Iterate through the remaining sessions and publish a leave event for each removed member
+    // Iterate through the remaining sessions and record a leave for each removed member
     // *after* the members have been closed to ensure events are sent in the proper order.
     left.values().forEach(member -> {
       member.close();
       sessions.values().forEach(s -> s.leave(member));
     });
+    flush();
+  }
+
+  /**
+   * Publishes the membership changes pending for each session as a single delta event.
+   */
+  private void flush() {
+    boolean changed = false;
+    for (SessionState session : sessions.values()) {
+      changed |= session.changed();
+    }
+
+    if (changed) {
+      version++;
+      for (SessionState session : sessions.values()) {
+        session.flush(version);
+      }
+    }
   }
 
   /**
@@ -155,13 +189,13 @@ public class GroupState extends ResourceStateMachine implements SessionListener
 
       // If the member doesn't already exist, create it.
       if (member == null) {
-        member = new MemberState(commit);
+        member = new MemberState(commit, bufferSize);
 
         // Store the member ID and join commit mappings and add the member as a candidate.
         members.add(member);
         candidates.add(member);
 
-        // Iterate through available sessions and publish a join event to each session.
+        // Iterate through available sessions and record a join for each session.
         for (SessionState session : sessions.values()) {
           session.join(member);
         }
@@ -178,7 +212,7 @@ public class GroupState extends ResourceStateMachine implements SessionListener
       }
       // If the member already exists and is a persistent member, update the member to point to the new session.
       else if (member.persistent()) {
-        // Iterate through available sessions and publish a join event to each session.
+        // Iterate through available sessions and record a join for each session.
         // This will result in client-side groups updating the member object according to locality.
         for (SessionState session : sessions.values()) {
           session.join(member);
@@ -204,6 +238,7 @@ public class GroupState extends ResourceStateMachine implements SessionListener
       else {
         throw new IllegalArgumentException("cannot recreate ephemeral member");
       }
+      flush();
       return member.info();
     } catch (Exception e) {
       commit.close();
@@ -232,15 +267,53 @@ public class GroupState extends ResourceStateMachine implements SessionListener
         // Close the member to ensure it's garbage collected.
         member.close();
 
-        // Publish a leave event to all sessions *after* closing the member to ensure events
+        // Record a leave for all sessions *after* closing the member to ensure events
         // are received by clients in the proper order.
         sessions.values().forEach(s -> s.leave(member));
+        flush();
       }
     } finally {
       commit.close();
     }
   }
 
+  /**
+   * Applies metadata update commits.
+   * <p>
+   * Metadata is updated in place without affecting the member's messages or the group's leadership. If a metadata
+   * update interval is configured and the member's metadata was published less than an interval ago, publication
+   * is deferred until the interval has elapsed, and only the latest metadata is published.
+   */
+  public void updateMetadata(Commit<GroupCommands.UpdateMetadata> commit) {
+    MemberState member = members.get(commit.operation().member());
+    if (member == null) {
+      commit.close();
+      throw new IllegalArgumentException("unknown member: " + commit.operation().member());
+    }
+
+    member.update(commit);
+    if (member.updateTimer() == null) {
+      long elapsed = context.clock().millis() - member.updateTime();
+      if (elapsed >= metadataInterval.toMillis()) {
+        publishMetadata(member);
+      } else {
+        member.setUpdateTimer(executor.schedule(metadataInterval.minusMillis(elapsed), () -> {
+          member.setUpdateTimer(null);
+          publishMetadata(member);
+        }));
+      }
+    }
+  }
+
+  /**
+   * Publishes the given member's metadata to all sessions.
+   */
+  private void publishMetadata(MemberState member) {
+    member.setUpdateTime(context.clock().millis());
+    sessions.values().forEach(s -> s.update(member));
+    flush();
+  }
+
   /**
    * Handles a listen commit.
    */
@@ -254,7 +327,7 @@ public class GroupState extends ResourceStateMachine implements SessionListener
           members.add(member.info());
         }
       }
-      return new GroupCommands.GroupStatus(term, leader != null ? leader.id() : null, members);
+      return new GroupCommands.GroupStatus(version, term, leader != null ? leader.id() : null, members);
     } finally {
       commit.close();
     }
@@ -265,27 +338,110 @@ public class GroupState extends ResourceStateMachine implements SessionListener
    */
   public void send(Commit<GroupCommands.Message> commit) {
     try {
-      QueueState queue = queues.computeIfAbsent(commit.operation().queue(), t -> new QueueState(members));
-      switch (commit.operation().execution()) {
-        case SYNC:
-          queue.submit(new SyncMessageState(commit, queue));
-          break;
-        case ASYNC:
-          queue.submit(new AsyncMessageState(commit, queue));
-          break;
-        case REQUEST_REPLY:
-          queue.submit(new RequestReplyMessageState(commit, queue));
-          break;
-        default:
-          commit.close();
-          throw new IllegalArgumentException("unknown execution policy");
-      }
+      QueueState queue = queues.computeIfAbsent(commit.operation().queue(), t -> new QueueState(members, this));
+      queue.submit(message(commit, commit.operation(), 0, queue));
     } catch (Exception e) {
       commit.close();
       throw e;
     }
   }
 
+  /**
+   * Handles a message batch commit.
+   * <p>
+   * Each message in the batch is submitted to the queue individually. Message states each hold a reference to the
+   * batch commit, so the commit is retained until all the messages in the batch have been completed.
+   */
+  public void batch(Commit<GroupCommands.MessageBatch> commit) {
+    try {
+      if (commit.operation().size() > MessageState.MAX_BATCH_SIZE) {
+        throw new IllegalArgumentException("batch cannot contain more than " + MessageState.MAX_BATCH_SIZE + " messages");
+      }
+
+      QueueState queue = queues.computeIfAbsent(commit.operation().queue(), t -> new QueueState(members, this));
+      List<GroupCommands.Message> messages = commit.operation().messages();
+      for (int i = 0; i < messages.size(); i++) {
+        MessageState message = message(commit, messages.get(i), i, queue);
+        commit.acquire();
+        queue.submit(message);
+      }
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Creates a message state for the given message according to its execution policy.
+   */
+  private MessageState message(Commit<?> commit, GroupCommands.Message message, int position, QueueState queue) {
+    switch (message.execution()) {
+      case SYNC:
+        return new SyncMessageState(commit, message, position, queue);
+      case ASYNC:
+        return new AsyncMessageState(commit, message, position, queue);
+      case REQUEST_REPLY:
+        return new RequestReplyMessageState(commit, message, position, queue);
+      default:
+        throw new IllegalArgumentException("unknown execution policy");
+    }
+  }
+
+  /**
+   * Schedules a callback on the state machine executor.
+   */
+  Scheduled schedule(Duration delay, Runnable callback) {
+    return executor.schedule(delay, callback);
+  }
+
+  /**
+   * Records the expiration of a message.
+   */
+  void expired() {
+    expired++;
+  }
+
+  /**
+   * Records the hedging of a message.
+   */
+  void hedged() {
+    hedged++;
+  }
+
+  /**
+   * Routes a failed or expired message to its dead-letter queue, if any.
+   */
+  void deadLetter(MessageState message) {
+    String name = message.message.deadLetterQueue();
+    if (name != null && !name.equals(message.queue())) {
+      QueueState queue = queues.computeIfAbsent(name, t -> new QueueState(members, this));
+      deadLettered++;
+      queue.submit(message.deadLetter(queue));
+    }
+  }
+
+  /**
+   * Handles a message statistics query.
+   */
+  public MessageStats stats(Commit<GroupCommands.Stats> commit) {
+    try {
+      return new MessageStats(expired, deadLettered, hedged);
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Handles a credit commit.
+   */
+  public void credit(Commit<GroupCommands.Credit> commit) {
+    MemberState member = members.get(commit.operation().member());
+    if (member != null) {
+      member.credit(commit);
+    } else {
+      commit.close();
+    }
+  }
+
   /**
    * Handles a reply commit.
    */
@@ -40,6 +40,11 @@ public class LocalGroupMember extends AbstractGroupMember implements LocalMember
     return messages;
   }
 
+  @Override
+  public CompletableFuture<Void> updateMetadata(Object metadata) {
+    return group.updateMetadata(memberId, metadata).thenRun(() -> setMetadata(metadata));
+  }
+
   @Override
   public CompletableFuture<Void> leave() {
     return group.remove(memberId);
@@ -15,15 +15,21 @@
  */
 package io.atomix.group.internal;
 
+import io.atomix.catalyst.concurrent.Scheduled;
 import io.atomix.copycat.server.Commit;
 import io.atomix.copycat.server.session.ServerSession;
 import io.atomix.group.messaging.internal.GroupMessage;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
 
 /**
  * Group member state.
+ * <p>
+ * Messages submitted to the member are published to the member's session immediately unless a consumer has
+ * {@link #credit(Commit) granted} a limited number of credits for the message queue. Once the number of
+ * unacknowledged messages published for a queue reaches the queue's credits, additional messages are buffered
+ * by the member and are published as outstanding messages are acknowledged. The number of buffered messages is
+ * bounded, and messages submitted to a member whose buffer is full are rejected.
  *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
@@ -34,15 +40,22 @@ final class MemberState implements AutoCloseable {
   private final boolean persistent;
   private ServerSession session;
   private Object metadata;
+  private Commit<GroupCommands.UpdateMetadata> update;
+  private long updateTime;
+  private Scheduled updateTimer;
+  private final int bufferSize;
   private final Map<Long, MessageState> messages = new LinkedHashMap<>();
+  private final Map<String, Window> windows = new HashMap<>();
+  private int buffered;
 
-  MemberState(Commit<GroupCommands.Join> commit) {
+  MemberState(Commit<GroupCommands.Join> commit, int bufferSize) {
     this.commit = commit;
     this.index = commit.index();
     this.memberId = commit.operation().member();
     this.persistent = commit.operation().persist();
     this.session = commit.session();
     this.metadata = commit.operation().metadata();
+    this.bufferSize = bufferSize;
   }
 
   /**
@@ -80,7 +93,7 @@ final class MemberState implements AutoCloseable {
     this.session = session;
     if (session != null && session.state().active()) {
       for (MessageState message : messages.values()) {
-        session.publish("message", new GroupMessage<>(message.index(), memberId, message.queue(), message.message()));
+        session.publish("message", new GroupMessage<>(message.id(), memberId, message.queue(), message.message()));
       }
     }
   }
@@ -96,13 +109,101 @@ final class MemberState implements AutoCloseable {
     return metadata;
   }
 
+  /**
+   * Updates the member metadata.
+   * <p>
+   * The latest update commit is retained for as long as the member exists so that replaying the log reproduces
+   * the member's metadata.
+   */
+  public void update(Commit<GroupCommands.UpdateMetadata> commit) {
+    if (update != null) {
+      update.close();
+    }
+    update = commit;
+    metadata = commit.operation().metadata();
+  }
+
+  /**
+   * Returns the time at which the member's metadata was last published.
+   */
+  long updateTime() {
+    return updateTime;
+  }
+
+  /**
+   * Sets the time at which the member's metadata was last published.
+   */
+  void setUpdateTime(long updateTime) {
+    this.updateTime = updateTime;
+  }
+
+  /**
+   * Returns the timer for a pending metadata publication.
+   */
+  Scheduled updateTimer() {
+    return updateTimer;
+  }
+
+  /**
+   * Sets the timer for a pending metadata publication.
+   */
+  void setUpdateTimer(Scheduled updateTimer) {
+    this.updateTimer = updateTimer;
+  }
+
+  /**
+   * Returns the number of outstanding messages published to or buffered for the member.
+   */
+  public int load() {
+    return messages.size() + buffered;
+  }
+
   /**
    * Submits the given message to be processed by the member.
+   *
+   * @return Indicates whether the message was accepted by the member. Messages are rejected if the member's
+   * message buffer is full.
+   */
+  public boolean submit(MessageState message) {
+    return submit(message, null);
+  }
+
+  /**
+   * Submits the given message to be processed by the member as part of a broadcast.
+   * <p>
+   * If the message can be published immediately and a {@code sessions} map is provided, the message is not
+   * published to the member's session. Instead, the member's ID is added to the entry for its session so the
+   * caller can publish a single event to each session.
+   *
+   * @return Indicates whether the message was accepted by the member.
    */
-  public void submit(MessageState message) {
-    messages.put(message.index(), message);
+  public boolean submit(MessageState message, Map<ServerSession, List<String>> sessions) {
+    Window window = windows.get(message.queue());
+    if (window == null || window.available()) {
+      publish(message, window, sessions);
+      return true;
+    } else if (buffered < bufferSize) {
+      window.pending.add(message);
+      buffered++;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Publishes the given message to the member's session.
+   */
+  private void publish(MessageState message, Window window, Map<ServerSession, List<String>> sessions) {
+    messages.put(message.id(), message);
+    if (window != null) {
+      window.outstanding++;
+    }
     if (session != null && session.state().active()) {
-      session.publish("message", new GroupMessage<>(message.index(), memberId, message.queue(), message.message()));
+      if (sessions != null) {
+        sessions.computeIfAbsent(session, s -> new ArrayList<>()).add(memberId);
+      } else {
+        session.publish("message", new GroupMessage<>(message.id(), memberId, message.queue(), message.message()));
+      }
     }
   }
 
@@ -110,13 +211,88 @@ final class MemberState implements AutoCloseable {
    * Replies to the message.
    */
   public void reply(MessageState message, GroupCommands.Reply reply) {
-    messages.remove(message.index());
+    remove(message);
     message.reply(reply);
   }
 
+  /**
+   * Removes the given message from the member, releasing its credit if it was published.
+   */
+  public void remove(MessageState message) {
+    Window window = windows.get(message.queue());
+    if (messages.remove(message.id()) != null) {
+      if (window != null) {
+        window.outstanding--;
+        drain(window);
+      }
+    } else if (window != null && window.pending.remove(message)) {
+      buffered--;
+    }
+  }
+
+  /**
+   * Sets the credits for a message queue.
+   * <p>
+   * The credit commit is retained for as long as it's in effect so that replaying the log reproduces the same
+   * flow control state.
+   */
+  public void credit(Commit<GroupCommands.Credit> commit) {
+    Window window = windows.get(commit.operation().queue());
+    if (commit.operation().credits() > 0) {
+      if (window == null) {
+        window = new Window();
+        for (MessageState message : messages.values()) {
+          if (message.queue().equals(commit.operation().queue())) {
+            window.outstanding++;
+          }
+        }
+        windows.put(commit.operation().queue(), window);
+      } else {
+        window.commit.close();
+      }
+      window.commit = commit;
+      drain(window);
+    } else {
+      commit.close();
+      if (window != null) {
+        windows.remove(commit.operation().queue());
+        window.commit.close();
+        window.commit = null;
+        drain(window);
+      }
+    }
+  }
+
+  /**
+   * Publishes buffered messages while the window has credits available.
+   */
+  private void drain(Window window) {
+    while (!window.pending.isEmpty() && window.available()) {
+      buffered--;
+      publish(window.pending.remove(), window, null);
+    }
+  }
+
   @Override
   public void close() {
-    messages.values().forEach(MessageState::expire);
+    List<MessageState> messages = new ArrayList<>(this.messages.values());
+    this.messages.clear();
+    for (Window window : windows.values()) {
+      messages.addAll(window.pending);
+      window.pending.clear();
+      window.commit.close();
+    }
+    windows.clear();
+    buffered = 0;
+    messages.forEach(MessageState::expire);
+    if (updateTimer != null) {
+      updateTimer.cancel();
+      updateTimer = null;
+    }
+    if (update != null) {
+      update.close();
+      update = null;
+    }
     commit.close();
   }
 
@@ -130,4 +306,20 @@ final class MemberState implements AutoCloseable {
     return object instanceof MemberState && ((MemberState) object).id().equals(id());
   }
 
+  /**
+   * Flow control window for a single message queue.
+   */
+  private static class Window {
+    private final Deque<MessageState> pending = new ArrayDeque<>();
+    private Commit<GroupCommands.Credit> commit;
+    private int outstanding;
+
+    /**
+     * Returns whether a message can be published to the queue.
+     */
+    private boolean available() {
+      return commit == null || outstanding < commit.operation().credits();
+    }
+  }
+
 }
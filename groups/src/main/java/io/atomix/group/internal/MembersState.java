@@ -18,11 +18,21 @@ package io.atomix.group.internal;
 import java.util.*;
 
 /**
+ * Group members state.
+ * <p>
+ * In addition to tracking the set of members, the members state provides the member selection strategies used
+ * to deliver messages. All strategies are deterministic so that each replica selects the same member for a given
+ * message. Members are placed on a consistent hash ring with {@link #VIRTUAL_NODES} virtual nodes per member for
+ * key-based routing.
+ *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
 final class MembersState implements Iterable<MemberState>, AutoCloseable {
+  static final int VIRTUAL_NODES = 100;
   private final Map<String, MemberState> membersMap = new HashMap<>();
   private final List<MemberState> membersList = new ArrayList<>();
+  private final TreeMap<Integer, MemberState> ring = new TreeMap<>();
+  private int next;
 
   /**
    * Adds a member to the set of members.
@@ -30,6 +40,98 @@ final class MembersState implements Iterable<MemberState>, AutoCloseable {
   void add(MemberState member) {
     membersMap.put(member.id(), member);
     membersList.add(member);
+    for (int i = 0; i < VIRTUAL_NODES; i++) {
+      ring.put(hash(member.id() + "#" + i), member);
+    }
+  }
+
+  /**
+   * Removes a member from the hash ring.
+   */
+  private void unhash(MemberState member) {
+    for (int i = 0; i < VIRTUAL_NODES; i++) {
+      ring.remove(hash(member.id() + "#" + i), member);
+    }
+  }
+
+  /**
+   * Returns a pseudo-random member selected by the given seed.
+   */
+  MemberState random(long seed) {
+    if (membersList.isEmpty()) {
+      return null;
+    }
+
+    // Mix the seed so sequential seeds are spread evenly across members.
+    long z = seed + 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    z = z ^ (z >>> 31);
+    return membersList.get((int) Math.floorMod(z, (long) membersList.size()));
+  }
+
+  /**
+   * Returns the next member in round-robin order.
+   */
+  MemberState next() {
+    if (membersList.isEmpty()) {
+      return null;
+    }
+    if (next >= membersList.size()) {
+      next = 0;
+    }
+    return membersList.get(next++);
+  }
+
+  /**
+   * Returns the member that owns the given key on the hash ring.
+   */
+  MemberState owner(String key) {
+    if (ring.isEmpty()) {
+      return null;
+    }
+    Map.Entry<Integer, MemberState> entry = ring.ceilingEntry(hash(key));
+    return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+  }
+
+  /**
+   * Returns the member with the fewest outstanding messages.
+   */
+  MemberState leastLoaded() {
+    return leastLoaded(Collections.emptyList());
+  }
+
+  /**
+   * Returns the member with the fewest outstanding messages, excluding the given members.
+   */
+  MemberState leastLoaded(Collection<MemberState> excluded) {
+    MemberState leastLoaded = null;
+    for (MemberState member : membersList) {
+      if (!excluded.contains(member) && (leastLoaded == null || member.load() < leastLoaded.load())) {
+        leastLoaded = member;
+      }
+    }
+    return leastLoaded;
+  }
+
+  /**
+   * Hashes the given string for placement on the hash ring.
+   * <p>
+   * This uses 32-bit FNV-1a followed by a finalization mix to ensure hashes are well distributed and stable
+   * across JVMs.
+   */
+  static int hash(String value) {
+    int hash = 0x811C9DC5;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x01000193;
+    }
+    hash ^= hash >>> 16;
+    hash *= 0x85EBCA6B;
+    hash ^= hash >>> 13;
+    hash *= 0xC2B2AE35;
+    hash ^= hash >>> 16;
+    return hash;
   }
 
   /**
@@ -53,6 +155,7 @@ final class MembersState implements Iterable<MemberState>, AutoCloseable {
     MemberState member = membersMap.remove(id);
     if (member != null) {
       membersList.remove(member);
+      unhash(member);
     }
     return member;
   }
@@ -108,6 +211,7 @@ final class MembersState implements Iterable<MemberState>, AutoCloseable {
       if (member != null) {
         iterator.remove();
         membersMap.remove(member.id());
+        unhash(member);
       }
     }
   }
@@ -18,12 +18,18 @@ package io.atomix.group.internal;
 import io.atomix.catalyst.concurrent.Listener;
 import io.atomix.catalyst.concurrent.Listeners;
 import io.atomix.copycat.client.CopycatClient;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.group.ConsistentHashRing;
 import io.atomix.group.DistributedGroup;
 import io.atomix.group.GroupMember;
 import io.atomix.group.LocalMember;
 import io.atomix.group.election.Election;
 import io.atomix.group.election.internal.GroupElection;
+import io.atomix.group.executor.DistributedExecutor;
+import io.atomix.group.executor.internal.GroupExecutor;
 import io.atomix.group.messaging.MessageClient;
+import io.atomix.group.messaging.MessageStats;
+import io.atomix.group.messaging.internal.GroupBroadcast;
 import io.atomix.group.messaging.internal.GroupMessage;
 import io.atomix.group.messaging.internal.GroupMessageClient;
 import io.atomix.group.messaging.internal.MessageConsumerService;
@@ -32,6 +38,7 @@ import io.atomix.resource.AbstractResource;
 import io.atomix.resource.ResourceType;
 
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
 import java.util.UUID;
@@ -58,8 +65,10 @@ public class MembershipGroup extends AbstractResource<DistributedGroup> implemen
   private final GroupElection election = new GroupElection(this);
   private final GroupMessageClient messages;
   private final Map<String, AbstractGroupMember> members = new ConcurrentHashMap<>();
+  private final Map<Integer, GroupHashRing> rings = new HashMap<>();
   private final MessageProducerService producerService;
   private final MessageConsumerService consumerService;
+  private volatile long version;
 
   public MembershipGroup(CopycatClient client, Properties options) {
     super(client, new ResourceType(DistributedGroup.class), options);
@@ -88,6 +97,59 @@ public class MembershipGroup extends AbstractResource<DistributedGroup> implemen
     return messages;
   }
 
+  @Override
+  public DistributedExecutor executor(String name, DistributedExecutor.Options options) {
+    return new GroupExecutor(name, options, messages);
+  }
+
+  @Override
+  public ConsistentHashRing hashRing() {
+    return hashRing(ConsistentHashRing.DEFAULT_VIRTUAL_NODES);
+  }
+
+  @Override
+  public ConsistentHashRing hashRing(int virtualNodes) {
+    Assert.arg(virtualNodes > 0, "virtualNodes must be positive");
+    synchronized (rings) {
+      GroupHashRing ring = rings.get(virtualNodes);
+      if (ring == null) {
+        ring = new GroupHashRing(virtualNodes);
+        for (GroupMember member : members.values()) {
+          ring.add(member);
+        }
+        rings.put(virtualNodes, ring);
+      }
+      return ring;
+    }
+  }
+
+  /**
+   * Adds a member to all hash rings.
+   */
+  private void addToRings(GroupMember member) {
+    synchronized (rings) {
+      for (GroupHashRing ring : rings.values()) {
+        ring.add(member);
+      }
+    }
+  }
+
+  /**
+   * Removes a member from all hash rings.
+   */
+  private void removeFromRings(GroupMember member) {
+    synchronized (rings) {
+      for (GroupHashRing ring : rings.values()) {
+        ring.remove(member);
+      }
+    }
+  }
+
+  @Override
+  public CompletableFuture<MessageStats> messageStats() {
+    return client.submit(new GroupCommands.Stats());
+  }
+
   @Override
   public GroupMember member(String memberId) {
     return members.get(memberId);
@@ -134,6 +196,7 @@ public class MembershipGroup extends AbstractResource<DistributedGroup> implemen
       if (member == null || !(member instanceof LocalGroupMember)) {
         member = new LocalGroupMember(info, this, producerService, consumerService);
         members.put(info.memberId(), member);
+        addToRings(member);
       }
       return (LocalGroupMember) member;
     });
@@ -147,10 +210,20 @@ public class MembershipGroup extends AbstractResource<DistributedGroup> implemen
   @Override
   public CompletableFuture<Void> remove(String memberId) {
     return client.submit(new GroupCommands.Leave(memberId)).thenRun(() -> {
-      members.remove(memberId);
+      GroupMember member = members.remove(memberId);
+      if (member != null) {
+        removeFromRings(member);
+      }
     });
   }
 
+  /**
+   * Updates the metadata of the given member.
+   */
+  CompletableFuture<Void> updateMetadata(String memberId, Object metadata) {
+    return client.submit(new GroupCommands.UpdateMetadata(memberId, metadata));
+  }
+
   @Override
   public Listener<GroupMember> onLeave(Consumer<GroupMember> listener) {
     return leaveListeners.add(listener);
@@ -159,12 +232,10 @@ public class MembershipGroup extends AbstractResource<DistributedGroup> implemen
   @Override
   public CompletableFuture<DistributedGroup> open() {
     return client.connect().thenApply(result -> {
-      client.onEvent("join", this::onJoinEvent);
-      client.onEvent("leave", this::onLeaveEvent);
+      client.onEvent("delta", this::onDeltaEvent);
       client.onEvent("message", this::onMessageEvent);
+      client.onEvent("broadcast", this::onBroadcastEvent);
       client.onEvent("ack", this::onAckEvent);
-      client.onEvent("term", this::onTermEvent);
-      client.onEvent("elect", this::onElectEvent);
       return result;
     }).thenCompose(v -> sync())
       .thenApply(v -> this);
@@ -175,11 +246,13 @@ public class MembershipGroup extends AbstractResource<DistributedGroup> implemen
    */
   private CompletableFuture<Void> sync() {
     return client.submit(new GroupCommands.Listen()).thenAccept(status-> {
+      version = status.version();
       for (GroupMemberInfo info : status.members()) {
         AbstractGroupMember member = this.members.get(info.memberId());
         if (member == null) {
           member = new RemoteGroupMember(info, this, producerService);
           this.members.put(member.id(), member);
+          addToRings(member);
         }
       }
 
@@ -194,9 +267,41 @@ public class MembershipGroup extends AbstractResource<DistributedGroup> implemen
   }
 
   /**
-   * Handles a join event received from the cluster.
+   * Handles a membership delta event received from the cluster.
+   * <p>
+   * Deltas coalesce all the membership changes resulting from a single operation in the cluster and are applied
+   * in bulk. Deltas that are already reflected in the group's state are ignored.
+   */
+  private void onDeltaEvent(GroupCommands.MembershipDelta delta) {
+    if (delta.version() <= version) {
+      return;
+    }
+    version = delta.version();
+
+    if (delta.term() != 0) {
+      election.onTerm(delta.term());
+    }
+    for (String memberId : delta.left()) {
+      onLeave(memberId);
+    }
+    for (GroupMemberInfo info : delta.joined()) {
+      onJoin(info);
+    }
+    for (GroupMemberInfo info : delta.updated()) {
+      AbstractGroupMember member = members.get(info.memberId());
+      if (member != null) {
+        member.setMetadata(info.metadata());
+      }
+    }
+    if (delta.leader() != null) {
+      onElect(delta.leader());
+    }
+  }
+
+  /**
+   * Handles a member joining the group.
    */
-  private void onJoinEvent(GroupMemberInfo info) {
+  private void onJoin(GroupMemberInfo info) {
     // If the join event was for a local member, the local member is guaranteed to have already
     // been created since responses will always be received before events. Therefore, if the member
     // is null we can create a remote member. If the member is a local member, only call join listeners.
@@ -206,18 +311,22 @@ public class MembershipGroup extends AbstractResource<DistributedGroup> implemen
     if (member == null) {
       member = new RemoteGroupMember(info, this, producerService);
       members.put(info.memberId(), member);
+      addToRings(member);
       joinListeners.accept(member);
     } else if (member instanceof LocalGroupMember) {
+      addToRings(member);
       joinListeners.accept(member);
     }
   }
 
   /**
-   * Handles a leave event received from the cluster.
+   * Handles a member leaving the group.
    */
-  private void onLeaveEvent(String memberId) {
+  private void onLeave(String memberId) {
     GroupMember member = members.remove(memberId);
     if (member != null) {
+      removeFromRings(member);
+
       // Trigger leave listeners.
       leaveListeners.accept(member);
     }
@@ -232,23 +341,23 @@ public class MembershipGroup extends AbstractResource<DistributedGroup> implemen
   }
 
   /**
-   * Handles an ack event received from the cluster.
+   * Handles a broadcast event received from the cluster.
    */
-  private void onAckEvent(GroupCommands.Ack ack) {
-    producerService.onAck(ack);
+  private void onBroadcastEvent(GroupBroadcast broadcast) {
+    consumerService.onBroadcast(broadcast);
   }
 
   /**
-   * Handles a term change event.
+   * Handles an ack event received from the cluster.
    */
-  private void onTermEvent(long term) {
-    election.onTerm(term);
+  private void onAckEvent(GroupCommands.Ack ack) {
+    producerService.onAck(ack);
   }
 
   /**
-   * Handles an elect event.
+   * Handles a leader election.
    */
-  private void onElectEvent(String memberId) {
+  private void onElect(String memberId) {
     AbstractGroupMember member = members.get(memberId);
     if (member != null) {
       election.onElection(member);
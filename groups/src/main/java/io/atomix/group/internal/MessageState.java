@@ -15,37 +15,68 @@
  */
 package io.atomix.group.internal;
 
+import io.atomix.catalyst.concurrent.Scheduled;
 import io.atomix.copycat.server.Commit;
 import io.atomix.copycat.server.session.ServerSession;
 import io.atomix.group.messaging.MessageProducer;
+import io.atomix.group.messaging.internal.GroupBroadcast;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Group message state.
+ * <p>
+ * Messages may be submitted individually or as part of a {@link GroupCommands.MessageBatch batch}, in which case
+ * all the messages in the batch share a single commit. Each message state holds its own reference to the commit,
+ * and message IDs are derived from the commit index and the message's position within the commit so that IDs
+ * remain unique and monotonically increasing within a queue.
+ * <p>
+ * Messages with a time to live are {@link #timeout() timed out} by the queue once the TTL expires, at which point
+ * they're withdrawn from all recipients. Messages that time out or fail may be routed to a
+ * {@link #deadLetter(QueueState) dead-letter queue}. Messages with a hedge delay are {@link #hedge(MembersState)
+ * hedged} by the queue once the delay expires, sending the message to an additional member.
+ * <p>
+ * Broadcast messages are {@link #broadcast(MembersState) published} once per session rather than once per member.
+ * Members that share a session are delivered a single event listing all their IDs, and the client fans the
+ * message out to its local members.
  *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
 abstract class MessageState implements AutoCloseable {
-  protected final Commit<GroupCommands.Message> commit;
+  static final int MAX_BATCH_SIZE = 1 << 16;
+  protected final Commit<?> commit;
+  protected final GroupCommands.Message message;
   protected final QueueState queue;
+  private final int position;
+  private final long id;
+  private final List<MemberState> recipients = new ArrayList<>();
+  private Scheduled timer;
+  private Scheduled hedgeTimer;
   private boolean complete;
 
-  protected MessageState(Commit<GroupCommands.Message> commit, QueueState queue) {
+  protected MessageState(Commit<?> commit, GroupCommands.Message message, int position, QueueState queue) {
     this.commit = commit;
+    this.message = message;
     this.queue = queue;
+    this.position = position;
+    this.id = commit.index() * MAX_BATCH_SIZE + position;
   }
 
   /**
    * Returns the message queue.
    */
   public String queue() {
-    return commit.operation().queue();
+    return message.queue();
   }
 
   /**
-   * Returns the message index.
+   * Returns the message ID.
    */
-  public long index() {
-    return commit.index();
+  public long id() {
+    return id;
   }
 
   /**
@@ -59,14 +90,114 @@ abstract class MessageState implements AutoCloseable {
    * Returns the message value.
    */
   public Object message() {
-    return commit.operation().message();
+    return message.message();
   }
 
   /**
    * Returns the message delivery policy.
    */
   public MessageProducer.Execution execution() {
-    return commit.operation().execution();
+    return message.execution();
+  }
+
+  /**
+   * Returns the message time to live.
+   */
+  public long ttl() {
+    return message.ttl();
+  }
+
+  /**
+   * Returns the delay after which to hedge the message.
+   */
+  public long hedge() {
+    return message.hedge();
+  }
+
+  /**
+   * Sets the timer that expires the message.
+   */
+  void setTimer(Scheduled timer) {
+    this.timer = timer;
+  }
+
+  /**
+   * Sets the timer that hedges the message.
+   */
+  void setHedgeTimer(Scheduled hedgeTimer) {
+    this.hedgeTimer = hedgeTimer;
+  }
+
+  /**
+   * Selects the member to which to send a message that's delivered to a single member.
+   *
+   * @return The selected member or {@code null} if no member is available.
+   */
+  protected MemberState select(MembersState members) {
+    if (message.member() != null) {
+      return members.get(message.member());
+    }
+
+    switch (message.delivery()) {
+      case RANDOM:
+        return members.random(id);
+      case ROUND_ROBIN:
+        return members.next();
+      case KEY_HASH:
+        return message.key() != null ? members.owner(message.key()) : members.random(id);
+      case LEAST_LOADED:
+        return members.leastLoaded();
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Selects an additional member to which to send a hedged message.
+   *
+   * @return The least loaded member that is not already a recipient of the message or {@code null} if no
+   * member is available.
+   */
+  protected MemberState selectHedge(MembersState members) {
+    return members.leastLoaded(recipients);
+  }
+
+  /**
+   * Submits the message to the given member.
+   *
+   * @return Indicates whether the member accepted the message.
+   */
+  protected boolean submit(MemberState member) {
+    if (member.submit(this)) {
+      recipients.add(member);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Submits the message to all the given members.
+   * <p>
+   * Members that can receive the message immediately are grouped by session, and a single broadcast event
+   * carrying the IDs of the session's target members is published to each session.
+   *
+   * @return The number of members that rejected the message.
+   */
+  protected int broadcast(MembersState members) {
+    Map<ServerSession, List<String>> sessions = new LinkedHashMap<>();
+    int rejected = 0;
+    for (MemberState member : members) {
+      if (member.submit(this, sessions)) {
+        recipients.add(member);
+      } else {
+        rejected++;
+      }
+    }
+
+    for (Map.Entry<ServerSession, List<String>> entry : sessions.entrySet()) {
+      entry.getKey().publish("broadcast", new GroupBroadcast<>(id, entry.getValue(), queue(), message()));
+    }
+    return rejected;
   }
 
   /**
@@ -84,12 +215,64 @@ abstract class MessageState implements AutoCloseable {
    */
   public abstract void expire();
 
+  /**
+   * Sends the message to an additional member if it has not yet been completed.
+   *
+   * @return Indicates whether the message was hedged.
+   */
+  public boolean hedge(MembersState members) {
+    return false;
+  }
+
+  /**
+   * Withdraws the message from all recipients that have not yet replied.
+   */
+  protected void withdraw() {
+    for (MemberState member : recipients) {
+      member.remove(this);
+    }
+    recipients.clear();
+  }
+
+  /**
+   * Times out the message, withdrawing it from all recipients that have not yet replied.
+   */
+  public void timeout() {
+    withdraw();
+    if (execution() != MessageProducer.Execution.ASYNC) {
+      sendReply(false, true, null);
+    }
+  }
+
+  /**
+   * Creates a copy of the message to be sent to the message's dead-letter queue.
+   * <p>
+   * Dead-lettered messages are delivered asynchronously to a random member of the dead-letter queue and are
+   * never themselves dead-lettered or expired. The copy holds its own reference to the message commit.
+   *
+   * @param queue The dead-letter queue.
+   * @return The dead-lettered message.
+   */
+  public MessageState deadLetter(QueueState queue) {
+    GroupCommands.Message deadLetter = new GroupCommands.Message(null, message.producer(), message.deadLetterQueue(), message.id(),
+      null, message.message(), MessageProducer.Delivery.RANDOM, MessageProducer.Execution.ASYNC, 0, 0, null);
+    commit.acquire();
+    return new AsyncMessageState(commit, deadLetter, position, queue);
+  }
+
   /**
    * Sends a response back to the message submitter.
    */
   protected boolean sendReply(boolean succeeded, Object message) {
+    return sendReply(succeeded, false, message);
+  }
+
+  /**
+   * Sends a response back to the message submitter, indicating whether the message timed out.
+   */
+  protected boolean sendReply(boolean succeeded, boolean timedOut, Object message) {
     if (!complete && session().state().active()) {
-      session().publish("ack", new GroupCommands.Ack(commit.operation().member(), commit.operation().producer(), commit.operation().queue(), commit.operation().id(), succeeded, message));
+      session().publish("ack", new GroupCommands.Ack(this.message.member(), this.message.producer(), this.message.queue(), this.message.id(), succeeded, timedOut, message));
       complete = true;
       return true;
     }
@@ -98,6 +281,14 @@ abstract class MessageState implements AutoCloseable {
 
   @Override
   public void close() {
+    if (timer != null) {
+      timer.cancel();
+      timer = null;
+    }
+    if (hedgeTimer != null) {
+      hedgeTimer.cancel();
+      hedgeTimer = null;
+    }
     commit.close();
   }
 
@@ -15,6 +15,7 @@
  */
 package io.atomix.group.internal;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -26,22 +27,55 @@ import java.util.Map;
 final class QueueState implements AutoCloseable {
   private final Map<Long, MessageState> messages = new HashMap<>();
   private final MembersState members;
+  private final GroupState group;
 
-  QueueState(MembersState members) {
+  QueueState(MembersState members, GroupState group) {
     this.members = members;
+    this.group = group;
   }
 
   /**
    * Submits the given commit to the queue.
+   * <p>
+   * If the message has a time to live, it's expired by the state machine once the TTL has elapsed in logical
+   * time, so the message expires at the same point in the log on every replica. Likewise, messages with a hedge
+   * delay are hedged once the delay has elapsed in logical time.
    */
   public void submit(MessageState message) {
     if (message.send(members)) {
-      messages.put(message.index(), message);
+      messages.put(message.id(), message);
+      if (message.ttl() > 0) {
+        message.setTimer(group.schedule(Duration.ofMillis(message.ttl()), () -> expire(message)));
+      }
+      if (message.hedge() > 0) {
+        message.setHedgeTimer(group.schedule(Duration.ofMillis(message.hedge()), () -> hedge(message)));
+      }
     } else {
+      fail(message);
+    }
+  }
+
+  /**
+   * Expires the given message.
+   */
+  private void expire(MessageState message) {
+    if (messages.remove(message.id()) != null) {
+      group.expired();
+      message.timeout();
+      group.deadLetter(message);
       message.close();
     }
   }
 
+  /**
+   * Hedges the given message if it's still outstanding.
+   */
+  private void hedge(MessageState message) {
+    if (messages.containsKey(message.id()) && message.hedge(members)) {
+      group.hedged();
+    }
+  }
+
   /**
    * Replies to the given message.
    */
@@ -55,11 +89,20 @@ final class QueueState implements AutoCloseable {
     }
   }
 
+  /**
+   * Fails the given message, routing it to its dead-letter queue if one is configured.
+   */
+  public void fail(MessageState message) {
+    messages.remove(message.id());
+    group.deadLetter(message);
+    message.close();
+  }
+
   /**
    * Closes the given message.
    */
   public void close(MessageState message) {
-    messages.remove(message.index());
+    messages.remove(message.id());
     message.close();
   }
 
@@ -21,79 +21,104 @@ import io.atomix.group.messaging.MessageProducer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
 
 /**
  * Request-reply message state.
+ * <p>
+ * A message sent to a single member may be {@link #hedge(MembersState) hedged} to a second member if the first
+ * member has not replied within the message's hedge delay. The first successful reply completes the message and
+ * withdraws it from the other recipient, and the message fails only once all recipients have failed.
  *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
 class RequestReplyMessageState extends MessageState {
   private int ack;
   private int fail;
+  private int pending;
   private List<Object> replies;
 
-  public RequestReplyMessageState(Commit<GroupCommands.Message> commit, QueueState queue) {
-    super(commit, queue);
+  public RequestReplyMessageState(Commit<?> commit, GroupCommands.Message message, int position, QueueState queue) {
+    super(commit, message, position, queue);
   }
 
   @Override
   public boolean send(MembersState members) {
-    if (commit.operation().delivery() == MessageProducer.Delivery.DIRECT) {
-      MemberState member = members.get(commit.operation().member());
-      if (member != null) {
-        member.submit(this);
-        return true;
-      } else {
-        sendReply(false, null);
+    if (message.delivery() == MessageProducer.Delivery.BROADCAST) {
+      this.replies = new ArrayList<>(Collections.nCopies(members.size(), null));
+      fail += broadcast(members);
+      if (fail == replies.size()) {
+        sendReply(false, replies);
         return false;
       }
-    } else if (commit.operation().delivery() == MessageProducer.Delivery.RANDOM) {
-      if (members.isEmpty()) {
+      return true;
+    } else {
+      MemberState member = select(members);
+      if (member != null && submit(member)) {
+        pending++;
+        return true;
+      } else {
         sendReply(false, null);
         return false;
-      } else {
-        members.get(new Random(commit.operation().id()).nextInt(members.size())).submit(this);
-        return true;
       }
-    } else if (commit.operation().delivery() == MessageProducer.Delivery.BROADCAST) {
-      this.replies = new ArrayList<>(Collections.nCopies(members.size(), null));
-      members.forEach(m -> m.submit(this));
-      return true;
-    } else {
-      sendReply(false, null);
+    }
+  }
+
+  @Override
+  public boolean hedge(MembersState members) {
+    if (message.delivery() == MessageProducer.Delivery.BROADCAST || message.member() != null || pending == 0) {
       return false;
     }
+
+    MemberState member = selectHedge(members);
+    if (member != null && submit(member)) {
+      pending++;
+      return true;
+    }
+    return false;
   }
 
   @Override
   public void reply(GroupCommands.Reply reply) {
-    if (commit.operation().delivery() == MessageProducer.Delivery.DIRECT || commit.operation().delivery() == MessageProducer.Delivery.RANDOM) {
-      sendReply(reply.succeeded(), reply.message());
-    } else if (commit.operation().delivery() == MessageProducer.Delivery.BROADCAST) {
+    if (message.delivery() != MessageProducer.Delivery.BROADCAST) {
+      if (reply.succeeded()) {
+        sendReply(true, reply.message());
+        withdraw();
+        queue.close(this);
+      } else if (--pending == 0) {
+        sendReply(false, reply.message());
+        queue.fail(this);
+      }
+    } else {
       if (reply.succeeded()) {
-        ack++;
         replies.set(ack + fail, reply.message());
+        ack++;
       } else {
         fail++;
       }
 
       if (ack + fail == replies.size()) {
         sendReply(fail == 0, replies);
-        queue.close(this);
+        if (fail == 0) {
+          queue.close(this);
+        } else {
+          queue.fail(this);
+        }
       }
     }
   }
 
   @Override
   public void expire() {
-    if (commit.operation().delivery() == MessageProducer.Delivery.DIRECT || commit.operation().delivery() == MessageProducer.Delivery.RANDOM) {
-      sendReply(false, null);
-    } else if (commit.operation().delivery() == MessageProducer.Delivery.BROADCAST) {
+    if (message.delivery() != MessageProducer.Delivery.BROADCAST) {
+      if (--pending <= 0) {
+        sendReply(false, null);
+        queue.fail(this);
+      }
+    } else {
       fail++;
       if (ack + fail == replies.size()) {
         sendReply(false, replies);
-        queue.close(this);
+        queue.fail(this);
       }
     }
   }
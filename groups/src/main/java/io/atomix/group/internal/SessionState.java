@@ -17,13 +17,27 @@ package io.atomix.group.internal;
 
 import io.atomix.copycat.server.session.ServerSession;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Group session state.
+ * <p>
+ * Membership changes are accumulated by the session rather than being published immediately. Once the state
+ * machine has finished applying an operation, it {@link #flush(long) flushes} each session, publishing all the
+ * session's pending changes as a single {@link GroupCommands.MembershipDelta delta} event.
  *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
 final class SessionState {
   private final ServerSession session;
+  private List<String> left = new ArrayList<>();
+  private List<GroupMemberInfo> joined = new ArrayList<>();
+  private Map<String, GroupMemberInfo> updated = new LinkedHashMap<>();
+  private long term;
+  private String leader;
 
   SessionState(ServerSession session) {
     this.session = session;
@@ -37,38 +51,61 @@ final class SessionState {
   }
 
   /**
-   * Sends a join event to the session for the given member.
+   * Records a join for the given member.
    */
   public void join(MemberState member) {
-    if (session.state().active()) {
-      session.publish("join", member.info());
-    }
+    joined.add(member.info());
   }
 
   /**
-   * Sends a leave event to the session for the given member.
+   * Records a leave for the given member.
    */
   public void leave(MemberState member) {
-    if (session.state().active()) {
-      session.publish("leave", member.id());
-    }
+    left.add(member.id());
+  }
+
+  /**
+   * Records a metadata update for the given member.
+   */
+  public void update(MemberState member) {
+    updated.put(member.id(), member.info());
   }
 
   /**
-   * Sends a term event to the session for the given member.
+   * Records a term change.
    */
   public void term(long term) {
-    if (session.state().active()) {
-      session.publish("term", term);
-    }
+    this.term = term;
+    this.leader = null;
   }
 
   /**
-   * Sends an elect event to the session for the given member.
+   * Records a leader election.
    */
   public void elect(MemberState member) {
-    if (session.state().active()) {
-      session.publish("elect", member.id());
+    this.leader = member.id();
+  }
+
+  /**
+   * Returns a boolean indicating whether the session has pending membership changes.
+   */
+  public boolean changed() {
+    return term != 0 || leader != null || !left.isEmpty() || !joined.isEmpty() || !updated.isEmpty();
+  }
+
+  /**
+   * Publishes pending membership changes to the session as a single delta event.
+   */
+  public void flush(long version) {
+    if (changed()) {
+      if (session.state().active()) {
+        session.publish("delta", new GroupCommands.MembershipDelta(version, term, left, joined, new ArrayList<>(updated.values()), leader));
+      }
+      left = new ArrayList<>();
+      joined = new ArrayList<>();
+      updated = new LinkedHashMap<>();
+      term = 0;
+      leader = null;
     }
   }
 
@@ -18,7 +18,6 @@ package io.atomix.group.internal;
 import io.atomix.copycat.server.Commit;
 import io.atomix.group.messaging.MessageProducer;
 
-import java.util.Random;
 
 /**
  * Synchronous message state.
@@ -30,41 +29,34 @@ class SyncMessageState extends MessageState {
   private int ack;
   private int fail;
 
-  public SyncMessageState(Commit<GroupCommands.Message> commit, QueueState queue) {
-    super(commit, queue);
+  public SyncMessageState(Commit<?> commit, GroupCommands.Message message, int position, QueueState queue) {
+    super(commit, message, position, queue);
   }
 
   @Override
   public boolean send(MembersState members) {
-    if (commit.operation().member() != null) {
-      MemberState member = members.get(commit.operation().member());
-      if (member != null) {
-        member.submit(this);
-        return true;
-      } else {
-        sendReply(false, null);
-        return false;
-      }
-    } else if (commit.operation().delivery() == MessageProducer.Delivery.RANDOM) {
+    if (message.member() == null && message.delivery() == MessageProducer.Delivery.BROADCAST) {
       if (members.isEmpty()) {
         sendReply(false, null);
         return false;
       } else {
-        members.get(new Random(commit.operation().id()).nextInt(members.size())).submit(this);
+        // Members whose message buffers are full reject the message and are counted as failures.
+        this.members = members.size();
+        fail += broadcast(members);
+        if (fail == this.members) {
+          sendReply(false, null);
+          return false;
+        }
         return true;
       }
-    } else if (commit.operation().delivery() == MessageProducer.Delivery.BROADCAST) {
-      if (members.isEmpty()) {
+    } else {
+      MemberState member = select(members);
+      if (member != null && submit(member)) {
+        return true;
+      } else {
         sendReply(false, null);
         return false;
-      } else {
-        this.members = members.size();
-        members.forEach(m -> m.submit(this));
-        return true;
       }
-    } else {
-      sendReply(false, null);
-      return false;
     }
   }
 
@@ -79,10 +71,11 @@ class SyncMessageState extends MessageState {
     if (ack + fail == members) {
       if (fail == 0) {
         sendReply(true, null);
+        queue.close(this);
       } else {
         sendReply(false, null);
+        queue.fail(this);
       }
-      queue.close(this);
     }
   }
 
@@ -91,7 +84,7 @@ class SyncMessageState extends MessageState {
     fail++;
     if (ack + fail == members) {
       sendReply(false, null);
-      queue.close(this);
+      queue.fail(this);
     }
   }
 
@@ -16,6 +16,7 @@
 package io.atomix.group.messaging;
 
 import io.atomix.catalyst.concurrent.Listener;
+import io.atomix.catalyst.util.Assert;
 
 import java.util.function.Consumer;
 
@@ -49,6 +50,37 @@ public interface MessageConsumer<T> extends AutoCloseable {
    * Message consumer options.
    */
   class Options {
+    private int credits;
+
+    /**
+     * Sets the maximum number of unacknowledged messages the consumer can receive.
+     * <p>
+     * Credits provide flow control for slow consumers. Once the consumer has received {@code credits} messages
+     * that have not been {@link Message#ack() acknowledged} or {@link Message#reply(Object) replied to}, the
+     * cluster stops publishing messages to the consumer's member and buffers them until outstanding messages are
+     * acknowledged. The number of messages buffered in the cluster for each member is bounded by the group's
+     * {@link io.atomix.group.DistributedGroup.Config#withMessageBufferSize(int) message buffer size}, and messages
+     * sent to a member whose buffer is full are failed. Defaults to {@code 0}, which does not limit the number
+     * of messages published to the consumer.
+     *
+     * @param credits The maximum number of unacknowledged messages the consumer can receive.
+     * @return The consumer options.
+     * @throws IllegalArgumentException if the number of credits is negative
+     */
+    public Options withCredits(int credits) {
+      Assert.arg(credits >= 0, "credits cannot be negative");
+      this.credits = credits;
+      return this;
+    }
+
+    /**
+     * Returns the maximum number of unacknowledged messages the consumer can receive.
+     *
+     * @return The maximum number of unacknowledged messages the consumer can receive, or {@code 0} if unlimited.
+     */
+    public int getCredits() {
+      return credits;
+    }
   }
 
   /**
@@ -17,6 +17,7 @@ package io.atomix.group.messaging;
 
 import io.atomix.catalyst.util.Assert;
 
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -43,6 +44,11 @@ import java.util.concurrent.CompletableFuture;
  *   });
  *   }
  * </pre>
+ * Producers can optionally {@link Options#withBatchSize(int) batch} messages. Batching producers buffer messages
+ * locally and write them to the cluster as a single command once the batch is full or the configured
+ * {@link Options#withLinger(Duration) linger} time has elapsed, reducing the number of writes to the cluster
+ * for high-throughput producers. Messages in a batch are still delivered and acknowledged individually.
+ * <p>
  * The configured {@link io.atomix.group.messaging.MessageProducer.Execution Execution} defines the criteria for
  * completion of messages sent by a producer.
  * <ul>
@@ -68,6 +74,12 @@ import java.util.concurrent.CompletableFuture;
  *   <li>{@link io.atomix.group.messaging.MessageProducer.Delivery#BROADCAST} producers send messages to all available
  *   members of a group. This option applies only to producers constructed from {@link io.atomix.group.DistributedGroup}
  *   messaging clients.</li>
+ *   <li>{@link io.atomix.group.messaging.MessageProducer.Delivery#ROUND_ROBIN ROUND_ROBIN} producers send each message
+ *   to the next member of the group in turn.</li>
+ *   <li>{@link io.atomix.group.messaging.MessageProducer.Delivery#KEY_HASH KEY_HASH} producers send each message to
+ *   the member that owns the message's {@link #send(String, Object) key} on a consistent hash ring.</li>
+ *   <li>{@link io.atomix.group.messaging.MessageProducer.Delivery#LEAST_LOADED LEAST_LOADED} producers send each
+ *   message to the member with the fewest outstanding messages.</li>
  * </ul>
  *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
@@ -132,6 +144,12 @@ public interface MessageProducer<T> extends AutoCloseable {
    *   <li>{@link io.atomix.group.messaging.MessageProducer.Delivery#BROADCAST} producers send messages to all available
    *   members of a group. This option applies only to producers constructed from {@link io.atomix.group.DistributedGroup}
    *   messaging clients.</li>
+   *   <li>{@link io.atomix.group.messaging.MessageProducer.Delivery#ROUND_ROBIN ROUND_ROBIN} producers send each message
+   *   to the next member of the group in turn.</li>
+   *   <li>{@link io.atomix.group.messaging.MessageProducer.Delivery#KEY_HASH KEY_HASH} producers send each message to
+   *   the member that owns the message's key on a consistent hash ring.</li>
+   *   <li>{@link io.atomix.group.messaging.MessageProducer.Delivery#LEAST_LOADED LEAST_LOADED} producers send each
+   *   message to the member with the fewest outstanding messages.</li>
    * </ul>
    */
   enum Delivery {
@@ -153,6 +171,27 @@ public interface MessageProducer<T> extends AutoCloseable {
      * {@link io.atomix.group.DistributedGroup} messaging clients.
      */
     BROADCAST,
+
+    /**
+     * Sends each message to the next member of the group in turn. Members are ordered by the order in which they
+     * joined the group, so messages are evenly spread across members regardless of their content.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Sends each message to the member that owns the message's {@link MessageProducer#send(String, Object) key}.
+     * Keys are mapped to members via a consistent hash ring, so messages with the same key are delivered to the
+     * same member for as long as it remains in the group, and only a small fraction of keys are remapped when
+     * members join or leave the group. Messages sent without a key are delivered to a random member.
+     */
+    KEY_HASH,
+
+    /**
+     * Sends each message to the member with the fewest outstanding messages, i.e. messages that have been
+     * delivered to or are buffered for the member but not yet acknowledged. Ties are broken in favor of the
+     * member that joined the group first.
+     */
+    LEAST_LOADED,
   }
 
   /**
@@ -164,6 +203,11 @@ public interface MessageProducer<T> extends AutoCloseable {
   class Options {
     private Delivery delivery = Delivery.BROADCAST;
     private Execution execution = Execution.SYNC;
+    private int batchSize = 1;
+    private Duration linger = Duration.ZERO;
+    private Duration ttl = Duration.ZERO;
+    private Duration hedgeDelay = Duration.ZERO;
+    private String deadLetterQueue;
 
     /**
      * Sets the producer delivery policy.
@@ -204,6 +248,153 @@ public interface MessageProducer<T> extends AutoCloseable {
     public Execution getExecution() {
       return execution;
     }
+
+    /**
+     * Sets the maximum number of messages to write to the cluster in a single batch.
+     * <p>
+     * When the batch size is greater than {@code 1}, messages sent by the producer are buffered locally and
+     * written to the cluster together once the batch is full or the {@link #withLinger(Duration) linger} time
+     * has elapsed. Each message in a batch is still delivered and acknowledged individually, and futures returned
+     * by the producer are completed according to the configured {@link Execution} policy for each message.
+     * Defaults to {@code 1}, which disables batching.
+     *
+     * @param batchSize The maximum number of messages in a batch.
+     * @return The producer options.
+     * @throws IllegalArgumentException if the batch size is not positive or is greater than {@code 65536}
+     */
+    public Options withBatchSize(int batchSize) {
+      Assert.arg(batchSize > 0, "batchSize must be positive");
+      Assert.arg(batchSize <= 65536, "batchSize cannot be greater than 65536");
+      this.batchSize = batchSize;
+      return this;
+    }
+
+    /**
+     * Returns the maximum number of messages in a batch.
+     *
+     * @return The maximum number of messages in a batch.
+     */
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    /**
+     * Sets the maximum amount of time for which to buffer messages before writing a batch to the cluster.
+     * <p>
+     * The linger time applies only if the {@link #withBatchSize(int) batch size} is greater than {@code 1}. A
+     * batch is written to the cluster once it's full or once the linger time has elapsed since the first message
+     * was added to it, whichever comes first. If the linger time is zero, messages sent in quick succession are
+     * batched together but are written to the cluster without delay. Defaults to zero.
+     *
+     * @param linger The maximum amount of time for which to buffer messages.
+     * @return The producer options.
+     * @throws NullPointerException if the linger time is {@code null}
+     * @throws IllegalArgumentException if the linger time is negative
+     */
+    public Options withLinger(Duration linger) {
+      Assert.arg(!Assert.notNull(linger, "linger").isNegative(), "linger cannot be negative");
+      this.linger = linger;
+      return this;
+    }
+
+    /**
+     * Returns the maximum amount of time for which to buffer messages.
+     *
+     * @return The maximum amount of time for which to buffer messages.
+     */
+    public Duration getLinger() {
+      return linger;
+    }
+
+    /**
+     * Sets the time to live for messages sent by the producer.
+     * <p>
+     * Since each producer sends messages to a single queue, the TTL applies to all messages sent to the queue by
+     * the producer. Producers sending to the same queue may use different TTLs. If a message has not been
+     * acknowledged by all of its recipients before the TTL expires, the message is withdrawn from any recipients
+     * that have not yet received it, the message is failed, and it's routed to the configured
+     * {@link #withDeadLetterQueue(String) dead-letter queue} if any. TTLs are enforced by the cluster in logical
+     * time, so a message expires at the same point in the log on every server. For {@link Execution#SYNC SYNC}
+     * and {@link Execution#REQUEST_REPLY REQUEST_REPLY} producers, the TTL acts as a per-message timeout, and the
+     * futures of expired messages are completed with a {@link MessageTimeoutException}. Defaults to zero, meaning
+     * messages never expire.
+     *
+     * @param ttl The message time to live.
+     * @return The producer options.
+     * @throws NullPointerException if the TTL is {@code null}
+     * @throws IllegalArgumentException if the TTL is negative
+     */
+    public Options withTtl(Duration ttl) {
+      Assert.arg(!Assert.notNull(ttl, "ttl").isNegative(), "ttl cannot be negative");
+      this.ttl = ttl;
+      return this;
+    }
+
+    /**
+     * Returns the time to live for messages sent by the producer.
+     *
+     * @return The message time to live.
+     */
+    public Duration getTtl() {
+      return ttl;
+    }
+
+    /**
+     * Sets the delay after which to hedge request-reply messages.
+     * <p>
+     * Hedging applies only to {@link Execution#REQUEST_REPLY REQUEST_REPLY} messages sent to a single member of
+     * the group. If the member to which a message was sent has not replied once the hedge delay has elapsed, the
+     * cluster sends the same message to the least loaded of the remaining members, and the first successful
+     * reply completes the message. Once a reply is received, the message is withdrawn from the other member.
+     * Hedging bounds the latency added by a single slow consumer at the cost of processing some messages twice,
+     * so it should only be used for idempotent requests. The delay is enforced by the cluster in logical time.
+     * Defaults to zero, meaning messages are not hedged.
+     *
+     * @param hedgeDelay The delay after which to send a message to a second member.
+     * @return The producer options.
+     * @throws NullPointerException if the hedge delay is {@code null}
+     * @throws IllegalArgumentException if the hedge delay is negative
+     */
+    public Options withHedgeDelay(Duration hedgeDelay) {
+      Assert.arg(!Assert.notNull(hedgeDelay, "hedgeDelay").isNegative(), "hedgeDelay cannot be negative");
+      this.hedgeDelay = hedgeDelay;
+      return this;
+    }
+
+    /**
+     * Returns the delay after which to hedge request-reply messages.
+     *
+     * @return The delay after which to send a message to a second member.
+     */
+    public Duration getHedgeDelay() {
+      return hedgeDelay;
+    }
+
+    /**
+     * Sets the queue to which to route messages that expire or fail.
+     * <p>
+     * Messages are dead-lettered if their {@link #withTtl(Duration) TTL} expires, if they cannot be delivered to
+     * any member, or if any recipient {@link Message#fail() fails} the message or leaves the group before
+     * acknowledging it. Dead-lettered messages are delivered asynchronously to a random member consuming the
+     * dead-letter queue, and are discarded if no members are available. Defaults to {@code null}, meaning
+     * failed messages are discarded.
+     *
+     * @param deadLetterQueue The name of the dead-letter queue.
+     * @return The producer options.
+     */
+    public Options withDeadLetterQueue(String deadLetterQueue) {
+      this.deadLetterQueue = deadLetterQueue;
+      return this;
+    }
+
+    /**
+     * Returns the queue to which to route messages that expire or fail.
+     *
+     * @return The name of the dead-letter queue or {@code null} if failed messages are discarded.
+     */
+    public String getDeadLetterQueue() {
+      return deadLetterQueue;
+    }
   }
 
   /**
@@ -230,6 +421,20 @@ public interface MessageProducer<T> extends AutoCloseable {
    */
   <U> CompletableFuture<U> send(T message);
 
+  /**
+   * Sends a message with the given key.
+   * <p>
+   * The message key is used to route the message to a member of the group when the producer is configured with
+   * {@link io.atomix.group.messaging.MessageProducer.Delivery#KEY_HASH KEY_HASH} delivery. Messages sent with the
+   * same key are delivered to the same member for as long as that member remains in the group. For other delivery
+   * policies, the key is ignored.
+   *
+   * @param key The message key.
+   * @param message The message to send.
+   * @return A completable future to be completed once the message has been acknowledged.
+   */
+  <U> CompletableFuture<U> send(String key, T message);
+
   /**
    * Closes the producer.
    */
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.group.messaging;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+
+/**
+ * Group messaging statistics.
+ * <p>
+ * Statistics are maintained in memory by the cluster and reflect the messages processed since the group's
+ * state machine was created on the server that answered the query. They're intended for monitoring rather
+ * than for coordination.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class MessageStats implements CatalystSerializable {
+  private long expired;
+  private long deadLettered;
+  private long hedged;
+
+  public MessageStats() {
+  }
+
+  public MessageStats(long expired, long deadLettered, long hedged) {
+    this.expired = expired;
+    this.deadLettered = deadLettered;
+    this.hedged = hedged;
+  }
+
+  /**
+   * Returns the number of messages that expired before being acknowledged by all recipients.
+   *
+   * @return The number of expired messages.
+   */
+  public long getExpired() {
+    return expired;
+  }
+
+  /**
+   * Returns the number of messages that were routed to a dead-letter queue.
+   *
+   * @return The number of dead-lettered messages.
+   */
+  public long getDeadLettered() {
+    return deadLettered;
+  }
+
+  /**
+   * Returns the number of request-reply messages that were hedged to a second member.
+   *
+   * @return The number of hedged messages.
+   */
+  public long getHedged() {
+    return hedged;
+  }
+
+  @Override
+  public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    buffer.writeLong(expired).writeLong(deadLettered).writeLong(hedged);
+  }
+
+  @Override
+  public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    expired = buffer.readLong();
+    deadLettered = buffer.readLong();
+    hedged = buffer.readLong();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[expired=%d, deadLettered=%d, hedged=%d]", getClass().getSimpleName(), expired, deadLettered, hedged);
+  }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.group.messaging;
+
+/**
+ * Exception thrown when a {@link Message} is not acknowledged by its recipients before its
+ * {@link MessageProducer.Options#withTtl(java.time.Duration) time to live} expires.
+ *
+ * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ */
+public class MessageTimeoutException extends MessageFailedException {
+
+  public MessageTimeoutException() {
+  }
+
+  public MessageTimeoutException(String message) {
+    super(message);
+  }
+
+  public MessageTimeoutException(String message, Throwable cause) {
+    super(message, cause);
+  }
+
+  public MessageTimeoutException(Throwable cause) {
+    super(cause);
+  }
+
+}
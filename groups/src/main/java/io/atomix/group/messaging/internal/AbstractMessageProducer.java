@@ -16,16 +16,26 @@
 package io.atomix.group.messaging.internal;
 
 import io.atomix.catalyst.concurrent.BlockingFuture;
+import io.atomix.catalyst.concurrent.Scheduled;
 import io.atomix.group.internal.GroupCommands;
 import io.atomix.group.messaging.MessageFailedException;
 import io.atomix.group.messaging.MessageProducer;
+import io.atomix.group.messaging.MessageTimeoutException;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Abstract message producer.
+ * <p>
+ * If the producer is configured with a batch size greater than {@code 1}, messages are buffered in a {@link Batch}
+ * and written to the cluster as a single {@link GroupCommands.MessageBatch} command once the batch is full or the
+ * linger time expires. Acknowledgements are still received for each individual message.
  *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
@@ -34,14 +44,25 @@ public abstract class AbstractMessageProducer<T> implements MessageProducer<T> {
   private final String name;
   private final Delivery delivery;
   private final Execution execution;
+  private final int batchSize;
+  private final Duration linger;
+  private final long ttl;
+  private final long hedge;
+  private final String deadLetterQueue;
   private final AbstractMessageClient client;
   private long messageId;
   private final Map<Long, CompletableFuture> messageFutures = new ConcurrentHashMap<>();
+  private Batch batch;
 
   protected AbstractMessageProducer(String name, Options options, AbstractMessageClient client) {
     this.name = name;
     this.delivery = options.getDelivery();
     this.execution = options.getExecution();
+    this.batchSize = options.getBatchSize();
+    this.linger = options.getLinger();
+    this.ttl = options.getTtl().toMillis();
+    this.hedge = options.getHedgeDelay().toMillis();
+    this.deadLetterQueue = options.getDeadLetterQueue();
     this.client = client;
     this.id = client.producerService().registry().register(this);
   }
@@ -62,20 +83,14 @@ public abstract class AbstractMessageProducer<T> implements MessageProducer<T> {
    */
   @SuppressWarnings("unchecked")
   void onAck(GroupCommands.Ack ack) {
-    CompletableFuture messageFuture = messageFutures.remove(messageId);
+    CompletableFuture messageFuture = messageFutures.remove(ack.id());
     if (messageFuture != null) {
-      if (execution == Execution.SYNC) {
-        if (ack.succeeded()) {
-          messageFuture.complete(null);
-        } else {
-          messageFuture.completeExceptionally(new MessageFailedException("message failed"));
-        }
+      if (!ack.succeeded()) {
+        messageFuture.completeExceptionally(ack.timedOut() ? new MessageTimeoutException("message timed out") : new MessageFailedException("message failed"));
+      } else if (execution == Execution.SYNC) {
+        messageFuture.complete(null);
       } else if (execution == Execution.REQUEST_REPLY) {
-        if (ack.succeeded()) {
-          messageFuture.complete(ack.message());
-        } else {
-          messageFuture.completeExceptionally(new MessageFailedException("message failed"));
-        }
+        messageFuture.complete(ack.message());
       }
     }
   }
@@ -84,22 +99,24 @@ public abstract class AbstractMessageProducer<T> implements MessageProducer<T> {
    * Submits the message to the given member.
    */
   @SuppressWarnings("unchecked")
-  protected <U> CompletableFuture<U> send(String member, T message) {
-    if (execution == Execution.ASYNC) {
-      return sendAsync(member, message);
+  protected <U> CompletableFuture<U> send(String member, String key, T message) {
+    if (batchSize > 1) {
+      return sendBatch(member, key, message);
+    } else if (execution == Execution.ASYNC) {
+      return sendAsync(member, key, message);
     } else {
-      return sendSync(member, message);
+      return sendSync(member, key, message);
     }
   }
 
   /**
    * Sends an atomic message.
    */
-  private CompletableFuture sendSync(String member, T message) {
+  private CompletableFuture sendSync(String member, String key, T message) {
     CompletableFuture future = new BlockingFuture();
-    final long messageId = ++this.messageId;
+    final long messageId = nextId();
     messageFutures.put(messageId, future);
-    client.producerService().send(new GroupCommands.Message(member, id, name, messageId, message, delivery, execution)).whenComplete((result, error) -> {
+    client.producerService().send(new GroupCommands.Message(member, id, name, messageId, key, message, delivery, execution, ttl, hedge, deadLetterQueue)).whenComplete((result, error) -> {
       if (error != null) {
         CompletableFuture messageFuture = messageFutures.remove(messageId);
         if (messageFuture != null) {
@@ -113,13 +130,129 @@ public abstract class AbstractMessageProducer<T> implements MessageProducer<T> {
   /**
    * Sends a sequential message.
    */
-  private CompletableFuture sendAsync(String member, T message) {
-    return client.producerService().send(new GroupCommands.Message(member, id, name, messageId, message, delivery, execution));
+  private CompletableFuture sendAsync(String member, String key, T message) {
+    return client.producerService().send(new GroupCommands.Message(member, id, name, nextId(), key, message, delivery, execution, ttl, hedge, deadLetterQueue));
+  }
+
+  /**
+   * Returns the next message ID.
+   */
+  private synchronized long nextId() {
+    return ++messageId;
+  }
+
+  /**
+   * Adds a message to the current batch.
+   */
+  private synchronized CompletableFuture sendBatch(String member, String key, T message) {
+    // A batch is sent to a single member, so flush the current batch if the message targets a different member.
+    if (batch != null && !Objects.equals(batch.member, member)) {
+      flush();
+    }
+
+    if (batch == null) {
+      Batch batch = new Batch(member);
+      if (linger.isZero()) {
+        client.producerService().context().execute(() -> flush(batch));
+      } else {
+        batch.timer = client.producerService().context().schedule(linger, () -> flush(batch));
+      }
+      this.batch = batch;
+    }
+
+    CompletableFuture future = new BlockingFuture();
+    long messageId = ++this.messageId;
+    if (execution != Execution.ASYNC) {
+      messageFutures.put(messageId, future);
+    }
+    batch.add(messageId, key, message, future);
+
+    if (batch.size() >= batchSize) {
+      flush();
+    }
+    return future;
+  }
+
+  /**
+   * Flushes the given batch if it has not already been sent.
+   */
+  private synchronized void flush(Batch batch) {
+    if (this.batch == batch) {
+      flush();
+    }
+  }
+
+  /**
+   * Writes the current batch to the cluster.
+   */
+  @SuppressWarnings("unchecked")
+  private synchronized void flush() {
+    Batch batch = this.batch;
+    if (batch == null) {
+      return;
+    }
+
+    this.batch = null;
+    if (batch.timer != null) {
+      batch.timer.cancel();
+    }
+
+    long[] ids = new long[batch.ids.size()];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = batch.ids.get(i);
+    }
+    String[] keys = batch.keys.toArray(new String[batch.keys.size()]);
+
+    client.producerService().send(new GroupCommands.MessageBatch(batch.member, id, name, ids, keys, batch.messages, delivery, execution, ttl, hedge, deadLetterQueue)).whenComplete((result, error) -> {
+      for (int i = 0; i < ids.length; i++) {
+        CompletableFuture future = batch.futures.get(i);
+        if (error != null) {
+          messageFutures.remove(ids[i]);
+          future.completeExceptionally(error);
+        } else if (execution == Execution.ASYNC) {
+          future.complete(null);
+        }
+      }
+    });
   }
 
   @Override
   public void close() {
+    flush();
     client.producerService().registry().close(id);
   }
 
+  /**
+   * Messages buffered for a single batch.
+   */
+  private static class Batch {
+    private final String member;
+    private final List<Long> ids = new ArrayList<>();
+    private final List<String> keys = new ArrayList<>();
+    private final List<Object> messages = new ArrayList<>();
+    private final List<CompletableFuture> futures = new ArrayList<>();
+    private Scheduled timer;
+
+    private Batch(String member) {
+      this.member = member;
+    }
+
+    /**
+     * Adds a message to the batch.
+     */
+    private void add(long id, String key, Object message, CompletableFuture future) {
+      ids.add(id);
+      keys.add(key);
+      messages.add(message);
+      futures.add(future);
+    }
+
+    /**
+     * Returns the number of messages in the batch.
+     */
+    private int size() {
+      return ids.size();
+    }
+  }
+
 }
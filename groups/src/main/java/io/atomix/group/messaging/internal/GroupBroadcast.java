@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License
+ */
+package io.atomix.group.messaging.internal;
+
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Group broadcast message.
+ * <p>
+ * A broadcast carries a single copy of a message along with the IDs of all the members of a session to which
+ * the message is delivered. The receiving client fans the broadcast out to a {@link GroupMessage} for each
+ * member, so all the messages share the same deserialized value.
+ *
+ * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
+ */
+public class GroupBroadcast<T> implements CatalystSerializable {
+  private long id;
+  private List<String> members;
+  private String queue;
+  private T value;
+
+  public GroupBroadcast() {
+  }
+
+  public GroupBroadcast(long id, List<String> members, String queue, T value) {
+    this.id = id;
+    this.members = members;
+    this.queue = queue;
+    this.value = value;
+  }
+
+  /**
+   * Returns the message ID.
+   *
+   * @return The message ID.
+   */
+  public long id() {
+    return id;
+  }
+
+  /**
+   * Returns the members to which the message is enqueued.
+   *
+   * @return The message members.
+   */
+  public List<String> members() {
+    return members;
+  }
+
+  /**
+   * Returns the message queue.
+   *
+   * @return The message queue.
+   */
+  public String queue() {
+    return queue;
+  }
+
+  /**
+   * Returns the message value.
+   *
+   * @return The message value.
+   */
+  public T message() {
+    return value;
+  }
+
+  /**
+   * Returns the member messages for the broadcast.
+   *
+   * @return A list of messages, one for each member.
+   */
+  public List<GroupMessage<T>> messages() {
+    List<GroupMessage<T>> messages = new ArrayList<>(members.size());
+    for (String member : members) {
+      messages.add(new GroupMessage<>(id, member, queue, value));
+    }
+    return messages;
+  }
+
+  @Override
+  public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    buffer.writeLong(id);
+    buffer.writeInt(members.size());
+    for (String member : members) {
+      buffer.writeString(member);
+    }
+    buffer.writeString(queue);
+    serializer.writeObject(value, buffer);
+  }
+
+  @Override
+  public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    id = buffer.readLong();
+    int size = buffer.readInt();
+    members = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      members.add(buffer.readString());
+    }
+    queue = buffer.readString();
+    value = serializer.readObject(buffer);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[members=%s]", getClass().getSimpleName(), members);
+  }
+
+}
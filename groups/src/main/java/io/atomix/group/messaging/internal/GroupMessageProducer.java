@@ -30,7 +30,12 @@ public class GroupMessageProducer<T> extends AbstractMessageProducer<T> {
 
   @Override
   public <U> CompletableFuture<U> send(T message) {
-    return send(null, message);
+    return send(null, null, message);
+  }
+
+  @Override
+  public <U> CompletableFuture<U> send(String key, T message) {
+    return send(null, key, message);
   }
 
 }
@@ -15,6 +15,9 @@
  */
 package io.atomix.group.messaging.internal;
 
+import io.atomix.group.GroupMember;
+import io.atomix.group.internal.GroupCommands;
+
 /**
  * Member message consumer.
  *
@@ -22,8 +25,11 @@ package io.atomix.group.messaging.internal;
  */
 public class MemberMessageConsumer<T> extends AbstractMessageConsumer<T> {
 
-  public MemberMessageConsumer(String name, Options options, AbstractMessageService service) {
+  public MemberMessageConsumer(String name, Options options, AbstractMessageService service, GroupMember member) {
     super(name, options, service);
+    if (options.getCredits() > 0) {
+      service.consumerService().credit(new GroupCommands.Credit(member.id(), name, options.getCredits()));
+    }
   }
 
 }
@@ -34,7 +34,12 @@ public class MemberMessageProducer<T> extends AbstractMessageProducer<T> {
 
   @Override
   public <U> CompletableFuture<U> send(T message) {
-    return send(member.id(), message);
+    return send(member.id(), null, message);
+  }
+
+  @Override
+  public <U> CompletableFuture<U> send(String key, T message) {
+    return send(member.id(), key, message);
   }
 
 }
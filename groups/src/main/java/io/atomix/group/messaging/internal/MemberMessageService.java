@@ -40,7 +40,7 @@ public class MemberMessageService extends AbstractMessageService {
 
   @Override
   public <T> AbstractMessageConsumer<T> consumer(String name, MessageConsumer.Options options) {
-    return new MemberMessageConsumer<>(name, options, this);
+    return new MemberMessageConsumer<>(name, options, this, member);
   }
 
   @Override
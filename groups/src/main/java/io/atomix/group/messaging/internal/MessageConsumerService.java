@@ -19,6 +19,7 @@ import io.atomix.catalyst.util.Assert;
 import io.atomix.copycat.client.CopycatClient;
 import io.atomix.group.internal.GroupCommands;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -59,6 +60,30 @@ public class MessageConsumerService {
     }
   }
 
+  /**
+   * Consumes a broadcast message.
+   * <p>
+   * The broadcast is fanned out to a separate message for each of the local members to which it was delivered.
+   *
+   * @param broadcast The broadcast to consume.
+   */
+  @SuppressWarnings("unchecked")
+  public void onBroadcast(GroupBroadcast broadcast) {
+    for (GroupMessage message : (List<GroupMessage>) broadcast.messages()) {
+      onMessage(message);
+    }
+  }
+
+  /**
+   * Grants credits for a message queue.
+   *
+   * @param credit The credit command.
+   * @return A completable future to be completed once the credits have been granted.
+   */
+  public CompletableFuture<Void> credit(GroupCommands.Credit credit) {
+    return client.submit(credit);
+  }
+
   /**
    * Replies to a message.
    *
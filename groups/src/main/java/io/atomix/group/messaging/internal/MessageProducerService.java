@@ -15,6 +15,7 @@
  */
 package io.atomix.group.messaging.internal;
 
+import io.atomix.catalyst.concurrent.ThreadContext;
 import io.atomix.catalyst.util.Assert;
 import io.atomix.copycat.client.CopycatClient;
 import io.atomix.group.internal.GroupCommands;
@@ -43,6 +44,15 @@ public class MessageProducerService {
     return registry;
   }
 
+  /**
+   * Returns the client thread context.
+   *
+   * @return The client thread context.
+   */
+  ThreadContext context() {
+    return client.context();
+  }
+
   /**
    * Sends a message to the group.
    *
@@ -53,6 +63,16 @@ public class MessageProducerService {
     return client.submit(message);
   }
 
+  /**
+   * Sends a batch of messages to the group.
+   *
+   * @param batch The batch of messages to send.
+   * @return A completable future to be completed once the batch has been sent.
+   */
+  public CompletableFuture<Void> send(GroupCommands.MessageBatch batch) {
+    return client.submit(batch);
+  }
+
   /**
    * Acknowledges a message.
    *
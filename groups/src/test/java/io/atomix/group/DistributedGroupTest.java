@@ -16,14 +16,38 @@
 package io.atomix.group;
 
 import io.atomix.catalyst.transport.Address;
+import io.atomix.group.executor.DistributedExecutor;
+import io.atomix.group.executor.TaskFailedException;
+import io.atomix.group.messaging.Message;
+import io.atomix.group.messaging.MessageConsumer;
 import io.atomix.group.messaging.MessageFailedException;
 import io.atomix.group.messaging.MessageProducer;
+import io.atomix.group.messaging.MessageStats;
+import io.atomix.group.messaging.MessageTimeoutException;
+import io.atomix.group.messaging.internal.GroupMessage;
 import io.atomix.testing.AbstractCopycatTest;
 import org.testng.annotations.Test;
 
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
 
 /**
  * Distributed group test.
@@ -57,6 +81,49 @@ public class DistributedGroupTest extends AbstractCopycatTest<DistributedGroup>
     await(10000, 2);
   }
 
+  /**
+   * Tests that the hash ring is updated and reports moved ranges as members join and leave.
+   */
+  public void testHashRing() throws Throwable {
+    createServers(3);
+
+    DistributedGroup group = createResource(new DistributedGroup.Options());
+    ConsistentHashRing ring = group.hashRing();
+    assertNull(ring.member("foo"));
+
+    LocalMember member1 = group.join().get(10, TimeUnit.SECONDS);
+    assertEquals(ring.member("foo").id(), member1.id());
+
+    Map<String, String> owners = new HashMap<>();
+    for (int i = 0; i < 100; i++) {
+      owners.put("key" + i, ring.member("key" + i).id());
+    }
+
+    List<ConsistentHashRing.Move> moves = new CopyOnWriteArrayList<>();
+    ring.onMove(moves::addAll);
+
+    LocalMember member2 = group.join().get(10, TimeUnit.SECONDS);
+    assertEquals(moves.size(), ring.virtualNodes());
+    for (ConsistentHashRing.Move move : moves) {
+      assertEquals(move.from().id(), member1.id());
+      assertEquals(move.to().id(), member2.id());
+    }
+
+    // Only keys within the moved ranges should have changed owners.
+    for (Map.Entry<String, String> entry : owners.entrySet()) {
+      int hash = ring.hash(entry.getKey());
+      boolean moved = moves.stream().anyMatch(move -> move.contains(hash));
+      assertEquals(ring.member(entry.getKey()).id(), moved ? member2.id() : entry.getValue());
+    }
+
+    moves.clear();
+    member2.leave().get(10, TimeUnit.SECONDS);
+    assertEquals(moves.size(), ring.virtualNodes());
+    for (String key : owners.keySet()) {
+      assertEquals(ring.member(key).id(), member1.id());
+    }
+  }
+
   /**
    * Tests leaving a group.
    */
@@ -101,6 +168,40 @@ public class DistributedGroupTest extends AbstractCopycatTest<DistributedGroup>
     await(10000, 2);
   }
 
+  /**
+   * Tests that all the members of a closed session leave the group together.
+   */
+  public void testExpireLeaveMany() throws Throwable {
+    createServers(3);
+
+    DistributedGroup group1 = createResource();
+    DistributedGroup group2 = createResource();
+
+    group1.onJoin(m -> {
+      if (group1.members().size() == 3) {
+        resume();
+      }
+    });
+
+    group2.join().join();
+    group2.join().join();
+    group2.join().join();
+
+    await(5000);
+
+    Set<String> left = new ConcurrentSkipListSet<>();
+    group1.onLeave(member -> {
+      left.add(member.id());
+      if (left.size() == 3) {
+        threadAssertTrue(group1.members().isEmpty());
+        resume();
+      }
+    });
+    group2.close().thenRun(this::resume);
+
+    await(10000, 2);
+  }
+
   /**
    * Tests a persistent member being expired.
    */
@@ -416,6 +517,182 @@ public class DistributedGroupTest extends AbstractCopycatTest<DistributedGroup>
     await(10000, 2);
   }
 
+  /**
+   * Tests that replies to batched messages are routed to the individual messages.
+   */
+  public void testBatchedDirectRequestReply() throws Throwable {
+    createServers(3);
+
+    DistributedGroup group1 = createResource(new DistributedGroup.Options());
+    DistributedGroup group2 = createResource(new DistributedGroup.Options());
+
+    group1.onJoin(m -> {
+      threadAssertEquals(group1.members().size(), 1);
+      resume();
+    });
+    group2.onJoin(m -> {
+      threadAssertEquals(group2.members().size(), 1);
+      resume();
+    });
+
+    LocalMember member = group2.join().get(10, TimeUnit.SECONDS);
+
+    await(5000, 2);
+
+    member.messaging().consumer("test").onMessage(message -> {
+      message.reply(message.message() + " back!");
+      resume();
+    });
+
+    MessageProducer.Options options = new MessageProducer.Options()
+      .withDelivery(MessageProducer.Delivery.DIRECT)
+      .withExecution(MessageProducer.Execution.REQUEST_REPLY)
+      .withBatchSize(10)
+      .withLinger(Duration.ofMillis(100));
+    MessageProducer<String> producer = group1.member(member.id()).messaging().producer("test", options);
+    for (int i = 0; i < 3; i++) {
+      String message = "Hello world " + i;
+      producer.send(message).thenAccept(response -> {
+        threadAssertEquals(response, message + " back!");
+        resume();
+      });
+    }
+    await(10000, 6);
+  }
+
+  /**
+   * Tests that a full batch of asynchronous messages is written without waiting for the linger time.
+   */
+  public void testBatchedGroupMessage() throws Throwable {
+    createServers(3);
+
+    DistributedGroup group = createResource(new DistributedGroup.Options());
+
+    LocalMember member = group.join().get(10, TimeUnit.SECONDS);
+    member.messaging().consumer("test").onMessage(message -> {
+      threadAssertEquals(message.message(), "Hello world!");
+      message.ack();
+      resume();
+    });
+
+    MessageProducer.Options options = new MessageProducer.Options()
+      .withExecution(MessageProducer.Execution.ASYNC)
+      .withBatchSize(2)
+      .withLinger(Duration.ofMinutes(1));
+    MessageProducer<String> producer = group.messaging().producer("test", options);
+    producer.send("Hello world!").thenRun(this::resume);
+    producer.send("Hello world!").thenRun(this::resume);
+    await(10000, 4);
+  }
+
+  /**
+   * Tests that messages are not published to a consumer beyond its credits.
+   */
+  public void testConsumerCredits() throws Throwable {
+    createServers(3);
+
+    DistributedGroup group = createResource(new DistributedGroup.Options());
+    LocalMember member = group.join().get(10, TimeUnit.SECONDS);
+
+    List<Message<String>> messages = new CopyOnWriteArrayList<>();
+    member.messaging().<String>consumer("test", new MessageConsumer.Options().withCredits(1)).onMessage(message -> {
+      messages.add(message);
+      resume();
+    });
+
+    // Messages are sent from the consumer's own client so they're sequenced after the credits are granted.
+    MessageProducer.Options options = new MessageProducer.Options()
+      .withDelivery(MessageProducer.Delivery.DIRECT)
+      .withExecution(MessageProducer.Execution.SYNC);
+    MessageProducer<String> producer = member.messaging().producer("test", options);
+    producer.send("a").thenRun(this::resume);
+    producer.send("b").thenRun(this::resume);
+
+    await(10000);
+    Thread.sleep(500);
+    assertEquals(messages.size(), 1);
+    assertEquals(messages.get(0).message(), "a");
+
+    messages.get(0).ack();
+    await(10000, 2);
+    assertEquals(messages.size(), 2);
+    assertEquals(messages.get(1).message(), "b");
+
+    messages.get(1).ack();
+    await(10000);
+  }
+
+  /**
+   * Tests that an unacknowledged message expires and is routed to its dead-letter queue.
+   */
+  public void testMessageTtlDeadLetter() throws Throwable {
+    createServers(3);
+
+    DistributedGroup group = createResource(new DistributedGroup.Options());
+    LocalMember member = group.join().get(10, TimeUnit.SECONDS);
+
+    member.messaging().<String>consumer("test").onMessage(message -> resume());
+    member.messaging().<String>consumer("dlq").onMessage(message -> {
+      threadAssertEquals(message.message(), "Hello world!");
+      message.ack();
+      resume();
+    });
+
+    MessageProducer.Options options = new MessageProducer.Options()
+      .withDelivery(MessageProducer.Delivery.DIRECT)
+      .withExecution(MessageProducer.Execution.SYNC)
+      .withTtl(Duration.ofMillis(500))
+      .withDeadLetterQueue("dlq");
+    MessageProducer<String> producer = member.messaging().producer("test", options);
+    producer.send("Hello world!").whenComplete((result, error) -> {
+      threadAssertTrue(error instanceof MessageTimeoutException);
+      resume();
+    });
+
+    await(10000, 3);
+
+    MessageStats stats = group.messageStats().get(10, TimeUnit.SECONDS);
+    assertEquals(stats.getExpired(), 1L);
+    assertEquals(stats.getDeadLettered(), 1L);
+  }
+
+  /**
+   * Tests hedging a request-reply message to a second member when the first member does not reply.
+   */
+  public void testHedgedRequestReply() throws Throwable {
+    createServers(3);
+
+    DistributedGroup group1 = createResource(new DistributedGroup.Options());
+    DistributedGroup group2 = createResource(new DistributedGroup.Options());
+
+    LocalMember member1 = group2.join().get(10, TimeUnit.SECONDS);
+    LocalMember member2 = group2.join().get(10, TimeUnit.SECONDS);
+
+    AtomicBoolean received = new AtomicBoolean();
+    Consumer<Message<String>> consumer = message -> {
+      if (received.compareAndSet(false, true)) {
+        resume();
+      } else {
+        message.reply("Hello world back!");
+      }
+    };
+    member1.messaging().<String>consumer("test").onMessage(consumer);
+    member2.messaging().<String>consumer("test").onMessage(consumer);
+
+    MessageProducer.Options options = new MessageProducer.Options()
+      .withDelivery(MessageProducer.Delivery.LEAST_LOADED)
+      .withExecution(MessageProducer.Execution.REQUEST_REPLY)
+      .withHedgeDelay(Duration.ofMillis(500));
+    group1.messaging().<String>producer("test", options).send("Hello world!").thenAccept(reply -> {
+      threadAssertEquals(reply, "Hello world back!");
+      resume();
+    });
+    await(10000, 2);
+
+    MessageStats stats = group1.messageStats().get(10, TimeUnit.SECONDS);
+    assertEquals(stats.getHedged(), 1L);
+  }
+
   /**
    * Tests that a direct message is redelivered to a persistent member after it rejoins the group.
    */
@@ -473,6 +750,78 @@ public class DistributedGroupTest extends AbstractCopycatTest<DistributedGroup>
 
     await(5000, 1);
   }
+  /**
+   * Tests updating a member's metadata without rejoining the group.
+   */
+  public void testUpdateMetadata() throws Throwable {
+    createServers(3);
+
+    DistributedGroup group1 = createResource(new DistributedGroup.Options());
+    DistributedGroup group2 = createResource(new DistributedGroup.Options());
+
+    group2.onJoin(member -> resume());
+
+    LocalMember member = group1.join(null, 1).get(10, TimeUnit.SECONDS);
+    await(5000);
+
+    member.updateMetadata(2).get(10, TimeUnit.SECONDS);
+    assertEquals(member.<Integer>metadata().get(), Integer.valueOf(2));
+
+    GroupMember remote = group2.member(member.id());
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!remote.<Integer>metadata().get().equals(2) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(remote.<Integer>metadata().get(), Integer.valueOf(2));
+  }
+
+  /**
+   * Tests submitting tasks to a distributed executor.
+   */
+  public void testExecutorSubmit() throws Throwable {
+    createServers(3);
+
+    DistributedGroup group1 = createResource(new DistributedGroup.Options());
+    DistributedGroup group2 = createResource(new DistributedGroup.Options());
+
+    LocalMember member = group1.join().get(10, TimeUnit.SECONDS);
+
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    group1.executor("test").worker(member, pool);
+
+    DistributedExecutor executor = group2.executor("test");
+    assertEquals(executor.submit(new TestTask(1)).get(10, TimeUnit.SECONDS), Integer.valueOf(2));
+    assertEquals(executor.submitAll(Arrays.asList(new TestTask(2), new TestTask(3))).get(10, TimeUnit.SECONDS), Arrays.asList(3, 4));
+
+    executor.submit(new TestTask(-1)).whenComplete((result, error) -> {
+      threadAssertTrue(error instanceof TaskFailedException);
+      resume();
+    });
+    await(10000);
+
+    executor.close();
+    pool.shutdown();
+  }
+
+  /**
+   * Test executor task.
+   */
+  private static class TestTask implements Callable<Integer>, Serializable {
+    private final int value;
+
+    private TestTask(int value) {
+      this.value = value;
+    }
+
+    @Override
+    public Integer call() {
+      if (value < 0) {
+        throw new IllegalArgumentException("negative value");
+      }
+      return value + 1;
+    }
+  }
+
   /**
    * Tests that a message is failed when a member leaves before the message is processed.
    */
@@ -550,6 +899,109 @@ public class DistributedGroupTest extends AbstractCopycatTest<DistributedGroup>
     await(10000, 4);
   }
 
+  /**
+   * Tests that a broadcast to members sharing a session is fanned out to each member.
+   */
+  public void testBroadcastSharedSession() throws Throwable {
+    createServers(3);
+
+    DistributedGroup group1 = createResource(new DistributedGroup.Options());
+    DistributedGroup group2 = createResource(new DistributedGroup.Options());
+
+    group1.onJoin(m -> {
+      if (group1.members().size() == 2) {
+        resume();
+      }
+    });
+
+    LocalMember member1 = group2.join().get(10, TimeUnit.SECONDS);
+    LocalMember member2 = group2.join().get(10, TimeUnit.SECONDS);
+    await(10000);
+
+    Set<String> members = new ConcurrentSkipListSet<>();
+    Consumer<Message<String>> consumer = message -> {
+      threadAssertEquals(message.message(), "Hello world!");
+      members.add(((GroupMessage) message).member());
+      message.ack();
+      resume();
+    };
+    member1.messaging().<String>consumer("test").onMessage(consumer);
+    member2.messaging().<String>consumer("test").onMessage(consumer);
+
+    group1.messaging().producer("test").send("Hello world!").thenRun(this::resume);
+    await(10000, 3);
+
+    assertEquals(members.size(), 2);
+    assertTrue(members.contains(member1.id()));
+    assertTrue(members.contains(member2.id()));
+  }
+
+  /**
+   * Tests that round-robin messages are spread evenly across members.
+   */
+  public void testRoundRobinMessage() throws Throwable {
+    createServers(3);
+
+    DistributedGroup group1 = createResource(new DistributedGroup.Options());
+    DistributedGroup group2 = createResource(new DistributedGroup.Options());
+
+    LocalMember member1 = group1.join().get(10, TimeUnit.SECONDS);
+    LocalMember member2 = group2.join().get(10, TimeUnit.SECONDS);
+
+    AtomicInteger count1 = new AtomicInteger();
+    AtomicInteger count2 = new AtomicInteger();
+    member1.messaging().consumer("test").onMessage(message -> {
+      count1.incrementAndGet();
+      message.ack();
+    });
+    member2.messaging().consumer("test").onMessage(message -> {
+      count2.incrementAndGet();
+      message.ack();
+    });
+
+    MessageProducer.Options options = new MessageProducer.Options()
+      .withDelivery(MessageProducer.Delivery.ROUND_ROBIN);
+    MessageProducer<String> producer = group1.messaging().producer("test", options);
+    for (int i = 0; i < 4; i++) {
+      producer.send("Hello world!").thenRun(this::resume);
+    }
+    await(10000, 4);
+    assertEquals(count1.get(), 2);
+    assertEquals(count2.get(), 2);
+  }
+
+  /**
+   * Tests that messages with the same key are delivered to the same member.
+   */
+  public void testKeyHashMessage() throws Throwable {
+    createServers(3);
+
+    DistributedGroup group1 = createResource(new DistributedGroup.Options());
+    DistributedGroup group2 = createResource(new DistributedGroup.Options());
+
+    LocalMember member1 = group1.join().get(10, TimeUnit.SECONDS);
+    LocalMember member2 = group2.join().get(10, TimeUnit.SECONDS);
+
+    Set<String> members = new ConcurrentSkipListSet<>();
+    member1.messaging().consumer("test").onMessage(message -> {
+      members.add(member1.id());
+      message.ack();
+    });
+    member2.messaging().consumer("test").onMessage(message -> {
+      members.add(member2.id());
+      message.ack();
+    });
+
+    MessageProducer.Options options = new MessageProducer.Options()
+      .withDelivery(MessageProducer.Delivery.KEY_HASH);
+    MessageProducer<String> producer = group1.messaging().producer("test", options);
+    for (int i = 0; i < 5; i++) {
+      producer.send("foo", "Hello world!").thenRun(this::resume);
+    }
+    await(10000, 5);
+    assertEquals(members.size(), 1);
+  }
+
   /**
    * Tests that a {@code ONCE} message is failed when a member leaves the group without acknowledging
    * the message.
@@ -133,6 +133,13 @@ public abstract class AbstractCopycatTest<T extends Resource> extends Concurrent
     return resource;
   }
 
+  /**
+   * Creates the storage for a Raft server.
+   */
+  protected Storage createStorage() {
+    return new Storage(StorageLevel.MEMORY);
+  }
+
   /**
    * Creates a Raft server.
    */
@@ -156,7 +163,7 @@ public abstract class AbstractCopycatTest<T extends Resource> extends Concurrent
 
     CopycatServer server = CopycatServer.builder(address)
       .withTransport(new LocalTransport(registry))
-      .withStorage(new Storage(StorageLevel.MEMORY))
+      .withStorage(createStorage())
       .withStateMachine(stateMachine)
       .build();
     type.factory().newInstance().createSerializableTypeResolver().resolve(server.serializer().registry());
@@ -15,14 +15,24 @@
  */
 package io.atomix.variables;
 
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.concurrent.Listener;
+import io.atomix.catalyst.serializer.CatalystSerializable;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.util.Assert;
 import io.atomix.copycat.client.CopycatClient;
 import io.atomix.resource.AbstractResource;
 import io.atomix.resource.ReadConsistency;
+import io.atomix.resource.Resource;
 import io.atomix.variables.internal.ValueCommands;
 
 import java.time.Duration;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Consumer;
 
 /**
  * Base class for distributed atomic variables.
@@ -32,14 +42,107 @@ import java.util.concurrent.CompletableFuture;
  * operations. The methods are closely modeled on those of Java's {@link java.util.concurrent.atomic.AtomicReference}.
  * Operations that modify the resource state are atomic. Operations that read resource state may be atomic
  * depending on the configured {@link ReadConsistency read consistency level}.
+ * <h3>Change notifications</h3>
+ * Rather than polling the value, clients can register a {@link #onChange(Consumer) change listener} to be
+ * notified when the value is modified. The first listener registered on a resource instance registers the
+ * instance with the cluster, and the registration is removed once all listeners have been closed. Clients
+ * that only need to know that the value changed can configure the resource to receive
+ * {@link Options#withChangeValues(boolean) only the version} of each change. Clients that can't keep up with
+ * the rate of updates can configure a {@link Options#withChangeInterval(Duration) change interval} below which
+ * changes are coalesced into a single event.
  *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
 @SuppressWarnings("unchecked")
 public abstract class AbstractDistributedValue<T extends AbstractDistributedValue<T, U>, U> extends AbstractResource<T> {
 
+  /**
+   * Value options.
+   */
+  public static class Options extends Resource.Options {
+    public Options() {
+    }
+
+    public Options(Properties defaults) {
+      super(defaults);
+    }
+
+    /**
+     * Sets the minimum interval between change events published to this instance.
+     * <p>
+     * Changes that occur within the interval after the last change event was published are coalesced into
+     * a single event carrying the value prior to the first change and the value after the last change.
+     *
+     * @param interval The minimum interval between change events.
+     * @return The value options.
+     * @throws NullPointerException if the interval is {@code null}
+     * @throws IllegalArgumentException if the interval is negative
+     */
+    public Options withChangeInterval(Duration interval) {
+      Assert.arg(!Assert.notNull(interval, "interval").isNegative(), "interval cannot be negative");
+      setProperty("change.interval", String.valueOf(interval.toMillis()));
+      return this;
+    }
+
+    /**
+     * Returns the minimum interval between change events published to this instance.
+     *
+     * @return The minimum interval between change events.
+     */
+    public Duration getChangeInterval() {
+      return Duration.ofMillis(Long.valueOf(getProperty("change.interval", "0")));
+    }
+
+    /**
+     * Sets whether change events should include the previous and updated values.
+     * <p>
+     * When values are not included, change events carry only the version of the change.
+     *
+     * @param includeValues Whether change events should include the previous and updated values.
+     * @return The value options.
+     */
+    public Options withChangeValues(boolean includeValues) {
+      setProperty("change.values", String.valueOf(includeValues));
+      return this;
+    }
+
+    /**
+     * Returns whether change events include the previous and updated values.
+     *
+     * @return Whether change events include the previous and updated values.
+     */
+    public boolean getChangeValues() {
+      return Boolean.valueOf(getProperty("change.values", "true"));
+    }
+  }
+
+  private final long changeInterval;
+  private final boolean changeValues;
+  private final Set<ChangeListener> changeListeners = new CopyOnWriteArraySet<>();
+  private CompletableFuture<Void> listenFuture;
+
   protected AbstractDistributedValue(CopycatClient client, Properties options) {
     super(client, options);
+    Options valueOptions = new Options(options);
+    this.changeInterval = valueOptions.getChangeInterval().toMillis();
+    this.changeValues = valueOptions.getChangeValues();
+  }
+
+  @Override
+  public CompletableFuture<T> open() {
+    return super.open().thenApply(result -> {
+      client.onEvent("change", this::onChangeEvent);
+      return result;
+    });
+  }
+
+  /**
+   * Handles a change event.
+   */
+  private void onChangeEvent(ChangeEvent<U> event) {
+    for (ChangeListener listener : changeListeners) {
+      listener.accept(event);
+    }
   }
 
   /**
@@ -197,4 +300,133 @@ public abstract class AbstractDistributedValue<T extends AbstractDistributedValu
     return client.submit(new ValueCommands.CompareAndSet(expect, update, ttl.toMillis()));
   }
 
+  /**
+   * Registers a listener to be called when the value changes.
+   * <p>
+   * The first listener registered on the resource instance registers the instance with the cluster to receive
+   * change events. The returned {@link CompletableFuture} will be completed once the instance has been registered.
+   * Listeners registered while the registration is in progress are completed along with it, and if registration
+   * fails, all such listeners are removed and their futures completed exceptionally. Once all listeners have been
+   * {@link Listener#close() closed}, the instance will be unregistered.
+   *
+   * @param callback The callback to call when the value changes.
+   * @return A completable future to be completed once the listener has been registered.
+   * @throws NullPointerException if the callback is {@code null}
+   */
+  public synchronized CompletableFuture<Listener<ChangeEvent<U>>> onChange(Consumer<ChangeEvent<U>> callback) {
+    ChangeListener listener = new ChangeListener(Assert.notNull(callback, "callback"));
+    changeListeners.add(listener);
+    if (listenFuture == null) {
+      CompletableFuture<Void> future = client.submit(new ValueCommands.Listen(changeInterval, changeValues));
+      listenFuture = future;
+      future.whenComplete((result, error) -> {
+        if (error != null) {
+          // The instance was never registered, so remove all listeners added while the request was pending.
+          synchronized (this) {
+            if (listenFuture == future) {
+              listenFuture = null;
+              changeListeners.clear();
+            }
+          }
+        }
+      });
+    }
+    return listenFuture.thenApply(v -> listener);
+  }
+
+  /**
+   * Value change listener.
+   */
+  private class ChangeListener implements Listener<ChangeEvent<U>> {
+    private final Consumer<ChangeEvent<U>> callback;
+
+    private ChangeListener(Consumer<ChangeEvent<U>> callback) {
+      this.callback = callback;
+    }
+
+    @Override
+    public void accept(ChangeEvent<U> event) {
+      callback.accept(event);
+    }
+
+    @Override
+    public void close() {
+      synchronized (AbstractDistributedValue.this) {
+        if (changeListeners.remove(this) && changeListeners.isEmpty()) {
+          listenFuture = null;
+          client.submit(new ValueCommands.Unlisten());
+        }
+      }
+    }
+  }
+
+  /**
+   * Value change event.
+   * <p>
+   * Change events are published to registered instances when the value is modified or expires. The
+   * {@link #version() version} of the event is the index of the last change it represents and increases
+   * monotonically. If the instance was configured to receive {@link Options#withChangeValues(boolean) only
+   * versions}, the {@link #oldValue() old} and {@link #newValue() new} values will be {@code null}.
+   */
+  public static class ChangeEvent<T> implements CatalystSerializable {
+    private long version;
+    private T oldValue;
+    private T newValue;
+
+    public ChangeEvent() {
+    }
+
+    public ChangeEvent(long version, T oldValue, T newValue) {
+      this.version = version;
+      this.oldValue = oldValue;
+      this.newValue = newValue;
+    }
+
+    /**
+     * Returns the version of the change.
+     *
+     * @return The version of the change.
+     */
+    public long version() {
+      return version;
+    }
+
+    /**
+     * Returns the value prior to the change.
+     *
+     * @return The value prior to the change.
+     */
+    public T oldValue() {
+      return oldValue;
+    }
+
+    /**
+     * Returns the value after the change.
+     *
+     * @return The value after the change.
+     */
+    public T newValue() {
+      return newValue;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeLong(version);
+      serializer.writeObject(oldValue, buffer);
+      serializer.writeObject(newValue, buffer);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      version = buffer.readLong();
+      oldValue = serializer.readObject(buffer);
+      newValue = serializer.readObject(buffer);
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[version=%d, oldValue=%s, newValue=%s]", getClass().getSimpleName(), version, oldValue, newValue);
+    }
+  }
+
 }
@@ -15,14 +15,22 @@
  */
 package io.atomix.variables;
 
+import io.atomix.catalyst.concurrent.Listener;
+import io.atomix.catalyst.concurrent.Listeners;
+import io.atomix.catalyst.concurrent.Scheduled;
+import io.atomix.catalyst.util.Assert;
 import io.atomix.copycat.client.CopycatClient;
 import io.atomix.resource.ReadConsistency;
 import io.atomix.resource.ResourceTypeInfo;
 import io.atomix.variables.internal.LongCommands;
 import io.atomix.variables.util.DistributedLongFactory;
 
+import java.time.Duration;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 /**
  * Stores a replicated 64-bit number, supporting atomic increments, decrements, and compare-and-set.
@@ -49,14 +57,275 @@ import java.util.concurrent.CompletableFuture;
  * Periodically, a 64-bit snapshot of the resource's state is written to disk, and prior
  * {@link #incrementAndGet() increment} and {@link #decrementAndGet() decrement} operations are removed
  * from the replicated log during compaction.
+ * <h3>Accumulating counters</h3>
+ * Counters that are updated frequently from many threads but read rarely can be configured to accumulate
+ * updates locally. When {@link Options#withAccumulation(Duration) accumulation} is enabled, updates made
+ * via {@link #add(long)}, {@link #increment()}, and {@link #decrement()} are summed in a local
+ * {@link LongAdder} and periodically written to the cluster as a single {@code addAndGet} operation.
+ * <pre>
+ *   {@code
+ *   DistributedLong.Options options = new DistributedLong.Options()
+ *     .withAccumulation(Duration.ofMillis(100))
+ *     .withFlushThreshold(1000);
+ *   DistributedLong counter = atomix.getLong("requests", options).get();
+ *   counter.increment();
+ *   }
+ * </pre>
+ * Accumulated updates are not visible to other instances of the resource until they're {@link #flush() flushed},
+ * and updates that have not been flushed are lost if the process crashes. Other operations on the resource
+ * are unaffected by accumulation and are still written to the cluster individually.
  *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
 @ResourceTypeInfo(id=-2, factory=DistributedLongFactory.class)
 public class DistributedLong extends AbstractDistributedValue<DistributedLong, Long> {
 
+  /**
+   * Long options.
+   */
+  public static class Options extends AbstractDistributedValue.Options {
+    private static final long DEFAULT_FLUSH_THRESHOLD = 10000;
+    private static final long DEFAULT_MAX_UNFLUSHED = Long.MAX_VALUE;
+
+    public Options() {
+    }
+
+    public Options(Properties defaults) {
+      super(defaults);
+    }
+
+    /**
+     * Enables accumulation of local updates, flushing them to the cluster at the given interval.
+     *
+     * @param interval The interval at which to flush accumulated updates to the cluster.
+     * @return The long options.
+     * @throws NullPointerException if the interval is {@code null}
+     * @throws IllegalArgumentException if the interval is not positive
+     */
+    public Options withAccumulation(Duration interval) {
+      Assert.arg(!Assert.notNull(interval, "interval").isNegative() && !interval.isZero(), "interval must be positive");
+      setProperty("accumulation.interval", String.valueOf(interval.toMillis()));
+      return this;
+    }
+
+    /**
+     * Returns the interval at which accumulated updates are flushed to the cluster.
+     *
+     * @return The accumulation flush interval, or {@code null} if accumulation is disabled.
+     */
+    public Duration getAccumulation() {
+      String interval = getProperty("accumulation.interval");
+      return interval != null ? Duration.ofMillis(Long.valueOf(interval)) : null;
+    }
+
+    /**
+     * Sets the number of accumulated updates after which to flush updates to the cluster.
+     *
+     * @param threshold The number of accumulated updates after which to flush updates to the cluster.
+     * @return The long options.
+     * @throws IllegalArgumentException if the threshold is not positive
+     */
+    public Options withFlushThreshold(long threshold) {
+      Assert.arg(threshold > 0, "threshold must be positive");
+      setProperty("accumulation.threshold", String.valueOf(threshold));
+      return this;
+    }
+
+    /**
+     * Returns the number of accumulated updates after which to flush updates to the cluster.
+     *
+     * @return The number of accumulated updates after which to flush updates to the cluster.
+     */
+    public long getFlushThreshold() {
+      return Long.valueOf(getProperty("accumulation.threshold", String.valueOf(DEFAULT_FLUSH_THRESHOLD)));
+    }
+
+    /**
+     * Sets the maximum absolute delta that may be accumulated without being flushed to the cluster.
+     * <p>
+     * Once the accumulated delta reaches the limit, further local updates will be rejected until
+     * accumulated updates have been successfully flushed.
+     *
+     * @param maxUnflushed The maximum absolute delta that may be accumulated.
+     * @return The long options.
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    public Options withMaxUnflushed(long maxUnflushed) {
+      Assert.arg(maxUnflushed > 0, "maxUnflushed must be positive");
+      setProperty("accumulation.maxUnflushed", String.valueOf(maxUnflushed));
+      return this;
+    }
+
+    /**
+     * Returns the maximum absolute delta that may be accumulated without being flushed to the cluster.
+     *
+     * @return The maximum absolute delta that may be accumulated.
+     */
+    public long getMaxUnflushed() {
+      return Long.valueOf(getProperty("accumulation.maxUnflushed", String.valueOf(DEFAULT_MAX_UNFLUSHED)));
+    }
+  }
+
+  private final Duration flushInterval;
+  private final long flushThreshold;
+  private final long maxUnflushed;
+  private final LongAdder unflushed = new LongAdder();
+  private final AtomicLong updates = new AtomicLong();
+  private final Listeners<Throwable> flushErrorListeners = new Listeners<>();
+  private Scheduled flushTimer;
+  private CompletableFuture<Void> flushFuture;
+
   public DistributedLong(CopycatClient client, Properties options) {
     super(client, options);
+    Options longOptions = new Options(options);
+    this.flushInterval = longOptions.getAccumulation();
+    this.flushThreshold = longOptions.getFlushThreshold();
+    this.maxUnflushed = longOptions.getMaxUnflushed();
+  }
+
+  @Override
+  public CompletableFuture<DistributedLong> open() {
+    return super.open().thenApply(result -> {
+      if (flushInterval != null) {
+        flushTimer = client.context().schedule(flushInterval, flushInterval, this::flushAccumulated);
+      }
+      return result;
+    });
+  }
+
+  /**
+   * Adds a delta to the long without awaiting the result.
+   * <p>
+   * If {@link Options#withAccumulation(Duration) accumulation} is enabled, the delta will be added to a local
+   * accumulator and written to the cluster with other accumulated updates on the next {@link #flush() flush}.
+   * Otherwise, the delta is written to the cluster immediately. In either case, failures to write the update
+   * to the cluster are reported to {@link #onFlushError(Consumer) flush error listeners}.
+   *
+   * @param delta The delta to add.
+   * @throws IllegalStateException if the accumulated delta exceeds the configured
+   *         {@link Options#withMaxUnflushed(long) maximum unflushed delta}
+   */
+  public void add(long delta) {
+    if (flushInterval == null) {
+      client.submit(new LongCommands.AddAndGet(delta)).whenComplete((result, error) -> {
+        if (error != null) {
+          flushErrorListeners.accept(error);
+        }
+      });
+      return;
+    }
+
+    long pending = unflushed.sum();
+    if (Math.abs(pending + delta) > maxUnflushed) {
+      flushAccumulated();
+      throw new IllegalStateException("too many unflushed updates: " + pending);
+    }
+
+    unflushed.add(delta);
+    if (updates.incrementAndGet() >= flushThreshold) {
+      flushAccumulated();
+    }
+  }
+
+  /**
+   * Increments the long without awaiting the result.
+   *
+   * @see #add(long)
+   */
+  public void increment() {
+    add(1);
+  }
+
+  /**
+   * Decrements the long without awaiting the result.
+   *
+   * @see #add(long)
+   */
+  public void decrement() {
+    add(-1);
+  }
+
+  /**
+   * Flushes accumulated updates to the cluster.
+   * <p>
+   * All updates accumulated via {@link #add(long)} prior to the call are written to the cluster as a single
+   * {@code addAndGet} operation. Only one flush is written to the cluster at a time; if a flush is already in
+   * progress, the returned {@link CompletableFuture} is completed once updates accumulated in the meantime have
+   * been written by a subsequent flush.
+   * <p>
+   * If the write fails, the returned {@link CompletableFuture} is completed exceptionally and the failure is
+   * reported to {@link #onFlushError(Consumer) flush error listeners}. A failed write may still have been applied
+   * by the cluster, e.g. if the response was lost, so the flushed delta is not retried. Updates are only retained
+   * in the local accumulator if they could not be submitted because the resource is closed.
+   *
+   * @return A completable future to be completed once accumulated updates have been written to the cluster.
+   */
+  public CompletableFuture<Void> flush() {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    long delta;
+    synchronized (this) {
+      if (flushFuture != null) {
+        return flushFuture.handle((result, error) -> null).thenCompose(v -> flush());
+      }
+
+      delta = unflushed.sum();
+      if (delta == 0) {
+        return CompletableFuture.completedFuture(null);
+      } else if (isClosed()) {
+        future.completeExceptionally(new IllegalStateException("resource closed"));
+        return future;
+      }
+
+      // Subtract the flushed delta rather than resetting the accumulator so concurrent updates are not lost.
+      unflushed.add(-delta);
+      updates.set(0);
+      flushFuture = future;
+    }
+
+    client.submit(new LongCommands.AddAndGet(delta)).whenComplete((result, error) -> {
+      synchronized (this) {
+        flushFuture = null;
+      }
+      if (error == null) {
+        future.complete(null);
+      } else {
+        flushErrorListeners.accept(error);
+        future.completeExceptionally(error);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Flushes accumulated updates if a flush is not already in progress.
+   */
+  private void flushAccumulated() {
+    boolean idle;
+    synchronized (this) {
+      idle = flushFuture == null;
+    }
+    if (idle) {
+      flush();
+    }
+  }
+
+  /**
+   * Registers a listener to be called when accumulated updates fail to be written to the cluster.
+   *
+   * @param callback The callback to call when a flush fails.
+   * @return The flush error listener.
+   */
+  public Listener<Throwable> onFlushError(Consumer<Throwable> callback) {
+    return flushErrorListeners.add(Assert.notNull(callback, "callback"));
+  }
+
+  @Override
+  public CompletableFuture<Void> close() {
+    if (flushTimer != null) {
+      flushTimer.cancel();
+      flushTimer = null;
+    }
+    return flush().handle((result, error) -> null).thenCompose(v -> super.close());
   }
 
   /**
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.variables;
+
+import io.atomix.catalyst.util.Assert;
+import io.atomix.copycat.client.CopycatClient;
+import io.atomix.resource.AbstractResource;
+import io.atomix.resource.Resource;
+import io.atomix.resource.ResourceTypeInfo;
+import io.atomix.variables.internal.LongCommands;
+import io.atomix.variables.util.DistributedSequenceFactory;
+
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Generates unique, monotonically increasing 64-bit identifiers from blocks reserved in the cluster.
+ * <p>
+ * The {@code DistributedSequence} resource is an ID generator built on the same replicated state as
+ * {@link DistributedLong}. Rather than committing a write to the cluster for each identifier, the sequence
+ * reserves a block of identifiers with a single {@code getAndAdd} operation and hands them out locally.
+ * Identifiers within a block are allocated lock-free and may be requested concurrently from any thread.
+ * <pre>
+ *   {@code
+ *   DistributedSequence sequence = atomix.getSequence("ids").get();
+ *   sequence.next().thenAccept(id -> {
+ *     ...
+ *   });
+ *   }
+ * </pre>
+ * Identifiers are guaranteed to be unique across all instances of the sequence in the cluster. Identifiers
+ * handed out by a single instance are monotonically increasing, but identifiers handed out by different
+ * instances are interleaved by block.
+ * <p>
+ * The number of identifiers reserved per block and the point at which the next block is requested can be
+ * configured via {@link Options}. Once the number of identifiers remaining in the current block falls to the
+ * {@link Options#withPrefetchThreshold(int) prefetch threshold}, the next block is reserved asynchronously so
+ * that callers do not wait on a round trip to the cluster when the current block is exhausted.
+ * <pre>
+ *   {@code
+ *   DistributedSequence.Options options = new DistributedSequence.Options()
+ *     .withBlockSize(10000)
+ *     .withPrefetchThreshold(2000);
+ *   DistributedSequence sequence = atomix.getSequence("ids", options).get();
+ *   }
+ * </pre>
+ * <h3>Wasted identifiers</h3>
+ * Identifiers reserved by a sequence instance but not handed out before the instance is {@link #close() closed}
+ * are never reused. The number of identifiers lost this way can be read from {@link #wasted()} once the sequence
+ * has been closed. Larger block sizes reduce the number of writes to the cluster at the cost of potentially
+ * larger gaps in the sequence.
+ * <h3>Implementation</h3>
+ * State management for the {@code DistributedSequence} resource is shared with {@link DistributedLong}. Each
+ * block reservation is a single {@code getAndAdd} write to the replicated long, so the cost of generating
+ * identifiers is one commit per block rather than one commit per identifier.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@ResourceTypeInfo(id=-3, factory=DistributedSequenceFactory.class)
+public class DistributedSequence extends AbstractResource<DistributedSequence> {
+
+  /**
+   * Sequence options.
+   */
+  public static class Options extends Resource.Options {
+    private static final int DEFAULT_BLOCK_SIZE = 1000;
+
+    public Options() {
+    }
+
+    public Options(Properties defaults) {
+      super(defaults);
+    }
+
+    /**
+     * Sets the number of identifiers to reserve per block.
+     *
+     * @param blockSize The number of identifiers to reserve per block.
+     * @return The sequence options.
+     * @throws IllegalArgumentException if the block size is not positive
+     */
+    public Options withBlockSize(int blockSize) {
+      Assert.arg(blockSize > 0, "blockSize must be positive");
+      setProperty("blockSize", String.valueOf(blockSize));
+      return this;
+    }
+
+    /**
+     * Returns the number of identifiers to reserve per block.
+     *
+     * @return The number of identifiers to reserve per block.
+     */
+    public int getBlockSize() {
+      return Integer.valueOf(getProperty("blockSize", String.valueOf(DEFAULT_BLOCK_SIZE)));
+    }
+
+    /**
+     * Sets the number of remaining identifiers at which to reserve the next block.
+     *
+     * @param threshold The number of remaining identifiers at which to reserve the next block.
+     * @return The sequence options.
+     * @throws IllegalArgumentException if the threshold is negative
+     */
+    public Options withPrefetchThreshold(int threshold) {
+      Assert.arg(threshold >= 0, "threshold must not be negative");
+      setProperty("prefetchThreshold", String.valueOf(threshold));
+      return this;
+    }
+
+    /**
+     * Returns the number of remaining identifiers at which to reserve the next block.
+     * <p>
+     * Defaults to one quarter of the {@link #getBlockSize() block size}.
+     *
+     * @return The number of remaining identifiers at which to reserve the next block.
+     */
+    public int getPrefetchThreshold() {
+      return Integer.valueOf(getProperty("prefetchThreshold", String.valueOf(getBlockSize() / 4)));
+    }
+  }
+
+  private final int blockSize;
+  private final int prefetchThreshold;
+  private final AtomicReference<Block> block = new AtomicReference<>();
+  private final AtomicReference<CompletableFuture<Block>> prefetch = new AtomicReference<>();
+  private final AtomicLong wasted = new AtomicLong();
+
+  public DistributedSequence(CopycatClient client, Properties options) {
+    super(client, options);
+    Options sequenceOptions = new Options(options);
+    this.blockSize = sequenceOptions.getBlockSize();
+    this.prefetchThreshold = Math.min(sequenceOptions.getPrefetchThreshold(), blockSize);
+  }
+
+  /**
+   * Returns the next identifier in the sequence.
+   * <p>
+   * If identifiers remain in the block reserved by this instance, the returned {@link CompletableFuture} will be
+   * completed immediately on the calling thread. Otherwise, the future will be completed once the next block
+   * has been reserved in the cluster. Identifiers are guaranteed to be unique across all instances of the sequence.
+   *
+   * @return A completable future to be completed with the next identifier in the sequence.
+   */
+  public CompletableFuture<Long> next() {
+    Block block = this.block.get();
+    if (block != null) {
+      long id = block.next();
+      if (id < block.end) {
+        if (block.remaining() <= prefetchThreshold) {
+          prefetch();
+        }
+        return CompletableFuture.completedFuture(id);
+      }
+    }
+    return nextBlock(block).thenCompose(b -> next());
+  }
+
+  /**
+   * Returns the number of identifiers reserved by this instance but never handed out.
+   * <p>
+   * The count is only final once the sequence has been {@link #close() closed}.
+   *
+   * @return The number of wasted identifiers.
+   */
+  public long wasted() {
+    return wasted.get();
+  }
+
+  /**
+   * Replaces the given exhausted block with the next reserved block.
+   */
+  private CompletableFuture<Block> nextBlock(Block exhausted) {
+    CompletableFuture<Block> future = prefetch();
+    return future.thenApply(next -> {
+      if (this.block.compareAndSet(exhausted, next)) {
+        prefetch.compareAndSet(future, null);
+      }
+      return next;
+    });
+  }
+
+  /**
+   * Reserves the next block if a reservation is not already in progress.
+   */
+  private CompletableFuture<Block> prefetch() {
+    CompletableFuture<Block> future = prefetch.get();
+    if (future != null) {
+      return future;
+    }
+
+    CompletableFuture<Block> newFuture = new CompletableFuture<>();
+    if (!prefetch.compareAndSet(null, newFuture)) {
+      return prefetch.get();
+    }
+
+    client.submit(new LongCommands.GetAndAdd(blockSize)).whenComplete((start, error) -> {
+      if (error == null) {
+        newFuture.complete(new Block(start, start + blockSize));
+      } else {
+        prefetch.compareAndSet(newFuture, null);
+        newFuture.completeExceptionally(error);
+      }
+    });
+    return newFuture;
+  }
+
+  @Override
+  public CompletableFuture<Void> close() {
+    Block block = this.block.getAndSet(null);
+    if (block != null) {
+      wasted.addAndGet(block.remaining());
+    }
+
+    CompletableFuture<Block> prefetch = this.prefetch.getAndSet(null);
+    if (prefetch != null) {
+      return prefetch.handle((next, error) -> {
+        if (next != null) {
+          wasted.addAndGet(next.remaining());
+        }
+        return null;
+      }).thenCompose(v -> super.close());
+    }
+    return super.close();
+  }
+
+  /**
+   * Reserved block of identifiers.
+   */
+  private static class Block {
+    private final AtomicLong next;
+    private final long end;
+
+    private Block(long start, long end) {
+      this.next = new AtomicLong(start);
+      this.end = end;
+    }
+
+    /**
+     * Allocates the next identifier. The block is exhausted once the returned identifier reaches the block end.
+     */
+    long next() {
+      return next.getAndIncrement();
+    }
+
+    /**
+     * Returns the number of identifiers remaining in the block.
+     */
+    long remaining() {
+      return Math.max(end - next.get(), 0);
+    }
+  }
+
+}
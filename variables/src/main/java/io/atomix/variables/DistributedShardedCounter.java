@@ -0,0 +1,284 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.variables;
+
+import io.atomix.catalyst.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Global counter that spreads writes across a set of {@link DistributedLong} shards.
+ * <p>
+ * A single {@link DistributedLong} serializes every update through one state machine, so a counter that is
+ * updated frequently by many clients can become a bottleneck. The {@code DistributedShardedCounter} splits
+ * the counter into a fixed number of shards, each of which is a separate {@link DistributedLong} resource.
+ * Updates are applied to a single shard, and the value of the counter is the sum of all shards.
+ * <pre>
+ *   {@code
+ *   DistributedShardedCounter counter = atomix.getShardedCounter("requests", new DistributedShardedCounter.Options()
+ *     .withShards(8)).get();
+ *   counter.increment();
+ *   }
+ * </pre>
+ * The shard to which an update is applied is determined by the configured {@link Selection}. Reads of the
+ * counter query all shards in parallel. Because shards are read independently, the value returned by
+ * {@link #get()} is not an atomic snapshot of the counter when updates are performed concurrently, but it
+ * reflects all updates completed before the read was started. Counters that are read frequently can use
+ * {@link #getCached()} to avoid querying every shard on each read.
+ * <p>
+ * All instances of a sharded counter must be configured with the same number of shards. Updates applied to
+ * shards that are not known to a given instance will not be reflected in that instance's reads.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class DistributedShardedCounter {
+
+  /**
+   * Determines the shard to which an update is applied.
+   */
+  public enum Selection {
+
+    /**
+     * Selects a shard based on the updating thread. Updates from distinct threads in the same process
+     * are spread across shards.
+     */
+    THREAD,
+
+    /**
+     * Selects a single shard for the counter instance when it's created. All updates from the instance
+     * are applied to the same shard, and updates from distinct clients are spread across shards.
+     */
+    SESSION
+
+  }
+
+  /**
+   * Sharded counter options.
+   */
+  public static class Options {
+    private static final int DEFAULT_SHARDS = 8;
+    private int shards = DEFAULT_SHARDS;
+    private Selection selection = Selection.THREAD;
+    private Duration cacheTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Sets the number of shards across which to spread the counter.
+     *
+     * @param shards The number of shards across which to spread the counter.
+     * @return The sharded counter options.
+     * @throws IllegalArgumentException if the number of shards is not positive
+     */
+    public Options withShards(int shards) {
+      this.shards = Assert.arg(shards, shards > 0, "shards must be positive");
+      return this;
+    }
+
+    /**
+     * Returns the number of shards across which to spread the counter.
+     *
+     * @return The number of shards across which to spread the counter.
+     */
+    public int getShards() {
+      return shards;
+    }
+
+    /**
+     * Sets the strategy with which to select the shard to which an update is applied.
+     *
+     * @param selection The shard selection strategy.
+     * @return The sharded counter options.
+     * @throws NullPointerException if the selection strategy is {@code null}
+     */
+    public Options withSelection(Selection selection) {
+      this.selection = Assert.notNull(selection, "selection");
+      return this;
+    }
+
+    /**
+     * Returns the strategy with which to select the shard to which an update is applied.
+     *
+     * @return The shard selection strategy.
+     */
+    public Selection getSelection() {
+      return selection;
+    }
+
+    /**
+     * Sets the duration for which values read via {@link DistributedShardedCounter#getCached()} are cached.
+     *
+     * @param cacheTimeout The duration for which read values are cached.
+     * @return The sharded counter options.
+     * @throws NullPointerException if the timeout is {@code null}
+     * @throws IllegalArgumentException if the timeout is negative
+     */
+    public Options withCacheTimeout(Duration cacheTimeout) {
+      this.cacheTimeout = Assert.arg(Assert.notNull(cacheTimeout, "cacheTimeout"), !cacheTimeout.isNegative(), "cacheTimeout must be positive");
+      return this;
+    }
+
+    /**
+     * Returns the duration for which values read via {@link DistributedShardedCounter#getCached()} are cached.
+     *
+     * @return The duration for which read values are cached.
+     */
+    public Duration getCacheTimeout() {
+      return cacheTimeout;
+    }
+  }
+
+  private final List<DistributedLong> shards;
+  private final Selection selection;
+  private final long cacheTimeout;
+  private final int sessionShard;
+  private final AtomicReference<CachedValue> cached = new AtomicReference<>();
+
+  public DistributedShardedCounter(List<DistributedLong> shards, Options options) {
+    Assert.arg(!Assert.notNull(shards, "shards").isEmpty(), "shards cannot be empty");
+    Assert.notNull(options, "options");
+    this.shards = new ArrayList<>(shards);
+    this.selection = options.getSelection();
+    this.cacheTimeout = options.getCacheTimeout().toNanos();
+    this.sessionShard = ThreadLocalRandom.current().nextInt(shards.size());
+  }
+
+  /**
+   * Returns the number of shards across which the counter is spread.
+   *
+   * @return The number of shards across which the counter is spread.
+   */
+  public int shards() {
+    return shards.size();
+  }
+
+  /**
+   * Adds a delta to the counter.
+   *
+   * @param delta The delta to add.
+   * @return A completable future to be completed once the delta has been applied to a shard.
+   */
+  public CompletableFuture<Void> add(long delta) {
+    return shard().addAndGet(delta).thenApply(v -> null);
+  }
+
+  /**
+   * Increments the counter.
+   *
+   * @return A completable future to be completed once the counter has been incremented.
+   */
+  public CompletableFuture<Void> increment() {
+    return add(1);
+  }
+
+  /**
+   * Decrements the counter.
+   *
+   * @return A completable future to be completed once the counter has been decremented.
+   */
+  public CompletableFuture<Void> decrement() {
+    return add(-1);
+  }
+
+  /**
+   * Reads the value of the counter by summing all shards.
+   *
+   * @return A completable future to be completed with the sum of all shards.
+   */
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<Long> get() {
+    CompletableFuture<Long>[] futures = new CompletableFuture[shards.size()];
+    for (int i = 0; i < shards.size(); i++) {
+      futures[i] = shards.get(i).get();
+    }
+    return CompletableFuture.allOf(futures).thenApply(v -> {
+      long sum = 0;
+      for (CompletableFuture<Long> future : futures) {
+        Long value = future.join();
+        if (value != null) {
+          sum += value;
+        }
+      }
+      cached.set(new CachedValue(sum, System.nanoTime()));
+      return sum;
+    });
+  }
+
+  /**
+   * Reads the value of the counter, returning a recently read value if one exists.
+   * <p>
+   * If the counter was read within the configured {@link Options#withCacheTimeout(Duration) cache timeout},
+   * the returned {@link CompletableFuture} will be completed immediately with the previously read value.
+   * Otherwise, the counter is read from all shards as with {@link #get()}.
+   *
+   * @return A completable future to be completed with the value of the counter.
+   */
+  public CompletableFuture<Long> getCached() {
+    CachedValue value = cached.get();
+    if (value != null && System.nanoTime() - value.time < cacheTimeout) {
+      return CompletableFuture.completedFuture(value.value);
+    }
+    return get();
+  }
+
+  /**
+   * Closes all shards of the counter.
+   *
+   * @return A completable future to be completed once all shards have been closed.
+   */
+  public CompletableFuture<Void> close() {
+    return CompletableFuture.allOf(shards.stream().map(DistributedLong::close).toArray(CompletableFuture[]::new));
+  }
+
+  /**
+   * Deletes all shards of the counter.
+   *
+   * @return A completable future to be completed once all shards have been deleted.
+   */
+  public CompletableFuture<Void> delete() {
+    return CompletableFuture.allOf(shards.stream().map(DistributedLong::delete).toArray(CompletableFuture[]::new));
+  }
+
+  /**
+   * Returns the shard to which to apply an update.
+   */
+  private DistributedLong shard() {
+    switch (selection) {
+      case THREAD:
+        return shards.get((int) (Thread.currentThread().getId() % shards.size()));
+      case SESSION:
+      default:
+        return shards.get(sessionShard);
+    }
+  }
+
+  /**
+   * Cached counter value.
+   */
+  private static class CachedValue {
+    private final long value;
+    private final long time;
+
+    private CachedValue(long value, long time) {
+      this.value = value;
+      this.time = time;
+    }
+  }
+
+}
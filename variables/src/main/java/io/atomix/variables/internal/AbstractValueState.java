@@ -17,82 +17,169 @@ package io.atomix.variables.internal;
 
 import io.atomix.catalyst.concurrent.Scheduled;
 import io.atomix.copycat.server.Commit;
+import io.atomix.copycat.server.Snapshottable;
+import io.atomix.copycat.server.session.ServerSession;
+import io.atomix.copycat.server.storage.snapshot.SnapshotReader;
+import io.atomix.copycat.server.storage.snapshot.SnapshotWriter;
 import io.atomix.resource.ResourceStateMachine;
+import io.atomix.variables.AbstractDistributedValue;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 /**
  * Abstract distributed value state machine.
+ * <p>
+ * Value commits are released as soon as they're applied. The value, its version, and the remaining time to
+ * live of the value are written to snapshots so that replicas can recover the value without replaying
+ * its history from the log. Listen commits are retained for as long as the listener is registered.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
-public class AbstractValueState<T> extends ResourceStateMachine {
+public class AbstractValueState<T> extends ResourceStateMachine implements Snapshottable {
   protected T value;
-  protected Commit<? extends ValueCommands.ValueCommand<?>> current;
+  protected long version;
+  protected long expiration;
   protected Scheduled timer;
+  private final Map<Long, ChangeListener> listeners = new HashMap<>();
 
   public AbstractValueState(Properties config) {
     super(config);
   }
 
+  @Override
+  public void close(ServerSession session) {
+    ChangeListener listener = listeners.remove(session.id());
+    if (listener != null) {
+      listener.close();
+    }
+  }
+
+  /**
+   * Handles a listen commit.
+   * <p>
+   * The listen commit is retained until the session unlistens or is closed so that the registration is
+   * restored when the log is replayed.
+   */
+  public void listen(Commit<ValueCommands.Listen> commit) {
+    ChangeListener listener = listeners.put(commit.session().id(), new ChangeListener(commit));
+    if (listener != null) {
+      listener.close();
+    }
+  }
+
+  /**
+   * Handles an unlisten commit.
+   */
+  public void unlisten(Commit<ValueCommands.Unlisten> commit) {
+    try {
+      ChangeListener listener = listeners.remove(commit.session().id());
+      if (listener != null) {
+        listener.close();
+      }
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Publishes a change to all listening sessions.
+   *
+   * @param version The version of the change.
+   * @param oldValue The value prior to the change.
+   * @param newValue The value after the change.
+   */
+  protected void change(long version, T oldValue, T newValue) {
+    if (listeners.isEmpty()) {
+      return;
+    }
+
+    long time = context.clock().millis();
+    for (ChangeListener listener : listeners.values()) {
+      listener.change(version, oldValue, newValue, time);
+    }
+  }
+
   /**
    * Handles a get commit.
    */
   public T get(Commit<ValueCommands.Get<T>> commit) {
     try {
-      return current != null ? value : null;
+      return value;
     } finally {
       commit.close();
     }
   }
 
   /**
-   * Cleans the current commit.
+   * Updates the current value and schedules its expiration.
    */
-  private void cleanCurrent() {
-    if (current != null) {
-      if (timer != null) {
-        timer.cancel();
+  private void update(T value, long ttl, long index) {
+    cancelExpiration();
+    this.value = value;
+    this.version = index;
+    scheduleExpiration(ttl);
+  }
+
+  /**
+   * Schedules the current value to expire after the given time to live.
+   */
+  private void scheduleExpiration(long ttl) {
+    if (ttl > 0) {
+      expiration = context.clock().millis() + ttl;
+      timer = executor.schedule(Duration.ofMillis(ttl), () -> {
+        T oldValue = value;
+        value = null;
+        version = context.index();
+        expiration = 0;
         timer = null;
-      }
-      current.close();
+        change(version, oldValue, null);
+      });
+    } else {
+      expiration = 0;
     }
   }
 
   /**
-   * Sets the current commit.
+   * Cancels the expiration of the current value.
    */
-  private void setCurrent(Commit<? extends ValueCommands.ValueCommand<?>> commit) {
-    timer = commit.operation().ttl() > 0 ? executor.schedule(Duration.ofMillis(commit.operation().ttl()), () -> {
-      value = null;
-      current.close();
-      current = null;
-    }) : null;
-    current = commit;
+  private void cancelExpiration() {
+    if (timer != null) {
+      timer.cancel();
+      timer = null;
+    }
+    expiration = 0;
   }
 
   /**
    * Applies a set commit.
    */
   public void set(Commit<ValueCommands.Set<T>> commit) {
-    cleanCurrent();
-    value = commit.operation().value();
-    setCurrent(commit);
+    try {
+      T oldValue = value;
+      update(commit.operation().value(), commit.operation().ttl(), commit.index());
+      change(commit.index(), oldValue, value);
+    } finally {
+      commit.close();
+    }
   }
 
   /**
    * Handles a compare and set commit.
    */
   public boolean compareAndSet(Commit<ValueCommands.CompareAndSet<T>> commit) {
-    if ((value == null && commit.operation().expect() == null) || (value != null && commit.operation().expect() != null && value.equals(commit.operation().expect()))) {
-      value = commit.operation().update();
-      cleanCurrent();
-      setCurrent(commit);
-      return true;
-    } else {
-      commit.close();
+    try {
+      if ((value == null && commit.operation().expect() == null) || (value != null && commit.operation().expect() != null && value.equals(commit.operation().expect()))) {
+        T oldValue = value;
+        update(commit.operation().update(), commit.operation().ttl(), commit.index());
+        change(commit.index(), oldValue, value);
+        return true;
+      }
       return false;
+    } finally {
+      commit.close();
     }
   }
 
@@ -100,23 +187,109 @@ public class AbstractValueState<T> extends ResourceStateMachine {
    * Handles a get and set commit.
    */
   public T getAndSet(Commit<ValueCommands.GetAndSet<T>> commit) {
-    T result = value;
-    value = commit.operation().value();
-    cleanCurrent();
-    setCurrent(commit);
-    return result;
+    try {
+      T result = value;
+      update(commit.operation().value(), commit.operation().ttl(), commit.index());
+      change(commit.index(), result, value);
+      return result;
+    } finally {
+      commit.close();
+    }
+  }
+
+  /**
+   * Writes the value to a snapshot.
+   * <p>
+   * Change listeners are not written to the snapshot. Their listen commits are retained in the log and are
+   * replayed alongside the snapshot when it's installed.
+   */
+  @Override
+  public void snapshot(SnapshotWriter writer) {
+    writer.writeObject(value);
+    writer.writeLong(version);
+    writer.writeLong(expiration > 0 ? Math.max(expiration - context.clock().millis(), 1) : 0);
+  }
+
+  @Override
+  public void install(SnapshotReader reader) {
+    cancelExpiration();
+    value = reader.readObject();
+    version = reader.readLong();
+    scheduleExpiration(reader.readLong());
   }
 
   @Override
   public void delete() {
-    if (current != null) {
-      current.close();
-      current = null;
-      value = null;
+    cancelExpiration();
+    value = null;
+    listeners.values().forEach(ChangeListener::close);
+    listeners.clear();
+  }
+
+  /**
+   * Session change listener.
+   * <p>
+   * Changes that occur within the listener's interval after the last published event are coalesced into a
+   * single pending event that is published once the interval has elapsed. Intervals are measured in
+   * state machine time to ensure events are published deterministically on all servers.
+   */
+  private class ChangeListener implements AutoCloseable {
+    private final Commit<ValueCommands.Listen> commit;
+    private final ServerSession session;
+    private final long interval;
+    private final boolean values;
+    private long lastPublished;
+    private AbstractDistributedValue.ChangeEvent<T> pending;
+    private Scheduled timer;
+
+    private ChangeListener(Commit<ValueCommands.Listen> commit) {
+      this.commit = commit;
+      this.session = commit.session();
+      this.interval = commit.operation().interval();
+      this.values = commit.operation().values();
+      this.lastPublished = -interval;
     }
-    if (timer != null) {
-      timer.cancel();
-      timer = null;
+
+    /**
+     * Handles a change to the value.
+     */
+    private void change(long version, T oldValue, T newValue, long time) {
+      if (pending != null) {
+        pending = new AbstractDistributedValue.ChangeEvent<>(version, pending.oldValue(), values ? newValue : null);
+      } else if (time - lastPublished >= interval) {
+        publish(new AbstractDistributedValue.ChangeEvent<>(version, values ? oldValue : null, values ? newValue : null), time);
+      } else {
+        pending = new AbstractDistributedValue.ChangeEvent<>(version, values ? oldValue : null, values ? newValue : null);
+        timer = executor.schedule(Duration.ofMillis(interval - (time - lastPublished)), () -> {
+          AbstractDistributedValue.ChangeEvent<T> event = pending;
+          pending = null;
+          timer = null;
+          publish(event, context.clock().millis());
+        });
+      }
+    }
+
+    /**
+     * Publishes a change event to the session.
+     */
+    private void publish(AbstractDistributedValue.ChangeEvent<T> event, long time) {
+      lastPublished = time;
+      if (session.state().active()) {
+        session.publish("change", event);
+      }
+    }
+
+    /**
+     * Cancels any pending change event and releases the listen commit.
+     */
+    @Override
+    public void close() {
+      if (timer != null) {
+        timer.cancel();
+        timer = null;
+      }
+      pending = null;
+      commit.close();
     }
   }
 
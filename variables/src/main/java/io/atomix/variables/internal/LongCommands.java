@@ -22,6 +22,7 @@ import io.atomix.catalyst.serializer.SerializableTypeResolver;
 import io.atomix.catalyst.serializer.Serializer;
 import io.atomix.catalyst.serializer.SerializerRegistry;
 import io.atomix.copycat.Command;
+import io.atomix.variables.AbstractDistributedValue;
 
 /**
  * Long commands.
@@ -152,6 +153,9 @@ public final class LongCommands {
       registry.register(GetAndDecrement.class, -117);
       registry.register(AddAndGet.class, -118);
       registry.register(GetAndAdd.class, -119);
+      registry.register(ValueCommands.Listen.class, -120);
+      registry.register(ValueCommands.Unlisten.class, -121);
+      registry.register(AbstractDistributedValue.ChangeEvent.class, -122);
     }
   }
 
@@ -51,7 +51,8 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
   @Override
   public void set(Commit<ValueCommands.Set<Long>> commit) {
     try {
-      value.set(commit.operation().value());
+      long oldValue = value.getAndSet(commit.operation().value());
+      change(commit.index(), oldValue, value.get());
     } finally {
       commit.close();
     }
@@ -75,7 +76,9 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
   @Override
   public Long getAndSet(Commit<ValueCommands.GetAndSet<Long>> commit) {
     try {
-      return value.getAndSet(commit.operation().value());
+      long oldValue = value.getAndSet(commit.operation().value());
+      change(commit.index(), oldValue, value.get());
+      return oldValue;
     } finally {
       commit.close();
     }
@@ -89,7 +92,11 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
     try {
       Long expect = commit.operation().expect();
       Long update = commit.operation().update();
-      return value.compareAndSet(expect, update);
+      if (value.compareAndSet(expect, update)) {
+        change(commit.index(), expect, update);
+        return true;
+      }
+      return false;
     } finally {
       commit.close();
     }
@@ -100,7 +107,9 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
    */
   public long incrementAndGet(Commit<LongCommands.IncrementAndGet> commit) {
     try {
-      return value.incrementAndGet();
+      long newValue = value.incrementAndGet();
+      change(commit.index(), newValue - 1, newValue);
+      return newValue;
     } finally {
       commit.close();
     }
@@ -111,7 +120,9 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
    */
   public long decrementAndGet(Commit<LongCommands.DecrementAndGet> commit) {
     try {
-      return value.decrementAndGet();
+      long newValue = value.decrementAndGet();
+      change(commit.index(), newValue + 1, newValue);
+      return newValue;
     } finally {
       commit.close();
     }
@@ -122,7 +133,9 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
    */
   public long getAndIncrement(Commit<LongCommands.GetAndIncrement> commit) {
     try {
-      return value.getAndIncrement();
+      long oldValue = value.getAndIncrement();
+      change(commit.index(), oldValue, oldValue + 1);
+      return oldValue;
     } finally {
       commit.close();
     }
@@ -133,7 +146,9 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
    */
   public long getAndDecrement(Commit<LongCommands.GetAndDecrement> commit) {
     try {
-      return value.getAndDecrement();
+      long oldValue = value.getAndDecrement();
+      change(commit.index(), oldValue, oldValue - 1);
+      return oldValue;
     } finally {
       commit.close();
     }
@@ -144,7 +159,9 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
    */
   public long addAndGet(Commit<LongCommands.AddAndGet> commit) {
     try {
-      return value.addAndGet(commit.operation().delta());
+      long newValue = value.addAndGet(commit.operation().delta());
+      change(commit.index(), newValue - commit.operation().delta(), newValue);
+      return newValue;
     } finally {
       commit.close();
     }
@@ -155,7 +172,9 @@ public class LongState extends AbstractValueState<Long> implements Snapshottable
    */
   public long getAndAdd(Commit<LongCommands.GetAndAdd> commit) {
     try {
-      return value.getAndAdd(commit.operation().delta());
+      long oldValue = value.getAndAdd(commit.operation().delta());
+      change(commit.index(), oldValue, oldValue + commit.operation().delta());
+      return oldValue;
     } finally {
       commit.close();
     }
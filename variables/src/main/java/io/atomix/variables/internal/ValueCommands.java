@@ -23,6 +23,7 @@ import io.atomix.catalyst.serializer.Serializer;
 import io.atomix.catalyst.serializer.SerializerRegistry;
 import io.atomix.copycat.Command;
 import io.atomix.copycat.Query;
+import io.atomix.variables.AbstractDistributedValue;
 
 /**
  * Distributed value commands.
@@ -51,7 +52,7 @@ public class ValueCommands {
 
     @Override
     public CompactionMode compaction() {
-      return ttl > 0 ? CompactionMode.EXPIRING : CompactionMode.QUORUM;
+      return CompactionMode.SNAPSHOT;
     }
 
     /**
@@ -260,6 +261,79 @@ public class ValueCommands {
     }
   }
 
+  /**
+   * Listen command.
+   */
+  public static class Listen implements Command<Void>, CatalystSerializable {
+    private long interval;
+    private boolean values;
+
+    public Listen() {
+    }
+
+    public Listen(long interval, boolean values) {
+      this.interval = interval;
+      this.values = values;
+    }
+
+    /**
+     * Returns the minimum interval between change events in milliseconds.
+     *
+     * @return The minimum interval between change events in milliseconds.
+     */
+    public long interval() {
+      return interval;
+    }
+
+    /**
+     * Returns whether change events should include values.
+     *
+     * @return Whether change events should include values.
+     */
+    public boolean values() {
+      return values;
+    }
+
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.QUORUM;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+      buffer.writeLong(interval).writeBoolean(values);
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+      interval = buffer.readLong();
+      values = buffer.readBoolean();
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%s[interval=%d, values=%b]", getClass().getSimpleName(), interval, values);
+    }
+  }
+
+  /**
+   * Unlisten command.
+   */
+  public static class Unlisten implements Command<Void>, CatalystSerializable {
+    @Override
+    public CompactionMode compaction() {
+      return CompactionMode.QUORUM;
+    }
+
+    @Override
+    public void writeObject(BufferOutput<?> buffer, Serializer serializer) {
+    }
+
+    @Override
+    public void readObject(BufferInput<?> buffer, Serializer serializer) {
+    }
+  }
+
   /**
    * Value command type resolver.
    */
@@ -270,6 +344,9 @@ public class ValueCommands {
       registry.register(ValueCommands.Get.class, -111);
       registry.register(ValueCommands.GetAndSet.class, -112);
       registry.register(ValueCommands.Set.class, -113);
+      registry.register(ValueCommands.Listen.class, -120);
+      registry.register(ValueCommands.Unlisten.class, -121);
+      registry.register(AbstractDistributedValue.ChangeEvent.class, -122);
     }
   }
 
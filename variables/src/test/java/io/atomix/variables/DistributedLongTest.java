@@ -18,6 +18,7 @@ package io.atomix.variables;
 import io.atomix.testing.AbstractCopycatTest;
 import org.testng.annotations.Test;
 
+import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -87,6 +88,109 @@ public class DistributedLongTest extends AbstractCopycatTest<DistributedLong> {
     testAtomic(3, atomic(sequence, l -> 11L));
   }
 
+  /**
+   * Tests that accumulated updates are written to the cluster on flush.
+   */
+  public void testAccumulatedFlush() throws Throwable {
+    createServers(3);
+    DistributedLong counter1 = createResource(new DistributedLong.Options().withAccumulation(Duration.ofMinutes(1)));
+    DistributedLong counter2 = createResource();
+
+    for (int i = 0; i < 10; i++) {
+      counter1.increment();
+    }
+    counter1.decrement();
+    counter1.add(5);
+    threadAssertEquals(counter2.get().get(), 0L);
+
+    counter1.flush().join();
+    threadAssertEquals(counter2.get().get(), 14L);
+  }
+
+  /**
+   * Tests that concurrent flushes write accumulated updates to the cluster only once.
+   */
+  public void testConcurrentFlush() throws Throwable {
+    createServers(3);
+    DistributedLong counter1 = createResource(new DistributedLong.Options().withAccumulation(Duration.ofMinutes(1)));
+    DistributedLong counter2 = createResource();
+
+    counter1.add(10);
+    CompletableFuture<Void> flush1 = counter1.flush();
+    counter1.add(5);
+    CompletableFuture<Void> flush2 = counter1.flush();
+    CompletableFuture<Void> flush3 = counter1.flush();
+    CompletableFuture.allOf(flush1, flush2, flush3).join();
+    threadAssertEquals(counter2.get().get(), 15L);
+  }
+
+  /**
+   * Tests that accumulated updates are flushed once the flush threshold is reached.
+   */
+  public void testAccumulatedFlushThreshold() throws Throwable {
+    createServers(3);
+    DistributedLong counter1 = createResource(new DistributedLong.Options()
+      .withAccumulation(Duration.ofMinutes(1))
+      .withFlushThreshold(5));
+    DistributedLong counter2 = createResource();
+
+    for (int i = 0; i < 5; i++) {
+      counter1.increment();
+    }
+
+    while (counter2.get().get() != 5L) {
+      Thread.sleep(10);
+    }
+  }
+
+  /**
+   * Tests that local updates are rejected once the maximum unflushed delta is reached.
+   */
+  public void testAccumulatedMaxUnflushed() throws Throwable {
+    createServers(3);
+    DistributedLong counter = createResource(new DistributedLong.Options()
+      .withAccumulation(Duration.ofMinutes(1))
+      .withMaxUnflushed(10));
+
+    counter.add(10);
+    try {
+      counter.add(1);
+      threadFail("expected IllegalStateException");
+    } catch (IllegalStateException e) {
+    }
+  }
+
+  /**
+   * Tests that accumulated updates are flushed when the counter is closed.
+   */
+  public void testAccumulatedFlushOnClose() throws Throwable {
+    createServers(3);
+    DistributedLong counter1 = createResource(new DistributedLong.Options().withAccumulation(Duration.ofMinutes(1)));
+    DistributedLong counter2 = createResource();
+
+    counter1.add(3);
+    counter1.close().join();
+    threadAssertEquals(counter2.get().get(), 3L);
+  }
+
+  /**
+   * Tests that counter changes are published to registered listeners.
+   */
+  public void testChangeEvent() throws Throwable {
+    createServers(3);
+    DistributedLong counter1 = createResource();
+    DistributedLong counter2 = createResource();
+
+    counter2.onChange(event -> {
+      threadAssertEquals(event.oldValue(), 0L);
+      threadAssertEquals(event.newValue(), 5L);
+      resume();
+    }).join();
+
+    counter1.addAndGet(5).join();
+    await(10000);
+  }
+
   /**
    * Returns an atomic set/get test callback.
    */
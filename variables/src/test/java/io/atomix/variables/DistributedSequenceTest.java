@@ -0,0 +1,87 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.variables;
+
+import io.atomix.testing.AbstractCopycatTest;
+import org.testng.annotations.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Distributed sequence test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class DistributedSequenceTest extends AbstractCopycatTest<DistributedSequence> {
+
+  @Override
+  protected Class<? super DistributedSequence> type() {
+    return DistributedSequence.class;
+  }
+
+  /**
+   * Tests that identifiers are handed out sequentially across multiple blocks.
+   */
+  public void testSequentialIds() throws Throwable {
+    createServers(3);
+
+    DistributedSequence sequence = createResource(new DistributedSequence.Options().withBlockSize(10));
+
+    for (long i = 0; i < 25; i++) {
+      threadAssertEquals(sequence.next().get(), i);
+    }
+  }
+
+  /**
+   * Tests that identifiers are unique across sequence instances.
+   */
+  public void testUniqueIds() throws Throwable {
+    createServers(3);
+
+    DistributedSequence sequence1 = createResource(new DistributedSequence.Options().withBlockSize(10));
+    DistributedSequence sequence2 = createResource(new DistributedSequence.Options().withBlockSize(10));
+
+    Set<Long> ids = new HashSet<>();
+    for (int i = 0; i < 50; i++) {
+      threadAssertTrue(ids.add(sequence1.next().get()));
+      threadAssertTrue(ids.add(sequence2.next().get()));
+    }
+  }
+
+  /**
+   * Tests that unused identifiers are reported when the sequence is closed.
+   */
+  public void testWastedOnClose() throws Throwable {
+    createServers(3);
+
+    DistributedSequence sequence = createResource(new DistributedSequence.Options()
+      .withBlockSize(10)
+      .withPrefetchThreshold(0));
+
+    for (int i = 0; i < 3; i++) {
+      sequence.next().join();
+    }
+
+    sequence.close().thenRun(() -> {
+      threadAssertEquals(sequence.wasted(), 7L);
+      resume();
+    });
+    await(10000);
+  }
+
+}
@@ -15,10 +15,16 @@
  */
 package io.atomix.variables;
 
+import io.atomix.copycat.server.CopycatServer;
+import io.atomix.copycat.server.storage.Storage;
+import io.atomix.copycat.server.storage.StorageLevel;
 import io.atomix.resource.ResourceType;
 import io.atomix.testing.AbstractCopycatTest;
 import org.testng.annotations.Test;
 
+import java.time.Duration;
+import java.util.List;
+
 /**
  * Distributed atomic value test.
  *
@@ -27,12 +33,26 @@ import org.testng.annotations.Test;
 @Test
 @SuppressWarnings("unchecked")
 public class DistributedValueTest extends AbstractCopycatTest<DistributedValue> {
+  private boolean compact;
 
   @Override
   protected Class<? super DistributedValue> type() {
     return DistributedValue.class;
   }
 
+  @Override
+  protected Storage createStorage() {
+    if (!compact) {
+      return super.createStorage();
+    }
+    return Storage.builder()
+      .withStorageLevel(StorageLevel.MEMORY)
+      .withMaxEntriesPerSegment(16)
+      .withMinorCompactionInterval(Duration.ofMillis(100))
+      .withMajorCompactionInterval(Duration.ofMillis(500))
+      .build();
+  }
+
   /**
    * Tests a set of atomic operations.
    */
@@ -48,4 +68,103 @@ public class DistributedValueTest extends AbstractCopycatTest<DistributedValue>
     await(10000);
   }
 
+  /**
+   * Tests that change events are published to registered listeners.
+   */
+  public void testChangeEvent() throws Throwable {
+    createServers(3);
+    DistributedValue<String> value1 = createResource();
+    DistributedValue<String> value2 = createResource();
+
+    value2.onChange(event -> {
+      threadAssertEquals(event.oldValue(), null);
+      threadAssertEquals(event.newValue(), "Hello world!");
+      threadAssertTrue(event.version() > 0);
+      resume();
+    }).join();
+
+    value1.set("Hello world!").thenRun(this::resume);
+    await(10000, 2);
+  }
+
+  /**
+   * Tests that rapid changes are coalesced into a single event.
+   */
+  public void testCoalescedChangeEvent() throws Throwable {
+    createServers(3);
+    DistributedValue<String> value1 = createResource();
+    DistributedValue<String> value2 = createResource(new DistributedValue.Options().withChangeInterval(Duration.ofSeconds(1)));
+
+    value1.set("a").join();
+    value2.onChange(event -> {
+      if ("a".equals(event.oldValue())) {
+        threadAssertEquals(event.newValue(), "b");
+      } else {
+        threadAssertEquals(event.oldValue(), "b");
+        threadAssertEquals(event.newValue(), "d");
+        resume();
+      }
+    }).join();
+
+    value1.set("b").join();
+    value1.set("c").join();
+    value1.set("d").join();
+    await(10000);
+  }
+
+  /**
+   * Tests that change events carry only the version when values are excluded.
+   */
+  public void testVersionOnlyChangeEvent() throws Throwable {
+    createServers(3);
+    DistributedValue<String> value1 = createResource();
+    DistributedValue<String> value2 = createResource(new DistributedValue.Options().withChangeValues(false));
+
+    value2.onChange(event -> {
+      threadAssertNull(event.oldValue());
+      threadAssertNull(event.newValue());
+      threadAssertTrue(event.version() > 0);
+      resume();
+    }).join();
+
+    value1.set("Hello world!").join();
+    await(10000);
+  }
+
+  /**
+   * Tests that change listeners are restored on a server that installs a snapshot of the value.
+   */
+  public void testChangeEventAfterSnapshot() throws Throwable {
+    compact = true;
+    try {
+      List<CopycatServer> servers = createServers(3, 4);
+      DistributedValue<String> value1 = createResource();
+      DistributedValue<String> value2 = createResource();
+
+      value2.onChange(event -> {
+        if ("Hello world!".equals(event.newValue())) {
+          resume();
+        }
+      }).join();
+
+      // Write enough values to roll over segments so the value is snapshotted and the log compacted.
+      for (int i = 0; i < 100; i++) {
+        value1.set(String.valueOf(i)).join();
+      }
+      Thread.sleep(1000);
+
+      // The late server must install the snapshot and replay the retained listen commit.
+      createServer(members.get(3)).bootstrap(members).thenRun(this::resume);
+      await(10000);
+
+      servers.get(0).leave().join();
+      servers.get(1).leave().join();
+
+      value1.set("Hello world!").join();
+      await(10000);
+    } finally {
+      compact = false;
+    }
+  }
+
 }